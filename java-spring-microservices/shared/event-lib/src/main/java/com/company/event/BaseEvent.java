@@ -6,10 +6,10 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.time.Instant;
-import java.util.UUID;
 
 /**
  * Base class for all domain events.
+ * Event ids are time-ordered UUIDs from {@link EventIds}.
  */
 @Data
 @SuperBuilder
@@ -21,11 +21,11 @@ public abstract class BaseEvent implements DomainEvent {
     private Instant timestamp;
 
     protected BaseEvent(String eventType) {
-        this.eventId = UUID.randomUUID().toString();
+        this.eventId = EventIds.next();
         this.timestamp = Instant.now();
     }
 
     public static String generateEventId() {
-        return UUID.randomUUID().toString();
+        return EventIds.next();
     }
 }
@@ -0,0 +1,201 @@
+package com.company.event;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered event id generation (UUID version 7, RFC 9562).
+ *
+ * Layout: 48-bit Unix millis | version | 12-bit counter | variant | 62 random bits.
+ * Ids sort by creation time, stay valid UUIDs for existing consumers, and
+ * are monotonic per thread. Each thread keeps its own clock/counter state and
+ * uses {@link ThreadLocalRandom}, so generation never contends or touches SecureRandom.
+ */
+public final class EventIds {
+
+    /** Size of the binary form produced by {@link #toBytes(String)}. */
+    public static final int BINARY_LENGTH = 16;
+
+    private static final int MAX_COUNTER = 0xFFF;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private EventIds() {
+    }
+
+    /**
+     * Next id in canonical 36-character UUID form.
+     */
+    public static String next() {
+        return format(nextMostSignificantBits(), nextLeastSignificantBits());
+    }
+
+    public static UUID nextUuid() {
+        return new UUID(nextMostSignificantBits(), nextLeastSignificantBits());
+    }
+
+    /**
+     * Creation time embedded in a version 7 id, with millisecond precision.
+     *
+     * @throws IllegalArgumentException if the id is not a version 7 UUID
+     */
+    public static Instant timestampOf(String eventId) {
+        requireUuid(eventId);
+        long msb = parseHalf(eventId, 0);
+        if (((msb >>> 12) & 0xF) != 7) {
+            throw new IllegalArgumentException("Not a time-ordered (v7) event id: " + eventId);
+        }
+        return Instant.ofEpochMilli(msb >>> 16);
+    }
+
+    public static boolean isTimeOrdered(String eventId) {
+        return isUuid(eventId) && eventId.charAt(14) == '7';
+    }
+
+    /**
+     * True for the canonical UUID form: 36 characters, lowercase hex.
+     * Other spellings (e.g. uppercase) are not UUIDs here, so codecs keep
+     * them as strings and they round-trip unchanged.
+     */
+    public static boolean isUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : hexValue(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 16-byte big-endian form of a canonical UUID id, for binary codecs.
+     *
+     * @throws IllegalArgumentException if {@link #isUuid(String)} is false
+     */
+    public static byte[] toBytes(String eventId) {
+        byte[] bytes = new byte[BINARY_LENGTH];
+        writeBytes(eventId, bytes, 0);
+        return bytes;
+    }
+
+    public static void writeBytes(String eventId, byte[] target, int offset) {
+        requireUuid(eventId);
+        putLong(target, offset, parseHalf(eventId, 0));
+        putLong(target, offset + 8, parseHalf(eventId, 19));
+    }
+
+    public static String fromBytes(byte[] bytes) {
+        return fromBytes(bytes, 0);
+    }
+
+    public static String fromBytes(byte[] bytes, int offset) {
+        return format(getLong(bytes, offset), getLong(bytes, offset + 8));
+    }
+
+    private static long nextMostSignificantBits() {
+        State state = STATE.get();
+        state.advance(System.currentTimeMillis());
+        return (state.millis << 16) | 0x7000L | state.counter;
+    }
+
+    private static long nextLeastSignificantBits() {
+        return (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    }
+
+    private static String format(long msb, long lsb) {
+        char[] out = new char[36];
+        writeHex(out, 0, msb >>> 32, 8);
+        out[8] = '-';
+        writeHex(out, 9, msb >>> 16, 4);
+        out[13] = '-';
+        writeHex(out, 14, msb, 4);
+        out[18] = '-';
+        writeHex(out, 19, lsb >>> 48, 4);
+        out[23] = '-';
+        writeHex(out, 24, lsb, 12);
+        return new String(out);
+    }
+
+    private static void writeHex(char[] out, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static void requireUuid(String id) {
+        if (!isUuid(id)) {
+            throw new IllegalArgumentException("Not a UUID-formatted event id: " + id);
+        }
+    }
+
+    /**
+     * Parses 16 hex digits (skipping dashes) starting at the given index of a
+     * validated id. Index 0 yields the most significant half, index 19 the least.
+     */
+    private static long parseHalf(String id, int start) {
+        long value = 0;
+        int digits = 0;
+        for (int i = start; digits < 16; i++) {
+            char c = id.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            value = (value << 4) | hexValue(c);
+            digits++;
+        }
+        return value;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        // Uppercase is not accepted: fromBytes always formats lowercase
+        return -1;
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Per-thread clock and counter. The counter is seeded randomly in its
+     * lower half each new millisecond; if it overflows within one millisecond
+     * the thread borrows the next millisecond to stay monotonic.
+     */
+    private static final class State {
+        private long millis;
+        private int counter;
+
+        void advance(long now) {
+            if (now > millis) {
+                millis = now;
+                counter = ThreadLocalRandom.current().nextInt(MAX_COUNTER >>> 1);
+            } else if (++counter > MAX_COUNTER) {
+                millis++;
+                counter = 0;
+            }
+        }
+    }
+}
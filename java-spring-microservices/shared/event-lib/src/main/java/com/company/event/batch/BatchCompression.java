@@ -0,0 +1,126 @@
+package com.company.event.batch;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.xerial.snappy.SnappyInputStream;
+import org.xerial.snappy.SnappyOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression of the {@link EventBatch} block, through the codec libraries
+ * directly. Ids and names are those of Kafka's compression types, so
+ * {@code event.batch.compression} takes the same values as
+ * {@code compression.type}.
+ */
+public enum BatchCompression {
+
+    NONE(0, "none") {
+        @Override
+        OutputStream wrap(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        InputStream wrap(InputStream in) {
+            return in;
+        }
+    },
+    GZIP(1, "gzip") {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new BufferedOutputStream(new GZIPOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+        }
+
+        @Override
+        InputStream wrap(InputStream in) throws IOException {
+            return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+        }
+    },
+    SNAPPY(2, "snappy") {
+        @Override
+        OutputStream wrap(OutputStream out) {
+            return new SnappyOutputStream(out);
+        }
+
+        @Override
+        InputStream wrap(InputStream in) throws IOException {
+            return new SnappyInputStream(in);
+        }
+    },
+    LZ4(3, "lz4") {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            // The default 4 MB block would be allocated for every batch
+            return new LZ4FrameOutputStream(out, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB);
+        }
+
+        @Override
+        InputStream wrap(InputStream in) throws IOException {
+            return new LZ4FrameInputStream(in);
+        }
+    },
+    ZSTD(4, "zstd") {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new BufferedOutputStream(new ZstdOutputStream(out), BUFFER_SIZE);
+        }
+
+        @Override
+        InputStream wrap(InputStream in) throws IOException {
+            // Each read is a JNI call, so read in large chunks
+            return new BufferedInputStream(new ZstdInputStream(in), BUFFER_SIZE);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /** Written as the compression byte of the batch preamble. */
+    public final byte id;
+    /** Value of {@code event.batch.compression}. */
+    public final String configName;
+
+    BatchCompression(int id, String configName) {
+        this.id = (byte) id;
+        this.configName = configName;
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown id
+     */
+    public static BatchCompression forId(int id) {
+        for (BatchCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown batch compression id " + id);
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown name
+     */
+    public static BatchCompression forName(String name) {
+        for (BatchCompression compression : values()) {
+            if (compression.configName.equals(name.toLowerCase(Locale.ROOT))) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown batch compression " + name);
+    }
+
+    /** Compressing stream over {@code out}; closing it finishes the block. */
+    abstract OutputStream wrap(OutputStream out) throws IOException;
+
+    /** Decompressing stream over {@code in}. */
+    abstract InputStream wrap(InputStream in) throws IOException;
+}
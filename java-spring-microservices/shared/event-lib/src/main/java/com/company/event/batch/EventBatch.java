@@ -0,0 +1,71 @@
+package com.company.event.batch;
+
+import com.company.event.DomainEvent;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Envelope packing many events of one aggregate type into a single Kafka
+ * record. Written by {@link EventBatchSerializer} as one compressed block,
+ * which removes the per-record overhead for high-volume topics.
+ *
+ * Consumers iterate the batch to handle events one by one, in publish order.
+ */
+public final class EventBatch implements Iterable<DomainEvent> {
+
+    /** Value of the eventType header on batch records. */
+    public static final String EVENT_TYPE = "EVENT_BATCH";
+
+    private final String aggregateType;
+    private final List<DomainEvent> events;
+
+    private EventBatch(String aggregateType, List<DomainEvent> events) {
+        this.aggregateType = aggregateType;
+        this.events = events;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the list is empty or mixes aggregate types
+     */
+    public static EventBatch of(List<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("An event batch needs at least one event");
+        }
+        String aggregateType = events.get(0).getAggregateType();
+        for (DomainEvent event : events) {
+            if (!aggregateType.equals(event.getAggregateType())) {
+                throw new IllegalArgumentException("Event batch for " + aggregateType
+                    + " cannot contain " + event.getAggregateType() + " events");
+            }
+        }
+        return new EventBatch(aggregateType, List.copyOf(events));
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public List<DomainEvent> getEvents() {
+        return events;
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    public Stream<DomainEvent> stream() {
+        return events.stream();
+    }
+
+    @Override
+    public Iterator<DomainEvent> iterator() {
+        return events.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "EventBatch[" + aggregateType + " x" + events.size() + "]";
+    }
+}
@@ -0,0 +1,110 @@
+package com.company.event.batch;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.BinaryDecoder;
+import com.company.event.codec.BinaryEventSerializer;
+import com.company.event.codec.CodecException;
+import com.company.event.codec.EventCodec;
+import com.company.event.codec.EventCodecs;
+import com.company.event.codec.EventSchema;
+import com.company.event.codec.LocalSchemaRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for records written by {@link EventBatchSerializer}.
+ * Decompresses the block once and decodes every event, so handlers can
+ * iterate the resulting {@link EventBatch} one event at a time.
+ *
+ * The event count and entry lengths come from the record, so they size
+ * nothing before the bytes behind them have been read: a corrupt value fails
+ * with a {@link SerializationException} rather than a huge allocation.
+ */
+public class EventBatchDeserializer implements Deserializer<EventBatch> {
+
+    private EventCodecs codecs = EventCodecs.defaults();
+    private LocalSchemaRegistry registry = LocalSchemaRegistry.classpath();
+
+    public EventBatchDeserializer() {
+    }
+
+    public EventBatchDeserializer(EventCodecs codecs, LocalSchemaRegistry registry) {
+        this.codecs = codecs;
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object path = configs.get(BinaryEventSerializer.SCHEMA_REGISTRY_PATH_CONFIG);
+        if (path != null) {
+            registry = LocalSchemaRegistry.file(Path.of(path.toString()));
+        }
+    }
+
+    @Override
+    public EventBatch deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data.length < EventBatchSerializer.PREAMBLE_LENGTH || buffer.get() != EventBatchSerializer.FORMAT_VERSION) {
+            throw new SerializationException("Not an event batch on topic " + topic);
+        }
+        BatchCompression compression;
+        try {
+            compression = BatchCompression.forId(buffer.get());
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException(e.getMessage() + " on topic " + topic);
+        }
+        int count = buffer.getInt();
+        int remaining = buffer.remaining();
+        // Uncompressed, every entry takes at least its header
+        if (count < 1 || compression == BatchCompression.NONE
+                && count > remaining / EventBatchSerializer.ENTRY_HEADER_LENGTH) {
+            throw new SerializationException("Corrupt event batch on topic " + topic + ": " + count
+                + " events in " + remaining + " bytes");
+        }
+        List<DomainEvent> events = new ArrayList<>(Math.min(count, remaining));
+        byte[] entry = new byte[256];
+        try (DataInputStream in = new DataInputStream(
+                compression.wrap(new ByteArrayInputStream(data, buffer.position(), remaining)))) {
+            for (int i = 0; i < count; i++) {
+                int schemaId = in.readInt();
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new SerializationException("Corrupt event batch on topic " + topic
+                        + ": entry " + i + " has length " + length);
+                }
+                if (length > entry.length) {
+                    // Grows with the bytes actually read, so a corrupt length hits the end of the block first
+                    entry = in.readNBytes(length);
+                    if (entry.length < length) {
+                        throw new SerializationException("Corrupt event batch on topic " + topic
+                            + ": entry " + i + " has length " + length + " but only " + entry.length + " bytes");
+                    }
+                } else {
+                    in.readFully(entry, 0, length);
+                }
+                events.add(codecFor(schemaId, topic).decode(new BinaryDecoder(entry, 0, length)));
+            }
+        } catch (IOException | CodecException e) {
+            throw new SerializationException("Failed to read event batch on topic " + topic, e);
+        }
+        return EventBatch.of(events);
+    }
+
+    private EventCodec<?> codecFor(int schemaId, String topic) {
+        EventSchema schema = registry.findById(schemaId)
+            .orElseThrow(() -> new SerializationException("Unknown schema id " + schemaId + " on topic " + topic));
+        return codecs.forEventType(schema.getEventType());
+    }
+}
@@ -0,0 +1,120 @@
+package com.company.event.batch;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.BinaryEncoder;
+import com.company.event.codec.BinaryEventSerializer;
+import com.company.event.codec.EventCodec;
+import com.company.event.codec.EventCodecs;
+import com.company.event.codec.LocalSchemaRegistry;
+import com.company.event.kafka.EventHeaders;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka serializer for {@link EventBatch}.
+ *
+ * Value layout: format version (1 byte), compression id (1 byte,
+ * {@link BatchCompression#id}), event count (int), then one compressed block
+ * of entries {@code schemaId (int) | length (int) | binary event}. Events are
+ * written with their {@link EventCodec}, as in {@link BinaryEventSerializer}.
+ *
+ * Usage in application.yml:
+ *   spring.kafka.producer:
+ *     value-serializer: com.company.event.batch.EventBatchSerializer
+ *     properties:
+ *       event.batch.compression: lz4
+ */
+public class EventBatchSerializer implements Serializer<EventBatch> {
+
+    public static final String COMPRESSION_CONFIG = "event.batch.compression";
+    public static final BatchCompression DEFAULT_COMPRESSION = BatchCompression.LZ4;
+
+    static final byte FORMAT_VERSION = 1;
+    static final int PREAMBLE_LENGTH = 6;
+    /** Schema id and length before each event. */
+    static final int ENTRY_HEADER_LENGTH = 8;
+
+    private static final ThreadLocal<BinaryEncoder> ENCODER = ThreadLocal.withInitial(BinaryEncoder::new);
+
+    private EventCodecs codecs = EventCodecs.defaults();
+    private LocalSchemaRegistry registry = LocalSchemaRegistry.classpath();
+    private BatchCompression compression = DEFAULT_COMPRESSION;
+    private final Map<String, Integer> schemaIds = new HashMap<>();
+
+    public EventBatchSerializer() {
+        registerSchemas();
+    }
+
+    public EventBatchSerializer(EventCodecs codecs, LocalSchemaRegistry registry, BatchCompression compression) {
+        this.codecs = codecs;
+        this.registry = registry;
+        this.compression = compression;
+        registerSchemas();
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object name = configs.get(COMPRESSION_CONFIG);
+        if (name != null) {
+            compression = BatchCompression.forName(name.toString());
+        }
+        Object path = configs.get(BinaryEventSerializer.SCHEMA_REGISTRY_PATH_CONFIG);
+        if (path != null) {
+            registry = LocalSchemaRegistry.file(Path.of(path.toString()));
+            registerSchemas();
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, EventBatch batch) {
+        if (batch == null) {
+            return null;
+        }
+        BinaryEncoder encoder = ENCODER.get();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(PREAMBLE_LENGTH + batch.size() * 64);
+        try {
+            DataOutputStream preamble = new DataOutputStream(buffer);
+            preamble.writeByte(FORMAT_VERSION);
+            preamble.writeByte(compression.id);
+            preamble.writeInt(batch.size());
+        } catch (IOException e) {
+            throw new SerializationException("Failed to write " + batch + " for topic " + topic, e);
+        }
+        try (DataOutputStream out = new DataOutputStream(compression.wrap(buffer))) {
+            for (DomainEvent event : batch) {
+                EventCodec<DomainEvent> codec = codecs.forEvent(event);
+                encoder.reset();
+                codec.encode(event, encoder);
+                out.writeInt(schemaIds.get(codec.eventType()));
+                out.writeInt(encoder.size());
+                encoder.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Failed to compress " + batch + " for topic " + topic, e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, EventBatch batch) {
+        if (batch != null) {
+            EventHeaders.stamp(headers, batch);
+        }
+        return serialize(topic, batch);
+    }
+
+    private void registerSchemas() {
+        schemaIds.clear();
+        for (EventCodec<?> codec : codecs.all()) {
+            schemaIds.put(codec.eventType(), registry.register(codec.schema()).getId());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.company.event.bus;
+
+/**
+ * Thrown to a waiting subscriber when the bus is shutting down.
+ * Preallocated and stackless; it is control flow, not an error.
+ */
+public final class AlertException extends Exception {
+
+    static final AlertException INSTANCE = new AlertException();
+
+    private AlertException() {
+        super("Event bus alerted", null, false, false);
+    }
+}
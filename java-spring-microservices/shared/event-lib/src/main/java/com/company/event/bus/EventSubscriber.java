@@ -0,0 +1,17 @@
+package com.company.event.bus;
+
+import com.company.event.DomainEvent;
+
+/**
+ * Local subscriber on a {@link LocalEventBus}. Each subscriber runs on its
+ * own thread and sees every event in publish order.
+ */
+@FunctionalInterface
+public interface EventSubscriber {
+
+    /**
+     * @param endOfBatch true for the last event currently available; subscribers
+     *                   that buffer work (e.g. batched writes) should flush here
+     */
+    void onEvent(DomainEvent event, boolean endOfBatch) throws Exception;
+}
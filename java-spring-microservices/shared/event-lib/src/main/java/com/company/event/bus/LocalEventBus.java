@@ -0,0 +1,219 @@
+package com.company.event.bus;
+
+import com.company.event.DomainEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process fan-out of {@link DomainEvent}s to local subscribers (cache
+ * invalidation, metrics, audit) over a pre-allocated ring buffer.
+ *
+ * Any thread may publish. Each subscriber has its own thread and consumes
+ * events in publish order, in batches of whatever is available. A subscriber
+ * can be declared to run after others, e.g. audit only after the cache has
+ * been invalidated. Publishing waits when the slowest subscriber is a full
+ * ring behind; {@link #tryPublish} fails fast instead.
+ *
+ * <pre>
+ * {@code
+ * LocalEventBus bus = LocalEventBus.builder()
+ *     .bufferSize(4096)
+ *     .waitStrategy(WaitStrategies.yielding())
+ *     .subscriber("cache", cacheInvalidator)
+ *     .subscriber("audit", auditWriter, "cache")
+ *     .build();
+ * bus.start();
+ * bus.publish(event);
+ * }
+ * </pre>
+ */
+@Slf4j
+public class LocalEventBus implements AutoCloseable {
+
+    private final String name;
+    private final RingBuffer ringBuffer;
+    private final List<SubscriberProcessor> processors;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean started;
+
+    private LocalEventBus(Builder builder) {
+        this.name = builder.name;
+        this.ringBuffer = new RingBuffer(builder.bufferSize, builder.waitStrategy);
+
+        Map<String, SubscriberProcessor> byName = new LinkedHashMap<>();
+        for (Registration registration : builder.registrations) {
+            Sequence[] dependents = new Sequence[registration.after.length];
+            for (int i = 0; i < dependents.length; i++) {
+                SubscriberProcessor upstream = byName.get(registration.after[i]);
+                if (upstream == null) {
+                    throw new IllegalArgumentException("Subscriber " + registration.name
+                        + " depends on unknown subscriber " + registration.after[i]);
+                }
+                dependents[i] = upstream.getSequence();
+            }
+            SequenceBarrier barrier = new SequenceBarrier(ringBuffer, dependents);
+            byName.put(registration.name,
+                new SubscriberProcessor(registration.name, registration.subscriber, ringBuffer, barrier));
+        }
+        this.processors = List.copyOf(byName.values());
+        ringBuffer.setGatingSequences(processors.stream()
+            .map(SubscriberProcessor::getSequence)
+            .toArray(Sequence[]::new));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        for (SubscriberProcessor processor : processors) {
+            Thread thread = new Thread(processor, name + "-" + processor.getName());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        started = true;
+    }
+
+    /**
+     * Publish an event, waiting for a free slot if the ring is full.
+     */
+    public void publish(DomainEvent event) {
+        long sequence = ringBuffer.next();
+        ringBuffer.publish(sequence, event);
+    }
+
+    /**
+     * @return false if the ring is full and the event was not published
+     */
+    public boolean tryPublish(DomainEvent event) {
+        long sequence = ringBuffer.tryNext();
+        if (sequence < 0) {
+            return false;
+        }
+        ringBuffer.publish(sequence, event);
+        return true;
+    }
+
+    /**
+     * Sequence of the last claimed slot; -1 before the first publish.
+     */
+    public long getCursor() {
+        return ringBuffer.getCursor().get();
+    }
+
+    public long getRemainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * Wait until every subscriber has processed all events published so far.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitProcessed(Duration timeout) {
+        long target = getCursor();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (SubscriberProcessor processor : processors) {
+            while (processor.getSequence().get() < target) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of events subscribers threw on; they are logged and skipped.
+     */
+    public long getFailures() {
+        return processors.stream().mapToLong(SubscriberProcessor::getFailures).sum();
+    }
+
+    /**
+     * Drains outstanding events (up to 5 seconds), then stops the subscriber threads.
+     */
+    @Override
+    public synchronized void close() {
+        if (!started) {
+            return;
+        }
+        if (!awaitProcessed(Duration.ofSeconds(5))) {
+            log.warn("Event bus {} closed with unprocessed events", name);
+        }
+        processors.forEach(SubscriberProcessor::halt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        started = false;
+    }
+
+    public static final class Builder {
+
+        private String name = "event-bus";
+        private int bufferSize = 1024;
+        private WaitStrategy waitStrategy = WaitStrategies.blocking();
+        private final List<Registration> registrations = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Prefix for subscriber thread names.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Ring size; must be a power of 2.
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        /**
+         * Add a subscriber that only sees an event once all {@code after}
+         * subscribers (registered earlier) have processed it.
+         */
+        public Builder subscriber(String name, EventSubscriber subscriber, String... after) {
+            registrations.add(new Registration(name, subscriber, after));
+            return this;
+        }
+
+        public LocalEventBus build() {
+            if (registrations.isEmpty()) {
+                throw new IllegalStateException("An event bus needs at least one subscriber");
+            }
+            return new LocalEventBus(this);
+        }
+    }
+
+    private record Registration(String name, EventSubscriber subscriber, String[] after) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.company.event.bus;
+
+import com.company.event.DomainEvent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated, multi-producer ring of event slots.
+ *
+ * Producers claim a slot by CAS on the cursor, fill it and mark it available;
+ * a per-slot "round" flag lets subscribers detect the highest contiguous
+ * published sequence without a lock. Producers wait (never overwrite) while
+ * the slowest subscriber is a full ring behind.
+ */
+final class RingBuffer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final DomainEvent[] entries;
+    private final int[] available;
+    private final int mask;
+    private final int indexShift;
+    private final int bufferSize;
+    private final WaitStrategy waitStrategy;
+
+    private final Sequence cursor = new Sequence();
+    private final Sequence gatingCache = new Sequence();
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    RingBuffer(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2, was " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.entries = new DomainEvent[bufferSize];
+        this.available = new int[bufferSize];
+        Arrays.fill(available, -1);
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.waitStrategy = waitStrategy;
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    Sequence getCursor() {
+        return cursor;
+    }
+
+    WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Subscriber positions that producers must not lap.
+     */
+    void setGatingSequences(Sequence[] sequences) {
+        gatingSequences = sequences.clone();
+    }
+
+    /**
+     * Claim the next slot, waiting while the ring is full.
+     */
+    long next() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (hasCapacity(next, current)) {
+                if (cursor.compareAndSet(current, next)) {
+                    return next;
+                }
+            } else {
+                LockSupport.parkNanos(1);
+            }
+        }
+    }
+
+    /**
+     * @return the claimed sequence, or -1 if the ring is full
+     */
+    long tryNext() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (!hasCapacity(next, current)) {
+                return -1;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    void publish(long sequence, DomainEvent event) {
+        entries[index(sequence)] = event;
+        AVAILABLE.setRelease(available, index(sequence), round(sequence));
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    DomainEvent get(long sequence) {
+        return entries[index(sequence)];
+    }
+
+    /**
+     * Highest sequence in {@code [lowerBound, availableSequence]} such that
+     * every slot up to it has been published.
+     */
+    long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if ((int) AVAILABLE.getAcquire(available, index(sequence)) != round(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    long remainingCapacity() {
+        long consumed = Sequence.minimum(gatingSequences, cursor.get());
+        return bufferSize - (cursor.get() - consumed);
+    }
+
+    private boolean hasCapacity(long next, long current) {
+        long wrapPoint = next - bufferSize;
+        long cachedGating = gatingCache.get();
+        if (wrapPoint > cachedGating || cachedGating > current) {
+            long gating = Sequence.minimum(gatingSequences, current);
+            gatingCache.set(gating);
+            return wrapPoint <= gating;
+        }
+        return true;
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private int round(long sequence) {
+        return (int) (sequence >>> indexShift);
+    }
+}
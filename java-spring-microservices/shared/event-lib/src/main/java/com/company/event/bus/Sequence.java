@@ -0,0 +1,75 @@
+package com.company.event.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Position of a producer cursor or subscriber in the ring buffer.
+ *
+ * The value is padded on both sides so that sequences owned by different
+ * threads never share a cache line.
+ */
+public class Sequence extends SequenceRhsPadding {
+
+    static final long INITIAL_VALUE = -1L;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence() {
+        this(INITIAL_VALUE);
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Ordered write: everything written before is visible to a thread that reads this value.
+     */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    public boolean compareAndSet(long expected, long value) {
+        return VALUE.compareAndSet(this, expected, value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+
+    static long minimum(Sequence[] sequences, long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
+
+@SuppressWarnings("unused")
+class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+@SuppressWarnings("unused")
+class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
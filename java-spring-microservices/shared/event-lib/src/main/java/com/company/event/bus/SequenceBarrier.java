@@ -0,0 +1,47 @@
+package com.company.event.bus;
+
+/**
+ * Tells a subscriber how far it may read: up to the highest published
+ * sequence, and never past the subscribers it depends on.
+ */
+public final class SequenceBarrier {
+
+    private final RingBuffer ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor;
+    private final Sequence[] dependents;
+    private volatile boolean alerted;
+
+    SequenceBarrier(RingBuffer ringBuffer, Sequence[] dependents) {
+        this.ringBuffer = ringBuffer;
+        this.waitStrategy = ringBuffer.getWaitStrategy();
+        this.cursor = ringBuffer.getCursor();
+        this.dependents = dependents;
+    }
+
+    /**
+     * @return the highest sequence that may be read, at least {@code sequence}
+     */
+    long waitFor(long sequence) throws AlertException, InterruptedException {
+        checkAlert();
+        long available = waitStrategy.waitFor(sequence, cursor, dependents, this);
+        if (available < sequence) {
+            return available;
+        }
+        return ringBuffer.getHighestPublishedSequence(sequence, available);
+    }
+
+    void alert() {
+        alerted = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * @throws AlertException if the bus is shutting down
+     */
+    public void checkAlert() throws AlertException {
+        if (alerted) {
+            throw AlertException.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.company.event.bus;
+
+import com.company.event.DomainEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives one {@link EventSubscriber}: waits on its barrier, then hands over
+ * every available event in one batch before publishing its new position.
+ */
+@Slf4j
+final class SubscriberProcessor implements Runnable {
+
+    private final String name;
+    private final EventSubscriber subscriber;
+    private final RingBuffer ringBuffer;
+    private final SequenceBarrier barrier;
+    private final Sequence sequence = new Sequence();
+    private volatile boolean running = true;
+    private volatile long failures;
+
+    SubscriberProcessor(String name, EventSubscriber subscriber, RingBuffer ringBuffer, SequenceBarrier barrier) {
+        this.name = name;
+        this.subscriber = subscriber;
+        this.ringBuffer = ringBuffer;
+        this.barrier = barrier;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Sequence getSequence() {
+        return sequence;
+    }
+
+    long getFailures() {
+        return failures;
+    }
+
+    void halt() {
+        running = false;
+        barrier.alert();
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (true) {
+            try {
+                long available = barrier.waitFor(next);
+                if (available < next) {
+                    continue;
+                }
+                while (next <= available) {
+                    dispatch(ringBuffer.get(next), next == available);
+                    next++;
+                }
+                sequence.set(available);
+            } catch (AlertException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void dispatch(DomainEvent event, boolean endOfBatch) {
+        try {
+            subscriber.onEvent(event, endOfBatch);
+        } catch (Exception e) {
+            // A failing subscriber must not stall the others; the event is skipped for it
+            failures++;
+            log.error("Subscriber {} failed on event {}", name, event.getEventId(), e);
+        }
+    }
+}
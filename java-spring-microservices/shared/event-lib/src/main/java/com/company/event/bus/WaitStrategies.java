@@ -0,0 +1,176 @@
+package com.company.event.bus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Built-in {@link WaitStrategy} implementations.
+ *
+ * <ul>
+ *   <li>{@link #busySpin()}: lowest latency, burns a core per subscriber; only with dedicated cores</li>
+ *   <li>{@link #yielding()}: spins briefly, then yields; low latency when cores are mostly free</li>
+ *   <li>{@link #sleeping()}: spins, yields, then parks ~100us; cheap for bursty, latency-tolerant work</li>
+ *   <li>{@link #blocking()}: parks on a condition; no idle CPU, highest wake-up latency (default)</li>
+ * </ul>
+ */
+public final class WaitStrategies {
+
+    private static final int SPIN_TRIES = 100;
+
+    private WaitStrategies() {
+    }
+
+    public static WaitStrategy busySpin() {
+        return new BusySpin();
+    }
+
+    public static WaitStrategy yielding() {
+        return new Yielding();
+    }
+
+    public static WaitStrategy sleeping() {
+        return new Sleeping(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+
+    public static WaitStrategy blocking() {
+        return new Blocking();
+    }
+
+    static long upstream(Sequence cursor, Sequence[] dependents) {
+        return dependents.length == 0 ? cursor.get() : Sequence.minimum(dependents, Long.MAX_VALUE);
+    }
+
+    private static final class BusySpin implements WaitStrategy {
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier barrier)
+                throws AlertException {
+            long available;
+            while ((available = upstream(cursor, dependents)) < sequence) {
+                barrier.checkAlert();
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    private static final class Yielding implements WaitStrategy {
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier barrier)
+                throws AlertException {
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = upstream(cursor, dependents)) < sequence) {
+                barrier.checkAlert();
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    private static final class Sleeping implements WaitStrategy {
+
+        private final long sleepNanos;
+
+        Sleeping(long sleepNanos) {
+            this.sleepNanos = sleepNanos;
+        }
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier barrier)
+                throws AlertException {
+            int counter = 2 * SPIN_TRIES;
+            long available;
+            while ((available = upstream(cursor, dependents)) < sequence) {
+                barrier.checkAlert();
+                if (counter > SPIN_TRIES) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(sleepNanos);
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    /**
+     * Parks on a condition until a producer signals. Producers only take the
+     * lock when a subscriber has announced that it is about to park.
+     */
+    private static final class Blocking implements WaitStrategy {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier barrier)
+                throws AlertException, InterruptedException {
+            if (cursor.get() < sequence) {
+                lock.lock();
+                try {
+                    do {
+                        signalNeeded.set(true);
+                        if (cursor.get() >= sequence) {
+                            break;
+                        }
+                        barrier.checkAlert();
+                        published.await();
+                    } while (cursor.get() < sequence);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // Upstream subscribers are usually close behind the cursor; spin, then yield
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = upstream(cursor, dependents)) < sequence) {
+                barrier.checkAlert();
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            if (signalNeeded.getAndSet(false)) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.event.bus;
+
+/**
+ * How a subscriber waits for the next sequence to become available.
+ * Implementations trade latency against CPU; see {@link WaitStrategies}.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Wait until the upstream position reaches {@code sequence}.
+     *
+     * @param cursor     the producers' claim cursor
+     * @param dependents upstream subscribers, or empty to follow the cursor
+     * @return the upstream position, which may be beyond {@code sequence}
+     */
+    long waitFor(long sequence, Sequence cursor, Sequence[] dependents, SequenceBarrier barrier)
+        throws AlertException, InterruptedException;
+
+    /**
+     * Called by producers after publishing, for strategies that park waiters.
+     */
+    void signalAllWhenBlocking();
+}
@@ -0,0 +1,258 @@
+package com.company.event.codec;
+
+import com.company.event.EventIds;
+import com.company.event.money.Money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reads fields written by {@link BinaryEncoder}.
+ *
+ * Typical codec loop:
+ * <pre>
+ * {@code
+ * while (in.nextField()) {
+ *     switch (in.tag()) {
+ *         case 10 -> event.setUserId(in.readLong());
+ *         default -> in.skip();
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+public final class BinaryDecoder {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int tag;
+    private int wireType;
+
+    public BinaryDecoder(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public BinaryDecoder(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Advance to the next field.
+     *
+     * @return false when the message is exhausted
+     */
+    public boolean nextField() {
+        if (position >= limit) {
+            return false;
+        }
+        long key = readVarint();
+        tag = (int) (key >>> 3);
+        wireType = (int) (key & 0x7);
+        return true;
+    }
+
+    public int tag() {
+        return tag;
+    }
+
+    public long readLong() {
+        expect(BinaryEncoder.WIRE_VARINT);
+        return unZigZag(readVarint());
+    }
+
+    public int readInt() {
+        return Math.toIntExact(readLong());
+    }
+
+    public boolean readBoolean() {
+        expect(BinaryEncoder.WIRE_VARINT);
+        return readVarint() != 0;
+    }
+
+    public String readString() {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public byte[] readBytes() {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        byte[] value = new byte[length];
+        System.arraycopy(buffer, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    public String readEventId() {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        if (length != EventIds.BINARY_LENGTH) {
+            throw new CodecException("Field " + tag + " has " + length + " bytes, expected a "
+                + EventIds.BINARY_LENGTH + "-byte event id");
+        }
+        String value = EventIds.fromBytes(buffer, position);
+        position += length;
+        return value;
+    }
+
+    public BigDecimal readDecimal() {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        int end = position + length;
+        int scale = (int) unZigZag(readVarint());
+        int unscaledLength = end - position;
+        BigDecimal value = unscaledLength <= 8
+            ? BigDecimal.valueOf(readSignedBigEndian(unscaledLength), scale)
+            : new BigDecimal(new BigInteger(buffer, position, unscaledLength), scale);
+        position = end;
+        return value;
+    }
+
+    /**
+     * Reads a decimal field as {@link Money} in the given currency without
+     * going through BigDecimal. Amounts that need rounding or carry no
+     * currency are read as {@link Money#decode} does.
+     *
+     * @throws CodecException for an unknown currency or an amount beyond a long of minor units
+     */
+    public Money readMoney(String currencyCode) {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        int end = position + length;
+        int scale = (int) unZigZag(readVarint());
+        int unscaledLength = end - position;
+        String currency = currencyCode != null ? currencyCode : Money.DEFAULT_CURRENCY;
+        if (unscaledLength > 8) {
+            BigDecimal amount = new BigDecimal(new BigInteger(buffer, position, unscaledLength), scale);
+            position = end;
+            return decodeMoney(amount, currency);
+        }
+        long unscaled = readSignedBigEndian(unscaledLength);
+        position = end;
+        try {
+            return Money.ofScaled(unscaled, scale, currency);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return decodeMoney(BigDecimal.valueOf(unscaled, scale), currency);
+        }
+    }
+
+    private Money decodeMoney(BigDecimal amount, String currency) {
+        try {
+            return Money.decode(amount, currency);
+        } catch (IllegalArgumentException e) {
+            throw new CodecException("Field " + tag + " is not a valid " + currency + " amount", e);
+        }
+    }
+
+    public Instant readInstant() {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        int end = position + length;
+        long seconds = unZigZag(readVarint());
+        long nanos = readVarint();
+        position = end;
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    /**
+     * Returns a decoder over the current length-delimited field and skips past it.
+     */
+    public BinaryDecoder readNested() {
+        expect(BinaryEncoder.WIRE_BYTES);
+        int length = readLength();
+        BinaryDecoder nested = new BinaryDecoder(buffer, position, length);
+        position += length;
+        return nested;
+    }
+
+    /**
+     * Looks ahead for a string field without moving this decoder, e.g. the
+     * currency that amounts earlier in the message depend on.
+     *
+     * @return the value, or null if the remaining message has no such field
+     */
+    public String findString(int fieldTag) {
+        BinaryDecoder scan = new BinaryDecoder(buffer, position, limit - position);
+        while (scan.nextField()) {
+            if (scan.tag() == fieldTag) {
+                return scan.readString();
+            }
+            scan.skip();
+        }
+        return null;
+    }
+
+    /**
+     * Skip the current field. Used for tags this reader does not know.
+     */
+    public void skip() {
+        switch (wireType) {
+            case BinaryEncoder.WIRE_VARINT -> readVarint();
+            case BinaryEncoder.WIRE_FIXED64 -> {
+                if (position + 8 > limit) {
+                    throw new CodecException("Field " + tag + " is truncated at offset " + position);
+                }
+                position += 8;
+            }
+            case BinaryEncoder.WIRE_BYTES -> {
+                // Read the length first: "position += readLength()" would lose the prefix bytes
+                int length = readLength();
+                position += length;
+            }
+            default -> throw new CodecException("Unknown wire type " + wireType + " for tag " + tag);
+        }
+    }
+
+    long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new CodecException("Truncated varint at offset " + position);
+            }
+            byte b = buffer[position++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new CodecException("Malformed varint at offset " + position);
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || position + length > limit) {
+            throw new CodecException("Field " + tag + " length " + length + " exceeds message bounds");
+        }
+        return (int) length;
+    }
+
+    private long readSignedBigEndian(int length) {
+        if (length == 0) {
+            return 0;
+        }
+        long value = buffer[position]; // sign-extends
+        for (int i = 1; i < length; i++) {
+            value = (value << 8) | (buffer[position + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private void expect(int expectedWireType) {
+        if (wireType != expectedWireType) {
+            throw new CodecException("Field " + tag + " has wire type " + wireType
+                + ", expected " + expectedWireType);
+        }
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
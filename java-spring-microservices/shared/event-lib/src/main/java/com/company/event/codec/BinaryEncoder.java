@@ -0,0 +1,249 @@
+package com.company.event.codec;
+
+import com.company.event.EventIds;
+import com.company.event.money.Money;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Writes tagged binary fields into a growable buffer.
+ *
+ * Each field is a varint key (tag << 3 | wire type) followed by its value.
+ * Null values are simply omitted, and readers skip tags they do not know,
+ * which is what lets producers and consumers evolve independently.
+ *
+ * Instances are reusable via {@link #reset()} and are not thread-safe.
+ */
+public final class BinaryEncoder {
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FIXED64 = 1;
+    static final int WIRE_BYTES = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryEncoder() {
+        this(256);
+    }
+
+    public BinaryEncoder(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public BinaryEncoder reset() {
+        position = 0;
+        return this;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Copies the encoded bytes to a stream without an intermediate array.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, position);
+    }
+
+    /**
+     * Copies the encoded bytes into a buffer, e.g. a memory-mapped file.
+     */
+    public void writeTo(ByteBuffer out) {
+        out.put(buffer, 0, position);
+    }
+
+    public void writeLong(int tag, Long value) {
+        if (value != null) {
+            writeLong(tag, value.longValue());
+        }
+    }
+
+    public void writeLong(int tag, long value) {
+        writeKey(tag, WIRE_VARINT);
+        writeVarint(zigZag(value));
+    }
+
+    public void writeInt(int tag, int value) {
+        writeLong(tag, (long) value);
+    }
+
+    public void writeBoolean(int tag, boolean value) {
+        writeKey(tag, WIRE_VARINT);
+        writeVarint(value ? 1 : 0);
+    }
+
+    public void writeString(int tag, String value) {
+        if (value == null) {
+            return;
+        }
+        writeKey(tag, WIRE_BYTES);
+        int length = value.length();
+        // Fast path for ASCII, which covers ids, codes and most names
+        ensureCapacity(5 + length * 3);
+        int lengthPosition = position;
+        writeVarint(length);
+        int start = position;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                position = lengthPosition;
+                writeBytesValue(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer[start + i] = (byte) c;
+        }
+        position = start + length;
+    }
+
+    public void writeBytes(int tag, byte[] value) {
+        if (value == null) {
+            return;
+        }
+        writeKey(tag, WIRE_BYTES);
+        writeBytesValue(value);
+    }
+
+    /**
+     * Canonical (lowercase) UUID event id as its 16-byte binary form instead of 36 characters.
+     *
+     * @throws IllegalArgumentException if {@link EventIds#isUuid(String)} is false
+     */
+    public void writeEventId(int tag, String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        writeKey(tag, WIRE_BYTES);
+        writeVarint(EventIds.BINARY_LENGTH);
+        ensureCapacity(EventIds.BINARY_LENGTH);
+        EventIds.writeBytes(eventId, buffer, position);
+        position += EventIds.BINARY_LENGTH;
+    }
+
+    /**
+     * Decimal as scale varint + two's-complement unscaled value.
+     */
+    public void writeDecimal(int tag, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        long scale = zigZag(value.scale());
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeKey(tag, WIRE_BYTES);
+        writeVarint(varintSize(scale) + unscaled.length);
+        writeVarint(scale);
+        ensureCapacity(unscaled.length);
+        System.arraycopy(unscaled, 0, buffer, position, unscaled.length);
+        position += unscaled.length;
+    }
+
+    /**
+     * Money amount in the decimal layout of {@link #writeDecimal(int, BigDecimal)},
+     * written straight from the minor units. The currency is a separate field.
+     */
+    public void writeMoney(int tag, Money value) {
+        if (value == null) {
+            return;
+        }
+        long scale = zigZag(value.getFractionDigits());
+        long unscaled = value.getMinorUnits();
+        // Same minimal two's-complement length as BigInteger.toByteArray()
+        int unscaledLength = (64 - Long.numberOfLeadingZeros(unscaled ^ (unscaled >> 63))) / 8 + 1;
+        writeKey(tag, WIRE_BYTES);
+        writeVarint(varintSize(scale) + unscaledLength);
+        writeVarint(scale);
+        ensureCapacity(unscaledLength);
+        for (int i = unscaledLength - 1; i >= 0; i--) {
+            buffer[position++] = (byte) (unscaled >> (8 * i));
+        }
+    }
+
+    /**
+     * Instant as epoch seconds + nanos, lossless.
+     */
+    public void writeInstant(int tag, Instant value) {
+        if (value == null) {
+            return;
+        }
+        long seconds = zigZag(value.getEpochSecond());
+        int nanos = value.getNano();
+        writeKey(tag, WIRE_BYTES);
+        writeVarint(varintSize(seconds) + varintSize(nanos));
+        writeVarint(seconds);
+        writeVarint(nanos);
+    }
+
+    /**
+     * Starts a length-delimited nested message (e.g. a list element).
+     * Write the body with the regular methods, then call {@link #endNested(int)}.
+     *
+     * @return marker to pass to endNested
+     */
+    public int beginNested(int tag) {
+        writeKey(tag, WIRE_BYTES);
+        return position;
+    }
+
+    /**
+     * Inserts the length prefix in front of the body written since beginNested.
+     */
+    public void endNested(int marker) {
+        int length = position - marker;
+        int prefix = varintSize(length);
+        ensureCapacity(prefix);
+        System.arraycopy(buffer, marker, buffer, marker + prefix, length);
+        position = marker;
+        writeVarint(length);
+        position = marker + prefix + length;
+    }
+
+    void writeKey(int tag, int wireType) {
+        writeVarint(((long) tag << 3) | wireType);
+    }
+
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytesValue(byte[] value) {
+        writeVarint(value.length);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
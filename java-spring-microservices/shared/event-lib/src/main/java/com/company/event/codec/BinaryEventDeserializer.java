@@ -0,0 +1,65 @@
+package com.company.event.codec;
+
+import com.company.event.DomainEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for records written by {@link BinaryEventSerializer}.
+ *
+ * The schema id header selects the event type; the local codec then reads
+ * the fields it knows and skips the rest, so a consumer built against an
+ * older schema keeps working when producers add fields.
+ */
+public class BinaryEventDeserializer implements Deserializer<DomainEvent> {
+
+    private EventCodecs codecs = EventCodecs.defaults();
+    private LocalSchemaRegistry registry = LocalSchemaRegistry.classpath();
+
+    public BinaryEventDeserializer() {
+    }
+
+    public BinaryEventDeserializer(EventCodecs codecs, LocalSchemaRegistry registry) {
+        this.codecs = codecs;
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object path = configs.get(BinaryEventSerializer.SCHEMA_REGISTRY_PATH_CONFIG);
+        if (path != null) {
+            registry = LocalSchemaRegistry.file(Path.of(path.toString()));
+        }
+    }
+
+    @Override
+    public DomainEvent deserialize(String topic, byte[] data) {
+        throw new SerializationException("BinaryEventDeserializer requires the schema id header");
+    }
+
+    @Override
+    public DomainEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(BinaryEventSerializer.SCHEMA_ID_HEADER);
+        if (header == null || header.value().length != 4) {
+            throw new SerializationException("Missing or malformed schema id header on topic " + topic);
+        }
+        int schemaId = ByteBuffer.wrap(header.value()).getInt();
+        EventSchema schema = registry.findById(schemaId)
+            .orElseThrow(() -> new SerializationException("Unknown schema id " + schemaId + " on topic " + topic));
+        try {
+            return codecs.forEventType(schema.getEventType()).decode(new BinaryDecoder(data));
+        } catch (CodecException e) {
+            throw new SerializationException("Failed to decode " + schema.getEventType()
+                + " v" + schema.getVersion() + " on topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.company.event.codec;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.EventHeaders;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka serializer writing events with their hand-written {@link EventCodec}.
+ * The registry schema id is carried in the {@value #SCHEMA_ID_HEADER} header,
+ * next to the routing {@link EventHeaders}.
+ *
+ * Usage in application.yml:
+ *   spring.kafka.producer:
+ *     value-serializer: com.company.event.codec.BinaryEventSerializer
+ *     properties:
+ *       event.schema.registry.path: /var/lib/events/schemas.json
+ */
+public class BinaryEventSerializer implements Serializer<DomainEvent> {
+
+    public static final String SCHEMA_ID_HEADER = "schemaId";
+    public static final String SCHEMA_REGISTRY_PATH_CONFIG = "event.schema.registry.path";
+
+    private static final ThreadLocal<BinaryEncoder> ENCODER = ThreadLocal.withInitial(BinaryEncoder::new);
+
+    private EventCodecs codecs = EventCodecs.defaults();
+    private LocalSchemaRegistry registry = LocalSchemaRegistry.classpath();
+    private final Map<String, byte[]> schemaIdHeaders = new HashMap<>();
+
+    public BinaryEventSerializer() {
+        registerSchemas();
+    }
+
+    public BinaryEventSerializer(EventCodecs codecs, LocalSchemaRegistry registry) {
+        this.codecs = codecs;
+        this.registry = registry;
+        registerSchemas();
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object path = configs.get(SCHEMA_REGISTRY_PATH_CONFIG);
+        if (path != null) {
+            registry = LocalSchemaRegistry.file(Path.of(path.toString()));
+            registerSchemas();
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, DomainEvent data) {
+        throw new SerializationException("BinaryEventSerializer requires record headers to carry the schema id");
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, DomainEvent data) {
+        if (data == null) {
+            return null;
+        }
+        EventCodec<DomainEvent> codec = codecs.forEvent(data);
+        headers.remove(SCHEMA_ID_HEADER);
+        headers.add(SCHEMA_ID_HEADER, schemaIdHeaders.get(codec.eventType()));
+        EventHeaders.stamp(headers, data, codec.schema().getVersion());
+        BinaryEncoder encoder = ENCODER.get().reset();
+        codec.encode(data, encoder);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Register every codec's schema up front so the hot path is a map lookup.
+     */
+    private void registerSchemas() {
+        schemaIdHeaders.clear();
+        for (EventCodec<?> codec : codecs.all()) {
+            EventSchema schema = registry.register(codec.schema());
+            schemaIdHeaders.put(codec.eventType(), ByteBuffer.allocate(4).putInt(schema.getId()).array());
+        }
+    }
+}
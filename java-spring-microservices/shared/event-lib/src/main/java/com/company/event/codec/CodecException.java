@@ -0,0 +1,15 @@
+package com.company.event.codec;
+
+/**
+ * Thrown when an event cannot be encoded or decoded.
+ */
+public class CodecException extends RuntimeException {
+
+    public CodecException(String message) {
+        super(message);
+    }
+
+    public CodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.event.codec;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+
+/**
+ * Hand-written, reflection-free binary codec for one event type.
+ *
+ * Field tags are part of the wire contract: never reuse or retype a tag,
+ * only add new ones. Bump {@link EventSchema#getVersion()} when fields change.
+ */
+public interface EventCodec<T extends DomainEvent> {
+
+    /** Tags 1-9 are reserved for {@link com.company.event.BaseEvent} fields. */
+    int TAG_EVENT_ID = 1;
+    int TAG_TIMESTAMP = 2;
+    int TAG_EVENT_ID_BINARY = 3;
+
+    String eventType();
+
+    Class<T> eventClass();
+
+    /**
+     * Schema this codec writes. Registered with the {@link LocalSchemaRegistry}.
+     */
+    EventSchema schema();
+
+    void encode(T event, BinaryEncoder out);
+
+    T decode(BinaryDecoder in);
+
+    /**
+     * Writes time-ordered and other UUID ids in 16-byte form under
+     * {@link #TAG_EVENT_ID_BINARY}; anything else falls back to the string tag.
+     */
+    static void writeEventId(BinaryEncoder out, String eventId) {
+        if (EventIds.isUuid(eventId)) {
+            out.writeEventId(TAG_EVENT_ID_BINARY, eventId);
+        } else {
+            out.writeString(TAG_EVENT_ID, eventId);
+        }
+    }
+}
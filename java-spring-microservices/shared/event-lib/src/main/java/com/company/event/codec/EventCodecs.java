@@ -0,0 +1,55 @@
+package com.company.event.codec;
+
+import com.company.event.DomainEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lookup of binary codecs by event type and class.
+ */
+public final class EventCodecs {
+
+    private final Map<String, EventCodec<?>> byEventType = new HashMap<>();
+    private final Map<Class<?>, EventCodec<?>> byClass = new HashMap<>();
+
+    public EventCodecs(List<EventCodec<?>> codecs) {
+        for (EventCodec<?> codec : codecs) {
+            byEventType.put(codec.eventType(), codec);
+            byClass.put(codec.eventClass(), codec);
+        }
+    }
+
+    /**
+     * Codecs for all events shipped in event-lib.
+     */
+    public static EventCodecs defaults() {
+        return new EventCodecs(List.of(
+            new UserCreatedEventCodec(),
+            new OrderCreatedEventCodec(),
+            new PaymentCompletedEventCodec()
+        ));
+    }
+
+    public EventCodec<?> forEventType(String eventType) {
+        EventCodec<?> codec = byEventType.get(eventType);
+        if (codec == null) {
+            throw new CodecException("No binary codec registered for event type " + eventType);
+        }
+        return codec;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends DomainEvent> EventCodec<T> forEvent(T event) {
+        EventCodec<?> codec = byClass.get(event.getClass());
+        if (codec == null) {
+            codec = forEventType(event.getEventType());
+        }
+        return (EventCodec<T>) codec;
+    }
+
+    public Iterable<EventCodec<?>> all() {
+        return byEventType.values();
+    }
+}
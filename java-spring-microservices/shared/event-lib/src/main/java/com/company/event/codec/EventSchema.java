@@ -0,0 +1,56 @@
+package com.company.event.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Singular;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Describes the binary layout of one version of an event type.
+ * Stored in the {@link LocalSchemaRegistry} file.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSchema {
+
+    /** Registry-assigned id carried in the record header. Zero until registered. */
+    private int id;
+    private String eventType;
+    private int version;
+    @Singular
+    private List<Field> fields;
+
+    @JsonIgnore
+    public Optional<Field> field(int tag) {
+        return fields.stream().filter(f -> f.getTag() == tag).findFirst();
+    }
+
+    /**
+     * True if both schemas describe the same event type and version with identical fields.
+     */
+    public boolean sameLayout(EventSchema other) {
+        return eventType.equals(other.eventType)
+            && version == other.version
+            && fields.equals(other.fields);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Field {
+        private int tag;
+        private String name;
+        private FieldType type;
+    }
+
+    public enum FieldType {
+        LONG, INT, BOOLEAN, STRING, BYTES, DECIMAL, INSTANT, MESSAGE, EVENT_ID
+    }
+}
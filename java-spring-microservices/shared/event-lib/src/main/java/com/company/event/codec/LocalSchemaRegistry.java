@@ -0,0 +1,276 @@
+package com.company.event.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * File-based schema registry shared by producers and consumers on one host
+ * (or via a shared volume).
+ *
+ * The file is a JSON array of {@link EventSchema}. Built-in schemas ship in
+ * {@value #DEFAULT_RESOURCE}; producers register newer versions into the file,
+ * and consumers reload it when they meet a schema id they do not know yet.
+ *
+ * Built-in ids stay below {@value #FIRST_REGISTERED_ID} and registered ids
+ * start there, so a built-in added by a later release never collides with an
+ * id a registry file already handed out. A file entry that still reuses a
+ * built-in id with a different layout fails the load rather than shadowing
+ * the built-in. An id found in neither is not looked up in the file again
+ * for {@code unknownIdRecheck}, so a bad header costs no file IO per message.
+ */
+@Slf4j
+public class LocalSchemaRegistry {
+
+    public static final String DEFAULT_RESOURCE = "META-INF/event-schemas.json";
+    /** Lowest id {@link #register} assigns; built-in schemas use the ids below. */
+    public static final int FIRST_REGISTERED_ID = 10_000;
+    public static final Duration DEFAULT_UNKNOWN_ID_RECHECK = Duration.ofSeconds(1);
+
+    /** Beyond this many remembered unknown ids, they are forgotten all at once. */
+    private static final int MAX_UNKNOWN_IDS = 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT);
+    private static final TypeReference<List<EventSchema>> SCHEMA_LIST = new TypeReference<>() { };
+
+    private final Path file;
+    private final long unknownIdRecheckNanos;
+    /** Ids found in neither the built-ins nor the file, with the System.nanoTime() they were last looked up. */
+    private final Map<Integer, Long> unknownIds = new ConcurrentHashMap<>();
+    private volatile Map<Integer, EventSchema> schemasById;
+
+    private LocalSchemaRegistry(Path file, List<EventSchema> initial, Duration unknownIdRecheck) {
+        this.file = file;
+        this.unknownIdRecheckNanos = unknownIdRecheck.toNanos();
+        this.schemasById = index(initial);
+    }
+
+    /**
+     * Read-only registry containing only the built-in schemas.
+     */
+    public static LocalSchemaRegistry classpath() {
+        return new LocalSchemaRegistry(null, loadDefaults(), DEFAULT_UNKNOWN_ID_RECHECK);
+    }
+
+    /**
+     * Registry persisted at the given path, seeded with built-in schemas on first use.
+     *
+     * @throws CodecException if the file reuses a built-in id for a different schema
+     */
+    public static LocalSchemaRegistry file(Path file) {
+        return file(file, DEFAULT_UNKNOWN_ID_RECHECK);
+    }
+
+    /**
+     * As {@link #file(Path)}, re-reading the file for an id it did not have
+     * at most once per {@code unknownIdRecheck}.
+     */
+    public static LocalSchemaRegistry file(Path file, Duration unknownIdRecheck) {
+        LocalSchemaRegistry registry = new LocalSchemaRegistry(file, loadDefaults(), unknownIdRecheck);
+        registry.reload();
+        return registry;
+    }
+
+    public Optional<EventSchema> findById(int id) {
+        EventSchema schema = schemasById.get(id);
+        if (schema == null && file != null && recheck(id)) {
+            // A producer may have registered a newer version since we last looked
+            reload();
+            schema = schemasById.get(id);
+        }
+        return Optional.ofNullable(schema);
+    }
+
+    public Optional<EventSchema> latest(String eventType) {
+        return schemasById.values().stream()
+            .filter(s -> s.getEventType().equals(eventType))
+            .max(Comparator.comparingInt(EventSchema::getVersion));
+    }
+
+    public List<EventSchema> all() {
+        List<EventSchema> schemas = new ArrayList<>(schemasById.values());
+        schemas.sort(Comparator.comparingInt(EventSchema::getId));
+        return Collections.unmodifiableList(schemas);
+    }
+
+    /**
+     * Returns the registered schema with the same event type and version,
+     * registering it if it does not exist yet.
+     *
+     * @throws CodecException if the layout conflicts with a registered version
+     */
+    public synchronized EventSchema register(EventSchema schema) {
+        Optional<EventSchema> existing = find(schema.getEventType(), schema.getVersion());
+        if (existing.isPresent() && existing.get().sameLayout(schema)) {
+            return existing.get();
+        }
+        if (file == null) {
+            throw new CodecException("Schema " + schema.getEventType() + " v" + schema.getVersion()
+                + " is not registered and the classpath registry is read-only");
+        }
+        return withFileLock(() -> {
+            reload();
+            Optional<EventSchema> current = find(schema.getEventType(), schema.getVersion());
+            if (current.isPresent()) {
+                if (current.get().sameLayout(schema)) {
+                    return current.get();
+                }
+                throw new CodecException("Schema " + schema.getEventType() + " v" + schema.getVersion()
+                    + " is already registered with a different layout");
+            }
+            checkCompatible(schema);
+
+            int nextId = Math.max(FIRST_REGISTERED_ID,
+                schemasById.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+            EventSchema registered = schema.toBuilder().id(nextId).build();
+            Map<Integer, EventSchema> updated = new HashMap<>(schemasById);
+            updated.put(nextId, registered);
+            persist(updated.values());
+            schemasById = updated;
+            log.info("Registered schema {} v{} with id {}", registered.getEventType(),
+                registered.getVersion(), nextId);
+            return registered;
+        });
+    }
+
+    /**
+     * Re-read the registry file, keeping built-in schemas.
+     *
+     * @throws CodecException if the file reuses a built-in id for a different schema
+     */
+    public synchronized void reload() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        List<EventSchema> stored;
+        try {
+            stored = MAPPER.readValue(file.toFile(), SCHEMA_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schema registry " + file, e);
+        }
+        Map<Integer, EventSchema> merged = index(loadDefaults());
+        for (EventSchema schema : stored) {
+            // The file holds copies of the built-ins it was written with; only a different layout is a conflict
+            EventSchema builtIn = merged.putIfAbsent(schema.getId(), schema);
+            if (builtIn != null && !builtIn.sameLayout(schema)) {
+                throw new CodecException("Schema registry " + file + " assigns id " + schema.getId() + " to "
+                    + schema.getEventType() + " v" + schema.getVersion() + ", which is built-in "
+                    + builtIn.getEventType() + " v" + builtIn.getVersion()
+                    + "; re-register it to get an id from " + FIRST_REGISTERED_ID);
+            }
+        }
+        schemasById = merged;
+    }
+
+    /**
+     * True if {@code id} was not looked up in the file within the last
+     * {@code unknownIdRecheck}; remembers that it is being looked up now.
+     */
+    private boolean recheck(int id) {
+        long now = System.nanoTime();
+        Long checkedAt = unknownIds.get(id);
+        if (checkedAt != null && now - checkedAt < unknownIdRecheckNanos) {
+            return false;
+        }
+        if (unknownIds.size() >= MAX_UNKNOWN_IDS) {
+            unknownIds.clear();
+        }
+        unknownIds.put(id, now);
+        return true;
+    }
+
+    private Optional<EventSchema> find(String eventType, int version) {
+        return schemasById.values().stream()
+            .filter(s -> s.getEventType().equals(eventType) && s.getVersion() == version)
+            .findFirst();
+    }
+
+    /**
+     * A tag may be added or dropped between versions but never change type.
+     */
+    private void checkCompatible(EventSchema candidate) {
+        for (EventSchema registered : schemasById.values()) {
+            if (!registered.getEventType().equals(candidate.getEventType())) {
+                continue;
+            }
+            for (EventSchema.Field field : candidate.getFields()) {
+                registered.field(field.getTag())
+                    .filter(previous -> previous.getType() != field.getType())
+                    .ifPresent(previous -> {
+                        throw new CodecException("Incompatible schema " + candidate.getEventType()
+                            + " v" + candidate.getVersion() + ": tag " + field.getTag() + " was "
+                            + previous.getType() + " in v" + registered.getVersion()
+                            + ", now " + field.getType());
+                    });
+            }
+        }
+    }
+
+    private void persist(Iterable<EventSchema> schemas) {
+        List<EventSchema> sorted = new ArrayList<>();
+        schemas.forEach(sorted::add);
+        sorted.sort(Comparator.comparingInt(EventSchema::getId));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            MAPPER.writeValue(tmp.toFile(), sorted);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write schema registry " + file, e);
+        }
+    }
+
+    private <T> T withFileLock(Supplier<T> action) {
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try {
+            Files.createDirectories(lockFile.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to lock schema registry " + lockFile, e);
+        }
+    }
+
+    private static List<EventSchema> loadDefaults() {
+        try (InputStream in = LocalSchemaRegistry.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                return List.of();
+            }
+            return MAPPER.readValue(in, SCHEMA_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + DEFAULT_RESOURCE, e);
+        }
+    }
+
+    private static Map<Integer, EventSchema> index(List<EventSchema> schemas) {
+        Map<Integer, EventSchema> byId = new HashMap<>();
+        schemas.forEach(s -> byId.put(s.getId(), s));
+        return byId;
+    }
+}
@@ -0,0 +1,118 @@
+package com.company.event.codec;
+
+import com.company.event.codec.EventSchema.Field;
+import com.company.event.codec.EventSchema.FieldType;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderCreatedEvent.OrderItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary codec for {@link OrderCreatedEvent}.
+ * Items are encoded as repeated nested messages. Amounts keep the decimal
+ * layout and are read against the order currency, wherever it appears.
+ */
+public class OrderCreatedEventCodec implements EventCodec<OrderCreatedEvent> {
+
+    private static final int TAG_ORDER_ID = 10;
+    private static final int TAG_USER_ID = 11;
+    private static final int TAG_TOTAL_AMOUNT = 12;
+    private static final int TAG_CURRENCY = 13;
+    private static final int TAG_ITEM = 14;
+
+    private static final int TAG_ITEM_PRODUCT_ID = 1;
+    private static final int TAG_ITEM_PRODUCT_NAME = 2;
+    private static final int TAG_ITEM_QUANTITY = 3;
+    private static final int TAG_ITEM_PRICE = 4;
+
+    private static final EventSchema SCHEMA = EventSchema.builder()
+        .eventType("ORDER_CREATED")
+        .version(2)
+        .field(new Field(TAG_EVENT_ID, "eventId", FieldType.STRING))
+        .field(new Field(TAG_EVENT_ID_BINARY, "eventId", FieldType.EVENT_ID))
+        .field(new Field(TAG_TIMESTAMP, "timestamp", FieldType.INSTANT))
+        .field(new Field(TAG_ORDER_ID, "orderId", FieldType.LONG))
+        .field(new Field(TAG_USER_ID, "userId", FieldType.LONG))
+        .field(new Field(TAG_TOTAL_AMOUNT, "totalAmount", FieldType.DECIMAL))
+        .field(new Field(TAG_CURRENCY, "currency", FieldType.STRING))
+        .field(new Field(TAG_ITEM, "items", FieldType.MESSAGE))
+        .build();
+
+    @Override
+    public String eventType() {
+        return SCHEMA.getEventType();
+    }
+
+    @Override
+    public Class<OrderCreatedEvent> eventClass() {
+        return OrderCreatedEvent.class;
+    }
+
+    @Override
+    public EventSchema schema() {
+        return SCHEMA;
+    }
+
+    @Override
+    public void encode(OrderCreatedEvent event, BinaryEncoder out) {
+        EventCodec.writeEventId(out, event.getEventId());
+        out.writeInstant(TAG_TIMESTAMP, event.getTimestamp());
+        out.writeLong(TAG_ORDER_ID, event.getOrderId());
+        out.writeLong(TAG_USER_ID, event.getUserId());
+        out.writeMoney(TAG_TOTAL_AMOUNT, event.getTotalAmount());
+        out.writeString(TAG_CURRENCY, event.getCurrency());
+        List<OrderItemDto> items = event.getItems();
+        if (items != null) {
+            for (int i = 0, n = items.size(); i < n; i++) {
+                OrderItemDto item = items.get(i);
+                int marker = out.beginNested(TAG_ITEM);
+                out.writeLong(TAG_ITEM_PRODUCT_ID, item.getProductId());
+                out.writeString(TAG_ITEM_PRODUCT_NAME, item.getProductName());
+                out.writeInt(TAG_ITEM_QUANTITY, item.getQuantity());
+                out.writeMoney(TAG_ITEM_PRICE, item.getPrice());
+                out.endNested(marker);
+            }
+        }
+    }
+
+    @Override
+    public OrderCreatedEvent decode(BinaryDecoder in) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        String currency = in.findString(TAG_CURRENCY);
+        List<OrderItemDto> items = null;
+        while (in.nextField()) {
+            switch (in.tag()) {
+                case TAG_EVENT_ID -> event.setEventId(in.readString());
+                case TAG_EVENT_ID_BINARY -> event.setEventId(in.readEventId());
+                case TAG_TIMESTAMP -> event.setTimestamp(in.readInstant());
+                case TAG_ORDER_ID -> event.setOrderId(in.readLong());
+                case TAG_USER_ID -> event.setUserId(in.readLong());
+                case TAG_TOTAL_AMOUNT -> event.setTotalAmount(in.readMoney(currency));
+                case TAG_ITEM -> {
+                    if (items == null) {
+                        items = new ArrayList<>();
+                    }
+                    items.add(decodeItem(in.readNested(), currency));
+                }
+                default -> in.skip();
+            }
+        }
+        event.setItems(items != null ? items : new ArrayList<>());
+        return event;
+    }
+
+    private static OrderItemDto decodeItem(BinaryDecoder in, String currency) {
+        OrderItemDto item = new OrderItemDto();
+        while (in.nextField()) {
+            switch (in.tag()) {
+                case TAG_ITEM_PRODUCT_ID -> item.setProductId(in.readLong());
+                case TAG_ITEM_PRODUCT_NAME -> item.setProductName(in.readString());
+                case TAG_ITEM_QUANTITY -> item.setQuantity(in.readInt());
+                case TAG_ITEM_PRICE -> item.setPrice(in.readMoney(currency));
+                default -> in.skip();
+            }
+        }
+        return item;
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.event.codec;
+
+import com.company.event.codec.EventSchema.Field;
+import com.company.event.codec.EventSchema.FieldType;
+import com.company.event.payment.PaymentCompletedEvent;
+
+/**
+ * Binary codec for {@link PaymentCompletedEvent}.
+ */
+public class PaymentCompletedEventCodec implements EventCodec<PaymentCompletedEvent> {
+
+    private static final int TAG_PAYMENT_ID = 10;
+    private static final int TAG_ORDER_ID = 11;
+    private static final int TAG_USER_ID = 12;
+    private static final int TAG_AMOUNT = 13;
+    private static final int TAG_CURRENCY = 14;
+    private static final int TAG_PAYMENT_METHOD = 15;
+    private static final int TAG_TRANSACTION_ID = 16;
+
+    private static final EventSchema SCHEMA = EventSchema.builder()
+        .eventType("PAYMENT_COMPLETED")
+        .version(2)
+        .field(new Field(TAG_EVENT_ID, "eventId", FieldType.STRING))
+        .field(new Field(TAG_EVENT_ID_BINARY, "eventId", FieldType.EVENT_ID))
+        .field(new Field(TAG_TIMESTAMP, "timestamp", FieldType.INSTANT))
+        .field(new Field(TAG_PAYMENT_ID, "paymentId", FieldType.LONG))
+        .field(new Field(TAG_ORDER_ID, "orderId", FieldType.LONG))
+        .field(new Field(TAG_USER_ID, "userId", FieldType.LONG))
+        .field(new Field(TAG_AMOUNT, "amount", FieldType.DECIMAL))
+        .field(new Field(TAG_CURRENCY, "currency", FieldType.STRING))
+        .field(new Field(TAG_PAYMENT_METHOD, "paymentMethod", FieldType.STRING))
+        .field(new Field(TAG_TRANSACTION_ID, "transactionId", FieldType.STRING))
+        .build();
+
+    @Override
+    public String eventType() {
+        return SCHEMA.getEventType();
+    }
+
+    @Override
+    public Class<PaymentCompletedEvent> eventClass() {
+        return PaymentCompletedEvent.class;
+    }
+
+    @Override
+    public EventSchema schema() {
+        return SCHEMA;
+    }
+
+    @Override
+    public void encode(PaymentCompletedEvent event, BinaryEncoder out) {
+        EventCodec.writeEventId(out, event.getEventId());
+        out.writeInstant(TAG_TIMESTAMP, event.getTimestamp());
+        out.writeLong(TAG_PAYMENT_ID, event.getPaymentId());
+        out.writeLong(TAG_ORDER_ID, event.getOrderId());
+        out.writeLong(TAG_USER_ID, event.getUserId());
+        out.writeMoney(TAG_AMOUNT, event.getAmount());
+        out.writeString(TAG_CURRENCY, event.getCurrency());
+        out.writeString(TAG_PAYMENT_METHOD, event.getPaymentMethod());
+        out.writeString(TAG_TRANSACTION_ID, event.getTransactionId());
+    }
+
+    @Override
+    public PaymentCompletedEvent decode(BinaryDecoder in) {
+        PaymentCompletedEvent event = new PaymentCompletedEvent();
+        String currency = in.findString(TAG_CURRENCY);
+        while (in.nextField()) {
+            switch (in.tag()) {
+                case TAG_EVENT_ID -> event.setEventId(in.readString());
+                case TAG_EVENT_ID_BINARY -> event.setEventId(in.readEventId());
+                case TAG_TIMESTAMP -> event.setTimestamp(in.readInstant());
+                case TAG_PAYMENT_ID -> event.setPaymentId(in.readLong());
+                case TAG_ORDER_ID -> event.setOrderId(in.readLong());
+                case TAG_USER_ID -> event.setUserId(in.readLong());
+                case TAG_AMOUNT -> event.setAmount(in.readMoney(currency));
+                case TAG_PAYMENT_METHOD -> event.setPaymentMethod(in.readString());
+                case TAG_TRANSACTION_ID -> event.setTransactionId(in.readString());
+                default -> in.skip();
+            }
+        }
+        return event;
+    }
+}
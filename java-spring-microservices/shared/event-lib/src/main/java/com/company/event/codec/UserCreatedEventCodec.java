@@ -0,0 +1,67 @@
+package com.company.event.codec;
+
+import com.company.event.codec.EventSchema.Field;
+import com.company.event.codec.EventSchema.FieldType;
+import com.company.event.user.UserCreatedEvent;
+
+/**
+ * Binary codec for {@link UserCreatedEvent}.
+ */
+public class UserCreatedEventCodec implements EventCodec<UserCreatedEvent> {
+
+    private static final int TAG_USER_ID = 10;
+    private static final int TAG_USERNAME = 11;
+    private static final int TAG_EMAIL = 12;
+
+    private static final EventSchema SCHEMA = EventSchema.builder()
+        .eventType("USER_CREATED")
+        .version(2)
+        .field(new Field(TAG_EVENT_ID, "eventId", FieldType.STRING))
+        .field(new Field(TAG_EVENT_ID_BINARY, "eventId", FieldType.EVENT_ID))
+        .field(new Field(TAG_TIMESTAMP, "timestamp", FieldType.INSTANT))
+        .field(new Field(TAG_USER_ID, "userId", FieldType.LONG))
+        .field(new Field(TAG_USERNAME, "username", FieldType.STRING))
+        .field(new Field(TAG_EMAIL, "email", FieldType.STRING))
+        .build();
+
+    @Override
+    public String eventType() {
+        return SCHEMA.getEventType();
+    }
+
+    @Override
+    public Class<UserCreatedEvent> eventClass() {
+        return UserCreatedEvent.class;
+    }
+
+    @Override
+    public EventSchema schema() {
+        return SCHEMA;
+    }
+
+    @Override
+    public void encode(UserCreatedEvent event, BinaryEncoder out) {
+        EventCodec.writeEventId(out, event.getEventId());
+        out.writeInstant(TAG_TIMESTAMP, event.getTimestamp());
+        out.writeLong(TAG_USER_ID, event.getUserId());
+        out.writeString(TAG_USERNAME, event.getUsername());
+        out.writeString(TAG_EMAIL, event.getEmail());
+    }
+
+    @Override
+    public UserCreatedEvent decode(BinaryDecoder in) {
+        UserCreatedEvent event = new UserCreatedEvent();
+        while (in.nextField()) {
+            switch (in.tag()) {
+                case TAG_EVENT_ID -> event.setEventId(in.readString());
+                case TAG_EVENT_ID_BINARY -> event.setEventId(in.readEventId());
+                case TAG_TIMESTAMP -> event.setTimestamp(in.readInstant());
+                case TAG_USER_ID -> event.setUserId(in.readLong());
+                case TAG_USERNAME -> event.setUsername(in.readString());
+                case TAG_EMAIL -> event.setEmail(in.readString());
+                default -> in.skip();
+            }
+        }
+        return event;
+    }
+}
@@ -0,0 +1,43 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.batch.EventBatch;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.Map;
+
+/**
+ * Producer interceptor stamping {@link EventHeaders} on every record whose
+ * value is a {@link DomainEvent} or {@link EventBatch}, independent of the
+ * value serializer.
+ *
+ * Usage in application.yml:
+ *   spring.kafka.producer.properties:
+ *     interceptor.classes: com.company.event.kafka.EventHeaderInterceptor
+ */
+public class EventHeaderInterceptor implements ProducerInterceptor<Object, Object> {
+
+    @Override
+    public ProducerRecord<Object, Object> onSend(ProducerRecord<Object, Object> record) {
+        if (record.value() instanceof DomainEvent event) {
+            EventHeaders.stamp(record.headers(), event);
+        } else if (record.value() instanceof EventBatch batch) {
+            EventHeaders.stamp(record.headers(), batch);
+        }
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.batch.EventBatch;
+import com.company.event.codec.BinaryEventSerializer;
+import com.company.event.codec.EventCodec;
+import com.company.event.codec.EventCodecs;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kafka record headers describing the event in the payload.
+ *
+ * Producers stamp them so consumers can route and filter on headers alone,
+ * without deserializing the value. String headers are UTF-8, and left out
+ * when the event has no value for them; the schema version is a 4-byte
+ * big-endian int like {@value #SCHEMA_ID}.
+ */
+public final class EventHeaders {
+
+    public static final String EVENT_ID = "eventId";
+    public static final String EVENT_TYPE = "eventType";
+    public static final String AGGREGATE_TYPE = "aggregateType";
+    public static final String SCHEMA_VERSION = "schemaVersion";
+    public static final String SCHEMA_ID = BinaryEventSerializer.SCHEMA_ID_HEADER;
+    /** Number of events in an {@link EventBatch} record (4-byte int). */
+    public static final String BATCH_SIZE = "batchSize";
+
+    /** Version stamped for event types without a binary codec. */
+    public static final int DEFAULT_SCHEMA_VERSION = 1;
+
+    private static final Map<String, Integer> SCHEMA_VERSIONS = new HashMap<>();
+    private static final Map<String, byte[]> ENCODED = new ConcurrentHashMap<>();
+
+    static {
+        for (EventCodec<?> codec : EventCodecs.defaults().all()) {
+            SCHEMA_VERSIONS.put(codec.eventType(), codec.schema().getVersion());
+        }
+    }
+
+    private EventHeaders() {
+    }
+
+    /**
+     * Stamp (or overwrite) the routing headers for the given event.
+     */
+    public static void stamp(Headers headers, DomainEvent event) {
+        stamp(headers, event, SCHEMA_VERSIONS.getOrDefault(event.getEventType(), DEFAULT_SCHEMA_VERSION));
+    }
+
+    public static void stamp(Headers headers, DomainEvent event, int schemaVersion) {
+        replaceConstant(headers, EVENT_TYPE, event.getEventType());
+        replaceConstant(headers, AGGREGATE_TYPE, event.getAggregateType());
+        replace(headers, SCHEMA_VERSION, ByteBuffer.allocate(4).putInt(schemaVersion).array());
+        if (event.getEventId() != null) {
+            replace(headers, EVENT_ID, event.getEventId().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Stamp the headers for a batch record: eventType is {@link EventBatch#EVENT_TYPE}.
+     */
+    public static void stamp(Headers headers, EventBatch batch) {
+        replaceConstant(headers, EVENT_TYPE, EventBatch.EVENT_TYPE);
+        replaceConstant(headers, AGGREGATE_TYPE, batch.getAggregateType());
+        replace(headers, BATCH_SIZE, ByteBuffer.allocate(4).putInt(batch.size()).array());
+    }
+
+    public static String eventType(Headers headers) {
+        return lastString(headers, EVENT_TYPE);
+    }
+
+    public static String aggregateType(Headers headers) {
+        return lastString(headers, AGGREGATE_TYPE);
+    }
+
+    public static String eventId(Headers headers) {
+        return lastString(headers, EVENT_ID);
+    }
+
+    /**
+     * @return the stamped schema version, or 0 if absent
+     */
+    public static int schemaVersion(Headers headers) {
+        Header header = headers.lastHeader(SCHEMA_VERSION);
+        if (header == null || header.value() == null || header.value().length != 4) {
+            return 0;
+        }
+        return ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    public static String lastString(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        if (header == null || header.value() == null) {
+            return null;
+        }
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static void replace(Headers headers, String key, byte[] value) {
+        headers.remove(key);
+        headers.add(key, value);
+    }
+
+    /**
+     * Event and aggregate types come from a small fixed set; encode each once.
+     * A null value leaves the header out, and consumers fall back to decoding.
+     */
+    private static void replaceConstant(Headers headers, String key, String value) {
+        headers.remove(key);
+        if (value != null) {
+            headers.add(key, ENCODED.computeIfAbsent(value, v -> v.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.EventCodec;
+import com.company.event.codec.EventCodecs;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for JSON events that picks the target class from the
+ * {@link EventHeaders#EVENT_TYPE} header, falling back to spring-kafka's
+ * {@value #TYPE_ID_HEADER} header for records from unstamped producers.
+ */
+public class JsonEventDeserializer implements Deserializer<DomainEvent> {
+
+    public static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private static final String TRUSTED_PACKAGE = "com.company.event.";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Map<String, Class<? extends DomainEvent>> classesByEventType = new HashMap<>();
+
+    public JsonEventDeserializer() {
+        this(EventCodecs.defaults());
+    }
+
+    public JsonEventDeserializer(EventCodecs codecs) {
+        for (EventCodec<?> codec : codecs.all()) {
+            classesByEventType.put(codec.eventType(), codec.eventClass());
+        }
+    }
+
+    @Override
+    public DomainEvent deserialize(String topic, byte[] data) {
+        throw new SerializationException("JsonEventDeserializer requires the event type header");
+    }
+
+    @Override
+    public DomainEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Class<? extends DomainEvent> eventClass = resolveClass(topic, headers);
+        try {
+            return objectMapper.readValue(data, eventClass);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to read " + eventClass.getSimpleName()
+                + " from topic " + topic, e);
+        }
+    }
+
+    private Class<? extends DomainEvent> resolveClass(String topic, Headers headers) {
+        String eventType = EventHeaders.eventType(headers);
+        if (eventType != null) {
+            Class<? extends DomainEvent> eventClass = classesByEventType.get(eventType);
+            if (eventClass == null) {
+                throw new SerializationException("Unknown event type " + eventType + " on topic " + topic);
+            }
+            return eventClass;
+        }
+        String typeId = EventHeaders.lastString(headers, TYPE_ID_HEADER);
+        if (typeId == null || !typeId.startsWith(TRUSTED_PACKAGE)) {
+            throw new SerializationException("Missing or untrusted event type on topic " + topic);
+        }
+        try {
+            return Class.forName(typeId).asSubclass(DomainEvent.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new SerializationException("Cannot resolve event class " + typeId, e);
+        }
+    }
+}
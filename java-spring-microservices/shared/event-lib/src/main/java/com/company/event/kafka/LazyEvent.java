@@ -0,0 +1,98 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * A consumed event whose payload is decoded on first access.
+ *
+ * Routing metadata is read from {@link EventHeaders}, so filters and
+ * handlers that only need the id or type never pay for deserialization.
+ * Records from producers that do not stamp headers fall back to decoding.
+ *
+ * Not thread-safe; meant to be used on the listener thread.
+ */
+public final class LazyEvent {
+
+    private final String topic;
+    private final Headers headers;
+    private final byte[] payload;
+    private final LazyEventDeserializer deserializer;
+    private DomainEvent event;
+
+    LazyEvent(String topic, Headers headers, byte[] payload, LazyEventDeserializer deserializer) {
+        this.topic = topic;
+        this.headers = headers;
+        this.payload = payload;
+        this.deserializer = deserializer;
+    }
+
+    public String getEventType() {
+        String eventType = EventHeaders.eventType(headers);
+        return eventType != null ? eventType : get().getEventType();
+    }
+
+    public String getEventId() {
+        String eventId = EventHeaders.eventId(headers);
+        return eventId != null ? eventId : get().getEventId();
+    }
+
+    public String getAggregateType() {
+        String aggregateType = EventHeaders.aggregateType(headers);
+        return aggregateType != null ? aggregateType : get().getAggregateType();
+    }
+
+    /**
+     * @return the stamped schema version, or 0 if the producer did not stamp one
+     */
+    public int getSchemaVersion() {
+        return EventHeaders.schemaVersion(headers);
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    public int getPayloadSize() {
+        return payload.length;
+    }
+
+    /**
+     * The value bytes as received, for republishing without re-encoding.
+     */
+    byte[] payload() {
+        return payload;
+    }
+
+    public boolean isDecoded() {
+        return event != null;
+    }
+
+    /**
+     * Decode the payload (once) and return it.
+     */
+    public DomainEvent get() {
+        if (event == null) {
+            event = deserializer.decode(topic, headers, payload);
+        }
+        return event;
+    }
+
+    /**
+     * Decode the payload as the given event class.
+     *
+     * @throws ClassCastException if the payload is a different event type
+     */
+    public <T extends DomainEvent> T as(Class<T> eventClass) {
+        return eventClass.cast(get());
+    }
+
+    @Override
+    public String toString() {
+        return "LazyEvent[" + getEventType() + " " + getEventId() + " on " + topic + "]";
+    }
+}
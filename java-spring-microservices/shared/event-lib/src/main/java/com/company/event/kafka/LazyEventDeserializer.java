@@ -0,0 +1,65 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.BinaryEventDeserializer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka deserializer producing {@link LazyEvent}s. The value bytes are kept
+ * as-is and decoded only when a handler asks for the payload: binary when
+ * the record carries a {@link EventHeaders#SCHEMA_ID} header, JSON otherwise.
+ *
+ * Usage in application.yml:
+ *   spring.kafka.consumer:
+ *     value-deserializer: com.company.event.kafka.LazyEventDeserializer
+ */
+public class LazyEventDeserializer implements Deserializer<LazyEvent> {
+
+    private final Deserializer<DomainEvent> binary;
+    private final Deserializer<DomainEvent> json;
+
+    public LazyEventDeserializer() {
+        this(new BinaryEventDeserializer(), new JsonEventDeserializer());
+    }
+
+    public LazyEventDeserializer(Deserializer<DomainEvent> binary, Deserializer<DomainEvent> json) {
+        this.binary = binary;
+        this.json = json;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        binary.configure(configs, isKey);
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public LazyEvent deserialize(String topic, byte[] data) {
+        throw new SerializationException("LazyEventDeserializer requires record headers");
+    }
+
+    @Override
+    public LazyEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return new LazyEvent(topic, headers, data, this);
+    }
+
+    @Override
+    public void close() {
+        binary.close();
+        json.close();
+    }
+
+    DomainEvent decode(String topic, Headers headers, byte[] data) {
+        if (headers.lastHeader(EventHeaders.SCHEMA_ID) != null) {
+            return binary.deserialize(topic, headers, data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+}
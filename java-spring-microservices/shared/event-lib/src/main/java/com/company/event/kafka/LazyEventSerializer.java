@@ -0,0 +1,17 @@
+package com.company.event.kafka;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing a consumed {@link LazyEvent} back out as its
+ * original value bytes, e.g. when forwarding a failed record to a retry or
+ * dead-letter topic. Nothing is decoded or re-encoded; copy the record
+ * headers along so consumers can still decode the payload.
+ */
+public class LazyEventSerializer implements Serializer<LazyEvent> {
+
+    @Override
+    public byte[] serialize(String topic, LazyEvent event) {
+        return event == null ? null : event.payload();
+    }
+}
@@ -0,0 +1,265 @@
+package com.company.event.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Immutable monetary amount: a long count of minor units (e.g. cents) plus
+ * a packed ISO 4217 currency code. The minor-unit scale is the currency's
+ * default fraction digits (USD 2, JPY 0, BHD 3).
+ *
+ * Arithmetic works on the long directly and overflows with
+ * {@link ArithmeticException}; mixing currencies is an
+ * {@link IllegalArgumentException}. Use {@link MoneyAccumulator} to fold
+ * large streams of amounts without creating intermediate instances.
+ */
+public final class Money implements Comparable<Money> {
+
+    /** Currency of amounts that arrive without one, as events written before Money could. */
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    private static final int LETTER_BITS = 5;
+    private static final int CODE_SPACE = 1 << (3 * LETTER_BITS);
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    /** Fraction digits + 1 per packed code, 0 for codes that are not ISO 4217 currencies. */
+    private static final byte[] FRACTION_DIGITS = new byte[CODE_SPACE];
+    private static final String[] CODES = new String[CODE_SPACE];
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            String code = currency.getCurrencyCode();
+            int packed = packLetters(code);
+            if (packed >= 0) {
+                // Currencies without minor units (e.g. XAU) report -1; treat them as whole units
+                FRACTION_DIGITS[packed] = (byte) (Math.max(0, currency.getDefaultFractionDigits()) + 1);
+                CODES[packed] = code;
+            }
+        }
+    }
+
+    private final long minorUnits;
+    private final short currency;
+
+    private Money(long minorUnits, short currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, String currencyCode) {
+        return new Money(minorUnits, pack(currencyCode));
+    }
+
+    public static Money ofMinor(long minorUnits, short packedCurrency) {
+        checkPacked(packedCurrency);
+        return new Money(minorUnits, packedCurrency);
+    }
+
+    public static Money zero(String currencyCode) {
+        return ofMinor(0, currencyCode);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the amount has more fraction digits than the currency
+     */
+    public static Money of(BigDecimal amount, String currencyCode) {
+        return of(amount, currencyCode, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Amount rounded to the currency's fraction digits.
+     *
+     * @throws IllegalArgumentException if rounding is needed under {@link RoundingMode#UNNECESSARY},
+     *                                  or the amount overflows a long of minor units
+     */
+    public static Money of(BigDecimal amount, String currencyCode, RoundingMode rounding) {
+        short packed = pack(currencyCode);
+        try {
+            BigDecimal minor = amount.setScale(fractionDigits(packed), rounding);
+            return new Money(minor.unscaledValue().longValueExact(), packed);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " is not representable in " + currencyCode, e);
+        }
+    }
+
+    /**
+     * Lenient read of an event amount, for events written when amounts were
+     * plain decimals: extra fraction digits are rounded half-even and a
+     * missing currency is {@link #DEFAULT_CURRENCY}.
+     *
+     * @throws IllegalArgumentException for an unknown currency or an amount beyond a long of minor units
+     */
+    public static Money decode(BigDecimal amount, String currencyCode) {
+        return of(amount, currencyCode != null ? currencyCode : DEFAULT_CURRENCY, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Amount given as an unscaled value and scale, as carried by decimal wire formats.
+     *
+     * @throws IllegalArgumentException if the amount has more fraction digits than the currency
+     * @throws ArithmeticException if the amount overflows a long of minor units
+     */
+    public static Money ofScaled(long unscaled, int scale, String currencyCode) {
+        short packed = pack(currencyCode);
+        int digits = fractionDigits(packed);
+        long minor;
+        if (scale == digits) {
+            minor = unscaled;
+        } else if (scale < digits) {
+            minor = Math.multiplyExact(unscaled, POWERS_OF_TEN[digits - scale]);
+        } else {
+            long divisor = scale - digits < POWERS_OF_TEN.length ? POWERS_OF_TEN[scale - digits] : 0;
+            if (divisor == 0 || unscaled % divisor != 0) {
+                throw new IllegalArgumentException("Amount " + BigDecimal.valueOf(unscaled, scale)
+                    + " is not representable in " + currencyCode);
+            }
+            minor = unscaled / divisor;
+        }
+        return new Money(minor, packed);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrencyCode() {
+        return CODES[currency];
+    }
+
+    /**
+     * Compact currency code: three letters, five bits each.
+     */
+    public short getPackedCurrency() {
+        return currency;
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits(currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, getFractionDigits());
+    }
+
+    /**
+     * Plain decimal string of the amount, e.g. {@code "-0.05"}.
+     */
+    public String toPlainString() {
+        int digits = getFractionDigits();
+        if (digits == 0) {
+            return Long.toString(minorUnits);
+        }
+        StringBuilder out = new StringBuilder(24);
+        if (minorUnits < 0) {
+            out.append('-');
+        }
+        // Math.abs would overflow for Long.MIN_VALUE; work on the negative remainder instead
+        long whole = minorUnits / POWERS_OF_TEN[digits];
+        long fraction = minorUnits % POWERS_OF_TEN[digits];
+        out.append(whole < 0 ? Long.toString(whole).substring(1) : Long.toString(whole)).append('.');
+        String fractionDigits = Long.toString(Math.abs(fraction));
+        for (int i = fractionDigits.length(); i < digits; i++) {
+            out.append('0');
+        }
+        return out.append(fractionDigits).toString();
+    }
+
+    public Money plus(Money other) {
+        checkSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isSameCurrency(Money other) {
+        return currency == other.currency;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits && currency == other.currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency;
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString() + " " + getCurrencyCode();
+    }
+
+    /**
+     * Packs and validates an ISO 4217 code such as {@code "USD"}.
+     *
+     * @throws IllegalArgumentException for unknown currencies
+     */
+    public static short pack(String currencyCode) {
+        int packed = currencyCode != null ? packLetters(currencyCode) : -1;
+        if (packed < 0 || FRACTION_DIGITS[packed] == 0) {
+            throw new IllegalArgumentException("Unknown currency code: " + currencyCode);
+        }
+        return (short) packed;
+    }
+
+    static int fractionDigits(short packed) {
+        return FRACTION_DIGITS[packed] - 1;
+    }
+
+    private static int packLetters(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            packed = (packed << LETTER_BITS) | letter;
+        }
+        return packed;
+    }
+
+    private static void checkPacked(short packed) {
+        if (packed < 0 || FRACTION_DIGITS[packed] == 0) {
+            throw new IllegalArgumentException("Unknown packed currency " + packed);
+        }
+    }
+
+    private void checkSameCurrency(Money other) {
+        if (currency != other.currency) {
+            throw new IllegalArgumentException("Currency mismatch: " + getCurrencyCode()
+                + " vs " + other.getCurrencyCode());
+        }
+    }
+}
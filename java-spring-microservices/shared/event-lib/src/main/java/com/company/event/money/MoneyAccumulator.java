@@ -0,0 +1,49 @@
+package com.company.event.money;
+
+/**
+ * Mutable running total for folding many amounts of one currency, e.g.
+ * summing order totals in a consumer. Adds are plain long arithmetic with
+ * overflow checks; no {@link Money} is created until {@link #total()}.
+ *
+ * Not thread-safe.
+ */
+public final class MoneyAccumulator {
+
+    private final short currency;
+    private long minorUnits;
+    private long count;
+
+    public MoneyAccumulator(String currencyCode) {
+        this.currency = Money.pack(currencyCode);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the amount is in another currency
+     */
+    public MoneyAccumulator add(Money amount) {
+        if (amount.getPackedCurrency() != currency) {
+            throw new IllegalArgumentException("Currency mismatch: cannot add " + amount
+                + " to a total in " + total().getCurrencyCode());
+        }
+        minorUnits = Math.addExact(minorUnits, amount.getMinorUnits());
+        count++;
+        return this;
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Money total() {
+        return Money.ofMinor(minorUnits, currency);
+    }
+
+    public void reset() {
+        minorUnits = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.company.event.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Jackson support for {@link Money} in the existing event JSON layout, where
+ * an amount is a plain decimal number and the currency is a sibling field.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    /**
+     * Writes only the amount, as a JSON number (e.g. {@code 149.97}).
+     * Use with {@code @JsonSerialize(using = MoneyJson.AmountSerializer.class)}.
+     */
+    public static class AmountSerializer extends StdSerializer<Money> {
+
+        public AmountSerializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.toPlainString());
+        }
+    }
+}
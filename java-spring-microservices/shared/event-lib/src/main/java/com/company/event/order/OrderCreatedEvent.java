@@ -1,6 +1,11 @@
 package com.company.event.order;
 
 import com.company.event.BaseEvent;
+import com.company.event.money.Money;
+import com.company.event.money.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -8,10 +13,23 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Event published when a new order is created.
+ *
+ * Amounts are {@link Money} in the order currency. On the wire they keep the
+ * original layout: decimal {@code totalAmount} / {@code price} plus a
+ * {@code currency} string. Reading is lenient, as {@link Money#decode}:
+ * events written with plain decimals still decode.
+ *
+ * Source change from the BigDecimal fields: {@code getTotalAmount()} and
+ * {@code OrderItemDto.getPrice()} return Money (use {@link Money#toBigDecimal()}
+ * for the old value), and the currency is no longer set on its own but comes
+ * with the amounts, e.g. {@code .totalAmount(Money.of(amount, "EUR"))}.
+ * {@link #getCurrency()} is unchanged.
  */
 @Data
 @SuperBuilder
@@ -24,8 +42,8 @@ public class OrderCreatedEvent extends BaseEvent {
 
     private Long orderId;
     private Long userId;
-    private BigDecimal totalAmount;
-    private String currency;
+    @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+    private Money totalAmount;
     private List<OrderItemDto> items;
 
     @Override
@@ -33,6 +51,40 @@ public class OrderCreatedEvent extends BaseEvent {
         return EVENT_TYPE;
     }
 
+    /**
+     * Currency shared by the total and all item prices.
+     */
+    @JsonProperty("currency")
+    public String getCurrency() {
+        return totalAmount != null ? totalAmount.getCurrencyCode() : null;
+    }
+
+    @JsonCreator
+    static OrderCreatedEvent fromJson(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("orderId") Long orderId,
+            @JsonProperty("userId") Long userId,
+            @JsonProperty("totalAmount") BigDecimal totalAmount,
+            @JsonProperty("currency") String currency,
+            @JsonProperty("items") List<JsonItem> items) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setEventId(eventId);
+        event.setTimestamp(timestamp);
+        event.setOrderId(orderId);
+        event.setUserId(userId);
+        event.setTotalAmount(totalAmount != null ? Money.decode(totalAmount, currency) : null);
+        if (items != null) {
+            List<OrderItemDto> converted = new ArrayList<>(items.size());
+            for (JsonItem item : items) {
+                converted.add(new OrderItemDto(item.productId(), item.productName(), item.quantity(),
+                    item.price() != null ? Money.decode(item.price(), currency) : null));
+            }
+            event.setItems(converted);
+        }
+        return event;
+    }
+
     @Data
     @SuperBuilder
     @NoArgsConstructor
@@ -41,6 +93,10 @@ public class OrderCreatedEvent extends BaseEvent {
         private Long productId;
         private String productName;
         private int quantity;
-        private BigDecimal price;
+        @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+        private Money price;
+    }
+
+    private record JsonItem(Long productId, String productName, int quantity, BigDecimal price) {
     }
 }
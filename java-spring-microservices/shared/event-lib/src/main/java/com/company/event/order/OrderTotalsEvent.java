@@ -0,0 +1,77 @@
+package com.company.event.order;
+
+import com.company.event.BaseEvent;
+import com.company.event.money.Money;
+import com.company.event.money.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Summary published when a streaming aggregation closes a window of
+ * {@link OrderCreatedEvent}s: the order total and count of one user, or of
+ * all users when {@code userId} is null, in one currency.
+ *
+ * Carries both the closed tumbling window and the sliding window that ends
+ * with it. On the wire the amounts are decimals plus a shared
+ * {@code currency} string, like the order events.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class OrderTotalsEvent extends BaseEvent {
+
+    private static final String EVENT_TYPE = "ORDER_TOTALS";
+
+    private Long userId;
+    private Instant windowStart;
+    private Instant windowEnd;
+    @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+    private Money total;
+    private long orderCount;
+    private Instant slidingWindowStart;
+    @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+    private Money slidingTotal;
+    private long slidingOrderCount;
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @JsonProperty("currency")
+    public String getCurrency() {
+        return total != null ? total.getCurrencyCode() : null;
+    }
+
+    @JsonCreator
+    static OrderTotalsEvent fromJson(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("userId") Long userId,
+            @JsonProperty("windowStart") Instant windowStart,
+            @JsonProperty("windowEnd") Instant windowEnd,
+            @JsonProperty("total") BigDecimal total,
+            @JsonProperty("orderCount") long orderCount,
+            @JsonProperty("slidingWindowStart") Instant slidingWindowStart,
+            @JsonProperty("slidingTotal") BigDecimal slidingTotal,
+            @JsonProperty("slidingOrderCount") long slidingOrderCount,
+            @JsonProperty("currency") String currency) {
+        OrderTotalsEvent event = new OrderTotalsEvent(userId, windowStart, windowEnd,
+            total != null ? Money.of(total, currency) : null, orderCount, slidingWindowStart,
+            slidingTotal != null ? Money.of(slidingTotal, currency) : null, slidingOrderCount);
+        event.setEventId(eventId);
+        event.setTimestamp(timestamp);
+        return event;
+    }
+}
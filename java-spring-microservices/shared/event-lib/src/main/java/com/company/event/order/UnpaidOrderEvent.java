@@ -0,0 +1,64 @@
+package com.company.event.order;
+
+import com.company.event.BaseEvent;
+import com.company.event.money.Money;
+import com.company.event.money.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published by reconciliation when an order saw no PaymentCompletedEvent
+ * before its payment deadline.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class UnpaidOrderEvent extends BaseEvent {
+
+    private static final String EVENT_TYPE = "ORDER_UNPAID";
+
+    private Long orderId;
+    private Long userId;
+    @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+    private Money totalAmount;
+    private Instant orderedAt;
+    private Instant paymentDeadline;
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @JsonProperty("currency")
+    public String getCurrency() {
+        return totalAmount != null ? totalAmount.getCurrencyCode() : null;
+    }
+
+    @JsonCreator
+    static UnpaidOrderEvent fromJson(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("orderId") Long orderId,
+            @JsonProperty("userId") Long userId,
+            @JsonProperty("totalAmount") BigDecimal totalAmount,
+            @JsonProperty("currency") String currency,
+            @JsonProperty("orderedAt") Instant orderedAt,
+            @JsonProperty("paymentDeadline") Instant paymentDeadline) {
+        UnpaidOrderEvent event = new UnpaidOrderEvent(orderId, userId,
+            totalAmount != null ? Money.of(totalAmount, currency) : null, orderedAt, paymentDeadline);
+        event.setEventId(eventId);
+        event.setTimestamp(timestamp);
+        return event;
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.event.payment;
+
+import com.company.event.BaseEvent;
+import com.company.event.money.Money;
+import com.company.event.money.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published by reconciliation when a payment's order did not show up
+ * within the wait allowed for it.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class OrphanPaymentEvent extends BaseEvent {
+
+    private static final String EVENT_TYPE = "PAYMENT_ORPHANED";
+
+    private Long paymentId;
+    private Long orderId;
+    private Long userId;
+    @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+    private Money amount;
+    private Instant paidAt;
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @JsonProperty("currency")
+    public String getCurrency() {
+        return amount != null ? amount.getCurrencyCode() : null;
+    }
+
+    @JsonCreator
+    static OrphanPaymentEvent fromJson(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("paymentId") Long paymentId,
+            @JsonProperty("orderId") Long orderId,
+            @JsonProperty("userId") Long userId,
+            @JsonProperty("amount") BigDecimal amount,
+            @JsonProperty("currency") String currency,
+            @JsonProperty("paidAt") Instant paidAt) {
+        OrphanPaymentEvent event = new OrphanPaymentEvent(paymentId, orderId, userId,
+            amount != null ? Money.of(amount, currency) : null, paidAt);
+        event.setEventId(eventId);
+        event.setTimestamp(timestamp);
+        return event;
+    }
+}
@@ -1,6 +1,11 @@
 package com.company.event.payment;
 
 import com.company.event.BaseEvent;
+import com.company.event.money.Money;
+import com.company.event.money.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -8,9 +13,19 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 /**
  * Event published when a payment is completed.
+ *
+ * The amount is {@link Money}; on the wire it keeps the original layout of a
+ * decimal {@code amount} plus a {@code currency} string. Reading is lenient,
+ * as {@link Money#decode}: events written with plain decimals still decode.
+ *
+ * Source change from the BigDecimal field: {@code getAmount()} returns Money
+ * (use {@link Money#toBigDecimal()} for the old value), and the currency is no
+ * longer set on its own but comes with the amount, e.g.
+ * {@code .amount(Money.of(amount, "EUR"))}. {@link #getCurrency()} is unchanged.
  */
 @Data
 @SuperBuilder
@@ -24,8 +39,8 @@ public class PaymentCompletedEvent extends BaseEvent {
     private Long paymentId;
     private Long orderId;
     private Long userId;
-    private BigDecimal amount;
-    private String currency;
+    @JsonSerialize(using = MoneyJson.AmountSerializer.class)
+    private Money amount;
     private String paymentMethod;
     private String transactionId;
 
@@ -33,4 +48,27 @@ public class PaymentCompletedEvent extends BaseEvent {
     public String getEventType() {
         return EVENT_TYPE;
     }
+
+    @JsonProperty("currency")
+    public String getCurrency() {
+        return amount != null ? amount.getCurrencyCode() : null;
+    }
+
+    @JsonCreator
+    static PaymentCompletedEvent fromJson(
+            @JsonProperty("eventId") String eventId,
+            @JsonProperty("timestamp") Instant timestamp,
+            @JsonProperty("paymentId") Long paymentId,
+            @JsonProperty("orderId") Long orderId,
+            @JsonProperty("userId") Long userId,
+            @JsonProperty("amount") BigDecimal amount,
+            @JsonProperty("currency") String currency,
+            @JsonProperty("paymentMethod") String paymentMethod,
+            @JsonProperty("transactionId") String transactionId) {
+        PaymentCompletedEvent event = new PaymentCompletedEvent(paymentId, orderId, userId,
+            amount != null ? Money.decode(amount, currency) : null, paymentMethod, transactionId);
+        event.setEventId(eventId);
+        event.setTimestamp(timestamp);
+        return event;
+    }
 }
@@ -0,0 +1,140 @@
+package com.company.event;
+
+import com.company.event.codec.BinaryDecoder;
+import com.company.event.codec.BinaryEncoder;
+import com.company.event.codec.EventCodecs;
+import com.company.event.user.UserCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventIdsTest {
+
+    @Test
+    void idsAreVersion7UuidsInCanonicalForm() {
+        String id = EventIds.next();
+        UUID uuid = UUID.fromString(id);
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(id).isEqualTo(uuid.toString());
+        assertThat(EventIds.isUuid(id)).isTrue();
+        assertThat(EventIds.isTimeOrdered(id)).isTrue();
+        assertThat(EventIds.nextUuid().version()).isEqualTo(7);
+    }
+
+    @Test
+    void idsFromOneThreadAreStrictlyIncreasing() {
+        // Well over 4096 per millisecond, so the counter overflows into borrowed milliseconds
+        String previous = EventIds.next();
+        for (int i = 0; i < 200_000; i++) {
+            String id = EventIds.next();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        List<Future<List<String>>> batches = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                batches.add(threads.submit(() -> {
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(EventIds.next());
+                    }
+                    return ids;
+                }));
+            }
+        }
+        List<String> all = new ArrayList<>();
+        for (Future<List<String>> batch : batches) {
+            all.addAll(batch.get());
+        }
+
+        assertThat(all).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void timestampOfReturnsTheCreationMillisecond() {
+        long before = System.currentTimeMillis();
+        String id = EventIds.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(EventIds.timestampOf(id))
+            .isBetween(Instant.ofEpochMilli(before), Instant.ofEpochMilli(after + 1));
+    }
+
+    @Test
+    void timestampOfRejectsOtherUuidVersions() {
+        String random = UUID.randomUUID().toString();
+
+        assertThat(EventIds.isTimeOrdered(random)).isFalse();
+        assertThatThrownBy(() -> EventIds.timestampOf(random)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventIds.timestampOf("legacy-17")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bytesRoundTripForAnyCanonicalUuid() {
+        for (String id : List.of(EventIds.next(), UUID.randomUUID().toString(),
+                "00000000-0000-0000-0000-000000000000", "ffffffff-ffff-ffff-ffff-ffffffffffff")) {
+            byte[] bytes = EventIds.toBytes(id);
+
+            assertThat(bytes).hasSize(EventIds.BINARY_LENGTH);
+            assertThat(EventIds.fromBytes(bytes)).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void bytesAreBigEndianSoTheySortLikeTheIds() {
+        UUID uuid = UUID.fromString(EventIds.next());
+        byte[] bytes = EventIds.toBytes(uuid.toString());
+
+        assertThat(bytes[0]).isEqualTo((byte) (uuid.getMostSignificantBits() >>> 56));
+        assertThat(bytes[15]).isEqualTo((byte) uuid.getLeastSignificantBits());
+    }
+
+    @Test
+    void fromBytesReadsAtAnOffset() {
+        String id = EventIds.next();
+        byte[] buffer = new byte[20];
+        EventIds.writeBytes(id, buffer, 4);
+
+        assertThat(EventIds.fromBytes(buffer, 4)).isEqualTo(id);
+    }
+
+    @Test
+    void onlyCanonicalLowercaseUuidsAreUuids() {
+        String id = EventIds.next();
+
+        assertThat(EventIds.isUuid(id.toUpperCase())).isFalse();
+        assertThat(EventIds.isUuid(id.replace("-", ""))).isFalse();
+        assertThat(EventIds.isUuid(id.substring(1) + "g")).isFalse();
+        assertThat(EventIds.isUuid(null)).isFalse();
+        assertThatThrownBy(() -> EventIds.toBytes(id.toUpperCase())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void uppercaseIdsKeepTheirCaseThroughTheBinaryCodec() {
+        String upper = UUID.randomUUID().toString().toUpperCase();
+        UserCreatedEvent event = UserCreatedEvent.builder().eventId(upper).userId(1L).build();
+        EventCodecs codecs = EventCodecs.defaults();
+
+        BinaryEncoder out = new BinaryEncoder();
+        codecs.forEvent(event).encode(event, out);
+        UserCreatedEvent decoded = (UserCreatedEvent) codecs.forEventType(event.getEventType())
+            .decode(new BinaryDecoder(out.toByteArray()));
+
+        assertThat(decoded.getEventId()).isEqualTo(upper);
+    }
+}
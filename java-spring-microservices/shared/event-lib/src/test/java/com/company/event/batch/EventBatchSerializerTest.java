@@ -0,0 +1,165 @@
+package com.company.event.batch;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.codec.EventCodecs;
+import com.company.event.codec.LocalSchemaRegistry;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderCreatedEvent.OrderItemDto;
+import com.company.event.user.UserCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventBatchSerializerTest {
+
+    private static final String TOPIC = "order-events-batched";
+
+    private final EventBatchDeserializer deserializer = new EventBatchDeserializer();
+
+    @ParameterizedTest
+    @EnumSource(BatchCompression.class)
+    void batchRoundTripsInPublishOrder(BatchCompression compression) {
+        EventBatch batch = EventBatch.of(orders(500));
+
+        byte[] value = serializer(compression).serialize(TOPIC, batch);
+        EventBatch decoded = deserializer.deserialize(TOPIC, value);
+
+        assertThat(value[1]).isEqualTo(compression.id);
+        assertThat(decoded.getAggregateType()).isEqualTo("OrderCreated");
+        assertThat(decoded.getEvents()).isEqualTo(batch.getEvents());
+    }
+
+    @Test
+    void compressionShrinksRepetitiveBatches() {
+        EventBatch batch = EventBatch.of(orders(500));
+
+        int uncompressed = serializer(BatchCompression.NONE).serialize(TOPIC, batch).length;
+        int lz4 = serializer(BatchCompression.LZ4).serialize(TOPIC, batch).length;
+
+        assertThat(lz4).isLessThan(uncompressed / 2);
+    }
+
+    @Test
+    void compressionIsConfigurable() {
+        EventBatchSerializer serializer = new EventBatchSerializer();
+        serializer.configure(Map.of(EventBatchSerializer.COMPRESSION_CONFIG, "zstd"), false);
+
+        byte[] value = serializer.serialize(TOPIC, EventBatch.of(orders(3)));
+
+        assertThat(value[1]).isEqualTo(BatchCompression.ZSTD.id);
+        assertThat(deserializer.deserialize(TOPIC, value).size()).isEqualTo(3);
+    }
+
+    @Test
+    void headersCarryTheBatchTypeAndSize() {
+        RecordHeaders headers = new RecordHeaders();
+
+        new EventBatchSerializer().serialize(TOPIC, headers, EventBatch.of(orders(4)));
+
+        assertThat(new String(headers.lastHeader(EventHeaders.EVENT_TYPE).value())).isEqualTo(EventBatch.EVENT_TYPE);
+        assertThat(new String(headers.lastHeader(EventHeaders.AGGREGATE_TYPE).value())).isEqualTo("OrderCreated");
+        assertThat(ByteBuffer.wrap(headers.lastHeader(EventHeaders.BATCH_SIZE).value()).getInt()).isEqualTo(4);
+    }
+
+    @Test
+    void nullsPassThrough() {
+        assertThat(new EventBatchSerializer().serialize(TOPIC, null)).isNull();
+        assertThat(deserializer.deserialize(TOPIC, null)).isNull();
+    }
+
+    @Test
+    void truncatedOrForeignValuesAreRejected() {
+        byte[] value = serializer(BatchCompression.LZ4).serialize(TOPIC, EventBatch.of(orders(50)));
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, Arrays.copyOf(value, value.length / 2)))
+            .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, "{\"eventType\":\"X\"}".getBytes()))
+            .isInstanceOf(SerializationException.class)
+            .hasMessageContaining("Not an event batch");
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, new byte[3]))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void corruptCountsAndLengthsAreRejectedBeforeAllocating() {
+        byte[] value = serializer(BatchCompression.NONE).serialize(TOPIC, EventBatch.of(orders(3)));
+
+        byte[] hugeCount = value.clone();
+        ByteBuffer.wrap(hugeCount).putInt(2, Integer.MAX_VALUE);
+        byte[] negativeCount = value.clone();
+        ByteBuffer.wrap(negativeCount).putInt(2, -1);
+        byte[] hugeLength = value.clone();
+        ByteBuffer.wrap(hugeLength).putInt(EventBatchSerializer.PREAMBLE_LENGTH + 4, Integer.MAX_VALUE);
+        byte[] negativeLength = value.clone();
+        ByteBuffer.wrap(negativeLength).putInt(EventBatchSerializer.PREAMBLE_LENGTH + 4, -5);
+        byte[] unknownCompression = value.clone();
+        unknownCompression[1] = 42;
+
+        for (byte[] corrupt : List.of(hugeCount, negativeCount, hugeLength, negativeLength, unknownCompression)) {
+            assertThatThrownBy(() -> deserializer.deserialize(TOPIC, corrupt))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining(TOPIC);
+        }
+    }
+
+    @Test
+    void corruptCountOfACompressedBatchRunsOutOfBytes() {
+        byte[] value = serializer(BatchCompression.ZSTD).serialize(TOPIC, EventBatch.of(orders(3)));
+        ByteBuffer.wrap(value).putInt(2, Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, value))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void compressionNamesAndIdsMatchKafka() {
+        for (BatchCompression compression : BatchCompression.values()) {
+            CompressionType kafka = CompressionType.forName(compression.configName);
+            assertThat(compression.id).isEqualTo((byte) kafka.id);
+            assertThat(BatchCompression.forName(kafka.name.toUpperCase())).isEqualTo(compression);
+        }
+        assertThatThrownBy(() -> BatchCompression.forName("brotli")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void batchesHoldOneAggregateTypeAndAtLeastOneEvent() {
+        List<DomainEvent> mixed = List.of(orders(1).get(0), UserCreatedEvent.builder().eventId(EventIds.next()).build());
+
+        assertThatThrownBy(() -> EventBatch.of(mixed)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventBatch.of(List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static EventBatchSerializer serializer(BatchCompression compression) {
+        return new EventBatchSerializer(EventCodecs.defaults(), LocalSchemaRegistry.classpath(), compression);
+    }
+
+    private static List<OrderCreatedEvent> orders(int count) {
+        Instant start = Instant.parse("2024-03-01T12:00:00Z");
+        return IntStream.range(0, count)
+            .<OrderCreatedEvent>mapToObj(i -> OrderCreatedEvent.builder()
+                .eventId(EventIds.next())
+                .timestamp(start.plusMillis(i))
+                .orderId((long) i)
+                .userId(i % 100L)
+                .totalAmount(Money.ofMinor(2_500, "USD"))
+                .items(List.of(new OrderItemDto(1L, "Widget", 1, Money.ofMinor(2_500, "USD"))))
+                .build())
+            .toList();
+    }
+}
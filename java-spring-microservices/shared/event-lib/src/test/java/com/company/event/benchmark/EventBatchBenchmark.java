@@ -0,0 +1,176 @@
+package com.company.event.benchmark;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.batch.BatchCompression;
+import com.company.event.batch.EventBatch;
+import com.company.event.batch.EventBatchDeserializer;
+import com.company.event.batch.EventBatchSerializer;
+import com.company.event.codec.EventCodecs;
+import com.company.event.codec.LocalSchemaRegistry;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.Record;
+import org.apache.kafka.common.record.SimpleRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One JSON record per OrderCreatedEvent (producer-side compression, as with
+ * compression.type) vs one {@link EventBatch} record per batch.
+ *
+ * Both sides build a real Kafka record batch ({@link MemoryRecords}), so the
+ * printed sizes are bytes on the wire including record and header overhead.
+ * Scores are per record batch; divide by batchSize for per-event cost.
+ *
+ * Run: mvn -pl shared/event-lib -Pbenchmarks verify -Djmh.include=EventBatchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBatchBenchmark {
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({"lz4", "zstd"})
+    private String compression;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private CompressionType compressionType;
+    private EventBatchSerializer batchSerializer;
+    private final EventBatchDeserializer batchDeserializer = new EventBatchDeserializer();
+
+    private List<OrderCreatedEvent> events;
+    private EventBatch batch;
+    private MemoryRecords singleRecords;
+    private MemoryRecords batchRecord;
+
+    @Setup
+    public void setUp() throws Exception {
+        compressionType = CompressionType.forName(compression);
+        batchSerializer = new EventBatchSerializer(EventCodecs.defaults(), LocalSchemaRegistry.classpath(),
+            BatchCompression.forName(compression));
+        events = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            events.add(sampleOrder(i));
+        }
+        batch = EventBatch.of(events);
+        singleRecords = singleJson(events);
+        batchRecord = batched(batch);
+        System.out.printf("%n%d orders, %s: single JSON records=%d bytes (%.1f/event), "
+                + "EventBatch record=%d bytes (%.1f/event)%n",
+            batchSize, compression,
+            singleRecords.sizeInBytes(), (double) singleRecords.sizeInBytes() / batchSize,
+            batchRecord.sizeInBytes(), (double) batchRecord.sizeInBytes() / batchSize);
+    }
+
+    @Benchmark
+    public MemoryRecords singleJsonPublish() throws Exception {
+        return singleJson(events);
+    }
+
+    @Benchmark
+    public MemoryRecords batchedPublish() {
+        return batched(batch);
+    }
+
+    @Benchmark
+    public void singleJsonConsume(Blackhole blackhole) throws Exception {
+        for (Record record : singleRecords.records()) {
+            byte[] value = new byte[record.valueSize()];
+            record.value().get(value);
+            blackhole.consume(objectMapper.readValue(value, OrderCreatedEvent.class));
+        }
+    }
+
+    @Benchmark
+    public void batchedConsume(Blackhole blackhole) {
+        for (Record record : batchRecord.records()) {
+            byte[] value = new byte[record.valueSize()];
+            record.value().get(value);
+            for (DomainEvent event : batchDeserializer.deserialize("bench", value)) {
+                blackhole.consume(event);
+            }
+        }
+    }
+
+    private MemoryRecords singleJson(List<OrderCreatedEvent> orders) throws Exception {
+        SimpleRecord[] records = new SimpleRecord[orders.size()];
+        for (int i = 0; i < records.length; i++) {
+            OrderCreatedEvent order = orders.get(i);
+            RecordHeaders headers = new RecordHeaders();
+            EventHeaders.stamp(headers, order);
+            records[i] = new SimpleRecord(order.getTimestamp().toEpochMilli(), key(order),
+                objectMapper.writeValueAsBytes(order), headers.toArray());
+        }
+        return MemoryRecords.withRecords(compressionType, records);
+    }
+
+    private MemoryRecords batched(EventBatch orders) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] value = batchSerializer.serialize("bench", headers, orders);
+        // Already block-compressed; producer compression would only add CPU
+        return MemoryRecords.withRecords(CompressionType.NONE,
+            new SimpleRecord(System.currentTimeMillis(), key(events.get(0)), value, headers.toArray()));
+    }
+
+    private static byte[] key(OrderCreatedEvent order) {
+        return String.valueOf(order.getUserId()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static OrderCreatedEvent sampleOrder(int i) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderCreatedEvent.OrderItemDto> items = new ArrayList<>();
+        Money total = Money.zero("USD");
+        for (int n = 1 + random.nextInt(4); n > 0; n--) {
+            Money price = Money.ofMinor(random.nextInt(100, 20000), "USD");
+            int quantity = 1 + random.nextInt(3);
+            items.add(OrderCreatedEvent.OrderItemDto.builder()
+                .productId(1000L + random.nextInt(500))
+                .productName("Product " + random.nextInt(500))
+                .quantity(quantity)
+                .price(price)
+                .build());
+            total = total.plus(price.times(quantity));
+        }
+        return OrderCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(Instant.now())
+            .orderId(1_000_000L + i)
+            .userId(10_000L + random.nextInt(5000))
+            .totalAmount(total)
+            .items(items)
+            .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.company.event.benchmark;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.BinaryEventDeserializer;
+import com.company.event.codec.BinaryEventSerializer;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.event.user.UserCreatedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary codec vs the current reflective JSON path (Jackson, as used by
+ * spring-kafka's JsonSerializer/JsonDeserializer).
+ *
+ * Encoded sizes are printed during setup.
+ *
+ * Run: mvn -pl shared/event-lib -Pbenchmarks verify -Djmh.include=EventCodecBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    @Param({"USER_CREATED", "ORDER_CREATED", "PAYMENT_COMPLETED"})
+    private String eventType;
+
+    // Configured like spring-kafka's JacksonUtils.enhancedObjectMapper()
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final BinaryEventSerializer binarySerializer = new BinaryEventSerializer();
+    private final BinaryEventDeserializer binaryDeserializer = new BinaryEventDeserializer();
+
+    private DomainEvent event;
+    private Class<? extends DomainEvent> eventClass;
+    private byte[] json;
+    private byte[] binary;
+    private RecordHeaders headers;
+
+    @Setup
+    public void setUp() throws Exception {
+        event = sampleEvent(eventType);
+        eventClass = event.getClass();
+        json = objectMapper.writeValueAsBytes(event);
+        headers = new RecordHeaders();
+        binary = binarySerializer.serialize("bench", headers, event);
+        System.out.printf("%n%s size: json=%d bytes, binary=%d bytes (+%d header bytes)%n",
+            eventType, json.length, binary.length, BinaryEventSerializer.SCHEMA_ID_HEADER.length() + 4);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public DomainEvent jsonDecode() throws Exception {
+        return objectMapper.readValue(json, eventClass);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binarySerializer.serialize("bench", new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public DomainEvent binaryDecode() {
+        return binaryDeserializer.deserialize("bench", headers, binary);
+    }
+
+    static DomainEvent sampleEvent(String eventType) {
+        String eventId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        return switch (eventType) {
+            case "USER_CREATED" -> UserCreatedEvent.builder()
+                .eventId(eventId)
+                .timestamp(now)
+                .userId(123456L)
+                .username("jane.doe")
+                .email("jane.doe@example.com")
+                .build();
+            case "ORDER_CREATED" -> OrderCreatedEvent.builder()
+                .eventId(eventId)
+                .timestamp(now)
+                .orderId(987654321L)
+                .userId(123456L)
+                .totalAmount(Money.of(new BigDecimal("149.97"), "USD"))
+                .items(List.of(
+                    item(1001L, "Mechanical Keyboard", 1, "89.99"),
+                    item(1002L, "USB-C Cable", 2, "9.99"),
+                    item(1003L, "Mouse Pad", 1, "40.00")))
+                .build();
+            case "PAYMENT_COMPLETED" -> PaymentCompletedEvent.builder()
+                .eventId(eventId)
+                .timestamp(now)
+                .paymentId(555L)
+                .orderId(987654321L)
+                .userId(123456L)
+                .amount(Money.of(new BigDecimal("149.97"), "USD"))
+                .paymentMethod("CARD")
+                .transactionId("txn_8f14e45fceea167a5a36dedd4bea2543")
+                .build();
+            default -> throw new IllegalArgumentException(eventType);
+        };
+    }
+
+    private static OrderCreatedEvent.OrderItemDto item(long productId, String name, int quantity, String price) {
+        return OrderCreatedEvent.OrderItemDto.builder()
+            .productId(productId)
+            .productName(name)
+            .quantity(quantity)
+            .price(Money.of(new BigDecimal(price), "USD"))
+            .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.company.event.benchmark;
+
+import com.company.event.EventIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event id generation under concurrency: {@code UUID.randomUUID()} (shared
+ * SecureRandom) vs {@link EventIds} (per-thread state, ThreadLocalRandom).
+ *
+ * Run: mvn -pl shared/event-lib -Pbenchmarks verify -Djmh.include=EventIdBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class EventIdBenchmark {
+
+    private final String eventId = EventIds.next();
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return EventIds.next();
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return EventIds.toBytes(eventId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.company.event.benchmark;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.bus.LocalEventBus;
+import com.company.event.bus.WaitStrategies;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of DomainEvents to N in-process subscribers: Spring's
+ * ApplicationEventPublisher (synchronous, on the publishing thread) vs
+ * {@link LocalEventBus} (one thread per subscriber, batched consumption).
+ *
+ * Bus scores are end to end: each invocation publishes a burst and waits
+ * until every subscriber has seen all of it. Subscribers only sum order ids,
+ * so this measures dispatch overhead, not listener work.
+ *
+ * Run: mvn -pl shared/event-lib -Pbenchmarks verify -Djmh.include=LocalEventBusBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalEventBusBenchmark {
+
+    private static final int BURST = 1024;
+
+    @Param({"1", "4", "16"})
+    private int subscribers;
+
+    @Param({"yielding", "blocking"})
+    private String waitStrategy;
+
+    private final AtomicLong sink = new AtomicLong();
+    private DomainEvent[] events;
+    private GenericApplicationContext context;
+    private LocalEventBus bus;
+
+    @Setup
+    public void setUp() {
+        events = new DomainEvent[BURST];
+        for (int i = 0; i < BURST; i++) {
+            events[i] = OrderCreatedEvent.builder()
+                .eventId(EventIds.next())
+                .timestamp(Instant.now())
+                .orderId((long) i)
+                .userId(42L)
+                .totalAmount(Money.ofMinor(1999, "USD"))
+                .build();
+        }
+
+        context = new GenericApplicationContext();
+        for (int i = 0; i < subscribers; i++) {
+            context.registerBean("listener" + i, DomainEventListener.class, DomainEventListener::new);
+        }
+        context.refresh();
+
+        LocalEventBus.Builder builder = LocalEventBus.builder()
+            .bufferSize(4096)
+            .waitStrategy("blocking".equals(waitStrategy) ? WaitStrategies.blocking() : WaitStrategies.yielding());
+        for (int i = 0; i < subscribers; i++) {
+            long[] sum = new long[1];
+            builder.subscriber("subscriber" + i, (event, endOfBatch) -> {
+                sum[0] += ((OrderCreatedEvent) event).getOrderId();
+                if (endOfBatch) {
+                    sink.addAndGet(sum[0]);
+                    sum[0] = 0;
+                }
+            });
+        }
+        bus = builder.build();
+        bus.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bus.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void applicationEventPublisher() {
+        for (DomainEvent event : events) {
+            context.publishEvent(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void localEventBus() {
+        for (DomainEvent event : events) {
+            bus.publish(event);
+        }
+        if (!bus.awaitProcessed(Duration.ofSeconds(10))) {
+            throw new IllegalStateException("Subscribers did not keep up");
+        }
+    }
+
+    static final class DomainEventListener implements ApplicationListener<PayloadApplicationEvent<DomainEvent>> {
+
+        private long sum;
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<DomainEvent> event) {
+            sum += ((OrderCreatedEvent) event.getPayload()).getOrderId();
+        }
+    }
+}
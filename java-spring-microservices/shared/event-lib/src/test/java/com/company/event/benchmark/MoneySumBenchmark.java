@@ -0,0 +1,91 @@
+package com.company.event.benchmark;
+
+import com.company.event.money.Money;
+import com.company.event.money.MoneyAccumulator;
+import com.company.event.order.OrderCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing order totals the way an aggregating consumer does: the previous
+ * BigDecimal + currency string representation vs {@link Money}.
+ *
+ * Run: mvn -pl shared/event-lib -Pbenchmarks verify -Djmh.include=MoneySumBenchmark
+ * (add -prof gc to see allocation per operation)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneySumBenchmark {
+
+    @Param({"100000"})
+    private int orders;
+
+    private BigDecimal[] decimalTotals;
+    private String[] currencies;
+    private OrderCreatedEvent[] events;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        decimalTotals = new BigDecimal[orders];
+        currencies = new String[orders];
+        events = new OrderCreatedEvent[orders];
+        for (int i = 0; i < orders; i++) {
+            long cents = random.nextLong(100, 1_000_000);
+            // Fresh strings, as each decoded event carries its own copy
+            currencies[i] = new String("USD");
+            decimalTotals[i] = BigDecimal.valueOf(cents, 2);
+            events[i] = OrderCreatedEvent.builder()
+                .orderId((long) i)
+                .totalAmount(Money.ofMinor(cents, "USD"))
+                .build();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalSum() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < orders; i++) {
+            if (!"USD".equals(currencies[i])) {
+                throw new IllegalStateException("Currency mismatch");
+            }
+            sum = sum.add(decimalTotals[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Money moneyPlus() {
+        Money sum = Money.zero("USD");
+        for (OrderCreatedEvent event : events) {
+            sum = sum.plus(event.getTotalAmount());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Money moneyAccumulator() {
+        MoneyAccumulator sum = new MoneyAccumulator("USD");
+        for (OrderCreatedEvent event : events) {
+            sum.add(event.getTotalAmount());
+        }
+        return sum.total();
+    }
+}
@@ -0,0 +1,235 @@
+package com.company.event.bus;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.user.UserCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalEventBusTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private LocalEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.close();
+        }
+    }
+
+    static Stream<Arguments> waitStrategies() {
+        return Stream.of(
+            Arguments.of("busySpin", WaitStrategies.busySpin()),
+            Arguments.of("yielding", WaitStrategies.yielding()),
+            Arguments.of("sleeping", WaitStrategies.sleeping()),
+            Arguments.of("blocking", WaitStrategies.blocking()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("waitStrategies")
+    void eventsWrapAroundASmallRingInPublishOrder(String name, WaitStrategy waitStrategy) {
+        List<DomainEvent> events = events(1_000);
+        List<DomainEvent> first = new CopyOnWriteArrayList<>();
+        List<DomainEvent> second = new CopyOnWriteArrayList<>();
+        bus = LocalEventBus.builder()
+            .bufferSize(8)
+            .waitStrategy(waitStrategy)
+            .subscriber("first", (event, endOfBatch) -> first.add(event))
+            .subscriber("second", (event, endOfBatch) -> second.add(event))
+            .build();
+        bus.start();
+
+        events.forEach(bus::publish);
+
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(bus.getCursor()).isEqualTo(999);
+        assertThat(first).isEqualTo(events);
+        assertThat(second).isEqualTo(events);
+        assertThat(bus.getRemainingCapacity()).isEqualTo(8);
+    }
+
+    @Test
+    void slowSubscriberFillsTheRingAndTryPublishFailsFast() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<DomainEvent> seen = new CopyOnWriteArrayList<>();
+        bus = LocalEventBus.builder()
+            .bufferSize(4)
+            .subscriber("fast", (event, endOfBatch) -> { })
+            .subscriber("slow", (event, endOfBatch) -> {
+                entered.countDown();
+                release.await();
+                seen.add(event);
+            })
+            .build();
+        bus.start();
+        List<DomainEvent> events = events(5);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(bus.tryPublish(events.get(i))).isTrue();
+        }
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The slow subscriber has not finished event 0, so the ring is still full
+        assertThat(bus.getRemainingCapacity()).isZero();
+        assertThat(bus.tryPublish(events.get(4))).isFalse();
+        assertThat(bus.getCursor()).isEqualTo(3);
+
+        release.countDown();
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(bus.tryPublish(events.get(4))).isTrue();
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(seen).isEqualTo(events);
+    }
+
+    @Test
+    void publishWaitsForTheSlowestSubscriberInsteadOfOverwriting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<DomainEvent> seen = new CopyOnWriteArrayList<>();
+        bus = LocalEventBus.builder()
+            .bufferSize(2)
+            .subscriber("slow", (event, endOfBatch) -> {
+                release.await();
+                seen.add(event);
+            })
+            .build();
+        bus.start();
+        List<DomainEvent> events = events(3);
+        bus.publish(events.get(0));
+        bus.publish(events.get(1));
+
+        CountDownLatch published = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            bus.publish(events.get(2));
+            published.countDown();
+        });
+        publisher.start();
+
+        assertThat(published.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(seen).isEqualTo(events);
+    }
+
+    @Test
+    void eventsPublishedWhileASubscriberIsBusyArriveAsOneBatch() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Boolean> endOfBatches = new CopyOnWriteArrayList<>();
+        bus = LocalEventBus.builder()
+            .subscriber("batching", (event, endOfBatch) -> {
+                entered.countDown();
+                release.await();
+                endOfBatches.add(endOfBatch);
+            })
+            .build();
+        bus.start();
+        List<DomainEvent> events = events(4);
+
+        bus.publish(events.get(0));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        events.subList(1, 4).forEach(bus::publish);
+        release.countDown();
+
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(endOfBatches).containsExactly(true, false, false, true);
+    }
+
+    @Test
+    void dependentSubscriberOnlySeesEventsItsUpstreamHasProcessed() {
+        AtomicLong cacheProcessed = new AtomicLong();
+        List<Long> lag = new CopyOnWriteArrayList<>();
+        AtomicLong auditProcessed = new AtomicLong();
+        bus = LocalEventBus.builder()
+            .bufferSize(16)
+            .subscriber("cache", (event, endOfBatch) -> cacheProcessed.incrementAndGet())
+            .subscriber("audit", (event, endOfBatch) ->
+                lag.add(cacheProcessed.get() - auditProcessed.incrementAndGet()), "cache")
+            .build();
+        bus.start();
+
+        events(500).forEach(bus::publish);
+
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(lag).hasSize(500).allSatisfy(behind -> assertThat(behind).isNotNegative());
+    }
+
+    @Test
+    void failingSubscriberIsCountedAndDoesNotStallTheOthers() {
+        List<DomainEvent> seen = new CopyOnWriteArrayList<>();
+        List<DomainEvent> events = events(10);
+        bus = LocalEventBus.builder()
+            .bufferSize(4)
+            .subscriber("failing", (event, endOfBatch) -> {
+                throw new IllegalStateException("cache unavailable");
+            })
+            .subscriber("audit", (event, endOfBatch) -> seen.add(event), "failing")
+            .build();
+        bus.start();
+
+        events.forEach(bus::publish);
+
+        assertThat(bus.awaitProcessed(TIMEOUT)).isTrue();
+        assertThat(bus.getFailures()).isEqualTo(10);
+        assertThat(seen).isEqualTo(events);
+    }
+
+    @Test
+    void closeDrainsOutstandingEvents() {
+        List<DomainEvent> seen = new CopyOnWriteArrayList<>();
+        bus = LocalEventBus.builder()
+            .subscriber("slowish", (event, endOfBatch) -> {
+                Thread.sleep(1);
+                seen.add(event);
+            })
+            .build();
+        bus.start();
+        List<DomainEvent> events = events(50);
+
+        events.forEach(bus::publish);
+        bus.close();
+
+        assertThat(seen).isEqualTo(events);
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        EventSubscriber ignore = (event, endOfBatch) -> { };
+
+        assertThatThrownBy(() -> LocalEventBus.builder().bufferSize(1000).subscriber("a", ignore).build())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("power of 2");
+        assertThatThrownBy(() -> LocalEventBus.builder().subscriber("a", ignore, "missing").build())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("unknown subscriber missing");
+        assertThatThrownBy(() -> LocalEventBus.builder().build())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<DomainEvent> events(int count) {
+        return IntStream.range(0, count)
+            .<DomainEvent>mapToObj(i -> UserCreatedEvent.builder()
+                .eventId(EventIds.next())
+                .userId((long) i)
+                .build())
+            .toList();
+    }
+}
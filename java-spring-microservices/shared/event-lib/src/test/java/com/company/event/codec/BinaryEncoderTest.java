@@ -0,0 +1,212 @@
+package com.company.event.codec;
+
+import com.company.event.EventIds;
+import com.company.event.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEncoderTest {
+
+    private final BinaryEncoder out = new BinaryEncoder(4);
+
+    @Test
+    void everyFieldTypeRoundTrips() {
+        String eventId = EventIds.next();
+        Instant timestamp = Instant.parse("2024-03-01T12:34:56.123456789Z");
+        out.writeLong(1, Long.MIN_VALUE);
+        out.writeLong(2, -1L);
+        out.writeInt(3, Integer.MAX_VALUE);
+        out.writeBoolean(4, true);
+        out.writeString(5, "ascii");
+        out.writeString(6, "naïve – ünïcode ✓");
+        out.writeBytes(7, new byte[] {0, -1, 127});
+        out.writeEventId(8, eventId);
+        out.writeDecimal(9, new BigDecimal("-12345678901234567890.12"));
+        out.writeMoney(10, Money.ofMinor(-1999, "USD"));
+        out.writeInstant(11, timestamp);
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+
+        assertThat(next(in)).isEqualTo(1);
+        assertThat(in.readLong()).isEqualTo(Long.MIN_VALUE);
+        assertThat(next(in)).isEqualTo(2);
+        assertThat(in.readLong()).isEqualTo(-1L);
+        assertThat(next(in)).isEqualTo(3);
+        assertThat(in.readInt()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(next(in)).isEqualTo(4);
+        assertThat(in.readBoolean()).isTrue();
+        assertThat(next(in)).isEqualTo(5);
+        assertThat(in.readString()).isEqualTo("ascii");
+        assertThat(next(in)).isEqualTo(6);
+        assertThat(in.readString()).isEqualTo("naïve – ünïcode ✓");
+        assertThat(next(in)).isEqualTo(7);
+        assertThat(in.readBytes()).containsExactly(0, -1, 127);
+        assertThat(next(in)).isEqualTo(8);
+        assertThat(in.readEventId()).isEqualTo(eventId);
+        assertThat(next(in)).isEqualTo(9);
+        assertThat(in.readDecimal()).isEqualTo(new BigDecimal("-12345678901234567890.12"));
+        assertThat(next(in)).isEqualTo(10);
+        assertThat(in.readMoney("USD")).isEqualTo(Money.ofMinor(-1999, "USD"));
+        assertThat(next(in)).isEqualTo(11);
+        assertThat(in.readInstant()).isEqualTo(timestamp);
+        assertThat(in.nextField()).isFalse();
+    }
+
+    @Test
+    void nullValuesAreOmitted() {
+        out.writeLong(1, (Long) null);
+        out.writeString(2, null);
+        out.writeBytes(3, null);
+        out.writeEventId(4, null);
+        out.writeDecimal(5, null);
+        out.writeMoney(6, null);
+        out.writeInstant(7, null);
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void moneyIsReadableAsADecimalAndBack() {
+        out.writeMoney(1, Money.ofMinor(123456, "USD"));
+        out.writeDecimal(2, new BigDecimal("7.5"));
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        next(in);
+        assertThat(in.readDecimal()).isEqualTo(new BigDecimal("1234.56"));
+        next(in);
+        assertThat(in.readMoney("USD")).isEqualTo(Money.ofMinor(750, "USD"));
+    }
+
+    @Test
+    void unknownTagsOfEveryWireTypeAreSkipped() {
+        out.writeLong(1, 42L);
+        out.writeLong(90, 7L);
+        out.writeString(91, "skipped");
+        int marker = out.beginNested(92);
+        out.writeString(1, "nested");
+        out.endNested(marker);
+        out.writeKey(93, BinaryEncoder.WIRE_FIXED64);
+        for (int i = 0; i < 8; i++) {
+            out.writeVarint(0);
+        }
+        out.writeString(2, "after");
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        Long known = null;
+        String after = null;
+        while (in.nextField()) {
+            switch (in.tag()) {
+                case 1 -> known = in.readLong();
+                case 2 -> after = in.readString();
+                default -> in.skip();
+            }
+        }
+
+        assertThat(known).isEqualTo(42L);
+        assertThat(after).isEqualTo("after");
+    }
+
+    @Test
+    void nestedMessagesLongerThanOneLengthByteRoundTrip() {
+        String longName = "x".repeat(300);
+        int marker = out.beginNested(14);
+        out.writeString(2, longName);
+        out.endNested(marker);
+        out.writeLong(15, 1L);
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        next(in);
+        BinaryDecoder nested = in.readNested();
+        assertThat(next(nested)).isEqualTo(2);
+        assertThat(nested.readString()).isEqualTo(longName);
+        assertThat(nested.nextField()).isFalse();
+        assertThat(next(in)).isEqualTo(15);
+    }
+
+    @Test
+    void findStringLooksAheadWithoutMoving() {
+        out.writeLong(12, 5L);
+        out.writeString(13, "EUR");
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+
+        assertThat(in.findString(13)).isEqualTo("EUR");
+        assertThat(in.findString(99)).isNull();
+        assertThat(next(in)).isEqualTo(12);
+    }
+
+    @Test
+    void truncatedInputFailsWithCodecException() {
+        out.writeString(1, "hello world");
+        out.writeLong(2, Long.MAX_VALUE);
+        byte[] bytes = out.toByteArray();
+
+        // Cut inside the string
+        BinaryDecoder string = new BinaryDecoder(Arrays.copyOf(bytes, 5));
+        next(string);
+        assertThatThrownBy(string::readString).isInstanceOf(CodecException.class).hasMessageContaining("exceeds");
+        BinaryDecoder skipped = new BinaryDecoder(Arrays.copyOf(bytes, 5));
+        next(skipped);
+        assertThatThrownBy(skipped::skip).isInstanceOf(CodecException.class);
+
+        // Cut inside the varint
+        BinaryDecoder varint = new BinaryDecoder(Arrays.copyOf(bytes, bytes.length - 1));
+        next(varint);
+        varint.skip();
+        next(varint);
+        assertThatThrownBy(varint::readLong).isInstanceOf(CodecException.class).hasMessageContaining("Truncated");
+    }
+
+    @Test
+    void truncatedFixed64FieldFailsInsteadOfReadingPastTheEnd() {
+        out.writeKey(93, BinaryEncoder.WIRE_FIXED64);
+        out.writeVarint(0);
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        next(in);
+
+        assertThatThrownBy(in::skip).isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void wrongWireTypeIsRejected() {
+        out.writeString(1, "not a number");
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        next(in);
+
+        assertThatThrownBy(in::readLong).isInstanceOf(CodecException.class).hasMessageContaining("wire type");
+    }
+
+    @Test
+    void eventIdOfTheWrongLengthIsRejected() {
+        out.writeBytes(3, new byte[15]);
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        next(in);
+
+        assertThatThrownBy(in::readEventId).isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void resetReusesTheBuffer() {
+        out.writeString(1, "first");
+        out.reset().writeLong(1, 1L);
+
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        next(in);
+        assertThat(in.readLong()).isEqualTo(1L);
+        assertThat(in.nextField()).isFalse();
+    }
+
+    private static int next(BinaryDecoder in) {
+        assertThat(in.nextField()).isTrue();
+        return in.tag();
+    }
+}
@@ -0,0 +1,147 @@
+package com.company.event.codec;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderCreatedEvent.OrderItemDto;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.event.user.UserCreatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecsTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2024-03-01T12:00:00.5Z");
+
+    private final EventCodecs codecs = EventCodecs.defaults();
+
+    @Test
+    void userCreatedRoundTrips() {
+        UserCreatedEvent event = UserCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(TIMESTAMP)
+            .userId(42L)
+            .username("jane")
+            .email("jane@example.com")
+            .build();
+
+        assertThat(roundTrip(event)).isEqualTo(event);
+    }
+
+    @Test
+    void orderCreatedRoundTripsWithItemsInTheOrderCurrency() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(TIMESTAMP)
+            .orderId(7L)
+            .userId(42L)
+            .totalAmount(Money.ofMinor(3_000, "JPY"))
+            .items(List.of(
+                new OrderItemDto(1L, "Tea", 2, Money.ofMinor(1_000, "JPY")),
+                new OrderItemDto(2L, "Cup", 1, Money.ofMinor(1_000, "JPY"))))
+            .build();
+
+        OrderCreatedEvent decoded = roundTrip(event);
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getItems()).extracting(item -> item.getPrice().getCurrencyCode()).containsOnly("JPY");
+    }
+
+    @Test
+    void orderCreatedWithoutItemsDecodesToAnEmptyList() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .orderId(7L)
+            .totalAmount(Money.ofMinor(0, "USD"))
+            .build();
+
+        assertThat(roundTrip(event).getItems()).isEmpty();
+    }
+
+    @Test
+    void paymentCompletedRoundTrips() {
+        PaymentCompletedEvent event = PaymentCompletedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(TIMESTAMP)
+            .paymentId(3L)
+            .orderId(7L)
+            .userId(42L)
+            .amount(Money.ofMinor(12_345, "BHD"))
+            .paymentMethod("CARD")
+            .transactionId("tx-1")
+            .build();
+
+        assertThat(roundTrip(event)).isEqualTo(event);
+    }
+
+    @Test
+    void decimalAmountsOfOlderProducersStillDecode() {
+        BinaryEncoder out = new BinaryEncoder();
+        out.writeLong(10, 1L);
+        // amount, with more digits than USD and no currency field
+        out.writeDecimal(13, new BigDecimal("10.015"));
+
+        PaymentCompletedEvent decoded = (PaymentCompletedEvent) codecs.forEventType("PAYMENT_COMPLETED")
+            .decode(new BinaryDecoder(out.toByteArray()));
+
+        assertThat(decoded.getAmount()).isEqualTo(Money.ofMinor(1002, Money.DEFAULT_CURRENCY));
+    }
+
+    @Test
+    void nonUuidEventIdsFallBackToTheStringTag() {
+        UserCreatedEvent event = UserCreatedEvent.builder().eventId("legacy-17").userId(1L).build();
+
+        BinaryEncoder out = new BinaryEncoder();
+        codecs.forEvent(event).encode(event, out);
+        BinaryDecoder in = new BinaryDecoder(out.toByteArray());
+        in.nextField();
+
+        assertThat(in.tag()).isEqualTo(EventCodec.TAG_EVENT_ID);
+        assertThat(roundTrip(event).getEventId()).isEqualTo("legacy-17");
+    }
+
+    @Test
+    void messagesFromANewerProducerDecodeWithTheirExtraFieldsSkipped() {
+        UserCreatedEvent event = UserCreatedEvent.builder().eventId(EventIds.next()).userId(1L).username("jane").build();
+        BinaryEncoder out = new BinaryEncoder();
+        codecs.forEvent(event).encode(event, out);
+        out.writeString(99, "added in v3");
+        out.writeLong(100, 5L);
+
+        UserCreatedEvent decoded = (UserCreatedEvent) codecs.forEventType("USER_CREATED")
+            .decode(new BinaryDecoder(out.toByteArray()));
+
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    void codecsAreFoundByEventTypeAndClass() {
+        assertThat(codecs.forEventType("ORDER_CREATED")).isInstanceOf(OrderCreatedEventCodec.class);
+        assertThat(codecs.forEvent(new PaymentCompletedEvent())).isInstanceOf(PaymentCompletedEventCodec.class);
+        assertThat(codecs.all()).hasSize(3);
+        assertThatThrownBy(() -> codecs.forEventType("ORDER_SHIPPED")).isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void everyCodecSchemaIsBuiltIn() {
+        LocalSchemaRegistry registry = LocalSchemaRegistry.classpath();
+
+        for (EventCodec<?> codec : codecs.all()) {
+            assertThat(registry.register(codec.schema()).getId()).isLessThan(LocalSchemaRegistry.FIRST_REGISTERED_ID);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends DomainEvent> T roundTrip(T event) {
+        BinaryEncoder out = new BinaryEncoder();
+        codecs.forEvent(event).encode(event, out);
+        return (T) codecs.forEventType(event.getEventType()).decode(new BinaryDecoder(out.toByteArray()));
+    }
+}
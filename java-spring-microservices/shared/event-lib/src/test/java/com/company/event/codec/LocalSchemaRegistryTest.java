@@ -0,0 +1,152 @@
+package com.company.event.codec;
+
+import com.company.event.codec.EventSchema.Field;
+import com.company.event.codec.EventSchema.FieldType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalSchemaRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void classpathRegistryHasTheBuiltInsAndIsReadOnly() {
+        LocalSchemaRegistry registry = LocalSchemaRegistry.classpath();
+
+        assertThat(registry.findById(1)).get().extracting(EventSchema::getEventType).isEqualTo("USER_CREATED");
+        assertThat(registry.latest("ORDER_CREATED")).get().extracting(EventSchema::getVersion).isEqualTo(2);
+        assertThat(registry.findById(LocalSchemaRegistry.FIRST_REGISTERED_ID)).isEmpty();
+        assertThatThrownBy(() -> registry.register(userCreated(3, FieldType.STRING)))
+            .isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void registeringABuiltInReturnsItsId() {
+        LocalSchemaRegistry registry = LocalSchemaRegistry.file(dir.resolve("schemas.json"));
+
+        EventSchema builtIn = registry.findById(4).orElseThrow();
+
+        assertThat(registry.register(builtIn.toBuilder().id(0).build())).isEqualTo(builtIn);
+        assertThat(dir.resolve("schemas.json")).doesNotExist();
+    }
+
+    @Test
+    void newVersionsGetIdsAboveTheBuiltInRangeAndSurviveAReload() {
+        Path file = dir.resolve("schemas.json");
+        LocalSchemaRegistry producer = LocalSchemaRegistry.file(file);
+
+        EventSchema v3 = producer.register(userCreated(3, FieldType.STRING));
+        EventSchema v4 = producer.register(userCreated(4, FieldType.STRING));
+
+        assertThat(v3.getId()).isEqualTo(LocalSchemaRegistry.FIRST_REGISTERED_ID);
+        assertThat(v4.getId()).isEqualTo(LocalSchemaRegistry.FIRST_REGISTERED_ID + 1);
+        assertThat(producer.register(userCreated(3, FieldType.STRING))).isEqualTo(v3);
+
+        LocalSchemaRegistry consumer = LocalSchemaRegistry.file(file);
+        assertThat(consumer.findById(v3.getId())).contains(v3);
+        assertThat(consumer.latest("USER_CREATED")).contains(v4);
+    }
+
+    @Test
+    void consumerFindsAnIdRegisteredAfterItStarted() {
+        Path file = dir.resolve("schemas.json");
+        LocalSchemaRegistry consumer = LocalSchemaRegistry.file(file);
+
+        EventSchema v3 = LocalSchemaRegistry.file(file).register(userCreated(3, FieldType.STRING));
+
+        assertThat(consumer.findById(v3.getId())).contains(v3);
+    }
+
+    @Test
+    void unknownIdsAreNotLookedUpAgainUntilTheRecheckInterval() throws IOException {
+        Path file = dir.resolve("schemas.json");
+        LocalSchemaRegistry consumer = LocalSchemaRegistry.file(file, Duration.ofHours(1));
+        assertThat(consumer.findById(LocalSchemaRegistry.FIRST_REGISTERED_ID)).isEmpty();
+
+        LocalSchemaRegistry.file(file).register(userCreated(3, FieldType.STRING));
+        // A poisoned file would fail the next reload: none happens for the id already found unknown
+        Files.writeString(file, "not json");
+
+        assertThat(consumer.findById(LocalSchemaRegistry.FIRST_REGISTERED_ID)).isEmpty();
+    }
+
+    @Test
+    void unknownIdsAreLookedUpAgainAfterTheRecheckInterval() {
+        Path file = dir.resolve("schemas.json");
+        LocalSchemaRegistry consumer = LocalSchemaRegistry.file(file, Duration.ZERO);
+        assertThat(consumer.findById(LocalSchemaRegistry.FIRST_REGISTERED_ID)).isEmpty();
+
+        EventSchema v3 = LocalSchemaRegistry.file(file).register(userCreated(3, FieldType.STRING));
+
+        assertThat(consumer.findById(v3.getId())).contains(v3);
+    }
+
+    @Test
+    void sameVersionWithADifferentLayoutIsRejected() {
+        LocalSchemaRegistry registry = LocalSchemaRegistry.file(dir.resolve("schemas.json"));
+        registry.register(userCreated(3, FieldType.STRING));
+
+        assertThatThrownBy(() -> registry.register(userCreated(3, FieldType.STRING).toBuilder()
+                .field(new Field(13, "phone", FieldType.STRING)).build()))
+            .isInstanceOf(CodecException.class)
+            .hasMessageContaining("different layout");
+    }
+
+    @Test
+    void retypingATagIsIncompatible() {
+        LocalSchemaRegistry registry = LocalSchemaRegistry.file(dir.resolve("schemas.json"));
+
+        assertThatThrownBy(() -> registry.register(userCreated(3, FieldType.BYTES)))
+            .isInstanceOf(CodecException.class)
+            .hasMessageContaining("tag 12");
+    }
+
+    @Test
+    void fileEntryShadowingABuiltInIdFailsTheLoad() throws IOException {
+        Path file = dir.resolve("schemas.json");
+        // As written by a release whose registry handed out id 1 to a file-registered schema
+        Files.writeString(file, """
+            [ { "id" : 1, "eventType" : "SHIPMENT_CREATED", "version" : 1,
+                "fields" : [ { "tag" : 10, "name" : "shipmentId", "type" : "LONG" } ] } ]
+            """);
+
+        assertThatThrownBy(() -> LocalSchemaRegistry.file(file))
+            .isInstanceOf(CodecException.class)
+            .hasMessageContaining("id 1");
+    }
+
+    @Test
+    void fileCopiesOfBuiltInsAreAccepted() throws IOException {
+        Path file = dir.resolve("schemas.json");
+        LocalSchemaRegistry.file(file).register(userCreated(3, FieldType.STRING));
+
+        // The file holds the built-ins it was written with
+        assertThat(Files.readString(file)).contains("\"id\" : 1,");
+        assertThat(LocalSchemaRegistry.file(file).all()).hasSize(7);
+    }
+
+    /**
+     * USER_CREATED with the built-in fields, email typed as given.
+     */
+    private static EventSchema userCreated(int version, FieldType emailType) {
+        return EventSchema.builder()
+            .eventType("USER_CREATED")
+            .version(version)
+            .field(new Field(EventCodec.TAG_EVENT_ID, "eventId", FieldType.STRING))
+            .field(new Field(EventCodec.TAG_EVENT_ID_BINARY, "eventId", FieldType.EVENT_ID))
+            .field(new Field(EventCodec.TAG_TIMESTAMP, "timestamp", FieldType.INSTANT))
+            .field(new Field(10, "userId", FieldType.LONG))
+            .field(new Field(11, "username", FieldType.STRING))
+            .field(new Field(12, "email", emailType))
+            .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.company.event.kafka;
+
+import com.company.event.EventIds;
+import com.company.event.batch.EventBatch;
+import com.company.event.kafka.EventHeadersTest.TestEvent;
+import com.company.event.user.UserCreatedEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventHeaderInterceptorTest {
+
+    private final EventHeaderInterceptor interceptor = new EventHeaderInterceptor();
+
+    @Test
+    void eventsAreStamped() {
+        UserCreatedEvent event = UserCreatedEvent.builder().eventId(EventIds.next()).userId(1L).build();
+
+        ProducerRecord<Object, Object> record = interceptor.onSend(new ProducerRecord<>("user-events", "1", event));
+
+        assertThat(EventHeaders.eventType(record.headers())).isEqualTo("USER_CREATED");
+        assertThat(EventHeaders.eventId(record.headers())).isEqualTo(event.getEventId());
+    }
+
+    @Test
+    void batchesAreStamped() {
+        EventBatch batch = EventBatch.of(List.of(UserCreatedEvent.builder().userId(1L).build()));
+
+        ProducerRecord<Object, Object> record = interceptor.onSend(new ProducerRecord<>("user-events", batch));
+
+        assertThat(EventHeaders.eventType(record.headers())).isEqualTo(EventBatch.EVENT_TYPE);
+    }
+
+    @Test
+    void eventsWithoutTypesAreSentWithoutThoseHeaders() {
+        ProducerRecord<Object, Object> record = interceptor.onSend(
+            new ProducerRecord<>("user-events", new TestEvent(null, null)));
+
+        assertThat(EventHeaders.eventType(record.headers())).isNull();
+        assertThat(EventHeaders.eventId(record.headers())).isEqualTo("event-1");
+    }
+
+    @Test
+    void otherValuesAreLeftAlone() {
+        ProducerRecord<Object, Object> record = interceptor.onSend(new ProducerRecord<>("raw", "payload"));
+
+        assertThat(record.headers().toArray()).isEmpty();
+    }
+}
@@ -0,0 +1,114 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.batch.EventBatch;
+import com.company.event.codec.EventCodecs;
+import com.company.event.user.UserCreatedEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventHeadersTest {
+
+    @Test
+    void stampedHeadersReadBack() {
+        UserCreatedEvent event = UserCreatedEvent.builder().eventId(EventIds.next()).userId(42L).build();
+        Headers headers = new RecordHeaders();
+
+        EventHeaders.stamp(headers, event);
+
+        assertThat(EventHeaders.eventType(headers)).isEqualTo("USER_CREATED");
+        assertThat(EventHeaders.aggregateType(headers)).isEqualTo("UserCreated");
+        assertThat(EventHeaders.eventId(headers)).isEqualTo(event.getEventId());
+        assertThat(EventHeaders.schemaVersion(headers))
+            .isEqualTo(EventCodecs.defaults().forEventType("USER_CREATED").schema().getVersion());
+    }
+
+    @Test
+    void typesWithoutACodecGetTheDefaultSchemaVersion() {
+        Headers headers = new RecordHeaders();
+
+        EventHeaders.stamp(headers, new TestEvent("SOMETHING_HAPPENED", "Something"));
+
+        assertThat(EventHeaders.schemaVersion(headers)).isEqualTo(EventHeaders.DEFAULT_SCHEMA_VERSION);
+    }
+
+    @Test
+    void restampingReplacesRatherThanAppends() {
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, new TestEvent("FIRST", "First"));
+
+        EventHeaders.stamp(headers, new TestEvent("SECOND", "Second"), 3);
+
+        assertThat(headers.headers(EventHeaders.EVENT_TYPE)).hasSize(1);
+        assertThat(EventHeaders.eventType(headers)).isEqualTo("SECOND");
+        assertThat(EventHeaders.aggregateType(headers)).isEqualTo("Second");
+        assertThat(EventHeaders.schemaVersion(headers)).isEqualTo(3);
+    }
+
+    @Test
+    void nullTypesAreLeftOutInsteadOfFailingTheSend() {
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, new TestEvent("STALE", "Stale"));
+
+        EventHeaders.stamp(headers, new TestEvent(null, null));
+
+        assertThat(headers.lastHeader(EventHeaders.EVENT_TYPE)).isNull();
+        assertThat(headers.lastHeader(EventHeaders.AGGREGATE_TYPE)).isNull();
+        assertThat(EventHeaders.eventId(headers)).isNotNull();
+        assertThat(EventHeaders.schemaVersion(headers)).isEqualTo(EventHeaders.DEFAULT_SCHEMA_VERSION);
+    }
+
+    @Test
+    void batchesCarryTheBatchTypeAndSize() {
+        Headers headers = new RecordHeaders();
+        EventBatch batch = EventBatch.of(List.of(
+            UserCreatedEvent.builder().userId(1L).build(),
+            UserCreatedEvent.builder().userId(2L).build()));
+
+        EventHeaders.stamp(headers, batch);
+
+        assertThat(EventHeaders.eventType(headers)).isEqualTo(EventBatch.EVENT_TYPE);
+        assertThat(EventHeaders.aggregateType(headers)).isEqualTo("UserCreated");
+        assertThat(headers.lastHeader(EventHeaders.BATCH_SIZE).value()).containsExactly(0, 0, 0, 2);
+    }
+
+    @Test
+    void missingOrMalformedHeadersReadAsAbsent() {
+        Headers headers = new RecordHeaders();
+        headers.add(EventHeaders.SCHEMA_VERSION, new byte[] {1, 2});
+
+        assertThat(EventHeaders.eventType(headers)).isNull();
+        assertThat(EventHeaders.eventId(headers)).isNull();
+        assertThat(EventHeaders.schemaVersion(headers)).isZero();
+    }
+
+    record TestEvent(String eventType, String aggregateType) implements DomainEvent {
+
+        @Override
+        public String getEventId() {
+            return "event-1";
+        }
+
+        @Override
+        public String getEventType() {
+            return eventType;
+        }
+
+        @Override
+        public String getAggregateType() {
+            return aggregateType;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return Instant.EPOCH;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.event.user.UserCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonEventDeserializerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final JsonEventDeserializer deserializer = new JsonEventDeserializer();
+    private final UserCreatedEvent event = UserCreatedEvent.builder()
+        .eventId(EventIds.next())
+        .userId(42L)
+        .username("jane")
+        .build();
+
+    @Test
+    void eventTypeHeaderPicksTheClass() throws Exception {
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, event);
+
+        assertThat(deserializer.deserialize("user-events", headers, MAPPER.writeValueAsBytes(event))).isEqualTo(event);
+    }
+
+    @Test
+    void eventTypeHeaderWinsOverTypeId() throws Exception {
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, event);
+        typeId(headers, OrderCreatedEvent.class.getName());
+
+        DomainEvent decoded = deserializer.deserialize("user-events", headers, MAPPER.writeValueAsBytes(event));
+
+        assertThat(decoded).isInstanceOf(UserCreatedEvent.class);
+    }
+
+    @Test
+    void typeIdIsTheFallbackForUnstampedProducers() throws Exception {
+        Headers headers = new RecordHeaders();
+        typeId(headers, UserCreatedEvent.class.getName());
+
+        assertThat(deserializer.deserialize("user-events", headers, MAPPER.writeValueAsBytes(event))).isEqualTo(event);
+    }
+
+    @Test
+    void untrustedOrMissingTypesAreRejected() throws Exception {
+        byte[] json = MAPPER.writeValueAsBytes(event);
+        Headers untrusted = new RecordHeaders();
+        typeId(untrusted, "java.util.ArrayList");
+        Headers unknown = new RecordHeaders();
+        unknown.add(EventHeaders.EVENT_TYPE, "NOT_A_TYPE".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", untrusted, json))
+            .isInstanceOf(SerializationException.class)
+            .hasMessageContaining("untrusted");
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", unknown, json))
+            .isInstanceOf(SerializationException.class)
+            .hasMessageContaining("NOT_A_TYPE");
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", new RecordHeaders(), json))
+            .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", json))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void decimalAmountsOfOlderProducersStillDecode() {
+        Headers headers = new RecordHeaders();
+        typeId(headers, PaymentCompletedEvent.class.getName());
+        byte[] json = "{\"paymentId\":1,\"amount\":10.005,\"currency\":null}".getBytes(StandardCharsets.UTF_8);
+
+        PaymentCompletedEvent decoded = (PaymentCompletedEvent) deserializer.deserialize("payment-events", headers, json);
+
+        assertThat(decoded.getAmount()).isEqualTo(Money.ofMinor(1000, Money.DEFAULT_CURRENCY));
+    }
+
+    @Test
+    void malformedJsonIsASerializationException() {
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, event);
+
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", headers, "{".getBytes(StandardCharsets.UTF_8)))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    private static void typeId(Headers headers, String className) {
+        headers.add(JsonEventDeserializer.TYPE_ID_HEADER, className.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.event.kafka;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.codec.BinaryEventSerializer;
+import com.company.event.user.UserCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyEventDeserializerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final UserCreatedEvent event = UserCreatedEvent.builder()
+        .eventId(EventIds.next())
+        .userId(42L)
+        .username("jane")
+        .build();
+
+    @Test
+    void headersAreReadWithoutDecoding() throws Exception {
+        CountingDeserializer json = new CountingDeserializer(new JsonEventDeserializer());
+        LazyEventDeserializer deserializer = new LazyEventDeserializer(new CountingDeserializer(null), json);
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, event);
+
+        LazyEvent lazy = deserializer.deserialize("user-events", headers, MAPPER.writeValueAsBytes(event));
+
+        assertThat(lazy.getEventType()).isEqualTo("USER_CREATED");
+        assertThat(lazy.getEventId()).isEqualTo(event.getEventId());
+        assertThat(lazy.getAggregateType()).isEqualTo("UserCreated");
+        assertThat(lazy.isDecoded()).isFalse();
+        assertThat(json.calls.get()).isZero();
+    }
+
+    @Test
+    void payloadIsDecodedOnceOnFirstAccess() throws Exception {
+        CountingDeserializer json = new CountingDeserializer(new JsonEventDeserializer());
+        LazyEventDeserializer deserializer = new LazyEventDeserializer(new CountingDeserializer(null), json);
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, event);
+        LazyEvent lazy = deserializer.deserialize("user-events", headers, MAPPER.writeValueAsBytes(event));
+
+        assertThat(lazy.as(UserCreatedEvent.class)).isEqualTo(event);
+        assertThat(lazy.get()).isEqualTo(event);
+        assertThat(lazy.isDecoded()).isTrue();
+        assertThat(json.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void schemaIdHeaderSelectsTheBinaryCodec() {
+        Headers headers = new RecordHeaders();
+        byte[] binary = new BinaryEventSerializer().serialize("user-events", headers, event);
+
+        LazyEvent lazy = new LazyEventDeserializer().deserialize("user-events", headers, binary);
+
+        assertThat(lazy.get()).isEqualTo(event);
+        assertThat(lazy.getSchemaVersion()).isPositive();
+    }
+
+    @Test
+    void unstampedRecordsFallBackToDecoding() throws Exception {
+        Headers headers = new RecordHeaders();
+        headers.add(JsonEventDeserializer.TYPE_ID_HEADER,
+            UserCreatedEvent.class.getName().getBytes(StandardCharsets.UTF_8));
+
+        LazyEvent lazy = new LazyEventDeserializer().deserialize("user-events", headers,
+            MAPPER.writeValueAsBytes(event));
+
+        assertThat(lazy.getEventType()).isEqualTo("USER_CREATED");
+        assertThat(lazy.isDecoded()).isTrue();
+        assertThat(lazy.getSchemaVersion()).isZero();
+    }
+
+    @Test
+    void serializerWritesTheOriginalBytesBack() throws Exception {
+        byte[] json = MAPPER.writeValueAsBytes(event);
+        LazyEvent lazy = new LazyEventDeserializer().deserialize("user-events", new RecordHeaders(), json);
+
+        assertThat(new LazyEventSerializer().serialize("user-events-retry-0", lazy)).isSameAs(json);
+        assertThat(new LazyEventSerializer().serialize("user-events-retry-0", null)).isNull();
+    }
+
+    @Test
+    void tombstonesAndHeaderlessCallsAreHandled() {
+        LazyEventDeserializer deserializer = new LazyEventDeserializer();
+
+        assertThat(deserializer.deserialize("user-events", new RecordHeaders(), (byte[]) null)).isNull();
+        assertThatThrownBy(() -> deserializer.deserialize("user-events", new byte[0]))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    static final class CountingDeserializer implements Deserializer<DomainEvent> {
+
+        final AtomicInteger calls = new AtomicInteger();
+        private final Deserializer<DomainEvent> delegate;
+
+        CountingDeserializer(Deserializer<DomainEvent> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public DomainEvent deserialize(String topic, byte[] data) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DomainEvent deserialize(String topic, Headers headers, byte[] data) {
+            calls.incrementAndGet();
+            return delegate.deserialize(topic, headers, data);
+        }
+    }
+}
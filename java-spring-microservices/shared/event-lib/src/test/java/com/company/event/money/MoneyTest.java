@@ -0,0 +1,155 @@
+package com.company.event.money;
+
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderCreatedEvent.OrderItemDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void minorUnitsFollowTheCurrencyFractionDigits() {
+        assertThat(Money.of(new BigDecimal("12.34"), "USD").getMinorUnits()).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("1234"), "JPY").getMinorUnits()).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("1.234"), "BHD").getMinorUnits()).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("5"), "USD").getMinorUnits()).isEqualTo(500);
+        assertThat(Money.ofMinor(1234, "BHD").getFractionDigits()).isEqualTo(3);
+    }
+
+    @Test
+    void amountsAreNeverRounded() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.005"), "USD"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("not representable");
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1.5"), "JPY"))
+            .isInstanceOf(IllegalArgumentException.class);
+        // Trailing zeros beyond the currency's digits are exact, so fine
+        assertThat(Money.of(new BigDecimal("1.2300"), "USD").getMinorUnits()).isEqualTo(123);
+    }
+
+    @Test
+    void eventAmountsAreDecodedLeniently() {
+        assertThat(Money.decode(new BigDecimal("10.005"), "USD")).isEqualTo(Money.ofMinor(1000, "USD"));
+        assertThat(Money.decode(new BigDecimal("10.015"), "USD")).isEqualTo(Money.ofMinor(1002, "USD"));
+        assertThat(Money.decode(new BigDecimal("7.25"), null)).isEqualTo(Money.ofMinor(725, Money.DEFAULT_CURRENCY));
+        assertThat(Money.of(new BigDecimal("1.5"), "JPY", RoundingMode.HALF_UP).getMinorUnits()).isEqualTo(2);
+        assertThatThrownBy(() -> Money.decode(new BigDecimal("1.00"), "XYZ"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void scaledAmountsAreRescaledExactly() {
+        assertThat(Money.ofScaled(5, 0, "USD")).isEqualTo(Money.ofMinor(500, "USD"));
+        assertThat(Money.ofScaled(12_300, 4, "USD")).isEqualTo(Money.ofMinor(123, "USD"));
+        assertThat(Money.ofScaled(-7, 2, "USD")).isEqualTo(Money.ofMinor(-7, "USD"));
+        assertThatThrownBy(() -> Money.ofScaled(12_345, 4, "USD")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.ofScaled(1, 30, "USD")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.ofScaled(Long.MAX_VALUE, 0, "USD")).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void arithmeticStaysInMinorUnits() {
+        Money price = Money.ofMinor(1999, "USD");
+
+        assertThat(price.plus(Money.ofMinor(1, "USD"))).isEqualTo(Money.ofMinor(2000, "USD"));
+        assertThat(price.minus(Money.ofMinor(2000, "USD"))).isEqualTo(Money.ofMinor(-1, "USD"));
+        assertThat(price.times(3)).isEqualTo(Money.ofMinor(5997, "USD"));
+        assertThat(price.negate().signum()).isEqualTo(-1);
+        assertThat(Money.zero("USD").isZero()).isTrue();
+        assertThat(price.compareTo(Money.ofMinor(2000, "USD"))).isNegative();
+    }
+
+    @Test
+    void overflowIsAnErrorNotAWrapAround() {
+        Money max = Money.ofMinor(Long.MAX_VALUE, "USD");
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1, "USD"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE, "USD").negate()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void currenciesDoNotMix() {
+        Money usd = Money.ofMinor(100, "USD");
+        Money eur = Money.ofMinor(100, "EUR");
+
+        assertThat(usd).isNotEqualTo(eur);
+        assertThat(usd.isSameCurrency(eur)).isFalse();
+        assertThatThrownBy(() -> usd.plus(eur)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> usd.compareTo(eur)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MoneyAccumulator("USD").add(eur)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unknownCurrenciesAreRejected() {
+        assertThatThrownBy(() -> Money.zero("XYZ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.zero("usd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.zero(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.ofMinor(1, (short) 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void packedCurrencyRoundTrips() {
+        Money chf = Money.ofMinor(5, "CHF");
+
+        assertThat(Money.ofMinor(5, chf.getPackedCurrency())).isEqualTo(chf);
+        assertThat(chf.getCurrencyCode()).isEqualTo("CHF");
+    }
+
+    @Test
+    void plainStringsKeepTheCurrencyDigits() {
+        assertThat(Money.ofMinor(-5, "USD").toPlainString()).isEqualTo("-0.05");
+        assertThat(Money.ofMinor(100, "USD").toPlainString()).isEqualTo("1.00");
+        assertThat(Money.ofMinor(1234, "JPY").toPlainString()).isEqualTo("1234");
+        assertThat(Money.ofMinor(1, "BHD").toString()).isEqualTo("0.001 BHD");
+        assertThat(Money.ofMinor(Long.MIN_VALUE, "USD").toPlainString())
+            .isEqualTo(BigDecimal.valueOf(Long.MIN_VALUE, 2).toPlainString());
+        assertThat(Money.ofMinor(12345, "USD").toBigDecimal()).isEqualTo(new BigDecimal("123.45"));
+    }
+
+    @Test
+    void accumulatorSumsWithoutLosingCents() {
+        MoneyAccumulator total = new MoneyAccumulator("USD");
+        for (int i = 0; i < 1_000; i++) {
+            total.add(Money.of(new BigDecimal("0.10"), "USD"));
+        }
+
+        assertThat(total.total()).isEqualTo(Money.ofMinor(10_000, "USD"));
+        assertThat(total.getCount()).isEqualTo(1_000);
+
+        total.reset();
+        assertThat(total.total().isZero()).isTrue();
+        assertThat(total.getCount()).isZero();
+    }
+
+    @Test
+    void jsonKeepsTheDecimalAmountAndCurrencyLayout() throws Exception {
+        // As configured in JsonEventDeserializer
+        ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        OrderCreatedEvent order = OrderCreatedEvent.builder()
+            .eventId("e-1")
+            .orderId(7L)
+            .totalAmount(Money.ofMinor(14_997, "USD"))
+            .items(List.of(new OrderItemDto(1L, "Widget", 3, Money.ofMinor(4_999, "USD"))))
+            .build();
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(order));
+
+        assertThat(json.get("totalAmount").decimalValue()).isEqualTo(new BigDecimal("149.97"));
+        assertThat(json.get("currency").asText()).isEqualTo("USD");
+        assertThat(json.get("items").get(0).get("price").decimalValue()).isEqualTo(new BigDecimal("49.99"));
+        assertThat(mapper.treeToValue(json, OrderCreatedEvent.class)).isEqualTo(order);
+    }
+}
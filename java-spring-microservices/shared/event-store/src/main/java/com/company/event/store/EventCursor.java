@@ -0,0 +1,106 @@
+package com.company.event.store;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.BinaryDecoder;
+import com.company.event.codec.CodecException;
+import com.company.event.codec.EventSchema;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Forward-only position in an {@link EventStore}.
+ *
+ * {@link #next()} returns false once it has caught up with the writer; call
+ * it again later to pick up newly appended events. Accessors refer to the
+ * current event and are only valid after {@code next()} returned true.
+ *
+ * Not thread-safe; use one cursor per reading thread.
+ */
+public final class EventCursor {
+
+    private final EventStore store;
+    private Segment segment;
+    private int nextPosition;
+    private int position = -1;
+    private int length;
+    private byte[] scratch = new byte[512];
+
+    EventCursor(EventStore store, Segment segment, int position) {
+        this.store = store;
+        this.segment = segment;
+        this.nextPosition = position;
+    }
+
+    /**
+     * Advance to the next event.
+     *
+     * @return false if there is none yet
+     */
+    public boolean next() {
+        while (nextPosition >= segment.getSize()) {
+            Segment following = store.nextSegment(segment);
+            if (following == null) {
+                return false;
+            }
+            // The writer only rolls a full segment, so once a successor exists its size is final
+            if (nextPosition < segment.getSize()) {
+                break;
+            }
+            segment = following;
+            nextPosition = 0;
+        }
+        position = nextPosition;
+        length = segment.lengthAt(position);
+        nextPosition = position + Segment.RECORD_HEADER + length;
+        return true;
+    }
+
+    public long offset() {
+        checkPositioned();
+        return segment.offsetAt(position);
+    }
+
+    public Instant timestamp() {
+        checkPositioned();
+        return Instant.ofEpochMilli(segment.timestampAt(position));
+    }
+
+    /** Schema registry id the payload was written with. */
+    public int schemaId() {
+        checkPositioned();
+        return segment.schemaIdAt(position);
+    }
+
+    /**
+     * Encoded event as a read-only view of the mapped segment, without
+     * copying. Only valid until the segment is deleted by retention.
+     */
+    public ByteBuffer payload() {
+        checkPositioned();
+        return segment.payload(position, length);
+    }
+
+    /**
+     * Decode the current event.
+     *
+     * @throws CodecException if the schema or codec is unknown
+     */
+    public DomainEvent event() {
+        checkPositioned();
+        int schemaId = segment.schemaIdAt(position);
+        EventSchema schema = store.getRegistry().findById(schemaId)
+            .orElseThrow(() -> new CodecException("Unknown schema id " + schemaId + " at offset " + offset()));
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        segment.copyPayload(position, length, scratch);
+        return store.getCodecs().forEventType(schema.getEventType()).decode(new BinaryDecoder(scratch, 0, length));
+    }
+
+    private void checkPositioned() {
+        if (position < 0) {
+            throw new IllegalStateException("Call next() before reading the current event");
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.company.event.store;
+
+import com.company.event.DomainEvent;
+import com.company.event.codec.BinaryEncoder;
+import com.company.event.codec.EventCodec;
+import com.company.event.codec.EventCodecs;
+import com.company.event.codec.EventSchema;
+import com.company.event.codec.LocalSchemaRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only log of {@link DomainEvent}s on local disk, for
+ * development, tests and edge deployments that run without Kafka.
+ *
+ * Events are encoded with the binary {@link EventCodec}s from event-lib and
+ * written to memory-mapped segment files of {@link EventStoreConfig#getSegmentBytes()}
+ * each. Every event gets a sequential offset; {@link #read(long)} and
+ * {@link #read(Instant)} position a cursor through a sparse per-segment index
+ * and read payloads straight from the mapping. Whole sealed segments are
+ * deleted once they fall outside the retention limits.
+ *
+ * <pre>
+ * {@code
+ * try (EventStore store = EventStore.open(EventStoreConfig.builder()
+ *         .directory(Path.of("data/events"))
+ *         .build())) {
+ *     long offset = store.append(event);
+ *     store.replay(offset, (replayed, replayedOffset) -> handle(replayed));
+ * }
+ * }
+ * </pre>
+ *
+ * Appends are serialized; cursors may read concurrently with appends.
+ * Written events survive a process crash (they live in the page cache);
+ * call {@link #flush()} where they must also survive a power loss.
+ */
+@Slf4j
+public class EventStore implements AutoCloseable {
+
+    static final String SCHEMA_FILE = "schemas.json";
+
+    private final EventStoreConfig config;
+    private final EventCodecs codecs;
+    private final LocalSchemaRegistry registry;
+    private final Map<String, Integer> schemaIds = new HashMap<>();
+    private final BinaryEncoder encoder = new BinaryEncoder(1024);
+
+    /** Copy-on-write, ordered by base offset; the last one is active. */
+    private volatile List<Segment> segments;
+    private boolean closed;
+
+    private EventStore(EventStoreConfig config, EventCodecs codecs, List<Segment> segments) {
+        this.config = config;
+        this.codecs = codecs;
+        this.registry = LocalSchemaRegistry.file(config.getDirectory().resolve(SCHEMA_FILE));
+        for (EventCodec<?> codec : codecs.all()) {
+            EventSchema schema = registry.register(codec.schema());
+            schemaIds.put(codec.eventType(), schema.getId());
+        }
+        this.segments = segments;
+    }
+
+    public static EventStore open(EventStoreConfig config) {
+        return open(config, EventCodecs.defaults());
+    }
+
+    /**
+     * Open the store in the configured directory, creating it if needed and
+     * recovering the end of the log after an unclean shutdown.
+     */
+    public static EventStore open(EventStoreConfig config, EventCodecs codecs) {
+        if (config.getDirectory() == null) {
+            throw new IllegalArgumentException("Event store directory is required");
+        }
+        if (config.getIndexIntervalBytes() <= 0 || config.getSegmentBytes() < config.getIndexIntervalBytes()) {
+            throw new IllegalArgumentException("segmentBytes must be at least indexIntervalBytes (> 0)");
+        }
+        Path directory = config.getDirectory();
+        List<Segment> segments = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(f -> f.getFileName().toString().endsWith(Segment.LOG_SUFFIX))
+                    .sorted(Comparator.comparing(f -> f.getFileName().toString()))
+                    .forEach(f -> segments.add(Segment.open(f, config.getIndexIntervalBytes())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open event store " + directory, e);
+        }
+        for (int i = 1; i < segments.size(); i++) {
+            if (segments.get(i - 1).getNextOffset() != segments.get(i).getBaseOffset()) {
+                log.warn("Event store {} has a gap between {} and {}", directory, segments.get(i - 1),
+                    segments.get(i));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(directory, 0, config.getSegmentBytes(), config.getIndexIntervalBytes()));
+        }
+        EventStore store = new EventStore(config, codecs, segments);
+        store.enforceRetention();
+        log.info("Opened event store {} at offsets [{}, {})", directory, store.getStartOffset(), store.getEndOffset());
+        return store;
+    }
+
+    /**
+     * @return the offset assigned to the event
+     * @throws IllegalArgumentException if the encoded event does not fit in one segment
+     */
+    public synchronized long append(DomainEvent event) {
+        checkOpen();
+        EventCodec<DomainEvent> codec = codecs.forEvent(event);
+        encoder.reset();
+        codec.encode(event, encoder);
+        int length = encoder.size();
+        if (Segment.RECORD_HEADER + length > config.getSegmentBytes()) {
+            throw new IllegalArgumentException("Event " + event.getEventId() + " is " + length
+                + " bytes encoded, larger than a segment");
+        }
+        Segment active = active();
+        if (!active.hasRoom(length)) {
+            active = roll(active);
+        }
+        long offset = active.getNextOffset();
+        long timestamp = event.getTimestamp() != null ? event.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+        active.append(offset, timestamp, schemaIds.get(codec.eventType()), encoder);
+        return offset;
+    }
+
+    /**
+     * @return the offset of the last event, or -1 if the list is empty
+     */
+    public synchronized long appendAll(List<? extends DomainEvent> events) {
+        long last = -1;
+        for (DomainEvent event : events) {
+            last = append(event);
+        }
+        return last;
+    }
+
+    /**
+     * Cursor starting at {@code offset}, or at the oldest retained event if
+     * that offset has already been deleted.
+     */
+    public EventCursor read(long offset) {
+        List<Segment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            Segment segment = current.get(i);
+            if (segment.getBaseOffset() <= offset || i == 0) {
+                return new EventCursor(this, segment, segment.positionOf(offset));
+            }
+        }
+        throw new IllegalStateException("Event store has no segments");
+    }
+
+    /**
+     * Cursor starting at the first event with a timestamp at or after {@code from}.
+     */
+    public EventCursor read(Instant from) {
+        List<Segment> current = segments;
+        for (Segment segment : current) {
+            if (segment.getMaxTimestamp() >= from.toEpochMilli() || segment == current.get(current.size() - 1)) {
+                return new EventCursor(this, segment, segment.positionOf(from));
+            }
+        }
+        throw new IllegalStateException("Event store has no segments");
+    }
+
+    /**
+     * Decode and hand over every event from {@code offset} to the current end.
+     *
+     * @return the number of events replayed
+     */
+    public long replay(long offset, ObjLongConsumer<DomainEvent> handler) {
+        return replay(read(offset), handler);
+    }
+
+    public long replay(Instant from, ObjLongConsumer<DomainEvent> handler) {
+        return replay(read(from), handler);
+    }
+
+    /** Offset of the oldest retained event. */
+    public long getStartOffset() {
+        return segments.get(0).getBaseOffset();
+    }
+
+    /** Offset the next appended event will get. */
+    public long getEndOffset() {
+        List<Segment> current = segments;
+        return current.get(current.size() - 1).getNextOffset();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Force written events to disk.
+     */
+    public synchronized void flush() {
+        checkOpen();
+        active().flush();
+    }
+
+    /**
+     * Delete sealed segments outside the configured retention. Runs on open
+     * and whenever a segment is rolled.
+     *
+     * @return the number of segments deleted
+     */
+    public synchronized int enforceRetention() {
+        List<Segment> current = new ArrayList<>(segments);
+        long cutoff = config.getRetention() != null
+            ? System.currentTimeMillis() - config.getRetention().toMillis()
+            : Long.MIN_VALUE;
+        long totalBytes = current.stream().mapToLong(Segment::getSize).sum();
+        int deleted = 0;
+        // Never the active segment, and only ever from the oldest end
+        while (current.size() > 1) {
+            Segment oldest = current.get(0);
+            boolean expired = !oldest.isEmpty() && oldest.getMaxTimestamp() < cutoff;
+            boolean overSize = config.getRetentionBytes() >= 0 && totalBytes > config.getRetentionBytes();
+            if (!expired && !overSize) {
+                break;
+            }
+            current.remove(0);
+            totalBytes -= oldest.getSize();
+            oldest.delete();
+            deleted++;
+            log.debug("Deleted event store segment {} ({})", oldest, expired ? "expired" : "size limit");
+        }
+        if (deleted > 0) {
+            segments = List.copyOf(current);
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        active().flush();
+        closed = true;
+    }
+
+    /**
+     * Segment following {@code segment}, or null if it is the newest.
+     */
+    Segment nextSegment(Segment segment) {
+        for (Segment candidate : segments) {
+            if (candidate.getBaseOffset() > segment.getBaseOffset()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    EventCodecs getCodecs() {
+        return codecs;
+    }
+
+    LocalSchemaRegistry getRegistry() {
+        return registry;
+    }
+
+    private long replay(EventCursor cursor, ObjLongConsumer<DomainEvent> handler) {
+        long count = 0;
+        while (cursor.next()) {
+            handler.accept(cursor.event(), cursor.offset());
+            count++;
+        }
+        return count;
+    }
+
+    private Segment active() {
+        List<Segment> current = segments;
+        return current.get(current.size() - 1);
+    }
+
+    private Segment roll(Segment full) {
+        full.flush();
+        Segment next = Segment.create(config.getDirectory(), full.getNextOffset(), config.getSegmentBytes(),
+            config.getIndexIntervalBytes());
+        List<Segment> updated = new ArrayList<>(segments);
+        updated.add(next);
+        segments = List.copyOf(updated);
+        enforceRetention();
+        return next;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Event store " + config.getDirectory() + " is closed");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.event.store;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for an {@link EventStore}.
+ */
+@Value
+@Builder
+public class EventStoreConfig {
+
+    /** Directory holding the segment files and the schema registry. */
+    Path directory;
+
+    /** Size each segment file is pre-allocated and mapped at. */
+    @Builder.Default
+    int segmentBytes = 64 * 1024 * 1024;
+
+    /** Log bytes between two sparse index entries. */
+    @Builder.Default
+    int indexIntervalBytes = 4096;
+
+    /** Sealed segments whose newest event is older than this are deleted; null keeps them. */
+    @Builder.Default
+    Duration retention = Duration.ofDays(7);
+
+    /** Oldest sealed segments are deleted while the store is larger than this; -1 for no limit. */
+    @Builder.Default
+    long retentionBytes = -1;
+}
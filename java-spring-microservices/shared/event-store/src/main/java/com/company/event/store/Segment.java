@@ -0,0 +1,347 @@
+package com.company.event.store;
+
+import com.company.event.codec.BinaryEncoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * One log file and its sparse index, both pre-allocated and memory-mapped.
+ *
+ * Record layout (big-endian):
+ * <pre>
+ * int length | int crc32c | long offset | long timestamp | int schemaId | payload
+ * </pre>
+ * The CRC covers everything after itself. A zero length marks the end of the
+ * written log, since the files are zero-filled when created.
+ *
+ * Index entries are {@code int relativeOffset | int position | long maxTimestampBefore},
+ * one per {@code indexIntervalBytes} of log. The timestamp is the newest event
+ * before the entry, so it only grows and can be binary searched even when
+ * events arrive slightly out of order.
+ *
+ * Single writer; any number of readers see records up to the committed size.
+ */
+@Slf4j
+final class Segment {
+
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".index";
+    static final int RECORD_HEADER = 28;
+
+    private static final int CRC_START = 8;
+    private static final int INDEX_ENTRY = 16;
+
+    private final long baseOffset;
+    private final Path logFile;
+    private final Path indexFile;
+    private final MappedByteBuffer logBuffer;
+    private final MappedByteBuffer indexBuffer;
+    private final ByteBuffer writer;
+    private final int indexIntervalBytes;
+    private final CRC32C crc = new CRC32C();
+
+    private volatile int size;
+    private volatile int indexEntries;
+    private volatile long nextOffset;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    private int bytesSinceIndexEntry;
+
+    private Segment(long baseOffset, Path logFile, Path indexFile, MappedByteBuffer logBuffer,
+                    MappedByteBuffer indexBuffer, int indexIntervalBytes) {
+        this.baseOffset = baseOffset;
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+        this.logBuffer = logBuffer;
+        this.indexBuffer = indexBuffer;
+        this.writer = logBuffer.duplicate();
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.nextOffset = baseOffset;
+    }
+
+    static Segment create(Path directory, long baseOffset, int segmentBytes, int indexIntervalBytes) {
+        Path logFile = directory.resolve(fileName(baseOffset, LOG_SUFFIX));
+        Path indexFile = directory.resolve(fileName(baseOffset, INDEX_SUFFIX));
+        int indexBytes = (segmentBytes / indexIntervalBytes + 1) * INDEX_ENTRY;
+        return new Segment(baseOffset, logFile, indexFile, map(logFile, segmentBytes), map(indexFile, indexBytes),
+            indexIntervalBytes);
+    }
+
+    /**
+     * Map an existing segment and find its end: trust the index, then scan and
+     * CRC-check the records after the last index entry.
+     */
+    static Segment open(Path logFile, int indexIntervalBytes) {
+        String name = logFile.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length()));
+        Path indexFile = logFile.resolveSibling(fileName(baseOffset, INDEX_SUFFIX));
+        try {
+            Segment segment = new Segment(baseOffset, logFile, indexFile,
+                map(logFile, Files.size(logFile)),
+                map(indexFile, Files.exists(indexFile) ? Files.size(indexFile) : INDEX_ENTRY),
+                indexIntervalBytes);
+            segment.recover();
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open segment " + logFile, e);
+        }
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getNextOffset() {
+        return nextOffset;
+    }
+
+    /** Committed log bytes; records start below this position. */
+    int getSize() {
+        return size;
+    }
+
+    /** Newest event timestamp, or Long.MIN_VALUE if empty. */
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    boolean isEmpty() {
+        return nextOffset == baseOffset;
+    }
+
+    boolean hasRoom(int payloadLength) {
+        return size + RECORD_HEADER + payloadLength <= logBuffer.capacity();
+    }
+
+    void append(long offset, long timestamp, int schemaId, BinaryEncoder payload) {
+        int position = size;
+        int length = payload.size();
+        writer.position(position + CRC_START);
+        writer.putLong(offset).putLong(timestamp).putInt(schemaId);
+        payload.writeTo(writer);
+        crc.reset();
+        crc.update(logBuffer.slice(position + CRC_START, RECORD_HEADER - CRC_START + length));
+        logBuffer.putInt(position + 4, (int) crc.getValue());
+        // Length last: a record is not there until it is written completely
+        logBuffer.putInt(position, length);
+
+        long timestampBefore = maxTimestamp;
+        maxTimestamp = Math.max(timestampBefore, timestamp);
+        nextOffset = offset + 1;
+        size = position + RECORD_HEADER + length;
+
+        if (bytesSinceIndexEntry >= indexIntervalBytes) {
+            addIndexEntry(offset, position, timestampBefore);
+        }
+        bytesSinceIndexEntry += RECORD_HEADER + length;
+    }
+
+    int lengthAt(int position) {
+        return logBuffer.getInt(position);
+    }
+
+    long offsetAt(int position) {
+        return logBuffer.getLong(position + 8);
+    }
+
+    long timestampAt(int position) {
+        return logBuffer.getLong(position + 16);
+    }
+
+    int schemaIdAt(int position) {
+        return logBuffer.getInt(position + 24);
+    }
+
+    /**
+     * Read-only view of a payload in the mapped file; nothing is copied.
+     */
+    ByteBuffer payload(int position, int length) {
+        return logBuffer.slice(position + RECORD_HEADER, length).asReadOnlyBuffer();
+    }
+
+    void copyPayload(int position, int length, byte[] target) {
+        logBuffer.get(position + RECORD_HEADER, target, 0, length);
+    }
+
+    /**
+     * Position of the first record with an offset of at least {@code offset},
+     * or the committed size if there is none.
+     */
+    int positionOf(long offset) {
+        int entries = indexEntries;
+        int low = 0;
+        int high = entries - 1;
+        int start = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (baseOffset + indexBuffer.getInt(mid * INDEX_ENTRY) <= offset) {
+                start = indexBuffer.getInt(mid * INDEX_ENTRY + 4);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int end = size;
+        int position = start;
+        while (position < end && offsetAt(position) < offset) {
+            position += RECORD_HEADER + lengthAt(position);
+        }
+        return position;
+    }
+
+    /**
+     * Position of the first record with a timestamp of at least {@code timestamp},
+     * or the committed size if there is none.
+     */
+    int positionOf(Instant timestamp) {
+        long millis = timestamp.toEpochMilli();
+        int entries = indexEntries;
+        int low = 0;
+        int high = entries - 1;
+        int start = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexBuffer.getLong(mid * INDEX_ENTRY + 8) < millis) {
+                start = indexBuffer.getInt(mid * INDEX_ENTRY + 4);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int end = size;
+        int position = start;
+        while (position < end && timestampAt(position) < millis) {
+            position += RECORD_HEADER + lengthAt(position);
+        }
+        return position;
+    }
+
+    void flush() {
+        logBuffer.force();
+        indexBuffer.force();
+    }
+
+    void delete() {
+        try {
+            // The mappings stay valid for cursors still reading; the OS frees them once unmapped
+            Files.deleteIfExists(logFile);
+            Files.deleteIfExists(indexFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete segment {}: {}", logFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return logFile.getFileName() + "[" + baseOffset + ".." + (nextOffset - 1) + ", " + size + " bytes]";
+    }
+
+    private void addIndexEntry(long offset, int position, long timestampBefore) {
+        int entry = indexEntries;
+        if ((entry + 1) * INDEX_ENTRY > indexBuffer.capacity()) {
+            return;
+        }
+        int at = entry * INDEX_ENTRY;
+        indexBuffer.putInt(at, (int) (offset - baseOffset));
+        indexBuffer.putInt(at + 4, position);
+        indexBuffer.putLong(at + 8, timestampBefore);
+        indexEntries = entry + 1;
+        bytesSinceIndexEntry = 0;
+    }
+
+    private void recover() {
+        int entries = 0;
+        int lastPosition = 0;
+        while ((entries + 1) * INDEX_ENTRY <= indexBuffer.capacity()) {
+            int position = indexBuffer.getInt(entries * INDEX_ENTRY + 4);
+            if (position <= lastPosition || position >= logBuffer.capacity()) {
+                break;
+            }
+            lastPosition = position;
+            entries++;
+        }
+        // A crash can leave index entries pointing at records that never reached disk
+        while (true) {
+            int start = entries > 0 ? indexBuffer.getInt((entries - 1) * INDEX_ENTRY + 4) : 0;
+            long expected = entries > 0 ? baseOffset + indexBuffer.getInt((entries - 1) * INDEX_ENTRY) : baseOffset;
+            long timestampBefore = entries > 0 ? indexBuffer.getLong((entries - 1) * INDEX_ENTRY + 8) : Long.MIN_VALUE;
+            if (entries == 0 || isValidRecord(start, expected)) {
+                indexEntries = entries;
+                scanFrom(start, expected, timestampBefore);
+                break;
+            }
+            entries--;
+            indexBuffer.putLong(entries * INDEX_ENTRY, 0L);
+            indexBuffer.putLong(entries * INDEX_ENTRY + 8, 0L);
+        }
+        for (int i = indexEntries; (i + 1) * INDEX_ENTRY <= indexBuffer.capacity() && indexBuffer.getInt(i * INDEX_ENTRY + 4) != 0; i++) {
+            indexBuffer.putLong(i * INDEX_ENTRY, 0L);
+            indexBuffer.putLong(i * INDEX_ENTRY + 8, 0L);
+        }
+    }
+
+    private void scanFrom(int start, long expectedOffset, long timestampBefore) {
+        int position = start;
+        long expected = expectedOffset;
+        long newest = timestampBefore;
+        int sinceIndex = 0;
+        while (isValidRecord(position, expected)) {
+            int recordSize = RECORD_HEADER + lengthAt(position);
+            newest = Math.max(newest, timestampAt(position));
+            sinceIndex += recordSize;
+            position += recordSize;
+            expected++;
+        }
+        if (position + 4 <= logBuffer.capacity() && lengthAt(position) != 0) {
+            log.warn("Segment {} has a torn or corrupt record at position {}; keeping offsets up to {}",
+                logFile.getFileName(), position, expected - 1);
+            // Zero the header so the record is never mistaken for a committed one
+            for (int i = position; i < Math.min(position + RECORD_HEADER, logBuffer.capacity()); i++) {
+                logBuffer.put(i, (byte) 0);
+            }
+        }
+        size = position;
+        nextOffset = expected;
+        maxTimestamp = newest;
+        bytesSinceIndexEntry = sinceIndex;
+    }
+
+    private boolean isValidRecord(int position, long expectedOffset) {
+        if (position + RECORD_HEADER > logBuffer.capacity()) {
+            return false;
+        }
+        int length = lengthAt(position);
+        if (length <= 0 || length > logBuffer.capacity() - position - RECORD_HEADER) {
+            return false;
+        }
+        if (offsetAt(position) != expectedOffset) {
+            return false;
+        }
+        crc.reset();
+        crc.update(logBuffer.slice(position + CRC_START, RECORD_HEADER - CRC_START + length));
+        return (int) crc.getValue() == logBuffer.getInt(position + 4);
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping outlives the channel
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + file, e);
+        }
+    }
+
+    static String fileName(long baseOffset, String suffix) {
+        return String.format("%020d%s", baseOffset, suffix);
+    }
+}
@@ -0,0 +1,247 @@
+package com.company.event.store;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.user.UserCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventStoreTest {
+
+    /** Small segments so a few hundred events span several of them. */
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    private EventStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void appendsRollIntoNewSegmentsAndReplayInOrder() {
+        store = open(config().retention(null));
+        List<DomainEvent> events = events(500, Instant.now());
+
+        long last = store.appendAll(events);
+
+        assertThat(last).isEqualTo(499);
+        assertThat(store.getEndOffset()).isEqualTo(500);
+        assertThat(store.getSegmentCount()).isGreaterThan(5);
+        assertThat(logFiles()).hasSize(store.getSegmentCount());
+        assertReplayed(store, 0, events);
+    }
+
+    @Test
+    void readPositionsAtAnyOffsetThroughTheSparseIndex() {
+        store = open(config().retention(null));
+        List<DomainEvent> events = events(500, Instant.now());
+        store.appendAll(events);
+
+        for (long offset : new long[] {0, 1, 63, 64, 255, 311, 499}) {
+            EventCursor cursor = store.read(offset);
+
+            assertThat(cursor.next()).isTrue();
+            assertThat(cursor.offset()).isEqualTo(offset);
+            assertThat(cursor.event()).isEqualTo(events.get((int) offset));
+        }
+        assertThat(store.read(500).next()).isFalse();
+    }
+
+    @Test
+    void readByTimestampStartsAtTheFirstEventAtOrAfterIt() {
+        store = open(config().retention(null));
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        store.appendAll(events(300, start));
+
+        EventCursor cursor = store.read(start.plusMillis(200));
+
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.offset()).isEqualTo(200);
+        assertThat(cursor.timestamp()).isEqualTo(start.plusMillis(200));
+        assertThat(store.replay(start.plusMillis(250), (event, offset) -> { })).isEqualTo(50);
+    }
+
+    @Test
+    void cursorAtTheEndSeesLaterAppendsAcrossARoll() {
+        store = open(config().retention(null));
+        List<DomainEvent> events = events(200, Instant.now());
+        store.append(events.get(0));
+        EventCursor cursor = store.read(0);
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.next()).isFalse();
+
+        store.appendAll(events.subList(1, 200));
+
+        List<DomainEvent> tailed = new ArrayList<>(List.of(events.get(0)));
+        while (cursor.next()) {
+            tailed.add(cursor.event());
+        }
+        assertThat(store.getSegmentCount()).isGreaterThan(1);
+        assertThat(tailed).isEqualTo(events);
+    }
+
+    @Test
+    void reopenedStoreRecoversItsEndAndKeepsAppending() {
+        List<DomainEvent> events = events(301, Instant.now());
+        store = open(config().retention(null));
+        store.appendAll(events.subList(0, 300));
+        store.close();
+
+        store = open(config().retention(null));
+
+        assertThat(store.getEndOffset()).isEqualTo(300);
+        assertThat(store.append(events.get(300))).isEqualTo(300);
+        assertReplayed(store, 0, events);
+    }
+
+    @Test
+    void sizeRetentionDeletesTheOldestSealedSegments() {
+        store = open(config().retention(null).retentionBytes(3L * SEGMENT_BYTES));
+        List<DomainEvent> events = events(500, Instant.now());
+
+        store.appendAll(events);
+
+        assertThat(store.getSegmentCount()).isLessThanOrEqualTo(4);
+        assertThat(logFiles()).hasSize(store.getSegmentCount());
+        assertThat(store.getStartOffset()).isPositive();
+        assertThat(store.getEndOffset()).isEqualTo(500);
+        // Reading a deleted offset starts at the oldest retained event
+        int start = (int) store.getStartOffset();
+        assertReplayed(store, 0, events.subList(start, 500));
+    }
+
+    @Test
+    void timeRetentionDeletesExpiredSegmentsButNeverTheActiveOne() {
+        store = open(config().retention(Duration.ofDays(1)));
+        List<DomainEvent> expired = events(300, Instant.now().minus(Duration.ofDays(30)));
+
+        store.appendAll(expired);
+
+        assertThat(store.getSegmentCount()).isEqualTo(1);
+        assertThat(store.getStartOffset()).isPositive();
+        assertThat(store.enforceRetention()).isZero();
+
+        List<DomainEvent> recent = events(200, Instant.now());
+        store.appendAll(recent);
+        long firstRecent = 300;
+        assertThat(store.getStartOffset()).isLessThanOrEqualTo(firstRecent);
+        store.replay(0, (event, offset) -> {
+            if (offset >= firstRecent) {
+                assertThat(event).isEqualTo(recent.get((int) (offset - firstRecent)));
+            }
+        });
+    }
+
+    @Test
+    void retentionIsAppliedWhenTheStoreIsOpened() {
+        store = open(config().retention(null));
+        store.appendAll(events(300, Instant.now().minus(Duration.ofDays(30))));
+        int segments = store.getSegmentCount();
+        store.close();
+
+        store = open(config().retention(Duration.ofDays(1)));
+
+        assertThat(segments).isGreaterThan(1);
+        assertThat(store.getSegmentCount()).isEqualTo(1);
+        assertThat(store.getEndOffset()).isEqualTo(300);
+    }
+
+    @Test
+    void eventLargerThanASegmentIsRejected() {
+        store = open(config().retention(null));
+        DomainEvent huge = UserCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .username("x".repeat(SEGMENT_BYTES))
+            .build();
+
+        assertThatThrownBy(() -> store.append(huge))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("larger than a segment");
+        assertThat(store.getEndOffset()).isZero();
+    }
+
+    @Test
+    void closedStoreRejectsAppends() {
+        store = open(config());
+        store.close();
+
+        assertThatThrownBy(() -> store.append(events(1, Instant.now()).get(0)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        assertThatThrownBy(() -> EventStore.open(EventStoreConfig.builder().build()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventStore.open(config().segmentBytes(100).indexIntervalBytes(256).build()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private EventStoreConfig.EventStoreConfigBuilder config() {
+        return EventStoreConfig.builder()
+            .directory(directory)
+            .segmentBytes(SEGMENT_BYTES)
+            .indexIntervalBytes(256);
+    }
+
+    private static EventStore open(EventStoreConfig.EventStoreConfigBuilder config) {
+        return EventStore.open(config.build());
+    }
+
+    private static void assertReplayed(EventStore store, long from, List<DomainEvent> expected) {
+        List<DomainEvent> replayed = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        long count = store.replay(from, (event, offset) -> {
+            replayed.add(event);
+            offsets.add(offset);
+        });
+
+        long first = store.getEndOffset() - expected.size();
+        assertThat(count).isEqualTo(expected.size());
+        assertThat(replayed).isEqualTo(expected);
+        assertThat(offsets).isEqualTo(LongStream.range(first, store.getEndOffset()).boxed().toList());
+    }
+
+    private List<Path> logFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(Segment.LOG_SUFFIX)).toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<DomainEvent> events(int count, Instant start) {
+        Instant first = start.truncatedTo(ChronoUnit.MILLIS);
+        return IntStream.range(0, count)
+            .<DomainEvent>mapToObj(i -> UserCreatedEvent.builder()
+                .eventId(EventIds.next())
+                .timestamp(first.plusMillis(i))
+                .userId((long) i)
+                .username("user" + i)
+                .email("user" + i + "@example.com")
+                .build())
+            .toList();
+    }
+}
@@ -0,0 +1,156 @@
+package com.company.event.store.benchmark;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.store.EventCursor;
+import com.company.event.store.EventStore;
+import com.company.event.store.EventStoreConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append and sequential replay throughput of {@link EventStore} with
+ * OrderCreatedEvents (~100 bytes encoded).
+ *
+ * Appends go to the page cache without flushing. Replay reads a store of
+ * {@value #REPLAY_EVENTS} events either as raw payload views (no copy, as when
+ * forwarding) or fully decoded.
+ *
+ * Run: mvn -pl shared/event-store -am -Pbenchmarks verify -Djmh.include=EventStoreBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventStoreBenchmark {
+
+    static final int REPLAY_EVENTS = 200_000;
+
+    @State(Scope.Thread)
+    public static class AppendState {
+
+        private final DomainEvent[] events = sampleOrders(1024);
+        private Path directory;
+        private EventStore store;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("event-store-bench");
+            // Size-based retention keeps a long run from filling the disk
+            store = EventStore.open(EventStoreConfig.builder()
+                .directory(directory)
+                .retention(null)
+                .retentionBytes(512L * 1024 * 1024)
+                .build());
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            store.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ReplayState {
+
+        private Path directory;
+        private EventStore store;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("event-store-bench");
+            store = EventStore.open(EventStoreConfig.builder().directory(directory).retention(null).build());
+            DomainEvent[] events = sampleOrders(1024);
+            for (int i = 0; i < REPLAY_EVENTS; i++) {
+                store.append(events[i % events.length]);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            store.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public long append(AppendState state) {
+        return state.store.append(state.events[state.next++ & (state.events.length - 1)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REPLAY_EVENTS)
+    public long replayPayload(ReplayState state) {
+        EventCursor cursor = state.store.read(0L);
+        long checksum = 0;
+        while (cursor.next()) {
+            ByteBuffer payload = cursor.payload();
+            checksum += payload.remaining() + payload.get(0);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REPLAY_EVENTS)
+    public void replayDecoded(ReplayState state, Blackhole blackhole) {
+        state.store.replay(0L, (event, offset) -> blackhole.consume(event));
+    }
+
+    private static DomainEvent[] sampleOrders(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        DomainEvent[] events = new DomainEvent[count];
+        for (int i = 0; i < count; i++) {
+            events[i] = OrderCreatedEvent.builder()
+                .eventId(EventIds.next())
+                .timestamp(Instant.now())
+                .orderId(1_000_000L + i)
+                .userId(10_000L + random.nextInt(5000))
+                .totalAmount(Money.ofMinor(random.nextLong(100, 1_000_000), "USD"))
+                .items(List.of(OrderCreatedEvent.OrderItemDto.builder()
+                    .productId(1000L + random.nextInt(500))
+                    .productName("Product " + random.nextInt(500))
+                    .quantity(1)
+                    .price(Money.ofMinor(random.nextLong(100, 20_000), "USD"))
+                    .build()))
+                .build();
+        }
+        return events;
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -73,6 +73,10 @@ NEW_PACKAGE="$TARGET_DIR/src/main/java/com/company/$NAME"
 if [ -d "$OLD_PACKAGE" ]; then
     mv "$OLD_PACKAGE" "$NEW_PACKAGE"
 fi
+OLD_TEST_PACKAGE="$TARGET_DIR/src/test/java/com/company/template"
+if [ -d "$OLD_TEST_PACKAGE" ]; then
+    mv "$OLD_TEST_PACKAGE" "$TARGET_DIR/src/test/java/com/company/$NAME"
+fi
 
 # Rename Application class
 OLD_APP="$NEW_PACKAGE/TemplateServiceApplication.java"
@@ -1,16 +1,23 @@
 package com.company.{{SERVICE_NAME}}.aggregator;
 
+import com.company.common.exception.ServiceUnavailableException;
+import com.company.{{SERVICE_NAME}}.cache.StaleWhileRevalidateCache;
 import com.company.{{SERVICE_NAME}}.client.OrderServiceClient;
 import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
 import com.company.{{SERVICE_NAME}}.dto.DashboardResponse;
+import com.company.{{SERVICE_NAME}}.dto.OrderDto;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import com.company.{{SERVICE_NAME}}.singleflight.SingleFlight;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Aggregates data from multiple services for dashboard view.
@@ -20,36 +27,70 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class DashboardAggregator {
 
+    private static final String UNAVAILABLE = "Some data is temporarily unavailable";
+
     private final UserServiceClient userClient;
     private final OrderServiceClient orderClient;
+    private final DownstreamCalls calls;
+    private final StaleWhileRevalidateCache dashboardCache;
 
-    @Cacheable(value = "dashboard", key = "#userId")
+    // Refreshed in the background ahead of expiry; partial dashboards are not cached (see CacheConfig)
+    @Cacheable(value = "dashboard", key = "#userId", sync = true)
+    // Concurrent misses for one user, e.g. when a popular entry expires, share one aggregation
+    @SingleFlight(name = "dashboard", key = "#userId")
     @CircuitBreaker(name = "dashboard", fallbackMethod = "getDashboardFallback")
     public DashboardResponse getDashboard(Long userId) {
         log.info("Aggregating dashboard for user: {}", userId);
 
-        // Parallel calls to multiple services
-        var userFuture = CompletableFuture.supplyAsync(() ->
-            userClient.getUserById(userId));
-        var ordersFuture = CompletableFuture.supplyAsync(() ->
-            orderClient.getOrdersByUserId(userId));
+        // Parallel calls to multiple services, all within the dashboard budget
+        long deadline = calls.deadline();
+        var userCall = calls.start("user", () -> userClient.getUserById(userId));
+        var ordersCall = calls.start("orders", () -> orderClient.getOrdersByUserId(userId));
+
+        Optional<UserDto> user = userCall.await(deadline);
+        Optional<List<OrderDto>> orders = ordersCall.await(deadline);
 
-        // Wait for all and combine
-        CompletableFuture.allOf(userFuture, ordersFuture).join();
+        // Nothing arrived: fail, so the circuit breaker counts it and the fallback serves the last good dashboard
+        if (user.isEmpty() && orders.isEmpty()) {
+            throw new ServiceUnavailableException("dashboard");
+        }
 
+        // Return whatever arrived in time, with the other sections from the last good dashboard if there is one
+        Optional<DashboardResponse> last = user.isEmpty() || orders.isEmpty()
+            ? dashboardCache.getStale(userId, DashboardResponse.class)
+            : Optional.empty();
+        List<String> missing = new ArrayList<>();
+        if (user.isEmpty() && last.isEmpty()) {
+            missing.add("user");
+        }
+        if (orders.isEmpty() && last.isEmpty()) {
+            missing.add("recentOrders");
+        }
         return DashboardResponse.builder()
-            .user(userFuture.join())
-            .recentOrders(ordersFuture.join())
+            .user(user.or(() -> last.map(DashboardResponse::getUser)).orElse(null))
+            .recentOrders(orders.or(() -> last.map(DashboardResponse::getRecentOrders))
+                .orElse(Collections.emptyList()))
+            .errorMessage(missing.isEmpty() ? null : UNAVAILABLE)
+            .missing(missing)
+            .stale(last.isPresent())
             .build();
     }
 
-    // Fallback when services are unavailable
+    // Fallback when services are unavailable: the last good dashboard if there is one
     public DashboardResponse getDashboardFallback(Long userId, Throwable t) {
         log.warn("Dashboard fallback for user: {}, reason: {}", userId, t.getMessage());
-        return DashboardResponse.builder()
-            .user(null)
-            .recentOrders(Collections.emptyList())
-            .errorMessage("Some data is temporarily unavailable")
-            .build();
+        return dashboardCache.getStale(userId, DashboardResponse.class)
+            .map(last -> DashboardResponse.builder()
+                .user(last.getUser())
+                .recentOrders(last.getRecentOrders())
+                .missing(List.of())
+                .stale(true)
+                .build())
+            .orElseGet(() -> DashboardResponse.builder()
+                .user(null)
+                .recentOrders(Collections.emptyList())
+                .errorMessage(UNAVAILABLE)
+                .missing(List.of("user", "recentOrders"))
+                .build());
     }
 }
@@ -0,0 +1,117 @@
+package com.company.{{SERVICE_NAME}}.aggregator;
+
+import com.company.{{SERVICE_NAME}}.config.AggregationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking downstream calls (Feign) in parallel, off the common
+ * ForkJoinPool, each bounded by its own timeout and by the budget of the
+ * aggregation it belongs to.
+ *
+ * Every call gets its own virtual thread, so a slow service ties up no
+ * platform threads; the number in flight is capped by a permit count, and
+ * calls over the cap are shed rather than queued. A call that fails, is shed
+ * or runs out of time yields an empty result and is interrupted, so the
+ * aggregation can return the sections that did arrive.
+ */
+@Slf4j
+public class DownstreamCalls implements AutoCloseable {
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("downstream-", 0).factory());
+    private final Semaphore permits;
+    private final AggregationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamCalls(AggregationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(properties.getMaxConcurrentCalls());
+    }
+
+    /**
+     * Deadline, in {@link System#nanoTime()} terms, for an aggregation starting now.
+     */
+    public long deadline() {
+        return System.nanoTime() + properties.getBudget().toNanos();
+    }
+
+    public <T> Call<T> start(String name, Supplier<T> request) {
+        long callDeadline = System.nanoTime() + properties.getCallTimeout().toNanos();
+        Future<T> future = executor.submit(() -> {
+            // Taken on the call's own thread: a call cancelled before it runs never holds a permit
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Too many downstream calls in flight");
+            }
+            try {
+                return request.get();
+            } finally {
+                permits.release();
+            }
+        });
+        return new Call<>(name, future, callDeadline);
+    }
+
+    /**
+     * Interrupts calls still in flight; closing the executor would wait for them.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void record(String name, String outcome) {
+        meterRegistry.counter("bff.downstream.calls", "call", name, "outcome", outcome).increment();
+    }
+
+    public final class Call<T> {
+
+        private final String name;
+        private final Future<T> future;
+        private final long callDeadline;
+
+        private Call(String name, Future<T> future, long callDeadline) {
+            this.name = name;
+            this.future = future;
+            this.callDeadline = callDeadline;
+        }
+
+        /**
+         * Waits for the result until this call's timeout or {@code deadline},
+         * whichever comes first. Empty if the call failed, was shed, returned
+         * nothing or ran out of time.
+         */
+        public Optional<T> await(long deadline) {
+            long waitNanos = Math.min(callDeadline, deadline) - System.nanoTime();
+            try {
+                T result = future.get(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS);
+                record(name, "success");
+                return Optional.ofNullable(result);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                record(name, "timeout");
+                log.warn("{} call timed out", name);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                record(name, cause instanceof RejectedExecutionException ? "shed" : "failure");
+                log.warn("{} call failed: {}", name, cause.toString());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.company.{{SERVICE_NAME}}.aggregator;
+
+import com.company.{{SERVICE_NAME}}.client.OrderServiceClient;
+import com.company.{{SERVICE_NAME}}.dto.OrderDto;
+import com.company.{{SERVICE_NAME}}.dto.OrderFeedItem;
+import com.company.{{SERVICE_NAME}}.dto.OrderFeedResponse;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import com.company.{{SERVICE_NAME}}.loader.BatchLoader;
+import com.company.{{SERVICE_NAME}}.loader.UserLoaders;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Aggregates the orders of all users in one status, each with its user, for
+ * the order feed view.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderFeedAggregator {
+
+    private static final String UNAVAILABLE = "Some data is temporarily unavailable";
+
+    private final OrderServiceClient orderClient;
+    private final UserLoaders userLoaders;
+    private final DownstreamCalls calls;
+
+    public OrderFeedResponse getOrderFeed(String status) {
+        log.info("Aggregating order feed for status: {}", status);
+
+        long deadline = calls.deadline();
+        Optional<List<OrderDto>> orders = calls.start("orders", () -> orderClient.getOrdersByStatus(status))
+            .await(deadline);
+        if (orders.isEmpty()) {
+            return OrderFeedResponse.builder()
+                .orders(Collections.emptyList())
+                .errorMessage(UNAVAILABLE)
+                .missing(List.of("orders"))
+                .build();
+        }
+
+        // One loader for this request: the users of all orders go out as one batch get per tick
+        BatchLoader<Long, UserDto> users = userLoaders.create(deadline);
+        List<CompletableFuture<UserDto>> orderUsers = orders.get().stream()
+            .map(order -> order.getUserId() == null
+                ? CompletableFuture.<UserDto>completedFuture(null) : users.load(order.getUserId()))
+            .toList();
+        boolean usersLoaded = awaitAll(orderUsers, deadline);
+
+        List<OrderFeedItem> items = new ArrayList<>();
+        for (int i = 0; i < orders.get().size(); i++) {
+            CompletableFuture<UserDto> user = orderUsers.get(i);
+            items.add(OrderFeedItem.builder()
+                .order(orders.get().get(i))
+                .user(user.isDone() && !user.isCompletedExceptionally() ? user.join() : null)
+                .build());
+        }
+        return OrderFeedResponse.builder()
+            .orders(items)
+            .errorMessage(usersLoaded ? null : UNAVAILABLE)
+            .missing(usersLoaded ? List.of() : List.of("users"))
+            .build();
+    }
+
+    private static boolean awaitAll(List<CompletableFuture<UserDto>> futures, long deadline) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("users lookup timed out");
+        } catch (ExecutionException e) {
+            log.warn("users lookup failed: {}", e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
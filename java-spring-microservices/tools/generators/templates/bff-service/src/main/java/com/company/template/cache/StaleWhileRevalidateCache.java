@@ -0,0 +1,183 @@
+package com.company.{{SERVICE_NAME}}.cache;
+
+import com.company.{{SERVICE_NAME}}.config.DashboardCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Caffeine-backed cache that refreshes entries ahead of expiry and keeps a
+ * longer-lived stale copy for when the backends are down.
+ *
+ * Use it with {@code @Cacheable(sync = true)}: a hit on an entry older than
+ * refresh-after returns that entry at once and re-runs the cached method in
+ * the background, so callers of a popular key never wait for it. Only one
+ * refresh per entry runs at a time; one that fails or returns a value that
+ * is not {@code storable} (a partial dashboard, say) keeps the last good
+ * value. Entries nobody reads expire after expire-after; their stale copy
+ * stays for stale-for, for fallbacks to serve through {@link #getStale}.
+ *
+ * Lookups are counted in {@code bff.cache.requests}, tagged with the cache
+ * and a result of hit, miss, refresh (a hit that started a refresh) or
+ * stale (a stale copy served).
+ */
+@Slf4j
+public class StaleWhileRevalidateCache implements Cache, AutoCloseable {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Entry> fresh;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> stale;
+    private final long refreshAfterNanos;
+    private final Predicate<Object> storable;
+    private final Ticker ticker;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService refresher;
+
+    public StaleWhileRevalidateCache(String name, DashboardCacheProperties properties, Predicate<Object> storable,
+                                     MeterRegistry meterRegistry, Ticker ticker) {
+        if (properties.getRefreshAfter().compareTo(properties.getExpireAfter()) >= 0) {
+            throw new IllegalArgumentException("refresh-after must be shorter than expire-after for cache " + name);
+        }
+        this.name = name;
+        this.fresh = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getExpireAfter())
+            .ticker(ticker)
+            .build();
+        this.stale = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getStaleFor())
+            .ticker(ticker)
+            .build();
+        this.refreshAfterNanos = properties.getRefreshAfter().toNanos();
+        this.storable = storable;
+        this.ticker = ticker;
+        this.meterRegistry = meterRegistry;
+        this.refresher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-refresh-", 0).factory());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return fresh;
+    }
+
+    /**
+     * Plain lookup, without refresh-ahead: that needs the loader passed by
+     * {@code @Cacheable(sync = true)}.
+     */
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = fresh.getIfPresent(key);
+        record(entry == null ? "miss" : "hit");
+        return entry == null ? null : new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        return wrapper == null ? null : (T) wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = fresh.getIfPresent(key);
+        if (entry != null) {
+            record("hit");
+            if (ticker.read() - entry.written() >= refreshAfterNanos && entry.refreshing().compareAndSet(false, true)) {
+                record("refresh");
+                refresher.execute(() -> refresh(key, entry, valueLoader));
+            }
+            return (T) entry.value();
+        }
+
+        // Concurrent misses are not serialized here; @SingleFlight on the method coalesces them
+        record("miss");
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Last value stored under {@code key} within stale-for, even if it has
+     * expired from the cache itself.
+     */
+    public <T> Optional<T> getStale(Object key, Class<T> type) {
+        Optional<T> value = Optional.ofNullable(stale.getIfPresent(key)).map(type::cast);
+        value.ifPresent(v -> record("stale"));
+        return value;
+    }
+
+    /**
+     * Stores {@code value} if it is {@code storable}; otherwise the current
+     * entry, if any, is kept.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null && storable.test(value)) {
+            fresh.put(key, new Entry(value, ticker.read(), new AtomicBoolean()));
+            stale.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        fresh.invalidate(key);
+        stale.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        fresh.invalidateAll();
+        stale.invalidateAll();
+    }
+
+    /**
+     * Interrupts refreshes still in flight.
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private void refresh(Object key, Entry entry, Callable<?> valueLoader) {
+        try {
+            put(key, valueLoader.call());
+        } catch (Exception e) {
+            // The cache interceptor wraps what the method threw
+            Throwable cause = e instanceof CacheOperationInvoker.ThrowableWrapper wrapper ? wrapper.getOriginal() : e;
+            log.warn("Refresh of {} in cache {} failed, serving the last value: {}", key, name, cause.toString());
+        } finally {
+            entry.refreshing().set(false);
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("bff.cache.requests", "cache", name, "result", result).increment();
+    }
+
+    private record Entry(Object value, long written, AtomicBoolean refreshing) {
+    }
+}
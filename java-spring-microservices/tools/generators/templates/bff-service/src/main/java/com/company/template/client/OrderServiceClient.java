@@ -12,4 +12,8 @@ public interface OrderServiceClient {
 
     @GetMapping("/api/orders")
     List<OrderDto> getOrdersByUserId(@RequestParam Long userId);
+
+    // Orders of all users: resolve their users through UserLoaders, not one getUserById each
+    @GetMapping("/api/orders")
+    List<OrderDto> getOrdersByStatus(@RequestParam String status);
 }
@@ -1,13 +1,26 @@
 package com.company.{{SERVICE_NAME}}.client;
 
+import com.company.common.dto.ApiResponse;
 import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import org.springframework.cloud.openfeign.CollectionFormat;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "user-service", url = "${services.user-service.url}")
 public interface UserServiceClient {
 
+    /** Most ids the batch get accepts per call. */
+    int MAX_BATCH_IDS = 100;
+
     @GetMapping("/api/users/{id}")
     UserDto getUserById(@PathVariable Long id);
+
+    // Batch get: unknown ids are left out. Prefer UserLoaders (see OrderFeedAggregator) over calling this directly.
+    @GetMapping("/api/users/batch")
+    @CollectionFormat(feign.CollectionFormat.CSV)
+    ApiResponse<List<UserDto>> getUsersByIds(@RequestParam("ids") List<Long> ids);
 }
@@ -0,0 +1,28 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.{{SERVICE_NAME}}.aggregator.DownstreamCalls;
+import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
+import com.company.{{SERVICE_NAME}}.loader.UserLoaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AggregationProperties.class)
+public class AggregationConfig {
+
+    /**
+     * Closed on shutdown, which interrupts calls still in flight.
+     */
+    @Bean
+    public DownstreamCalls downstreamCalls(AggregationProperties properties, MeterRegistry meterRegistry) {
+        return new DownstreamCalls(properties, meterRegistry);
+    }
+
+    @Bean
+    public UserLoaders userLoaders(UserServiceClient userClient, DownstreamCalls downstreamCalls,
+                                   AggregationProperties properties, MeterRegistry meterRegistry) {
+        return new UserLoaders(userClient, downstreamCalls, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the downstream calls behind an aggregated view.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     aggregation:
+ *       call-timeout: 2s
+ *       budget: 3s
+ *       max-concurrent-calls: 200
+ *       loader-tick: 2ms
+ */
+@Data
+@ConfigurationProperties(prefix = "app.aggregation")
+public class AggregationProperties {
+
+    /** Longest a single downstream call may take before its section is left out. */
+    private Duration callTimeout = Duration.ofSeconds(2);
+    /** Longest one aggregation may wait for all its calls together. */
+    private Duration budget = Duration.ofSeconds(3);
+    /** Downstream calls in flight across all requests; calls beyond this are shed, not queued. */
+    private int maxConcurrentCalls = 200;
+    /** How long a BatchLoader gathers keys before sending them as one batch call. */
+    private Duration loaderTick = Duration.ofMillis(2);
+}
@@ -0,0 +1,58 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.{{SERVICE_NAME}}.cache.StaleWhileRevalidateCache;
+import com.company.{{SERVICE_NAME}}.dto.DashboardResponse;
+import com.company.{{SERVICE_NAME}}.singleflight.SingleFlightAspect;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * The cache check runs first, so only misses are coalesced by
+ * {@code @SingleFlight} or reach the circuit breaker.
+ */
+@Configuration
+@EnableCaching(order = SingleFlightAspect.ORDER - 1)
+@EnableConfigurationProperties(DashboardCacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * Only complete, freshly aggregated dashboards are cached: partial ones
+     * are retried by the next request, and stale ones came from this cache.
+     */
+    @Bean
+    public StaleWhileRevalidateCache dashboardCache(DashboardCacheProperties properties, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache("dashboard", properties,
+            value -> value instanceof DashboardResponse dashboard && dashboard.getMissing().isEmpty()
+                && !dashboard.isStale(),
+            meterRegistry, Ticker.systemTicker());
+    }
+
+    /**
+     * The dashboard cache, then plain Caffeine caches from spring.cache.caffeine.spec
+     * for any other name.
+     */
+    @Bean
+    public CacheManager cacheManager(StaleWhileRevalidateCache dashboardCache,
+                                     @Value("${spring.cache.caffeine.spec:}") String caffeineSpec) {
+        SimpleCacheManager refreshing = new SimpleCacheManager();
+        refreshing.setCaches(List.of(dashboardCache));
+        refreshing.initializeCaches();
+        CaffeineCacheManager others = new CaffeineCacheManager();
+        if (StringUtils.hasText(caffeineSpec)) {
+            others.setCacheSpecification(caffeineSpec);
+        }
+        return new CompositeCacheManager(refreshing, others);
+    }
+}
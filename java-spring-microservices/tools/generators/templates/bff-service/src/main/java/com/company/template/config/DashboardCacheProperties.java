@@ -0,0 +1,30 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the stale-while-revalidate dashboard cache.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     cache:
+ *       dashboard:
+ *         refresh-after: 4m
+ *         expire-after: 5m
+ *         stale-for: 1h
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache.dashboard")
+public class DashboardCacheProperties {
+
+    private long maximumSize = 1000;
+    /** A hit on an entry older than this is served and refreshed in the background. */
+    private Duration refreshAfter = Duration.ofMinutes(4);
+    /** Entries not refreshed for this long are dropped; the next request aggregates again. */
+    private Duration expireAfter = Duration.ofMinutes(5);
+    /** How long the last good dashboard stays available to the fallback. */
+    private Duration staleFor = Duration.ofHours(1);
+}
@@ -15,4 +15,8 @@ public class DashboardResponse {
     private UserDto user;
     private List<OrderDto> recentOrders;
     private String errorMessage;
+    /** Sections left out because their service failed or was too slow; empty for a complete dashboard. */
+    private List<String> missing;
+    /** True when sections come from the last good dashboard because their services could not be reached. */
+    private boolean stale;
 }
@@ -0,0 +1,16 @@
+package com.company.{{SERVICE_NAME}}.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFeedItem {
+    private OrderDto order;
+    /** Null when the user is unknown or could not be loaded in time. */
+    private UserDto user;
+}
@@ -0,0 +1,19 @@
+package com.company.{{SERVICE_NAME}}.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFeedResponse {
+    private List<OrderFeedItem> orders;
+    private String errorMessage;
+    /** Sections left out because their service failed or was too slow; empty for a complete feed. */
+    private List<String> missing;
+}
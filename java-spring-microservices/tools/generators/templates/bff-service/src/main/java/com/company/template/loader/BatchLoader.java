@@ -0,0 +1,132 @@
+package com.company.{{SERVICE_NAME}}.loader;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Turns one-at-a-time lookups into batch calls, DataLoader style.
+ *
+ * Keys requested within one tick, from any thread, are sent together as one
+ * call to the batch function, split at {@code maxBatchSize}, and each caller
+ * gets its own value back. Every key is looked up at most once per loader,
+ * so create one loader per request: that request's repeated keys are served
+ * from memory, while other requests see fresh data.
+ *
+ * Keys the batch function leaves out resolve to {@code null}. A failed batch
+ * fails all its keys and forgets them, so they can be loaded again. Keys
+ * must not be null; {@link #loadMany} skips null keys.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final Duration tick;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final DistributionSummary batchSizes;
+
+    /** Request cache: every key this loader was asked for, done or in flight. */
+    private final Map<K, CompletableFuture<V>> loaded = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<K> pending = new ArrayList<>();
+
+    public BatchLoader(String name, Function<List<K>, Map<K, V>> batchFunction, Duration tick, int maxBatchSize,
+                       Executor executor, MeterRegistry meterRegistry) {
+        this.batchFunction = batchFunction;
+        this.tick = tick;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.batchSizes = DistributionSummary.builder("bff.loader.batch.size")
+            .tag("loader", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @throws NullPointerException if {@code key} is null
+     */
+    public CompletableFuture<V> load(K key) {
+        Objects.requireNonNull(key, "BatchLoader cannot load a null key");
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = loaded.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        List<K> full = null;
+        synchronized (lock) {
+            pending.add(key);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new ArrayList<>();
+            } else if (pending.size() == 1) {
+                // First key of a batch: send whatever has gathered one tick from now
+                executor.execute(() -> {
+                    LockSupport.parkNanos(tick.toNanos());
+                    dispatch(drain());
+                });
+            }
+        }
+        if (full != null) {
+            List<K> batch = full;
+            executor.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    /**
+     * Loads all {@code keys}, batched together with any other loads in the
+     * same tick. The map follows the order of {@code keys} and leaves out
+     * null keys and keys with no value.
+     */
+    public CompletableFuture<Map<K, V>> loadMany(Collection<K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (key != null) {
+                futures.put(key, load(key));
+            }
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+            .thenApply(done -> {
+                Map<K, V> values = new LinkedHashMap<>();
+                futures.forEach((key, future) -> {
+                    V value = future.join();
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                });
+                return values;
+            });
+    }
+
+    private List<K> drain() {
+        synchronized (lock) {
+            List<K> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        }
+    }
+
+    private void dispatch(List<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        batchSizes.record(keys.size());
+        try {
+            Map<K, V> values = batchFunction.apply(keys);
+            keys.forEach(key -> loaded.get(key).complete(values.get(key)));
+        } catch (Throwable t) {
+            keys.forEach(key -> loaded.remove(key).completeExceptionally(t));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.{{SERVICE_NAME}}.loader;
+
+import com.company.common.dto.ApiResponse;
+import com.company.common.exception.ServiceUnavailableException;
+import com.company.{{SERVICE_NAME}}.aggregator.DownstreamCalls;
+import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
+import com.company.{{SERVICE_NAME}}.config.AggregationProperties;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the per-request user loaders that replace one
+ * {@code getUserById} call per list item with one {@code getUsersByIds}
+ * call per tick.
+ *
+ * Batch calls go through {@link DownstreamCalls}, so they share its permit
+ * cap and call timeout, and a call still running at the request's deadline
+ * is cancelled; its ids then fail rather than wait.
+ *
+ * Usage, once per incoming request:
+ * <pre>
+ * {@code
+ * BatchLoader<Long, UserDto> users = userLoaders.create(deadline);
+ * orders.forEach(order -> users.load(order.getUserId()).thenAccept(...));
+ * }
+ * </pre>
+ */
+public class UserLoaders implements AutoCloseable {
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-loader-", 0).factory());
+    private final UserServiceClient userClient;
+    private final DownstreamCalls calls;
+    private final AggregationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public UserLoaders(UserServiceClient userClient, DownstreamCalls calls, AggregationProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.userClient = userClient;
+        this.calls = calls;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * A loader for a request that starts now, with the full response budget.
+     */
+    public BatchLoader<Long, UserDto> create() {
+        return create(calls.deadline());
+    }
+
+    /**
+     * A loader whose batch calls end by {@code deadline}, from {@link DownstreamCalls#deadline()}.
+     */
+    public BatchLoader<Long, UserDto> create(long deadline) {
+        return new BatchLoader<>("users", ids -> getUsersByIds(ids, deadline), properties.getLoaderTick(),
+            UserServiceClient.MAX_BATCH_IDS, executor, meterRegistry);
+    }
+
+    private Map<Long, UserDto> getUsersByIds(List<Long> ids, long deadline) {
+        ApiResponse<List<UserDto>> response = calls.start("users", () -> userClient.getUsersByIds(ids))
+            .await(deadline)
+            .orElseThrow(() -> new ServiceUnavailableException("user-service"));
+        List<UserDto> users = response.getData();
+        // A user listed twice is still one user
+        return users == null ? Map.of()
+            : users.stream().collect(Collectors.toMap(UserDto::getId, Function.identity(), (first, repeat) -> first));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
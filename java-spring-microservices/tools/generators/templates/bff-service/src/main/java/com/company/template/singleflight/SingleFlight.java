@@ -0,0 +1,41 @@
+package com.company.{{SERVICE_NAME}}.singleflight;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent calls of a method with the same key into one
+ * execution: the first caller runs the method, callers arriving while it is
+ * in flight wait for and share its result, or its exception. Nothing is kept
+ * once the call returns; pair it with {@code @Cacheable} to also reuse the
+ * result, and the cache is consulted first.
+ *
+ * Usage:
+ * <pre>
+ * {@code
+ * @Cacheable(value = "dashboard", key = "#userId")
+ * @SingleFlight(key = "#userId")
+ * public DashboardResponse getDashboard(Long userId) { ... }
+ * }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+
+    /**
+     * Name used for metrics tags.
+     * Defaults to ClassName.methodName.
+     */
+    String name() default "";
+
+    /**
+     * SpEL expression over the method parameters, as in {@code @Cacheable}.
+     * Defaults to all parameters.
+     */
+    String key() default "";
+}
@@ -0,0 +1,95 @@
+package com.company.{{SERVICE_NAME}}.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs {@link SingleFlight} methods once per key at a time.
+ *
+ * Ordered inside the cache interceptor (see CacheConfig) and outside
+ * resilience4j's circuit breaker, whose aspect runs at LOWEST_PRECEDENCE - 3:
+ * a coalesced call neither reaches the backends nor counts towards the
+ * breaker. Callers are counted in {@code bff.singleflight.calls}, tagged
+ * {@code executed} for the one that ran and {@code coalesced} for those that
+ * shared its result.
+ */
+@Aspect
+@Component
+@Order(SingleFlightAspect.ORDER)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 5;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> keyExpressions = new ConcurrentHashMap<>();
+    private final Map<SimpleKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String name = singleFlight.name().isEmpty()
+            ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+            : singleFlight.name();
+        SimpleKey key = new SimpleKey(method, key(singleFlight, method, joinPoint));
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            record(name, "coalesced");
+            try {
+                return leader.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        record(name, "executed");
+        try {
+            Object result = joinPoint.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable t) {
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object key(SingleFlight singleFlight, Method method, ProceedingJoinPoint joinPoint) {
+        Object[] args = joinPoint.getArgs();
+        if (singleFlight.key().isEmpty()) {
+            return new SimpleKey(args);
+        }
+        Expression expression = keyExpressions.computeIfAbsent(singleFlight.key(), parser::parseExpression);
+        return expression.getValue(
+            new MethodBasedEvaluationContext(joinPoint.getTarget(), method, args, parameterNames));
+    }
+
+    private void record(String name, String result) {
+        meterRegistry.counter("bff.singleflight.calls", "name", name, "result", result).increment();
+    }
+}
@@ -0,0 +1,224 @@
+package com.company.{{SERVICE_NAME}}.aggregator;
+
+import com.company.common.dto.ApiResponse;
+import com.company.common.exception.ServiceUnavailableException;
+import com.company.{{SERVICE_NAME}}.cache.StaleWhileRevalidateCache;
+import com.company.{{SERVICE_NAME}}.client.OrderServiceClient;
+import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
+import com.company.{{SERVICE_NAME}}.config.AggregationProperties;
+import com.company.{{SERVICE_NAME}}.config.DashboardCacheProperties;
+import com.company.{{SERVICE_NAME}}.dto.DashboardResponse;
+import com.company.{{SERVICE_NAME}}.dto.OrderDto;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DashboardAggregatorTest {
+
+    private static final UserDto USER = UserDto.builder().id(1L).username("jane").build();
+    private static final List<OrderDto> ORDERS = List.of(OrderDto.builder().id(7L).userId(1L).build());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AggregationProperties properties = new AggregationProperties();
+    private final StaleWhileRevalidateCache dashboardCache = new StaleWhileRevalidateCache("dashboard",
+        new DashboardCacheProperties(), value -> true, meterRegistry, Ticker.systemTicker());
+    private DownstreamCalls calls;
+
+    @AfterEach
+    void tearDown() {
+        if (calls != null) {
+            calls.close();
+        }
+        dashboardCache.close();
+    }
+
+    @Test
+    void completeDashboardListsNothingMissing() {
+        DashboardResponse dashboard = aggregator(id -> USER, id -> ORDERS).getDashboard(1L);
+
+        assertThat(dashboard.getUser()).isEqualTo(USER);
+        assertThat(dashboard.getRecentOrders()).isEqualTo(ORDERS);
+        assertThat(dashboard.getMissing()).isEmpty();
+        assertThat(dashboard.getErrorMessage()).isNull();
+    }
+
+    @Test
+    void slowOrdersAreLeftOutAndInterrupted() throws Exception {
+        properties.setCallTimeout(Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        DashboardAggregator aggregator = aggregator(id -> USER, id -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return ORDERS;
+        });
+
+        long start = System.nanoTime();
+        DashboardResponse dashboard = aggregator.getDashboard(1L);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(dashboard.getUser()).isEqualTo(USER);
+        assertThat(dashboard.getRecentOrders()).isEmpty();
+        assertThat(dashboard.getMissing()).containsExactly("recentOrders");
+        assertThat(dashboard.getErrorMessage()).isNotNull();
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(count("orders", "timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void failingUserServiceLeavesOrdersInPlace() {
+        DashboardResponse dashboard = aggregator(id -> {
+            throw new IllegalStateException("user-service down");
+        }, id -> ORDERS).getDashboard(1L);
+
+        assertThat(dashboard.getUser()).isNull();
+        assertThat(dashboard.getRecentOrders()).isEqualTo(ORDERS);
+        assertThat(dashboard.getMissing()).containsExactly("user");
+        assertThat(count("user", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void budgetBoundsTheWholeDashboard() {
+        properties.setCallTimeout(Duration.ofSeconds(5));
+        properties.setBudget(Duration.ofMillis(300));
+        DashboardAggregator aggregator = aggregator(id -> {
+            sleep(200);
+            return USER;
+        }, id -> {
+            sleep(2_000);
+            return ORDERS;
+        });
+
+        long start = System.nanoTime();
+        DashboardResponse dashboard = aggregator.getDashboard(1L);
+
+        // The user call fits the budget; the orders call does not, despite its longer timeout
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(dashboard.getUser()).isEqualTo(USER);
+        assertThat(dashboard.getMissing()).containsExactly("recentOrders");
+    }
+
+    @Test
+    void callsRunOnVirtualThreadsOffTheCommonPool() {
+        AtomicBoolean virtual = new AtomicBoolean();
+        aggregator(id -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            return USER;
+        }, id -> ORDERS).getDashboard(1L);
+
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    void callsOverTheConcurrencyLimitAreShed() {
+        properties.setMaxConcurrentCalls(1);
+        DashboardAggregator aggregator = aggregator(id -> {
+            sleep(200);
+            return USER;
+        }, id -> {
+            sleep(200);
+            return ORDERS;
+        });
+
+        DashboardResponse dashboard = aggregator.getDashboard(1L);
+
+        assertThat(dashboard.getMissing()).hasSize(1);
+        assertThat(count("user", "shed") + count("orders", "shed")).isEqualTo(1);
+    }
+
+    @Test
+    void failingSectionIsFilledFromTheLastGoodDashboard() {
+        dashboardCache.put(1L, aggregator(id -> USER, id -> ORDERS).getDashboard(1L));
+
+        DashboardResponse dashboard = aggregator(id -> {
+            throw new IllegalStateException("user-service down");
+        }, id -> List.of()).getDashboard(1L);
+
+        assertThat(dashboard.isStale()).isTrue();
+        assertThat(dashboard.getUser()).isEqualTo(USER);
+        assertThat(dashboard.getRecentOrders()).isEmpty();
+        assertThat(dashboard.getMissing()).isEmpty();
+        assertThat(dashboard.getErrorMessage()).isNull();
+    }
+
+    @Test
+    void everySectionFailingThrowsForTheCircuitBreaker() {
+        DashboardAggregator aggregator = aggregator(id -> {
+            throw new IllegalStateException("user-service down");
+        }, id -> {
+            throw new IllegalStateException("order-service down");
+        });
+
+        assertThatThrownBy(() -> aggregator.getDashboard(1L)).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void fallbackWithoutALastGoodDashboardIsEmpty() {
+        DashboardResponse dashboard = aggregator(id -> USER, id -> ORDERS)
+            .getDashboardFallback(2L, new IllegalStateException("circuit open"));
+
+        assertThat(dashboard.isStale()).isFalse();
+        assertThat(dashboard.getUser()).isNull();
+        assertThat(dashboard.getMissing()).containsExactly("user", "recentOrders");
+    }
+
+    private DashboardAggregator aggregator(Function<Long, UserDto> users, Function<Long, List<OrderDto>> orders) {
+        calls = new DownstreamCalls(properties, meterRegistry);
+        return new DashboardAggregator(new StubUserServiceClient(users), new StubOrderServiceClient(orders), calls,
+            dashboardCache);
+    }
+
+    private double count(String call, String outcome) {
+        var counter = meterRegistry.find("bff.downstream.calls").tag("call", call).tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record StubUserServiceClient(Function<Long, UserDto> users) implements UserServiceClient {
+
+        @Override
+        public UserDto getUserById(Long id) {
+            return users.apply(id);
+        }
+
+        @Override
+        public ApiResponse<List<UserDto>> getUsersByIds(List<Long> ids) {
+            return ApiResponse.success(ids.stream().map(users).filter(Objects::nonNull).toList());
+        }
+    }
+
+    record StubOrderServiceClient(Function<Long, List<OrderDto>> orders) implements OrderServiceClient {
+
+        @Override
+        public List<OrderDto> getOrdersByUserId(Long userId) {
+            return orders.apply(userId);
+        }
+
+        @Override
+        public List<OrderDto> getOrdersByStatus(String status) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
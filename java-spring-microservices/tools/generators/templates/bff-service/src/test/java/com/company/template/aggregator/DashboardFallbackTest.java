@@ -0,0 +1,134 @@
+package com.company.{{SERVICE_NAME}}.aggregator;
+
+import com.company.{{SERVICE_NAME}}.aggregator.DashboardAggregatorTest.StubOrderServiceClient;
+import com.company.{{SERVICE_NAME}}.aggregator.DashboardAggregatorTest.StubUserServiceClient;
+import com.company.{{SERVICE_NAME}}.cache.StaleWhileRevalidateCache;
+import com.company.{{SERVICE_NAME}}.client.OrderServiceClient;
+import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
+import com.company.{{SERVICE_NAME}}.config.AggregationConfig;
+import com.company.{{SERVICE_NAME}}.config.CacheConfig;
+import com.company.{{SERVICE_NAME}}.dto.DashboardResponse;
+import com.company.{{SERVICE_NAME}}.dto.OrderDto;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import com.company.{{SERVICE_NAME}}.singleflight.SingleFlightAspect;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Failing downstreams seen through the cache, single-flight and circuit-breaker proxy.
+ */
+class DashboardFallbackTest {
+
+    private static final UserDto USER = UserDto.builder().id(1L).username("jane").build();
+    private static final List<OrderDto> ORDERS = List.of(OrderDto.builder().id(7L).userId(1L).build());
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Config.class);
+    private final DashboardAggregator aggregator = context.getBean(DashboardAggregator.class);
+    private final StaleWhileRevalidateCache dashboardCache = context.getBean(StaleWhileRevalidateCache.class);
+    private final Downstreams downstreams = context.getBean(Downstreams.class);
+    private final CircuitBreakerRegistry circuitBreakers = context.getBean(CircuitBreakerRegistry.class);
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void failingDownstreamsServeTheLastGoodDashboard() {
+        aggregator.getDashboard(1L);
+        expireFreshEntry(1L);
+        downstreams.down.set(true);
+
+        DashboardResponse dashboard = aggregator.getDashboard(1L);
+
+        assertThat(dashboard.isStale()).isTrue();
+        assertThat(dashboard.getUser()).isEqualTo(USER);
+        assertThat(dashboard.getRecentOrders()).isEqualTo(ORDERS);
+        assertThat(dashboard.getMissing()).isEmpty();
+        assertThat(circuitBreakers.circuitBreaker("dashboard").getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void failingDownstreamsWithoutALastGoodDashboardListEverySectionMissing() {
+        downstreams.down.set(true);
+
+        DashboardResponse dashboard = aggregator.getDashboard(1L);
+
+        assertThat(dashboard.isStale()).isFalse();
+        assertThat(dashboard.getUser()).isNull();
+        assertThat(dashboard.getMissing()).containsExactly("user", "recentOrders");
+    }
+
+    @Test
+    void staleDashboardsAreNotCached() {
+        aggregator.getDashboard(1L);
+        expireFreshEntry(1L);
+        downstreams.down.set(true);
+        aggregator.getDashboard(1L);
+
+        downstreams.down.set(false);
+        DashboardResponse dashboard = aggregator.getDashboard(1L);
+
+        assertThat(dashboard.isStale()).isFalse();
+        assertThat(dashboard.getUser()).isEqualTo(USER);
+    }
+
+    // Drops the cached dashboard but not its stale copy, as expire-after does
+    @SuppressWarnings("unchecked")
+    private void expireFreshEntry(Long userId) {
+        ((com.github.benmanes.caffeine.cache.Cache<Object, ?>) dashboardCache.getNativeCache()).invalidate(userId);
+    }
+
+    static class Downstreams {
+
+        final AtomicBoolean down = new AtomicBoolean();
+
+        <T> T call(T value) {
+            if (down.get()) {
+                throw new IllegalStateException("service down");
+            }
+            return value;
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @ImportAutoConfiguration(CircuitBreakerAutoConfiguration.class)
+    @Import({CacheConfig.class, AggregationConfig.class, SingleFlightAspect.class, DashboardAggregator.class})
+    static class Config {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Downstreams downstreams() {
+            return new Downstreams();
+        }
+
+        @Bean
+        UserServiceClient userServiceClient(Downstreams downstreams) {
+            return new StubUserServiceClient(id -> downstreams.call(USER));
+        }
+
+        @Bean
+        OrderServiceClient orderServiceClient(Downstreams downstreams) {
+            return new StubOrderServiceClient(id -> downstreams.call(ORDERS));
+        }
+    }
+}
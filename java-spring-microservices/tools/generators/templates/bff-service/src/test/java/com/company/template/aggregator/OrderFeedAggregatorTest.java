@@ -0,0 +1,177 @@
+package com.company.{{SERVICE_NAME}}.aggregator;
+
+import com.company.common.dto.ApiResponse;
+import com.company.{{SERVICE_NAME}}.client.OrderServiceClient;
+import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
+import com.company.{{SERVICE_NAME}}.config.AggregationProperties;
+import com.company.{{SERVICE_NAME}}.dto.OrderDto;
+import com.company.{{SERVICE_NAME}}.dto.OrderFeedItem;
+import com.company.{{SERVICE_NAME}}.dto.OrderFeedResponse;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import com.company.{{SERVICE_NAME}}.loader.UserLoaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderFeedAggregatorTest {
+
+    /** Users at or above this id are unknown to the stub user-service. */
+    private static final long UNKNOWN = 1_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AggregationProperties properties = new AggregationProperties();
+    private final StubUserServiceClient userClient = new StubUserServiceClient();
+    private final DownstreamCalls calls = new DownstreamCalls(properties, meterRegistry);
+    private final UserLoaders userLoaders = new UserLoaders(userClient, calls, properties, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        calls.close();
+        userLoaders.close();
+    }
+
+    @Test
+    void usersOfAllOrdersComeFromOneBatchGet() {
+        // 30 orders placed by 10 users
+        List<OrderDto> orders = LongStream.rangeClosed(1, 30)
+            .mapToObj(id -> OrderDto.builder().id(id).userId(id % 10 + 1).status("PENDING").build())
+            .toList();
+
+        OrderFeedResponse feed = aggregator(status -> orders).getOrderFeed("PENDING");
+
+        assertThat(feed.getMissing()).isEmpty();
+        assertThat(feed.getOrders()).extracting(OrderFeedItem::getOrder).isEqualTo(orders);
+        assertThat(feed.getOrders()).allSatisfy(item ->
+            assertThat(item.getUser().getId()).isEqualTo(item.getOrder().getUserId()));
+        assertThat(userClient.calls).hasSize(1);
+        assertThat(userClient.calls.get(0)).containsExactlyInAnyOrderElementsOf(
+            LongStream.rangeClosed(1, 10).boxed().toList());
+    }
+
+    @Test
+    void ordersOfUnknownUsersHaveNoUser() {
+        List<OrderDto> orders = List.of(
+            OrderDto.builder().id(1L).userId(1L).build(),
+            OrderDto.builder().id(2L).userId(UNKNOWN).build());
+
+        OrderFeedResponse feed = aggregator(status -> orders).getOrderFeed("PENDING");
+
+        assertThat(feed.getMissing()).isEmpty();
+        assertThat(feed.getOrders().get(0).getUser().getId()).isEqualTo(1L);
+        assertThat(feed.getOrders().get(1).getUser()).isNull();
+    }
+
+    @Test
+    void failingUserServiceLeavesTheOrdersWithoutUsers() {
+        userClient.failure = new IllegalStateException("user-service down");
+        List<OrderDto> orders = List.of(OrderDto.builder().id(1L).userId(1L).build());
+
+        OrderFeedResponse feed = aggregator(status -> orders).getOrderFeed("PENDING");
+
+        assertThat(feed.getMissing()).containsExactly("users");
+        assertThat(feed.getErrorMessage()).isNotNull();
+        assertThat(feed.getOrders()).singleElement().satisfies(item -> {
+            assertThat(item.getOrder()).isEqualTo(orders.get(0));
+            assertThat(item.getUser()).isNull();
+        });
+    }
+
+    @Test
+    void slowUserServiceIsCutOffAtTheBudget() {
+        properties.setBudget(Duration.ofMillis(300));
+        userClient.delayMillis = 2_000;
+        List<OrderDto> orders = List.of(OrderDto.builder().id(1L).userId(1L).build());
+
+        long start = System.nanoTime();
+        OrderFeedResponse feed = aggregator(status -> orders).getOrderFeed("PENDING");
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(feed.getMissing()).containsExactly("users");
+        assertThat(feed.getOrders()).singleElement().extracting(OrderFeedItem::getUser).isNull();
+        // The batch call itself is cancelled, not left running
+        assertThat(meterRegistry.get("bff.downstream.calls").tags("call", "users", "outcome", "timeout")
+            .counter().count()).isEqualTo(1);
+        assertThat(userClient.interrupted).isTrue();
+    }
+
+    @Test
+    void ordersWithoutAUserHaveNoUser() {
+        List<OrderDto> orders = List.of(
+            OrderDto.builder().id(1L).userId(1L).build(),
+            OrderDto.builder().id(2L).build());
+
+        OrderFeedResponse feed = aggregator(status -> orders).getOrderFeed("PENDING");
+
+        assertThat(feed.getMissing()).isEmpty();
+        assertThat(feed.getOrders().get(1).getUser()).isNull();
+        assertThat(userClient.calls).containsExactly(List.of(1L));
+    }
+
+    @Test
+    void failingOrderServiceLeavesAnEmptyFeed() {
+        OrderFeedResponse feed = aggregator(status -> {
+            throw new IllegalStateException("order-service down");
+        }).getOrderFeed("PENDING");
+
+        assertThat(feed.getOrders()).isEmpty();
+        assertThat(feed.getMissing()).containsExactly("orders");
+        assertThat(userClient.calls).isEmpty();
+    }
+
+    private OrderFeedAggregator aggregator(Function<String, List<OrderDto>> orders) {
+        OrderServiceClient orderClient = new OrderServiceClient() {
+            @Override
+            public List<OrderDto> getOrdersByUserId(Long userId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<OrderDto> getOrdersByStatus(String status) {
+                return orders.apply(status);
+            }
+        };
+        return new OrderFeedAggregator(orderClient, userLoaders, calls);
+    }
+
+    static class StubUserServiceClient implements UserServiceClient {
+
+        final List<List<Long>> calls = new CopyOnWriteArrayList<>();
+        volatile RuntimeException failure;
+        volatile long delayMillis;
+        volatile boolean interrupted;
+
+        @Override
+        public UserDto getUserById(Long id) {
+            throw new UnsupportedOperationException("N+1: the feed must use the batch get");
+        }
+
+        @Override
+        public ApiResponse<List<UserDto>> getUsersByIds(List<Long> ids) {
+            calls.add(List.copyOf(ids));
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return ApiResponse.success(ids.stream()
+                .filter(id -> id < UNKNOWN)
+                .map(id -> UserDto.builder().id(id).username("user" + id).build())
+                .toList());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.company.{{SERVICE_NAME}}.cache;
+
+import com.company.{{SERVICE_NAME}}.config.CacheConfig;
+import com.company.{{SERVICE_NAME}}.config.DashboardCacheProperties;
+import com.company.{{SERVICE_NAME}}.dto.DashboardResponse;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleWhileRevalidateCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DashboardCacheProperties properties = new DashboardCacheProperties();
+    private StaleWhileRevalidateCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    void missLoadsAndHitsServeWithoutCallingTheLoader() {
+        cache = cache();
+
+        assertThat(cache.get(1L, () -> "v1")).isEqualTo("v1");
+        advance(Duration.ofMinutes(3));
+        assertThat(cache.get(1L, () -> "v2")).isEqualTo("v1");
+
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("refresh")).isZero();
+    }
+
+    @Test
+    void oldEntryIsServedWhileOneRefreshRunsInTheBackground() throws Exception {
+        cache = cache();
+        cache.put(1L, "v1");
+        advance(Duration.ofMinutes(4));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.get(1L, () -> {
+                refreshes.incrementAndGet();
+                release.await();
+                return "v2";
+            })).isEqualTo("v1");
+        }
+        release.countDown();
+        await(() -> "v2".equals(cache.get(1L, String.class)));
+
+        assertThat(refreshes.get()).isEqualTo(1);
+        assertThat(count("refresh")).isEqualTo(1);
+    }
+
+    @Test
+    void failedOrUnstorableRefreshKeepsTheLastGoodValue() throws Exception {
+        cache = cache();
+        cache.put(1L, "v1");
+        advance(Duration.ofMinutes(4));
+
+        cache.get(1L, () -> {
+            throw new IllegalStateException("user-service down");
+        });
+        // A third refresh only starts once the second, partial one has finished
+        await(() -> {
+            assertThat(cache.get(1L, () -> "partial")).isEqualTo("v1");
+            return count("refresh") >= 3;
+        });
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("v1");
+    }
+
+    @Test
+    void unstorableValuesAreReturnedButNotCached() {
+        cache = cache();
+
+        assertThat(cache.get(1L, () -> "partial")).isEqualTo("partial");
+        assertThat(cache.get(1L, () -> "v1")).isEqualTo("v1");
+
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void loaderFailureOnAMissIsWrapped() {
+        cache = cache();
+        IllegalStateException failure = new IllegalStateException("user-service down");
+
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw failure;
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasCause(failure);
+    }
+
+    @Test
+    void staleCopyOutlivesTheEntry() {
+        cache = cache();
+        cache.put(1L, "v1");
+
+        advance(Duration.ofMinutes(6));
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.getStale(1L, String.class)).contains("v1");
+        assertThat(count("stale")).isEqualTo(1);
+
+        advance(Duration.ofHours(1));
+        assertThat(cache.getStale(1L, String.class)).isEmpty();
+    }
+
+    @Test
+    void evictDropsTheStaleCopyToo() {
+        cache = cache();
+        cache.put(1L, "v1");
+
+        cache.evict(1L);
+
+        assertThat(cache.getStale(1L, String.class)).isEmpty();
+    }
+
+    @Test
+    void refreshAfterMustBeShorterThanExpireAfter() {
+        properties.setRefreshAfter(Duration.ofMinutes(5));
+
+        assertThatThrownBy(this::cache).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cacheableSyncMethodIsRefreshedThroughItsProxy() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            TestPropertyValues.of("app.cache.dashboard.refresh-after=100ms").applyTo(context);
+            context.register(Config.class);
+            context.refresh();
+            Dashboards dashboards = context.getBean(Dashboards.class);
+
+            DashboardResponse first = dashboards.getDashboard(1L);
+            Thread.sleep(150);
+            assertThat(dashboards.getDashboard(1L)).isSameAs(first);
+            await(() -> dashboards.aggregations() == 2);
+            await(() -> dashboards.getDashboard(1L) != first);
+
+            assertThat(dashboards.getDashboard(1L).getUser().getUsername()).isNotEqualTo("user-1");
+        }
+    }
+
+    private StaleWhileRevalidateCache cache() {
+        return new StaleWhileRevalidateCache("test", properties, value -> !"partial".equals(value), meterRegistry,
+            nanos::get);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double count(String result) {
+        var counter = meterRegistry.find("bff.cache.requests").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import(CacheConfig.class)
+    static class Config {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Dashboards dashboards() {
+            return new Dashboards();
+        }
+    }
+
+    static class Dashboards {
+
+        private final AtomicInteger aggregations = new AtomicInteger();
+
+        public int aggregations() {
+            return aggregations.get();
+        }
+
+        @Cacheable(value = "dashboard", key = "#userId", sync = true)
+        public DashboardResponse getDashboard(Long userId) {
+            int aggregation = aggregations.incrementAndGet();
+            return DashboardResponse.builder()
+                .user(UserDto.builder().id(userId).username("user-" + aggregation).build())
+                .recentOrders(List.of())
+                .missing(List.of())
+                .build();
+        }
+    }
+}
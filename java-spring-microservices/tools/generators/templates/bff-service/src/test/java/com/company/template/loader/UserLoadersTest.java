@@ -0,0 +1,207 @@
+package com.company.{{SERVICE_NAME}}.loader;
+
+import com.company.common.dto.ApiResponse;
+import com.company.common.exception.ServiceUnavailableException;
+import com.company.{{SERVICE_NAME}}.aggregator.DownstreamCalls;
+import com.company.{{SERVICE_NAME}}.client.UserServiceClient;
+import com.company.{{SERVICE_NAME}}.config.AggregationProperties;
+import com.company.{{SERVICE_NAME}}.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserLoadersTest {
+
+    /** Ids at or above this are unknown to the stub user-service. */
+    private static final long UNKNOWN = 1_000;
+
+    private final StubUserServiceClient userClient = new StubUserServiceClient();
+    private final AggregationProperties properties = new AggregationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DownstreamCalls calls;
+    private UserLoaders userLoaders;
+
+    @AfterEach
+    void tearDown() {
+        if (userLoaders != null) {
+            userLoaders.close();
+            calls.close();
+        }
+    }
+
+    @Test
+    void loadsFromManyThreadsWithinATickBecomeOneCall() throws Exception {
+        properties.setLoaderTick(Duration.ofMillis(100));
+        BatchLoader<Long, UserDto> users = userLoaders().create();
+        List<Future<UserDto>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id = 1; id <= 20; id++) {
+                long userId = id;
+                results.add(callers.submit(() -> users.load(userId).get(5, TimeUnit.SECONDS)));
+            }
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get().getId()).isEqualTo(i + 1L);
+        }
+        assertThat(userClient.calls).hasSize(1);
+        assertThat(userClient.calls.get(0)).hasSize(20);
+        assertThat(meterRegistry.get("bff.loader.batch.size").summary().max()).isEqualTo(20);
+    }
+
+    @Test
+    void repeatedIdsAreServedFromTheRequestsLoader() throws Exception {
+        BatchLoader<Long, UserDto> users = userLoaders().create();
+        users.load(1L).get(5, TimeUnit.SECONDS);
+        users.loadMany(List.of(1L, 2L)).get(5, TimeUnit.SECONDS);
+
+        assertThat(userClient.calls).containsExactly(List.of(1L), List.of(2L));
+
+        // The next request starts with an empty loader
+        userLoaders.create().load(1L).get(5, TimeUnit.SECONDS);
+        assertThat(userClient.calls).hasSize(3);
+    }
+
+    @Test
+    void largeListsAreSplitAtTheBatchGetLimit() throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+
+        Map<Long, UserDto> byId = userLoaders().create().loadMany(ids).get(5, TimeUnit.SECONDS);
+
+        assertThat(byId.keySet()).containsExactlyElementsOf(ids);
+        assertThat(userClient.calls).hasSize(3)
+            .allSatisfy(call -> assertThat(call).hasSizeLessThanOrEqualTo(UserServiceClient.MAX_BATCH_IDS));
+    }
+
+    @Test
+    void unknownIdsResolveToNullAndAreLeftOutOfLoadMany() throws Exception {
+        BatchLoader<Long, UserDto> users = userLoaders().create();
+
+        CompletableFuture<UserDto> unknown = users.load(UNKNOWN);
+        Map<Long, UserDto> byId = users.loadMany(List.of(1L, UNKNOWN)).get(5, TimeUnit.SECONDS);
+
+        assertThat(unknown.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(byId).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void failedCallFailsItsBatchAndIsNotRemembered() throws Exception {
+        BatchLoader<Long, UserDto> users = userLoaders().create();
+        userClient.failure = new IllegalStateException("user-service down");
+
+        assertThatThrownBy(() -> users.load(1L).get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("bff.downstream.calls").tags("call", "users", "outcome", "failure")
+            .counter().count()).isEqualTo(1);
+
+        userClient.failure = null;
+        assertThat(users.load(1L).get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void nullKeysAreRejectedAndSkippedByLoadMany() throws Exception {
+        BatchLoader<Long, UserDto> users = userLoaders().create();
+
+        assertThatThrownBy(() -> users.load(null))
+            .isInstanceOf(NullPointerException.class)
+            .hasMessageContaining("null key");
+        Map<Long, UserDto> byId = users.loadMany(Arrays.asList(1L, null, 2L)).get(5, TimeUnit.SECONDS);
+
+        assertThat(byId).containsOnlyKeys(1L, 2L);
+        assertThat(userClient.calls).containsExactly(List.of(1L, 2L));
+    }
+
+    @Test
+    void usersListedTwiceInTheResponseResolveOnce() throws Exception {
+        userClient.duplicate = true;
+
+        Map<Long, UserDto> byId = userLoaders().create().loadMany(List.of(1L, 2L)).get(5, TimeUnit.SECONDS);
+
+        assertThat(byId).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    void batchCallsAreShedOverTheDownstreamPermitCap() {
+        properties.setMaxConcurrentCalls(0);
+
+        assertThatThrownBy(() -> userLoaders().create().load(1L).get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ServiceUnavailableException.class);
+        assertThat(userClient.calls).isEmpty();
+        assertThat(meterRegistry.get("bff.downstream.calls").tags("call", "users", "outcome", "shed")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void batchCallIsCancelledAtTheRequestDeadline() throws Exception {
+        userClient.delayMillis = 2_000;
+        UserLoaders loaders = userLoaders();
+        BatchLoader<Long, UserDto> users = loaders.create(System.nanoTime() + Duration.ofMillis(200).toNanos());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> users.load(1L).get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meterRegistry.get("bff.downstream.calls").tags("call", "users", "outcome", "timeout")
+            .counter().count()).isEqualTo(1);
+    }
+
+    private UserLoaders userLoaders() {
+        calls = new DownstreamCalls(properties, meterRegistry);
+        userLoaders = new UserLoaders(userClient, calls, properties, meterRegistry);
+        return userLoaders;
+    }
+
+    static class StubUserServiceClient implements UserServiceClient {
+
+        final List<List<Long>> calls = new CopyOnWriteArrayList<>();
+        volatile RuntimeException failure;
+        volatile boolean duplicate;
+        volatile long delayMillis;
+
+        @Override
+        public UserDto getUserById(Long id) {
+            throw new UnsupportedOperationException("N+1: use the batch get");
+        }
+
+        @Override
+        public ApiResponse<List<UserDto>> getUsersByIds(List<Long> ids) {
+            calls.add(List.copyOf(ids));
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return ApiResponse.success(ids.stream()
+                .filter(id -> id < UNKNOWN)
+                .flatMap(id -> (duplicate ? List.of(id, id) : List.of(id)).stream())
+                .map(id -> UserDto.builder().id(id).username("user" + id).build())
+                .toList());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.company.{{SERVICE_NAME}}.singleflight;
+
+import com.company.{{SERVICE_NAME}}.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightAspectTest {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Config.class);
+    private final SlowLookup lookup = context.getBean(SlowLookup.class);
+    private final SimpleMeterRegistry meterRegistry = context.getBean(SimpleMeterRegistry.class);
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        lookup.release();
+        callers.shutdownNow();
+        context.close();
+    }
+
+    @Test
+    void concurrentCallsForOneKeyShareOneExecution() throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> lookup.find(1L)));
+        }
+        await(() -> count("SlowLookup.find", "coalesced") == 7);
+        lookup.release();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+        }
+        assertThat(lookup.calls()).isEqualTo(1);
+        assertThat(count("SlowLookup.find", "executed")).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeysRunConcurrently() throws Exception {
+        Future<String> first = callers.submit(() -> lookup.find(1L));
+        Future<String> second = callers.submit(() -> lookup.find(2L));
+        await(() -> lookup.calls() == 2);
+        lookup.release();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value-2");
+        assertThat(count("SlowLookup.find", "coalesced")).isZero();
+    }
+
+    @Test
+    void coalescedCallersShareTheFailureAndTheNextCallRunsAgain() throws Exception {
+        IllegalStateException failure = new IllegalStateException("user-service down");
+        lookup.failWith(failure);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> lookup.find(1L)));
+        }
+        await(() -> count("SlowLookup.find", "coalesced") == 2);
+        lookup.release();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseReference(failure);
+        }
+
+        lookup.failWith(null);
+        assertThat(lookup.find(1L)).isEqualTo("value-1");
+        assertThat(lookup.calls()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheHitsNeverReachTheFlight() throws Exception {
+        lookup.release();
+
+        lookup.findCached(1L);
+        lookup.findCached(1L);
+
+        assertThat(lookup.calls()).isEqualTo(1);
+        assertThat(count("cached", "executed")).isEqualTo(1);
+        assertThat(count("cached", "coalesced")).isZero();
+    }
+
+    private double count(String name, String result) {
+        var counter = meterRegistry.find("bff.singleflight.calls").tag("name", name).tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import({CacheConfig.class, SingleFlightAspect.class})
+    static class Config {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        SlowLookup slowLookup() {
+            return new SlowLookup();
+        }
+    }
+
+    // State is reached through methods: the test holds the class-based proxy, not the instance
+    static class SlowLookup {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        public int calls() {
+            return calls.get();
+        }
+
+        public void release() {
+            release.countDown();
+        }
+
+        public void failWith(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        @SingleFlight(key = "#id")
+        public String find(Long id) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await();
+            if (failure != null) {
+                throw failure;
+            }
+            return "value-" + id;
+        }
+
+        @Cacheable("lookups")
+        @SingleFlight(name = "cached", key = "#id")
+        public String findCached(Long id) throws InterruptedException {
+            return find(id);
+        }
+    }
+}
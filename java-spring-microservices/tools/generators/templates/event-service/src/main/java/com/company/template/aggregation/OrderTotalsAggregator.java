@@ -0,0 +1,305 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderTotalsEvent;
+import com.company.{{SERVICE_NAME}}.config.OrderTotalsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Event-time windows of order totals and counts per user and currency, and
+ * per currency over all users.
+ *
+ * Orders land in the tumbling window of their timestamp; a sliding window is
+ * the sum of the tumbling windows it spans, so only one table per tumbling
+ * window is kept. The watermark trails the newest order timestamp by
+ * {@code allowed-lateness}; a window closes once the watermark passes its end,
+ * producing one {@link OrderTotalsEvent} per key, and an order for a closed
+ * window is late and dropped. Windows older than the sliding window are evicted.
+ *
+ * The checkpoint holds the windows, the watermark and the next offset of every
+ * partition, written together so that restoring and seeking to those offsets
+ * counts every order exactly once.
+ *
+ * Thread-safe: the listener, the query endpoint and the checkpoint share one lock.
+ */
+@Slf4j
+public class OrderTotalsAggregator {
+
+    /** userId of the all-users row of a currency. */
+    static final long ALL_USERS = Long.MIN_VALUE;
+
+    private static final int CHECKPOINT_MAGIC = 0x4F54544C;
+
+    private final long windowMillis;
+    private final long slidingMillis;
+    private final long latenessMillis;
+    private final int expectedKeys;
+    private final TreeMap<Long, TotalsTable> windows = new TreeMap<>();
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+    private long maxEventTime = Long.MIN_VALUE;
+    /** Windows ending at or before this are closed. */
+    private long closedUpTo = Long.MIN_VALUE;
+    private long lateOrders;
+
+    public OrderTotalsAggregator(OrderTotalsProperties properties) {
+        this.windowMillis = properties.getWindow().toMillis();
+        this.slidingMillis = properties.getSlidingWindow().toMillis();
+        this.latenessMillis = properties.getAllowedLateness().toMillis();
+        this.expectedKeys = properties.getExpectedKeysPerWindow();
+        if (windowMillis <= 0 || slidingMillis < windowMillis || slidingMillis % windowMillis != 0) {
+            throw new IllegalArgumentException("sliding-window " + properties.getSlidingWindow()
+                + " must be a positive multiple of window " + properties.getWindow());
+        }
+    }
+
+    /**
+     * Add the orders of one poll and record how far each partition was read.
+     *
+     * @return summaries of the windows the advanced watermark closed
+     */
+    public synchronized List<OrderTotalsEvent> add(List<OrderCreatedEvent> orders,
+                                                   Map<TopicPartition, Long> polledUpTo) {
+        for (OrderCreatedEvent order : orders) {
+            if (order.getTimestamp() == null || order.getTotalAmount() == null) {
+                continue;
+            }
+            long time = order.getTimestamp().toEpochMilli();
+            long start = Math.floorDiv(time, windowMillis) * windowMillis;
+            if (start + windowMillis <= closedUpTo) {
+                lateOrders++;
+                continue;
+            }
+            Money amount = order.getTotalAmount();
+            TotalsTable table = windows.computeIfAbsent(start, s -> new TotalsTable(expectedKeys));
+            if (order.getUserId() != null) {
+                table.add(order.getUserId(), amount.getPackedCurrency(), amount.getMinorUnits());
+            }
+            table.add(ALL_USERS, amount.getPackedCurrency(), amount.getMinorUnits());
+            maxEventTime = Math.max(maxEventTime, time);
+        }
+        nextOffsets.putAll(polledUpTo);
+        return maxEventTime == Long.MIN_VALUE ? List.of() : advanceTo(maxEventTime - latenessMillis);
+    }
+
+    /**
+     * Move the watermark on as if event time had kept pace with the
+     * {@code idleMillis} the topic has been quiet, so the last windows still
+     * close. Stays in event time, so a backlog with old timestamps is not
+     * cut off by the wall clock.
+     *
+     * @return summaries of the windows it closed; none before the first order
+     */
+    public synchronized List<OrderTotalsEvent> advanceIdle(long idleMillis) {
+        if (maxEventTime == Long.MIN_VALUE) {
+            return List.of();
+        }
+        return advanceTo(maxEventTime - latenessMillis + idleMillis);
+    }
+
+    /**
+     * Move the watermark forward to {@code watermark} without new orders.
+     */
+    public synchronized List<OrderTotalsEvent> advanceTo(long watermark) {
+        List<OrderTotalsEvent> summaries = new ArrayList<>();
+        long closeBefore = Math.floorDiv(watermark, windowMillis) * windowMillis;
+        if (closeBefore <= closedUpTo) {
+            return summaries;
+        }
+        for (Map.Entry<Long, TotalsTable> window : windows.headMap(closeBefore, false).entrySet()) {
+            long start = window.getKey();
+            if (start + windowMillis > closedUpTo) {
+                summarize(start, window.getValue(), summaries);
+            }
+        }
+        closedUpTo = closeBefore;
+        // Keep what the sliding window ending at the oldest open window still needs
+        windows.headMap(closedUpTo + windowMillis - slidingMillis, false).clear();
+        return summaries;
+    }
+
+    /**
+     * Totals of one currency for a user, or for all users when {@code userId}
+     * is null: the sliding window ending with the newest window, and each
+     * tumbling window in it, oldest first.
+     */
+    public synchronized OrderTotalsView query(String currency, Long userId) {
+        short packed = Money.pack(currency);
+        long key = userId != null ? userId : ALL_USERS;
+        if (windows.isEmpty()) {
+            return new OrderTotalsView(currency, userId, watermark(), null, null, Money.ofMinor(0, packed), 0,
+                List.of());
+        }
+        long slidingEnd = windows.lastKey() + windowMillis;
+        long slidingStart = slidingEnd - slidingMillis;
+        List<OrderTotalsView.Window> tumbling = new ArrayList<>();
+        long minor = 0;
+        long count = 0;
+        for (Map.Entry<Long, TotalsTable> window : windows.tailMap(slidingStart, true).entrySet()) {
+            TotalsTable table = window.getValue();
+            int slot = table.indexOf(key, packed);
+            if (slot >= 0) {
+                long start = window.getKey();
+                tumbling.add(new OrderTotalsView.Window(Instant.ofEpochMilli(start),
+                    Instant.ofEpochMilli(start + windowMillis), Money.ofMinor(table.minorUnits(slot), packed),
+                    table.count(slot), start + windowMillis <= closedUpTo));
+                minor += table.minorUnits(slot);
+                count += table.count(slot);
+            }
+        }
+        return new OrderTotalsView(currency, userId, watermark(), Instant.ofEpochMilli(slidingStart),
+            Instant.ofEpochMilli(slidingEnd), Money.ofMinor(minor, packed), count, tumbling);
+    }
+
+    public synchronized long lateOrders() {
+        return lateOrders;
+    }
+
+    /** Keys stored across all retained windows. */
+    public synchronized long stateSize() {
+        long size = 0;
+        for (TotalsTable table : windows.values()) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the next offset to read per partition, as of the last restored checkpoint
+     */
+    public synchronized Map<TopicPartition, Long> nextOffsets() {
+        return Map.copyOf(nextOffsets);
+    }
+
+    public void saveCheckpoint(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                writeTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write order totals checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Restore a checkpoint written by {@link #saveCheckpoint}. A missing file
+     * or one taken with other window settings leaves the aggregator empty.
+     */
+    public void loadCheckpoint(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!readFrom(in)) {
+                log.warn("Ignoring order totals checkpoint {}: written with different settings", file);
+                return;
+            }
+            log.info("Restored order totals checkpoint {}: {} windows, {} keys", file, windows.size(), stateSize());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable order totals checkpoint {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void summarize(long start, TotalsTable table, List<OrderTotalsEvent> summaries) {
+        Instant windowStart = Instant.ofEpochMilli(start);
+        Instant windowEnd = Instant.ofEpochMilli(start + windowMillis);
+        long slidingStart = start + windowMillis - slidingMillis;
+        Map<Long, TotalsTable> sliding = windows.subMap(slidingStart, true, start, true);
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (!table.isUsed(slot)) {
+                continue;
+            }
+            long userId = table.userId(slot);
+            short currency = table.currency(slot);
+            long slidingMinor = 0;
+            long slidingCount = 0;
+            for (TotalsTable window : sliding.values()) {
+                int index = window.indexOf(userId, currency);
+                if (index >= 0) {
+                    slidingMinor += window.minorUnits(index);
+                    slidingCount += window.count(index);
+                }
+            }
+            summaries.add(OrderTotalsEvent.builder()
+                .eventId(OrderTotalsEvent.generateEventId())
+                .timestamp(windowEnd)
+                .userId(userId == ALL_USERS ? null : userId)
+                .windowStart(windowStart)
+                .windowEnd(windowEnd)
+                .total(Money.ofMinor(table.minorUnits(slot), currency))
+                .orderCount(table.count(slot))
+                .slidingWindowStart(Instant.ofEpochMilli(slidingStart))
+                .slidingTotal(Money.ofMinor(slidingMinor, currency))
+                .slidingOrderCount(slidingCount)
+                .build());
+        }
+    }
+
+    private Instant watermark() {
+        return maxEventTime == Long.MIN_VALUE ? null : Instant.ofEpochMilli(maxEventTime - latenessMillis);
+    }
+
+    private synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeLong(windowMillis);
+        out.writeLong(slidingMillis);
+        out.writeLong(maxEventTime);
+        out.writeLong(closedUpTo);
+        out.writeInt(windows.size());
+        for (Map.Entry<Long, TotalsTable> window : windows.entrySet()) {
+            out.writeLong(window.getKey());
+            window.getValue().writeTo(out);
+        }
+        out.writeInt(nextOffsets.size());
+        for (Map.Entry<TopicPartition, Long> offset : nextOffsets.entrySet()) {
+            out.writeUTF(offset.getKey().topic());
+            out.writeInt(offset.getKey().partition());
+            out.writeLong(offset.getValue());
+        }
+    }
+
+    private synchronized boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != CHECKPOINT_MAGIC || in.readLong() != windowMillis || in.readLong() != slidingMillis) {
+            return false;
+        }
+        long checkpointMaxEventTime = in.readLong();
+        long checkpointClosedUpTo = in.readLong();
+        TreeMap<Long, TotalsTable> restored = new TreeMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            long start = in.readLong();
+            restored.put(start, TotalsTable.readFrom(in));
+        }
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            offsets.put(new TopicPartition(in.readUTF(), in.readInt()), in.readLong());
+        }
+        maxEventTime = checkpointMaxEventTime;
+        closedUpTo = checkpointClosedUpTo;
+        windows.clear();
+        windows.putAll(restored);
+        nextOffsets.clear();
+        nextOffsets.putAll(offsets);
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current order totals from the streaming aggregation, as an actuator endpoint:
+ *
+ *   GET /actuator/ordertotals/{currency}            all users
+ *   GET /actuator/ordertotals/{currency}?userId=42  one user
+ *
+ * Reads this instance's state only; see {@link OrderTotalsStage}.
+ */
+@Component
+@Endpoint(id = "ordertotals")
+@RequiredArgsConstructor
+public class OrderTotalsEndpoint {
+
+    private final OrderTotalsAggregator aggregator;
+
+    @ReadOperation
+    public OrderTotalsView totals(@Selector String currency, @Nullable Long userId) {
+        try {
+            return aggregator.query(currency, userId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), "Unknown currency " + currency);
+        }
+    }
+}
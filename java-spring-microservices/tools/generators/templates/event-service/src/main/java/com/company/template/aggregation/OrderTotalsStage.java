@@ -0,0 +1,218 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderTotalsEvent;
+import com.company.{{SERVICE_NAME}}.config.OrderTotalsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams OrderCreatedEvents into the {@link OrderTotalsAggregator} and
+ * publishes a summary per key for every window that closes.
+ *
+ * Runs in its own consumer group, so it sees every order whatever the
+ * listener mode and never touches the service or its retry topics; orders
+ * that cannot be decoded are skipped. On assignment it seeks to the offsets
+ * in the checkpoint, so the restored state and the stream line up.
+ *
+ * A summary whose send fails is kept and sent again on the next tick, until
+ * it goes through or the instance stops.
+ *
+ * Each instance aggregates only the partitions it is assigned: per-user totals
+ * are complete when order-events is keyed by userId, all-users totals are
+ * per instance. State does not follow a partition to another instance.
+ *
+ * Metrics: event.aggregation.late, event.aggregation.summaries, event.aggregation.state.keys.
+ */
+@Slf4j
+@Component
+public class OrderTotalsStage implements ConsumerSeekAware, SmartLifecycle {
+
+    private final OrderTotalsAggregator aggregator;
+    private final OrderTotalsProperties properties;
+    private final KafkaTemplate<String, DomainEvent> template;
+    private final Counter summaries;
+    private final Queue<OrderTotalsEvent> unsent = new ConcurrentLinkedQueue<>();
+    /** Wall-clock time of the last poll with orders; the idle clock does not run before the first. */
+    private volatile long lastOrderAt = -1;
+    private ScheduledExecutorService scheduler;
+
+    public OrderTotalsStage(OrderTotalsAggregator aggregator, OrderTotalsProperties properties,
+                            KafkaTemplate<String, DomainEvent> eventTemplate,
+                            MeterRegistry meterRegistry) {
+        this.aggregator = aggregator;
+        this.properties = properties;
+        this.template = eventTemplate;
+        this.summaries = Counter.builder("event.aggregation.summaries")
+            .description("Window summaries published")
+            .register(meterRegistry);
+        FunctionCounter.builder("event.aggregation.late", aggregator, OrderTotalsAggregator::lateOrders)
+            .description("Orders dropped because their window had closed")
+            .register(meterRegistry);
+        Gauge.builder("event.aggregation.state.keys", aggregator, OrderTotalsAggregator::stateSize)
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(
+        id = "orderTotals",
+        topics = "${app.kafka.topics.order-events:order-events}",
+        groupId = "${spring.kafka.consumer.group-id}-order-totals",
+        filter = "orderEventFilter",
+        containerFactory = "batchListenerContainerFactory",
+        autoStartup = "${app.aggregation.order-totals.enabled:false}"
+    )
+    public void aggregate(List<ConsumerRecord<String, LazyEvent>> records) {
+        List<OrderCreatedEvent> orders = new ArrayList<>(records.size());
+        Map<TopicPartition, Long> polledUpTo = new HashMap<>();
+        for (ConsumerRecord<String, LazyEvent> record : records) {
+            try {
+                orders.add(record.value().as(OrderCreatedEvent.class));
+            } catch (RuntimeException e) {
+                log.warn("Skipping undecodable order {}-{}@{}: {}", record.topic(), record.partition(),
+                    record.offset(), e.getMessage());
+            }
+            polledUpTo.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+        }
+        lastOrderAt = System.currentTimeMillis();
+        publish(aggregator.add(orders, polledUpTo));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<TopicPartition, Long> checkpointed = aggregator.nextOffsets();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long offset = checkpointed.get(partition);
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "order-totals");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = Math.max(1000, properties.getWindow().toMillis() / 4);
+        scheduler.scheduleWithFixedDelay(() -> closeIdleWindows(System.currentTimeMillis()), tick, tick,
+            TimeUnit.MILLISECONDS);
+        if (properties.getCheckpointPath() != null) {
+            long interval = properties.getCheckpointInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        if (properties.getCheckpointPath() != null) {
+            checkpoint();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Without new orders the watermark would stop, leaving the last windows
+     * open; once the topic has been quiet for the allowed lateness, advance
+     * it from the newest event time by the time it has been quiet. Also
+     * resends summaries whose send failed.
+     */
+    void closeIdleWindows(long now) {
+        resendUnsent();
+        long last = lastOrderAt;
+        if (last < 0) {
+            return;
+        }
+        long idle = now - last;
+        if (idle > properties.getAllowedLateness().toMillis()) {
+            try {
+                publish(aggregator.advanceIdle(idle));
+            } catch (RuntimeException e) {
+                log.warn("Failed to close idle order totals windows: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void checkpoint() {
+        try {
+            aggregator.saveCheckpoint(properties.getCheckpointPath());
+        } catch (RuntimeException e) {
+            log.warn("Failed to write order totals checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void publish(List<OrderTotalsEvent> closed) {
+        closed.forEach(this::send);
+    }
+
+    private void send(OrderTotalsEvent summary) {
+        String key = summary.getUserId() != null ? String.valueOf(summary.getUserId()) : summary.getCurrency();
+        try {
+            template.send(properties.getSummaryTopic(), key, summary).whenComplete((result, failure) -> {
+                if (failure == null) {
+                    summaries.increment();
+                } else {
+                    requeue(summary, failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            requeue(summary, e);
+        }
+    }
+
+    private void requeue(OrderTotalsEvent summary, Throwable failure) {
+        log.warn("Failed to publish order totals for {} in {}, retrying: {}", summary.getWindowStart(),
+            summary.getCurrency(), failure.toString());
+        unsent.add(summary);
+    }
+
+    /** Only those queued before this call, so a send that keeps failing waits for the next tick. */
+    private void resendUnsent() {
+        for (int i = unsent.size(); i > 0; i--) {
+            OrderTotalsEvent summary = unsent.poll();
+            if (summary == null) {
+                return;
+            }
+            send(summary);
+        }
+    }
+
+    int unsentSummaries() {
+        return unsent.size();
+    }
+}
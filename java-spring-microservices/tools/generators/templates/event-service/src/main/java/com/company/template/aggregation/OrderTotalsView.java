@@ -0,0 +1,23 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import com.company.event.money.Money;
+import com.company.event.money.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Order totals of one currency, for a user or for all users (null userId):
+ * the sliding window ending with the newest window, and each tumbling window in it.
+ */
+public record OrderTotalsView(String currency, Long userId, Instant watermark, Instant slidingWindowStart,
+                              Instant slidingWindowEnd,
+                              @JsonSerialize(using = MoneyJson.AmountSerializer.class) Money slidingTotal,
+                              long slidingOrderCount, List<Window> windows) {
+
+    public record Window(Instant start, Instant end,
+                         @JsonSerialize(using = MoneyJson.AmountSerializer.class) Money total,
+                         long orderCount, boolean closed) {
+    }
+}
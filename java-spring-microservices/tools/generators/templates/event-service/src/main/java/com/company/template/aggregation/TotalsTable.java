@@ -0,0 +1,150 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Order total and count per (userId, currency) for one window, as an
+ * open-addressing hash table over parallel primitive arrays: about 26 bytes
+ * per key and no objects per entry.
+ *
+ * Currencies are {@link com.company.event.money.Money#pack packed} codes.
+ * Not thread-safe.
+ */
+final class TotalsTable {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] userIds;
+    private short[] currencies;
+    private long[] minorUnits;
+    /** Zero marks a free slot: every stored key has at least one order. */
+    private long[] counts;
+    private int size;
+
+    TotalsTable(int expectedKeys) {
+        allocate(Integer.highestOneBit(Math.max(16, (int) (expectedKeys / MAX_LOAD)) - 1) << 1);
+    }
+
+    void add(long userId, short currency, long amountMinor) {
+        int slot = slotOf(userId, currency);
+        if (counts[slot] == 0) {
+            userIds[slot] = userId;
+            currencies[slot] = currency;
+            if (++size > counts.length * MAX_LOAD) {
+                addAll(userId, currency, amountMinor);
+                return;
+            }
+        }
+        minorUnits[slot] = Math.addExact(minorUnits[slot], amountMinor);
+        counts[slot]++;
+    }
+
+    /**
+     * @return the slot of the key, or -1 if it has no orders in this window
+     */
+    int indexOf(long userId, short currency) {
+        int slot = slotOf(userId, currency);
+        return counts[slot] == 0 ? -1 : slot;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Slots for iteration; skip those where {@link #isUsed} is false. */
+    int capacity() {
+        return counts.length;
+    }
+
+    boolean isUsed(int slot) {
+        return counts[slot] != 0;
+    }
+
+    long userId(int slot) {
+        return userIds[slot];
+    }
+
+    short currency(int slot) {
+        return currencies[slot];
+    }
+
+    long minorUnits(int slot) {
+        return minorUnits[slot];
+    }
+
+    long count(int slot) {
+        return counts[slot];
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (counts[slot] != 0) {
+                out.writeLong(userIds[slot]);
+                out.writeShort(currencies[slot]);
+                out.writeLong(minorUnits[slot]);
+                out.writeLong(counts[slot]);
+            }
+        }
+    }
+
+    static TotalsTable readFrom(DataInputStream in) throws IOException {
+        int entries = in.readInt();
+        TotalsTable table = new TotalsTable(entries);
+        for (int i = 0; i < entries; i++) {
+            long userId = in.readLong();
+            short currency = in.readShort();
+            int slot = table.slotOf(userId, currency);
+            table.userIds[slot] = userId;
+            table.currencies[slot] = currency;
+            table.minorUnits[slot] = in.readLong();
+            table.counts[slot] = in.readLong();
+            table.size++;
+        }
+        return table;
+    }
+
+    /**
+     * Grow, then apply the pending add that triggered it.
+     */
+    private void addAll(long userId, short currency, long amountMinor) {
+        long[] oldUserIds = userIds;
+        short[] oldCurrencies = currencies;
+        long[] oldMinorUnits = minorUnits;
+        long[] oldCounts = counts;
+        allocate(oldCounts.length * 2);
+        for (int slot = 0; slot < oldCounts.length; slot++) {
+            if (oldCounts[slot] != 0) {
+                int target = slotOf(oldUserIds[slot], oldCurrencies[slot]);
+                userIds[target] = oldUserIds[slot];
+                currencies[target] = oldCurrencies[slot];
+                minorUnits[target] = oldMinorUnits[slot];
+                counts[target] = oldCounts[slot];
+            }
+        }
+        size--;
+        add(userId, currency, amountMinor);
+    }
+
+    private void allocate(int capacity) {
+        userIds = new long[capacity];
+        currencies = new short[capacity];
+        minorUnits = new long[capacity];
+        counts = new long[capacity];
+    }
+
+    /**
+     * Linear probing from a mixed hash; stops at the key or the first free slot.
+     */
+    private int slotOf(long userId, short currency) {
+        int mask = counts.length - 1;
+        long h = (userId ^ ((long) currency << 48)) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (counts[slot] != 0 && (userIds[slot] != userId || currencies[slot] != currency)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
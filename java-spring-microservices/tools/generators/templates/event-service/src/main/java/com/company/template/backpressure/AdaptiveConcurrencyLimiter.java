@@ -0,0 +1,291 @@
+package com.company.{{SERVICE_NAME}}.backpressure;
+
+import com.company.{{SERVICE_NAME}}.config.ConcurrencyLimitProperties;
+import com.company.{{SERVICE_NAME}}.config.PriorityLaneProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Limits concurrent calls into the service, adapting the limit AIMD-style to
+ * keep call latency under {@code target-latency}.
+ *
+ * The target is per record: a batch call is measured by its latency divided
+ * by the number of records in it, so batch and single mode share a setting.
+ * A call that is slower than the target or fails cuts the limit by
+ * {@code backoff-ratio}, at most once per round trip: calls admitted before
+ * the last cut ran under the old limit and say nothing about the new one.
+ * A fast call raises it by 1/limit, so about one per limit's worth of calls,
+ * but only while the limit is actually in use.
+ *
+ * All callers share the limit: listener threads in every mode, parallel
+ * lanes and retry topic consumers. A listener waiting for a permit does not
+ * poll, so a slow downstream slows consumption instead of piling up
+ * timeouts; past {@code max-wait} the record goes to a retry topic.
+ *
+ * Calls belong to the priority lane of their topic ({@code app.kafka.priority.lanes}).
+ * When permits are contended they go to the waiting lanes in proportion to
+ * their weight (stride scheduling), and no lane runs more than its
+ * {@code max-concurrency} calls at once. A lane that was idle rejoins at the
+ * current virtual time, so it cannot claim a burst for the time it was away.
+ *
+ * Metrics: event.concurrency.limit, event.concurrency.inflight, event.concurrency.rejected,
+ * event.lane.inflight{lane}.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final String DEFAULT_LANE = "default";
+
+    private final ConcurrencyLimitProperties properties;
+    private final boolean adaptive;
+    private final boolean passThrough;
+    private final long targetNanos;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Highest priority first; ties in scheduling go to the earlier lane. */
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<String, Lane> lanesByTopic = new HashMap<>();
+    private final Lane defaultLane;
+    private final Counter rejected;
+    private volatile double limit;
+    private volatile int inflight;
+    private long lastDecrease = Long.MIN_VALUE;
+    private double virtualTime;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, PriorityLaneProperties laneProperties,
+                                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.adaptive = properties.isEnabled();
+        this.targetNanos = properties.getTargetLatency().toNanos();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        // Without adaptation the limit stays at max-limit and only the lanes shape traffic
+        this.limit = adaptive ? properties.getInitialLimit() : properties.getMaxLimit();
+        boolean laneScheduling = laneProperties.isEnabled() && !laneProperties.getLanes().isEmpty();
+        this.passThrough = !adaptive && !laneScheduling;
+        if (laneScheduling) {
+            for (PriorityLaneProperties.Lane lane : laneProperties.getLanes()) {
+                Lane scheduled = new Lane(lane.getName(), Math.max(1, lane.getWeight()),
+                    Math.max(1, lane.getMaxConcurrency()), lock.newCondition());
+                lanes.add(scheduled);
+                lane.getTopics().forEach(topic -> lanesByTopic.put(topic, scheduled));
+            }
+        }
+        this.defaultLane = new Lane(DEFAULT_LANE, 1, Integer.MAX_VALUE, lock.newCondition());
+        lanes.add(defaultLane);
+        this.rejected = Counter.builder("event.concurrency.rejected")
+            .description("Calls that gave up waiting for a permit")
+            .register(meterRegistry);
+        Gauge.builder("event.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current limit on concurrent service calls")
+            .register(meterRegistry);
+        Gauge.builder("event.concurrency.inflight", this, AdaptiveConcurrencyLimiter::getInflight)
+            .register(meterRegistry);
+        for (Lane lane : lanes) {
+            Gauge.builder("event.lane.inflight", lane, scheduled -> scheduled.inflight)
+                .tag("lane", lane.name)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Wrap {@code action} so every call holds a permit of the default lane. Wrap once, at startup.
+     */
+    public <T> Consumer<T> limited(Consumer<T> action) {
+        return limited(null, action);
+    }
+
+    /**
+     * Wrap {@code action} so every call holds a permit of the lane {@code topic}
+     * belongs to. Wrap once, at startup.
+     */
+    public <T> Consumer<T> limited(String topic, Consumer<T> action) {
+        if (passThrough) {
+            return action;
+        }
+        Lane lane = laneOf(topic);
+        return value -> {
+            long start = acquire(lane);
+            boolean failed = true;
+            try {
+                action.accept(value);
+                failed = false;
+            } finally {
+                release(lane, start, System.nanoTime(), failed, value instanceof Collection<?> batch
+                    ? Math.max(1, batch.size()) : 1);
+            }
+        };
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight;
+    }
+
+    /**
+     * @return the time the permit was granted, to pass to {@link #release}
+     */
+    long acquire() {
+        return acquire(defaultLane);
+    }
+
+    long acquire(String topic) {
+        return acquire(laneOf(topic));
+    }
+
+    void release(long start, long end, boolean failed) {
+        release(defaultLane, start, end, failed, 1);
+    }
+
+    void release(String topic, long start, long end, boolean failed) {
+        release(laneOf(topic), start, end, failed, 1);
+    }
+
+    int getInflight(String lane) {
+        lock.lock();
+        try {
+            for (Lane scheduled : lanes) {
+                if (scheduled.name.equals(lane)) {
+                    return scheduled.inflight;
+                }
+            }
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long acquire(Lane lane) {
+        lock.lock();
+        try {
+            if (lane.waiting == 0 && lane.inflight == 0) {
+                lane.pass = Math.max(lane.pass, virtualTime);
+            }
+            lane.waiting++;
+            boolean granted = false;
+            try {
+                long remaining = maxWaitNanos;
+                while (!mayRun(lane)) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new ConcurrencyLimitExceededException("No permit within " + properties.getMaxWait()
+                            + " at limit " + (int) limit + " in lane " + lane.name);
+                    }
+                    try {
+                        remaining = lane.permitReleased.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ConcurrencyLimitExceededException("Interrupted waiting for a permit");
+                    }
+                }
+                granted = true;
+            } finally {
+                lane.waiting--;
+                if (!granted) {
+                    // This lane may have been next in line: hand its turn on
+                    signalNext();
+                }
+            }
+            inflight++;
+            lane.inflight++;
+            virtualTime = lane.pass;
+            lane.pass += 1.0 / lane.weight;
+            if (inflight < (int) limit) {
+                signalNext();
+            }
+            return System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param records records the call handled; the target scales with them
+     */
+    private void release(Lane lane, long start, long end, boolean failed, int records) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            if (adaptive) {
+                if (failed || end - start > targetNanos * records) {
+                    if (start > lastDecrease) {
+                        limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+                        lastDecrease = end;
+                    }
+                } else if (inflight * 2 >= limit) {
+                    limit = Math.min(properties.getMaxLimit(), limit + 1 / limit);
+                }
+            }
+            inflight--;
+            lane.inflight--;
+            if ((int) limit != before) {
+                log.debug("Concurrency limit {} -> {}", before, (int) limit);
+            }
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean mayRun(Lane lane) {
+        return inflight < (int) limit && lane.inflight < lane.maxConcurrency && next() == lane;
+    }
+
+    /**
+     * @return the waiting lane under its budget with the lowest pass, or null
+     */
+    private Lane next() {
+        Lane next = null;
+        for (Lane lane : lanes) {
+            if (lane.waiting > 0 && lane.inflight < lane.maxConcurrency && (next == null || lane.pass < next.pass)) {
+                next = lane;
+            }
+        }
+        return next;
+    }
+
+    private void signalNext() {
+        Lane next = next();
+        if (next != null && inflight < (int) limit) {
+            next.permitReleased.signal();
+        }
+    }
+
+    private Lane laneOf(String topic) {
+        return topic == null ? defaultLane : lanesByTopic.getOrDefault(topic, defaultLane);
+    }
+
+    private static final class Lane {
+
+        final String name;
+        final int weight;
+        final int maxConcurrency;
+        final Condition permitReleased;
+        int inflight;
+        int waiting;
+        /** Virtual time of this lane's next grant; advances by 1/weight per grant. */
+        double pass;
+
+        Lane(String name, int weight, int maxConcurrency, Condition permitReleased) {
+            this.name = name;
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+            this.permitReleased = permitReleased;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.company.{{SERVICE_NAME}}.backpressure;
+
+/**
+ * Thrown when a call waited longer than app.kafka.listener.adaptive.max-wait
+ * for a permit. Retryable, so the record moves to a retry topic.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,216 @@
+package com.company.{{SERVICE_NAME}}.backpressure;
+
+import com.company.{{SERVICE_NAME}}.config.PriorityLaneProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pauses the partitions of lower-priority lanes while a higher-priority lane
+ * is behind, so a backfill of bulk events cannot hold up payments.
+ *
+ * Every {@code check-interval} it reads the service group's lag per lane
+ * (end offset minus committed offset, summed over the lane's topics). A lane
+ * whose lag exceeds its {@code pause-lag} pauses every lane after it; they
+ * resume once its lag is back at {@code resume-lag}. Pausing stops fetching
+ * only: records already polled are processed, and the consumers keep polling
+ * so the group does not rebalance.
+ *
+ * Only the service's own listener containers are paused; retry tier
+ * consumers and the aggregation and reconciliation groups are not.
+ *
+ * Metrics: event.lane.lag{lane}, event.lane.paused{lane}.
+ */
+@Slf4j
+@Component
+public class PriorityLaneController implements SmartLifecycle {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final PriorityLaneProperties properties;
+    private final KafkaAdmin kafkaAdmin;
+    private final KafkaListenerEndpointRegistry registry;
+    private final String groupId;
+    private final List<String> laneNames = new ArrayList<>();
+    private final Map<String, String> laneByTopic = new HashMap<>();
+    private final Map<String, Long> lags = new ConcurrentHashMap<>();
+    private final Set<String> congested = new HashSet<>();
+    private volatile Set<String> paused = Set.of();
+    private ScheduledExecutorService scheduler;
+    private AdminClient adminClient;
+
+    public PriorityLaneController(PriorityLaneProperties properties, KafkaAdmin kafkaAdmin,
+                                  KafkaListenerEndpointRegistry registry, MeterRegistry meterRegistry,
+                                  @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.properties = properties;
+        this.kafkaAdmin = kafkaAdmin;
+        this.registry = registry;
+        this.groupId = groupId;
+        for (PriorityLaneProperties.Lane lane : properties.getLanes()) {
+            laneNames.add(lane.getName());
+            lane.getTopics().forEach(topic -> laneByTopic.put(topic, lane.getName()));
+        }
+        laneNames.add(AdaptiveConcurrencyLimiter.DEFAULT_LANE);
+        for (String lane : laneNames) {
+            Gauge.builder("event.lane.lag", lags, values -> values.getOrDefault(lane, 0L))
+                .description("Records between the committed offset and the end of the lane's partitions")
+                .tag("lane", lane)
+                .register(meterRegistry);
+            Gauge.builder("event.lane.paused", this, controller -> controller.paused.contains(lane) ? 1 : 0)
+                .tag("lane", lane)
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || properties.getLanes().isEmpty()) {
+            return;
+        }
+        adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "priority-lanes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        adminClient.close(Duration.ofSeconds(5));
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Lanes to pause for the given lags: everything after the first congested
+     * lane. A lane is congested above its pause-lag and stays so until its
+     * lag is back at resume-lag.
+     */
+    synchronized Set<String> lanesToPause(Map<String, Long> laneLags) {
+        Set<String> pause = new HashSet<>();
+        boolean higherCongested = false;
+        for (String lane : laneNames) {
+            if (higherCongested) {
+                pause.add(lane);
+            }
+            PriorityLaneProperties.Lane settings = settings(lane);
+            if (settings == null || settings.getPauseLag() <= 0) {
+                continue;
+            }
+            long lag = laneLags.getOrDefault(lane, 0L);
+            long resumeLag = settings.getResumeLag() >= 0 ? settings.getResumeLag() : settings.getPauseLag() / 2;
+            if (lag > settings.getPauseLag() || (congested.contains(lane) && lag > resumeLag)) {
+                congested.add(lane);
+                higherCongested = true;
+            } else {
+                congested.remove(lane);
+            }
+        }
+        return pause;
+    }
+
+    String laneOf(String topic) {
+        return laneByTopic.getOrDefault(topic, AdaptiveConcurrencyLimiter.DEFAULT_LANE);
+    }
+
+    private void checkQuietly() {
+        try {
+            Map<String, Long> laneLags = readLags();
+            lags.putAll(laneLags);
+            Set<String> pause = lanesToPause(laneLags);
+            if (!pause.equals(paused)) {
+                log.info("Lane lag {}: pausing {}", laneLags, pause.isEmpty() ? "none" : pause);
+            }
+            paused = pause;
+            apply(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Failed to check priority lanes: {}", e.toString());
+        }
+    }
+
+    private Map<String, Long> readLags() throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+            .partitionsToOffsetAndMetadata().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<TopicPartition, OffsetSpec> latest = committed.keySet().stream()
+            .collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResultInfo> ends = adminClient.listOffsets(latest).all()
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<String, Long> laneLags = new HashMap<>();
+        laneNames.forEach(lane -> laneLags.put(lane, 0L));
+        committed.forEach((partition, offset) -> {
+            ListOffsetsResultInfo end = ends.get(partition);
+            if (offset != null && end != null) {
+                laneLags.merge(laneOf(partition.topic()), Math.max(0, end.offset() - offset.offset()), Long::sum);
+            }
+        });
+        return laneLags;
+    }
+
+    private void apply(Set<String> pause) {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (!container.isRunning() || !groupId.equals(container.getGroupId())) {
+                continue;
+            }
+            Collection<TopicPartition> assigned = container.getAssignedPartitions();
+            if (assigned == null) {
+                continue;
+            }
+            for (TopicPartition partition : assigned) {
+                boolean shouldPause = pause.contains(laneOf(partition.topic()));
+                if (shouldPause && !container.isPartitionPauseRequested(partition)) {
+                    container.pausePartition(partition);
+                } else if (!shouldPause && container.isPartitionPauseRequested(partition)) {
+                    container.resumePartition(partition);
+                }
+            }
+        }
+    }
+
+    private PriorityLaneProperties.Lane settings(String lane) {
+        for (PriorityLaneProperties.Lane settings : properties.getLanes()) {
+            if (settings.getName().equals(lane)) {
+                return settings;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.{{SERVICE_NAME}}.aggregation.OrderTotalsAggregator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderTotalsProperties.class)
+public class AggregationConfig {
+
+    /**
+     * Restored from the checkpoint before the listener starts, so the first
+     * poll can seek to the checkpointed offsets.
+     */
+    @Bean
+    public OrderTotalsAggregator orderTotalsAggregator(OrderTotalsProperties properties) {
+        OrderTotalsAggregator aggregator = new OrderTotalsAggregator(properties);
+        if (properties.isEnabled() && properties.getCheckpointPath() != null) {
+            aggregator.loadCheckpoint(properties.getCheckpointPath());
+        }
+        return aggregator;
+    }
+}
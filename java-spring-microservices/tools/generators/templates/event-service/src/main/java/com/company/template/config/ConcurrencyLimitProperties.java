@@ -0,0 +1,35 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the adaptive limit on concurrent service calls.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     kafka:
+ *       listener:
+ *         adaptive:
+ *           enabled: true
+ *           target-latency: 20ms
+ *           max-limit: 64
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.listener.adaptive")
+public class ConcurrencyLimitProperties {
+
+    /** Off by default: pick a target-latency for the service's own calls before enabling. */
+    private boolean enabled = false;
+    /** Service call latency to stay under, per record; a batch call gets this times its size. */
+    private Duration targetLatency = Duration.ofMillis(250);
+    private int initialLimit = 16;
+    private int minLimit = 1;
+    private int maxLimit = 64;
+    /** Multiplier applied to the limit on a slow or failed call. */
+    private double backoffRatio = 0.75;
+    /** Longest a listener waits for a permit before the record goes to a retry topic. */
+    private Duration maxWait = Duration.ofSeconds(60);
+}
@@ -0,0 +1,28 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.{{SERVICE_NAME}}.dedup.EventDeduplicator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(DedupProperties.class)
+public class DedupConfig {
+
+    /**
+     * Closed after the listener containers stop, so the final snapshot
+     * includes everything processed.
+     */
+    @Bean
+    public EventDeduplicator eventDeduplicator(DedupProperties properties, MeterRegistry meterRegistry) {
+        EventDeduplicator deduplicator = new EventDeduplicator(properties, meterRegistry, Clock.systemUTC());
+        if (properties.isEnabled() && properties.getSnapshotPath() != null) {
+            deduplicator.loadSnapshot(properties.getSnapshotPath());
+            deduplicator.scheduleSnapshots(properties.getSnapshotPath(), properties.getSnapshotInterval());
+        }
+        return deduplicator;
+    }
+}
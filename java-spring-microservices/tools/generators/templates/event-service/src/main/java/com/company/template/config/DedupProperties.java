@@ -0,0 +1,49 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for eventId deduplication.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     dedup:
+ *       window: 1h
+ *       expected-events-per-window: 5000000
+ *       snapshot-path: /var/lib/{{SERVICE_NAME}}/dedup.bin
+ */
+@Data
+@ConfigurationProperties(prefix = "app.dedup")
+public class DedupProperties {
+
+    private boolean enabled = true;
+    /** How long an eventId is remembered by the Bloom filter. */
+    private Duration window = Duration.ofHours(1);
+    /** Sizes the Bloom filter; memory is fixed at startup from this and the rate below. */
+    private long expectedEventsPerWindow = 5_000_000;
+    private double falsePositiveRate = 0.01;
+    /**
+     * Most recent eventIds kept exactly. Duplicates are only guaranteed to be
+     * caught within {@link #exactHorizon()}, about 72s at the defaults; an
+     * older duplicate that still hits the Bloom filter is processed again and
+     * counted as {@code unconfirmed}.
+     */
+    private int exactCapacity = 100_000;
+    /** Where to keep the window across restarts; unset disables persistence. */
+    private Path snapshotPath;
+    private Duration snapshotInterval = Duration.ofMinutes(1);
+
+    /**
+     * How far back the exact store reaches at the expected rate, capped at the window.
+     */
+    public Duration exactHorizon() {
+        if (expectedEventsPerWindow <= exactCapacity) {
+            return window;
+        }
+        return Duration.ofMillis(window.toMillis() * exactCapacity / expectedEventsPerWindow);
+    }
+}
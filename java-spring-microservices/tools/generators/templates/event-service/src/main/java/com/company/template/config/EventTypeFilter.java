@@ -0,0 +1,33 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.event.kafka.LazyEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+import java.util.Set;
+
+/**
+ * Discards records whose eventType header is not handled by the listener,
+ * before the payload is deserialized.
+ *
+ * Register one bean per listener and reference it with
+ * {@code @KafkaListener(filter = "userEventFilter")}.
+ */
+public class EventTypeFilter implements RecordFilterStrategy<String, LazyEvent> {
+
+    private final Set<String> eventTypes;
+
+    private EventTypeFilter(Set<String> eventTypes) {
+        this.eventTypes = eventTypes;
+    }
+
+    public static EventTypeFilter accepting(String... eventTypes) {
+        return new EventTypeFilter(Set.of(eventTypes));
+    }
+
+    @Override
+    public boolean filter(ConsumerRecord<String, LazyEvent> record) {
+        LazyEvent event = record.value();
+        return event == null || !eventTypes.contains(event.getEventType());
+    }
+}
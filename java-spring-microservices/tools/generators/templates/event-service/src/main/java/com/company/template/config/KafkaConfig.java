@@ -1,60 +1,324 @@
 package com.company.{{SERVICE_NAME}}.config;
 
-import lombok.extern.slf4j.Slf4j;
+import com.company.event.DomainEvent;
+import com.company.event.batch.EventBatch;
+import com.company.event.batch.EventBatchDeserializer;
+import com.company.event.batch.EventBatchSerializer;
+import com.company.event.kafka.EventHeaderInterceptor;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.kafka.LazyEventSerializer;
+import com.company.{{SERVICE_NAME}}.retry.PollRollbackProcessor;
+import com.company.{{SERVICE_NAME}}.retry.RetryTopicRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.util.backoff.FixedBackOff;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
-@Slf4j
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties({RetryProperties.class, ConcurrencyLimitProperties.class,
+    PriorityLaneProperties.class, ReplayProperties.class, TransactionProperties.class})
+@RequiredArgsConstructor
 public class KafkaConfig {
 
+    private final RetryProperties retryProperties;
+    private final ReplayProperties replayProperties;
+    private final TransactionProperties transactionProperties;
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.kafka.listener.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.kafka.listener.mode:batch}")
+    private String listenerMode;
+
+    /**
+     * Transactions commit once per poll, which needs a batch listener: a
+     * record listener would pay for a transaction per record, and the
+     * out-of-order acknowledgements of parallel and virtual mode cannot be
+     * tied to one.
+     */
+    @PostConstruct
+    void checkTransactionalMode() {
+        if (transactionProperties.isEnabled() && !"batch".equals(listenerMode)) {
+            throw new IllegalStateException("app.kafka.transactions requires app.kafka.listener.mode=batch, not "
+                + listenerMode);
+        }
+        if (transactionProperties.isEnabled() && transactionProperties.getTransactionIdPrefix() == null) {
+            throw new IllegalStateException("app.kafka.transactions.transaction-id-prefix is required");
+        }
+    }
+
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.company.event.*");
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    public ConsumerFactory<String, LazyEvent> consumerFactory() {
+        // Payloads are decoded on demand; listeners filter on headers first
+        return new DefaultKafkaConsumerFactory<>(consumerProps(LazyEventDeserializer.class));
+    }
+
+    @Bean
+    public ConsumerFactory<String, EventBatch> eventBatchConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps(EventBatchDeserializer.class));
+    }
+
+    /**
+     * Replay reads with large fetches and commits by itself; see EventReplayer.
+     */
+    @Bean
+    public ConsumerFactory<String, LazyEvent> replayConsumerFactory() {
+        Map<String, Object> props = consumerProps(LazyEventDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, replayProperties.getMaxPollRecords());
+        props.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, (int) replayProperties.getFetchMaxBytes().toBytes());
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG,
+            (int) replayProperties.getMaxPartitionFetchBytes().toBytes());
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, (int) replayProperties.getFetchMinBytes().toBytes());
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * Reads dead-letter topics as raw bytes for replay.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> props = consumerProps(ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
+    /**
+     * One producer for everything the service publishes, so that in
+     * transactional mode derived events and records moved to the retry
+     * topics join the listener's transaction. Values go out by type:
+     * consumed records as the bytes they came in with, batches re-encoded,
+     * derived events as JSON with the standard event headers.
+     */
+    @Bean
+    public ProducerFactory<Object, Object> eventProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, EventHeaderInterceptor.class.getName());
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(LazyEvent.class, new LazyEventSerializer());
+        valueSerializers.put(EventBatch.class, new EventBatchSerializer());
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(DomainEvent.class, new JsonSerializer<>());
+        DefaultKafkaProducerFactory<Object, Object> producerFactory = new DefaultKafkaProducerFactory<>(props);
+        producerFactory.setValueSerializer(new DelegatingByTypeSerializer(valueSerializers, true));
+        if (transactionProperties.isEnabled()) {
+            producerFactory.setTransactionIdPrefix(transactionProperties.getTransactionIdPrefix());
+        }
+        return producerFactory;
+    }
+
+    /**
+     * Publishes failed records to retry and dead-letter topics, and replays
+     * them.
+     */
+    @Bean
+    public KafkaTemplate<Object, Object> deadLetterTemplate() {
+        return template(eventProducerFactory());
+    }
+
+    /**
+     * Publishes events derived by the service (window summaries,
+     * reconciliation results). Inside a transactional listener the sends
+     * commit or abort with the consumed offsets; elsewhere they go out
+     * immediately.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+    @SuppressWarnings("unchecked")
+    public KafkaTemplate<String, DomainEvent> eventTemplate() {
+        return template((ProducerFactory<String, DomainEvent>) (ProducerFactory<?, ?>) eventProducerFactory());
+    }
+
+    @Bean
+    public RetryTopicRouter retryTopicRouter() {
+        return new RetryTopicRouter(deadLetterTemplate(), retryProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, LazyEvent> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, LazyEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // Commit offsets of records dropped by a listener filter
+        factory.setAckDiscarded(true);
+        factory.setCommonErrorHandler(errorHandler());
+        return factory;
+    }
 
-        // Error handling with retry
-        factory.setCommonErrorHandler(new DefaultErrorHandler(
-            (record, exception) -> {
-                log.error("Failed to process message after retries: {}", record.value(), exception);
-                // Send to dead letter queue or alert
-            },
-            new FixedBackOff(1000L, 3) // 3 retries with 1 second delay
-        ));
+    /**
+     * Batch listener mode: one listener call per poll of up to
+     * app.kafka.listener.batch-size records, so the service can write them in
+     * one round trip. Handlers throw BatchListenerFailedException for the
+     * failing record; the records before it are committed, it moves to a
+     * retry topic and the rest are redelivered.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, LazyEvent> batchListenerContainerFactory() {
+        Map<String, Object> props = consumerProps(LazyEventDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        ConcurrentKafkaListenerContainerFactory<String, LazyEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setAckDiscarded(true);
+        if (transactionProperties.isEnabled()) {
+            // BatchRecords routes failed records; anything else must roll back, not be recovered
+            transactional(factory);
+        } else {
+            factory.setCommonErrorHandler(errorHandler());
+        }
+        return factory;
+    }
 
+    /**
+     * Parallel and virtual listener modes: each record is handed to a
+     * KeyOrderedDispatcher lane or a virtual thread and acknowledged when it
+     * finishes, possibly out of order.
+     * With async acks the container commits only up to the highest contiguous
+     * acknowledged offset, and holds back the next poll of a partition until
+     * the previous one is fully acknowledged.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, LazyEvent> parallelListenerContainerFactory() {
+        Map<String, Object> props = consumerProps(LazyEventDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        ConcurrentKafkaListenerContainerFactory<String, LazyEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        // Filtered records must be acknowledged too, or they leave a gap that blocks commits
+        factory.setAckDiscarded(true);
+        factory.setCommonErrorHandler(errorHandler());
+        return factory;
+    }
+
+    /**
+     * Listeners on batched topics receive one {@link EventBatch} per record.
+     * A failure retries the whole batch, so per-event handling must be idempotent.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventBatch> eventBatchContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EventBatch> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(eventBatchConsumerFactory());
+        factory.setCommonErrorHandler(errorHandler());
+        if (transactionProperties.isEnabled()) {
+            transactional(factory);
+        }
         return factory;
     }
+
+    @Bean
+    public RecordFilterStrategy<String, LazyEvent> userEventFilter() {
+        return EventTypeFilter.accepting("USER_CREATED");
+    }
+
+    @Bean
+    public RecordFilterStrategy<String, LazyEvent> orderEventFilter() {
+        return EventTypeFilter.accepting("ORDER_CREATED");
+    }
+
+    @Bean
+    public RecordFilterStrategy<String, LazyEvent> paymentEventFilter() {
+        return EventTypeFilter.accepting("PAYMENT_COMPLETED");
+    }
+
+    @Bean
+    public RecordFilterStrategy<String, LazyEvent> reconciliationEventFilter() {
+        return EventTypeFilter.accepting("ORDER_CREATED", "PAYMENT_COMPLETED");
+    }
+
+    private Map<String, Object> consumerProps(Class<?> valueDeserializer) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, valueDeserializer);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        if (transactionProperties.isEnabled()) {
+            // Skip records of aborted transactions, ours and upstream producers'
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
+        return props;
+    }
+
+    private <K, V> KafkaTemplate<K, V> template(ProducerFactory<K, V> producerFactory) {
+        KafkaTemplate<K, V> template = new KafkaTemplate<>(producerFactory);
+        // Retry consumers, replays and scheduled window flushes publish outside a listener transaction
+        template.setAllowNonTransactional(true);
+        return template;
+    }
+
+    /**
+     * The container starts a transaction per poll (per record for EventBatch
+     * records, each already a batch) and sends the offsets in it. Failed
+     * records move to the retry topics inside the transaction: batch
+     * listeners route them through BatchRecords, the EventBatch error
+     * handler recovers the record. A failure neither handles rolls the
+     * poll back, and it is redelivered after a pause. Once the redeliveries
+     * are used up, its records move to the retry topics and their offsets
+     * are committed in a new transaction, so one poison poll cannot stall
+     * the partition.
+     */
+    private <V> void transactional(ConcurrentKafkaListenerContainerFactory<String, V> factory) {
+        factory.getContainerProperties().setTransactionManager(
+            new KafkaTransactionManager<>(eventProducerFactory()));
+        int attempts = transactionProperties.getRollbackAttempts();
+        Duration backoff = transactionProperties.getRollbackBackoff();
+        if (Boolean.TRUE.equals(factory.isBatchListener())) {
+            factory.setAfterRollbackProcessor(
+                new PollRollbackProcessor<>(retryTopicRouter(), deadLetterTemplate(), attempts, backoff));
+        } else {
+            factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(retryTopicRouter(),
+                new FixedBackOff(backoff.toMillis(), attempts), deadLetterTemplate(), true));
+        }
+    }
+
+    private DefaultErrorHandler errorHandler() {
+        // No in-place retries: a failed record moves to a retry topic and the partition keeps going
+        return new DefaultErrorHandler(retryTopicRouter(), new FixedBackOff(0L, 0L));
+    }
 }
@@ -0,0 +1,39 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the streaming order totals aggregation.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     aggregation:
+ *       order-totals:
+ *         enabled: true
+ *         window: 1m
+ *         sliding-window: 1h
+ *         checkpoint-path: /var/lib/{{SERVICE_NAME}}/order-totals.bin
+ */
+@Data
+@ConfigurationProperties(prefix = "app.aggregation.order-totals")
+public class OrderTotalsProperties {
+
+    /** Off by default: only the service that owns the order-totals topic should run the stage. */
+    private boolean enabled = false;
+    /** Tumbling window size, and the step of the sliding window. */
+    private Duration window = Duration.ofMinutes(1);
+    /** Must be a multiple of the window. */
+    private Duration slidingWindow = Duration.ofHours(1);
+    /** How far behind the newest event time the watermark trails; later events are dropped. */
+    private Duration allowedLateness = Duration.ofSeconds(30);
+    private String summaryTopic = "order-totals";
+    /** Sizes each window's table up front; it grows past this. */
+    private int expectedKeysPerWindow = 1024;
+    /** Where to checkpoint state and offsets; unset keeps the state in memory only. */
+    private Path checkpointPath;
+    private Duration checkpointInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,51 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for priority lanes: groups of topics that share
+ * the service's concurrency budget by weight, highest priority first.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     kafka:
+ *       priority:
+ *         lanes:
+ *           - name: payments
+ *             topics: ["${app.kafka.topics.payment-events}"]
+ *             weight: 8
+ *             pause-lag: 1000
+ *           - name: bulk
+ *             topics: ["${app.kafka.topics.user-events}"]
+ *             max-concurrency: 4
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.priority")
+public class PriorityLaneProperties {
+
+    private boolean enabled = true;
+    /** How often lane lag is read from the brokers and partitions are paused or resumed. */
+    private Duration checkInterval = Duration.ofSeconds(5);
+    /** Highest priority first. Topics in no lane share an implicit lowest-priority lane of weight 1. */
+    private List<Lane> lanes = new ArrayList<>();
+
+    @Data
+    public static class Lane {
+
+        private String name;
+        private List<String> topics = new ArrayList<>();
+        /** Share of contended permits, relative to the other lanes waiting. */
+        private int weight = 1;
+        /** Most service calls of this lane at once, whatever the overall limit. */
+        private int maxConcurrency = Integer.MAX_VALUE;
+        /** Lag at which lower-priority lanes are paused; 0 never pauses them. */
+        private long pauseLag;
+        /** Lag at which they resume; defaults to half of pause-lag. */
+        private long resumeLag = -1;
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.{{SERVICE_NAME}}.reconciliation.OrderPaymentJoin;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReconciliationProperties.class)
+public class ReconciliationConfig {
+
+    /**
+     * Restored from the checkpoint in state-dir before the listener starts,
+     * so the first poll can seek to the checkpointed offsets.
+     */
+    @Bean
+    public OrderPaymentJoin orderPaymentJoin(ReconciliationProperties properties) {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties);
+        if (properties.isEnabled() && properties.getStateDir() != null) {
+            join.loadCheckpoint();
+        }
+        return join;
+    }
+}
@@ -0,0 +1,40 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the order/payment reconciliation join.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     reconciliation:
+ *       enabled: true
+ *       payment-timeout: 30m
+ *       state-dir: /var/lib/{{SERVICE_NAME}}/reconciliation
+ */
+@Data
+@ConfigurationProperties(prefix = "app.reconciliation")
+public class ReconciliationProperties {
+
+    /** Off by default: only the service that owns the unpaid/orphan topics should run the join. */
+    private boolean enabled = false;
+    /** An order without a payment this long after it was placed is unpaid. */
+    private Duration paymentTimeout = Duration.ofMinutes(30);
+    /** A payment without its order this long after it was made is an orphan. */
+    private Duration orderWait = Duration.ofMinutes(5);
+    /** How far behind the newest event time the watermark trails. */
+    private Duration allowedLateness = Duration.ofSeconds(30);
+    /** Deadlines are grouped into buckets of this size for expiry and spilling. */
+    private Duration bucket = Duration.ofSeconds(10);
+    /** Pending orders and payments kept in memory; older buckets spill to state-dir beyond this. */
+    private int maxInMemory = 1_000_000;
+    /** Spill segments and checkpoint; unset spills to a temp directory and keeps no checkpoint. */
+    private Path stateDir;
+    private Duration checkpointInterval = Duration.ofSeconds(30);
+    private String unpaidOrdersTopic = "unpaid-orders";
+    private String orphanPaymentsTopic = "orphan-payments";
+}
@@ -0,0 +1,28 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for replaying a topic range through the service.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     replay:
+ *       max-records-per-second: 5000
+ *       max-poll-records: 5000
+ */
+@Data
+@ConfigurationProperties(prefix = "app.replay")
+public class ReplayProperties {
+
+    /** Ceiling on records read per second; 0 for none. */
+    private int maxRecordsPerSecond = 5000;
+    /** Records per poll, and so per service batch call. */
+    private int maxPollRecords = 5000;
+    private DataSize fetchMaxBytes = DataSize.ofMegabytes(50);
+    private DataSize maxPartitionFetchBytes = DataSize.ofMegabytes(10);
+    /** Broker waits for this much data (or fetch-max-wait) before answering a fetch. */
+    private DataSize fetchMinBytes = DataSize.ofMegabytes(1);
+}
@@ -0,0 +1,42 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for retry topics and the dead-letter topic.
+ *
+ * A record that fails on {@code <topic>} moves to {@code <topic>-retry-1},
+ * then {@code -retry-2} and so on, waiting longer in each tier, and finally
+ * to {@code <topic>-dlt}.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     kafka:
+ *       retry:
+ *         attempts: 3
+ *         initial-delay: 1s
+ *         multiplier: 5
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.retry")
+public class RetryProperties {
+
+    /** Number of retry tiers; 0 sends failures straight to the dead-letter topic. */
+    private int attempts = 3;
+    /** Delay before the first retry. */
+    private Duration initialDelay = Duration.ofSeconds(1);
+    /** Each tier waits this many times longer than the previous one. */
+    private double multiplier = 5;
+    private Duration maxDelay = Duration.ofMinutes(10);
+
+    /**
+     * @param tier 1-based retry tier
+     */
+    public Duration delay(int tier) {
+        double millis = initialDelay.toMillis() * Math.pow(multiplier, tier - 1);
+        return Duration.ofMillis((long) Math.min(millis, maxDelay.toMillis()));
+    }
+}
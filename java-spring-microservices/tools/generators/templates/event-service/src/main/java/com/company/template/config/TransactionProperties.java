@@ -0,0 +1,32 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for transactional (exactly-once) consume-process-produce.
+ *
+ * Usage in application.yml:
+ *   app:
+ *     kafka:
+ *       transactions:
+ *         enabled: true
+ *         transaction-id-prefix: ${spring.application.name}-${HOSTNAME}-
+ *         rollback-attempts: 3
+ *         rollback-backoff: 1s
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.transactions")
+public class TransactionProperties {
+
+    /** One transaction per poll in batch listener mode; the other modes are rejected at startup. */
+    private boolean enabled = false;
+    /** Must differ between running instances, or they fence each other's producers. */
+    private String transactionIdPrefix;
+    /** Redeliveries of a rolled-back poll before its records move to the retry topics. */
+    private int rollbackAttempts = 3;
+    /** Pause before each redelivery of a rolled-back poll. */
+    private Duration rollbackBackoff = Duration.ofSeconds(1);
+}
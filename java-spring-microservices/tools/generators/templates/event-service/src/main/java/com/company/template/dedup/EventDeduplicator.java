@@ -0,0 +1,300 @@
+package com.company.{{SERVICE_NAME}}.dedup;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.{{SERVICE_NAME}}.config.DedupProperties;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Skips events whose eventId was already processed, so retries and
+ * at-least-once redelivery do not repeat side effects such as emails.
+ *
+ * A {@link WindowedBloomFilter} answers "definitely new" for almost every
+ * event without touching the exact store. Only when it says "maybe seen" is
+ * the bounded LRU of recent eventIds consulted. A miss there is either a
+ * Bloom false positive or a duplicate older than the LRU reaches
+ * ({@link DedupProperties#exactHorizon()}); the two cannot be told apart, so
+ * the event is processed and counted as {@code unconfirmed}. An id is recorded only after its
+ * processing succeeded (and its transaction committed, in transactional
+ * mode), so a failed attempt is retried rather than skipped.
+ *
+ * Memory is fixed: the Bloom filter is sized from the window and expected
+ * rate, and the LRU holds at most {@code exactCapacity} ids.
+ *
+ * Metrics: event.dedup.events{result=new|duplicate|unconfirmed},
+ * event.dedup.exact.size, event.dedup.bloom.fill.
+ */
+@Slf4j
+public class EventDeduplicator implements AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x44445550;
+
+    private final DedupProperties properties;
+    private final WindowedBloomFilter bloom;
+    private final Map<Object, Boolean> recent;
+    private final Counter newEvents;
+    private final Counter duplicates;
+    private final Counter unconfirmed;
+    private ScheduledExecutorService snapshots;
+    private Path snapshotFile;
+
+    public EventDeduplicator(DedupProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.bloom = new WindowedBloomFilter(properties.getWindow(), properties.getExpectedEventsPerWindow(),
+            properties.getFalsePositiveRate(), clock);
+        int capacity = properties.getExactCapacity();
+        this.recent = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.newEvents = Counter.builder("event.dedup.events").tag("result", "new").register(meterRegistry);
+        this.duplicates = Counter.builder("event.dedup.events").tag("result", "duplicate").register(meterRegistry);
+        this.unconfirmed = Counter.builder("event.dedup.events").tag("result", "unconfirmed")
+            .description("Bloom filter hits the exact store did not confirm: a false positive or an older duplicate")
+            .register(meterRegistry);
+        Gauge.builder("event.dedup.exact.size", this, EventDeduplicator::exactSize).register(meterRegistry);
+        Gauge.builder("event.dedup.bloom.fill", bloom, WindowedBloomFilter::fillRatio).register(meterRegistry);
+        log.info("Event dedup: {} window, Bloom filter {} KiB, exact store {} ids",
+            properties.getWindow(), bloom.memoryBytes() / 1024, capacity);
+        if (properties.exactHorizon().compareTo(properties.getWindow()) < 0) {
+            log.info("Event dedup: duplicates are only certain to be skipped within {}; raise exact-capacity"
+                + " towards expected-events-per-window to cover the whole window", properties.exactHorizon());
+        }
+    }
+
+    /**
+     * Run {@code action} unless the event was already processed, then remember it.
+     */
+    public <T extends DomainEvent> void runOnce(T event, Consumer<T> action) {
+        if (!properties.isEnabled() || event.getEventId() == null) {
+            action.accept(event);
+            return;
+        }
+        if (isDuplicate(event.getEventId())) {
+            log.debug("Skipping duplicate {}: {}", event.getEventType(), event.getEventId());
+            return;
+        }
+        action.accept(event);
+        whenCommitted(() -> markProcessed(event.getEventId()));
+    }
+
+    /**
+     * Batch variant of {@link #runOnce}: drops duplicates (including repeats
+     * within the batch), runs {@code batchAction} on the rest and remembers
+     * them. A {@link BatchProcessingException} is rethrown with the index in
+     * the original list, after remembering the events before it.
+     */
+    public <T extends DomainEvent> void runOnceBatch(List<T> events, Consumer<List<T>> batchAction) {
+        if (!properties.isEnabled()) {
+            batchAction.accept(events);
+            return;
+        }
+        List<T> fresh = new ArrayList<>(events.size());
+        List<Integer> originalIndex = new ArrayList<>(events.size());
+        Set<String> inBatch = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            String eventId = events.get(i).getEventId();
+            if (eventId != null && (!inBatch.add(eventId) || isDuplicate(eventId))) {
+                continue;
+            }
+            fresh.add(events.get(i));
+            originalIndex.add(i);
+        }
+        if (fresh.size() < events.size()) {
+            log.debug("Skipping {} duplicates of {} events", events.size() - fresh.size(), events.size());
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        try {
+            batchAction.accept(fresh);
+        } catch (BatchProcessingException e) {
+            markProcessed(fresh.subList(0, e.getFailedIndex()));
+            throw new BatchProcessingException(originalIndex.get(e.getFailedIndex()), e.getCause());
+        }
+        markProcessed(fresh);
+    }
+
+    public boolean isDuplicate(String eventId) {
+        if (!bloom.mightContain(eventId)) {
+            newEvents.increment();
+            return false;
+        }
+        boolean seen;
+        synchronized (recent) {
+            seen = recent.get(key(eventId)) != null;
+        }
+        if (seen) {
+            duplicates.increment();
+        } else {
+            unconfirmed.increment();
+        }
+        return seen;
+    }
+
+    public void markProcessed(String eventId) {
+        bloom.put(eventId);
+        synchronized (recent) {
+            recent.put(key(eventId), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Persist a snapshot every {@code interval} and on {@link #close()}.
+     */
+    public synchronized void scheduleSnapshots(Path file, Duration interval) {
+        snapshots = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "dedup-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleWithFixedDelay(() -> {
+            try {
+                saveSnapshot(file);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write dedup snapshot: {}", e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        snapshotFile = file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (snapshots != null) {
+            snapshots.shutdown();
+            saveSnapshot(snapshotFile);
+            snapshots = null;
+        }
+    }
+
+    /**
+     * Write the Bloom filter and exact store so the window survives a restart.
+     */
+    public void saveSnapshot(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                bloom.writeTo(out);
+                List<Object> ids;
+                synchronized (recent) {
+                    ids = new ArrayList<>(recent.keySet());
+                }
+                out.writeInt(ids.size());
+                for (Object id : ids) {
+                    if (id instanceof UUID uuid) {
+                        out.writeBoolean(true);
+                        out.writeLong(uuid.getMostSignificantBits());
+                        out.writeLong(uuid.getLeastSignificantBits());
+                    } else {
+                        out.writeBoolean(false);
+                        out.writeUTF((String) id);
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write dedup snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Restore a snapshot written by {@link #saveSnapshot}. A missing file or
+     * one taken with different sizing leaves the deduplicator empty.
+     */
+    public void loadSnapshot(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || !bloom.readFrom(in)) {
+                log.warn("Ignoring dedup snapshot {}: written with different settings", file);
+                return;
+            }
+            int count = in.readInt();
+            synchronized (recent) {
+                for (int i = 0; i < count; i++) {
+                    Object id = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : in.readUTF();
+                    recent.put(id, Boolean.TRUE);
+                }
+            }
+            log.info("Restored dedup snapshot {} with {} recent ids", file, count);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable dedup snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void markProcessed(List<? extends DomainEvent> events) {
+        whenCommitted(() -> {
+            for (DomainEvent event : events) {
+                if (event.getEventId() != null) {
+                    markProcessed(event.getEventId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Inside a listener transaction an event only counts as processed once
+     * the transaction commits; a rolled-back poll is redelivered and must
+     * not be skipped.
+     */
+    private static void whenCommitted(Runnable mark) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark.run();
+            }
+        });
+    }
+
+    private int exactSize() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    /**
+     * UUID-formatted ids are kept as two longs instead of a 36-char string.
+     */
+    private static Object key(String eventId) {
+        return EventIds.isUuid(eventId) ? UUID.fromString(eventId) : eventId;
+    }
+}
@@ -0,0 +1,171 @@
+package com.company.{{SERVICE_NAME}}.dedup;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Bloom filter over a sliding time window, as a ring of generations.
+ *
+ * Inserts go to the current generation; lookups check all of them. Every
+ * window / generations the oldest generation is cleared and becomes current,
+ * so a key is remembered for between (generations - 1) / generations of the
+ * window and the whole window. Memory is fixed at construction.
+ *
+ * Thread-safe: bits are set with atomic ORs, rotation is synchronized.
+ */
+public class WindowedBloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int GENERATIONS = 4;
+
+    private final Clock clock;
+    private final long generationMillis;
+    private final int bitsPerGeneration;
+    private final int hashes;
+    private final long[][] generations;
+    private final long[] generationStarts;
+    private volatile int current;
+
+    /**
+     * @param expectedInsertions keys inserted per window
+     * @param falsePositiveRate  target rate for a lookup against the whole window
+     */
+    public WindowedBloomFilter(Duration window, long expectedInsertions, double falsePositiveRate, Clock clock) {
+        this.clock = clock;
+        this.generationMillis = Math.max(1, window.toMillis() / GENERATIONS);
+        // Lookups hit every generation, so each one gets a share of the rate
+        long perGeneration = Math.max(1, expectedInsertions / GENERATIONS);
+        double rate = falsePositiveRate / GENERATIONS;
+        long bits = (long) Math.ceil(-perGeneration * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerGeneration = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashes = Math.max(1, (int) Math.round((double) bitsPerGeneration / perGeneration * Math.log(2)));
+        this.generations = new long[GENERATIONS][(bitsPerGeneration + 63) / 64];
+        this.generationStarts = new long[GENERATIONS];
+        Arrays.fill(generationStarts, clock.millis());
+    }
+
+    public boolean mightContain(CharSequence key) {
+        rotateIfDue();
+        long hash = hash(key);
+        for (long[] words : generations) {
+            if (contains(words, hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(CharSequence key) {
+        rotateIfDue();
+        long[] words = generations[current];
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitsPerGeneration);
+            WORDS.getAndBitwiseOr(words, bit >>> 6, 1L << bit);
+        }
+    }
+
+    public long memoryBytes() {
+        return (long) GENERATIONS * generations[0].length * Long.BYTES;
+    }
+
+    /** Fraction of bits set in the current generation; near 0.5 means it is at capacity. */
+    public double fillRatio() {
+        long[] words = generations[current];
+        long set = 0;
+        for (int i = 0; i < words.length; i++) {
+            set += Long.bitCount((long) WORDS.getOpaque(words, i));
+        }
+        return (double) set / bitsPerGeneration;
+    }
+
+    synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(generationMillis);
+        out.writeInt(bitsPerGeneration);
+        out.writeInt(hashes);
+        out.writeInt(current);
+        for (int g = 0; g < GENERATIONS; g++) {
+            out.writeLong(generationStarts[g]);
+            for (long word : generations[g]) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * @return false, leaving the filter empty, if the snapshot was taken with other dimensions
+     */
+    synchronized boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readLong() != generationMillis || in.readInt() != bitsPerGeneration || in.readInt() != hashes) {
+            return false;
+        }
+        int snapshotCurrent = in.readInt();
+        for (int g = 0; g < GENERATIONS; g++) {
+            generationStarts[g] = in.readLong();
+            long[] words = generations[g];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+        }
+        current = snapshotCurrent;
+        return true;
+    }
+
+    private boolean contains(long[] words, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitsPerGeneration);
+            if (((long) WORDS.getOpaque(words, bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfDue() {
+        if (clock.millis() - generationStarts[current] >= generationMillis) {
+            rotate();
+        }
+    }
+
+    private synchronized void rotate() {
+        long now = clock.millis();
+        // Catch up on every generation that expired while idle (or while stopped)
+        for (int step = 0; step < GENERATIONS && now - generationStarts[current] >= generationMillis; step++) {
+            int next = (current + 1) % GENERATIONS;
+            Arrays.fill(generations[next], 0L);
+            generationStarts[next] = generationStarts[current] + generationMillis;
+            current = next;
+        }
+        if (now - generationStarts[current] >= generationMillis) {
+            generationStarts[current] = now;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a with a murmur3 finalizer; the halves serve as the two
+     * hashes for double hashing.
+     */
+    private static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
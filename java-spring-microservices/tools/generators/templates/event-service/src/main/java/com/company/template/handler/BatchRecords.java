@@ -0,0 +1,87 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.LazyEvent;
+import com.company.{{SERVICE_NAME}}.config.TransactionProperties;
+import com.company.{{SERVICE_NAME}}.retry.RetryTopicRouter;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a polled batch and hands it to a service batch method, turning a
+ * failure into a {@link BatchListenerFailedException} for the exact record.
+ * The error handler then commits the records before it, retries it alone and
+ * redelivers the rest, instead of retrying the whole batch.
+ *
+ * In transactional mode the error handler's commit would bypass the
+ * transaction, so the failed record is moved to the retry topics here,
+ * inside it, and the rest of the batch carries on after it. The offsets,
+ * the retry record and the events the service published then commit together.
+ */
+@Component
+class BatchRecords {
+
+    private final ConsumerRecordRecoverer recoverer;
+    private final boolean transactional;
+
+    BatchRecords(RetryTopicRouter retryTopicRouter, TransactionProperties transactionProperties) {
+        this.recoverer = retryTopicRouter;
+        this.transactional = transactionProperties.isEnabled();
+    }
+
+    <T extends DomainEvent> void process(List<ConsumerRecord<String, LazyEvent>> records,
+                                         Class<T> eventClass, Consumer<List<T>> batchAction) {
+        if (transactional) {
+            processRecovering(records, eventClass, batchAction);
+            return;
+        }
+        List<T> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, LazyEvent> record : records) {
+            try {
+                events.add(record.value().as(eventClass));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Failed to decode " + eventClass.getSimpleName(), e, record);
+            }
+        }
+        try {
+            batchAction.accept(events);
+        } catch (BatchProcessingException e) {
+            throw new BatchListenerFailedException("Failed to process " + eventClass.getSimpleName(),
+                e.getCause(), records.get(e.getFailedIndex()));
+        }
+    }
+
+    private <T extends DomainEvent> void processRecovering(List<ConsumerRecord<String, LazyEvent>> records,
+                                                           Class<T> eventClass, Consumer<List<T>> batchAction) {
+        List<ConsumerRecord<String, LazyEvent>> decodedRecords = new ArrayList<>(records.size());
+        List<T> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, LazyEvent> record : records) {
+            try {
+                events.add(record.value().as(eventClass));
+                decodedRecords.add(record);
+            } catch (RuntimeException e) {
+                recoverer.accept(record, e);
+            }
+        }
+        int from = 0;
+        while (from < events.size()) {
+            try {
+                batchAction.accept(events.subList(from, events.size()));
+                from = events.size();
+            } catch (BatchProcessingException e) {
+                int failed = from + e.getFailedIndex();
+                Throwable cause = e.getCause();
+                recoverer.accept(decodedRecords.get(failed),
+                    cause instanceof Exception exception ? exception : new IllegalStateException(cause));
+                from = failed + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.LazyEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Parallel listener mode: runs events on a fixed set of single-threaded
+ * lanes, chosen by event key (userId, orderId, ...). Events with the same key
+ * always land on the same lane and run in arrival order; different keys run
+ * concurrently, so parallelism is no longer capped by the partition count.
+ *
+ * Each record is acknowledged once its lane is done with it. The parallel
+ * container factory commits only up to the highest contiguous acknowledged
+ * offset, so a crash redelivers anything not finished (at-least-once).
+ * A failed record is handed to the recoverer (the retry topics) and
+ * acknowledged, so it never holds up its lane.
+ */
+@Component
+public class KeyOrderedDispatcher {
+
+    private final ExecutorService[] lanes;
+    private final RecordRecovery recovery;
+
+    public KeyOrderedDispatcher(@Value("${app.kafka.listener.parallel.workers:16}") int workers,
+                                ConsumerRecordRecoverer recoverer) {
+        this.recovery = new RecordRecovery(recoverer);
+        this.lanes = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            String name = "{{SERVICE_NAME}}-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(task -> new Thread(task, name));
+        }
+    }
+
+    /**
+     * Decode the record, then run {@code action} on the lane for its key and
+     * acknowledge it. Failures, including decoding, go to the recoverer like
+     * they do from the container error handler.
+     */
+    public <T extends DomainEvent> void dispatch(ConsumerRecord<String, LazyEvent> record, Class<T> eventClass,
+                                                 Function<T, Object> keyOf, Consumer<T> action, Acknowledgment ack) {
+        T decoded;
+        Object key;
+        try {
+            decoded = record.value().as(eventClass);
+            key = keyOf.apply(decoded);
+        } catch (RuntimeException e) {
+            if (recovery.recover(record, e)) {
+                ack.acknowledge();
+            }
+            return;
+        }
+        lanes[laneOf(key)].execute(() -> {
+            if (recovery.process(record, decoded, action)) {
+                ack.acknowledge();
+            }
+        });
+    }
+
+    int laneOf(Object key) {
+        return Math.floorMod(key == null ? 0 : key.hashCode(), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -1,14 +1,34 @@
 package com.company.{{SERVICE_NAME}}.handler;
 
+import com.company.event.DomainEvent;
+import com.company.event.batch.EventBatch;
+import com.company.event.kafka.LazyEvent;
 import com.company.event.order.OrderCreatedEvent;
+import com.company.{{SERVICE_NAME}}.backpressure.AdaptiveConcurrencyLimiter;
+import com.company.{{SERVICE_NAME}}.dedup.EventDeduplicator;
+import com.company.{{SERVICE_NAME}}.metrics.EventMetrics;
+import com.company.{{SERVICE_NAME}}.replay.EventReplayer;
+import com.company.{{SERVICE_NAME}}.retry.RetryTopicConsumers;
 import com.company.{{SERVICE_NAME}}.service.{{SERVICE_NAME_PASCAL}}Service;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Handles order-related events.
+ *
+ * Only one of the order-events listeners starts, depending on app.kafka.listener.mode.
+ * Failed events are retried from the retry topics one at a time, whatever the mode.
  */
 @Slf4j
 @Component
@@ -16,20 +36,112 @@ import org.springframework.stereotype.Component;
 public class OrderEventHandler {
 
     private final {{SERVICE_NAME_PASCAL}}Service service;
+    private final KeyOrderedDispatcher dispatcher;
+    private final VirtualThreadDispatcher virtualDispatcher;
+    private final BatchRecords batchRecords;
+    private final EventDeduplicator deduplicator;
+    private final RetryTopicConsumers retryConsumers;
+    private final EventMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final EventReplayer replayer;
+    private final RecordFilterStrategy<String, LazyEvent> orderEventFilter;
+
+    @Value("${app.kafka.topics.order-events:order-events}")
+    private String orderEventsTopic;
+
+    @Value("${app.kafka.topics.order-events-batched:order-events-batched}")
+    private String orderEventsBatchedTopic;
+
+    private Consumer<OrderCreatedEvent> processOrderCreated;
+    private Consumer<List<OrderCreatedEvent>> processOrderCreatedBatch;
+    private Consumer<List<OrderCreatedEvent>> processBatchedTopic;
+
+    @PostConstruct
+    void init() {
+        processOrderCreated = limiter.limited(orderEventsTopic,
+            metrics.timed("orderCreated", service::processOrderCreated));
+        processOrderCreatedBatch = limiter.limited(orderEventsTopic,
+            metrics.timedBatch("orderCreatedBatch", service::processOrderCreatedBatch));
+        processBatchedTopic = limiter.limited(orderEventsBatchedTopic,
+            metrics.timedBatch("orderCreatedBatch", service::processOrderCreatedBatch));
+        retryConsumers.register(orderEventsTopic, LazyEvent.class, this::handleOrderEvent);
+        retryConsumers.register(orderEventsBatchedTopic, EventBatch.class, this::handleOrderEventBatch);
+        // Replays skip deduplication and run below every priority lane
+        replayer.register(orderEventsTopic, orderEventFilter, OrderCreatedEvent.class,
+            limiter.limited(metrics.timedBatch("orderCreatedReplay", service::processOrderCreatedBatch)));
+    }
 
     @KafkaListener(
+        id = "orderEvents",
         topics = "${app.kafka.topics.order-events:order-events}",
-        groupId = "${spring.kafka.consumer.group-id}"
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "orderEventFilter",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'single'}"
+    )
+    public void handleOrderEvent(LazyEvent event) {
+        log.debug("Received OrderCreatedEvent: {}", event.getEventId());
+        // Failures move to the retry topics, see RetryTopicRouter
+        deduplicator.runOnce(event.as(OrderCreatedEvent.class), processOrderCreated);
+    }
+
+    @KafkaListener(
+        id = "orderEventsBatch",
+        topics = "${app.kafka.topics.order-events:order-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "orderEventFilter",
+        containerFactory = "batchListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'batch'}"
+    )
+    public void handleOrderEvents(List<ConsumerRecord<String, LazyEvent>> records) {
+        log.debug("Received {} OrderCreatedEvents", records.size());
+        batchRecords.process(records, OrderCreatedEvent.class,
+            events -> deduplicator.runOnceBatch(events, processOrderCreatedBatch));
+    }
+
+    @KafkaListener(
+        id = "orderEventsParallel",
+        topics = "${app.kafka.topics.order-events:order-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "orderEventFilter",
+        containerFactory = "parallelListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'parallel'}"
+    )
+    public void handleOrderEventParallel(ConsumerRecord<String, LazyEvent> record, Acknowledgment ack) {
+        dispatcher.dispatch(record, OrderCreatedEvent.class, OrderCreatedEvent::getOrderId,
+            decoded -> deduplicator.runOnce(decoded, processOrderCreated), ack);
+    }
+
+    @KafkaListener(
+        id = "orderEventsVirtual",
+        topics = "${app.kafka.topics.order-events:order-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "orderEventFilter",
+        containerFactory = "parallelListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'virtual'}"
+    )
+    public void handleOrderEventVirtual(ConsumerRecord<String, LazyEvent> record, Acknowledgment ack) {
+        virtualDispatcher.dispatch(record, OrderCreatedEvent.class,
+            decoded -> deduplicator.runOnce(decoded, processOrderCreated), ack);
+    }
+
+    /**
+     * High-volume producers publish {@link EventBatch} records; unpack them
+     * and process the orders with the service batch method. A failure
+     * retries the whole record.
+     */
+    @KafkaListener(
+        topics = "${app.kafka.topics.order-events-batched:order-events-batched}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        containerFactory = "eventBatchContainerFactory"
     )
-    public void handleOrderEvent(OrderCreatedEvent event) {
-        log.info("Received OrderCreatedEvent: {}", event.getEventId());
-
-        try {
-            service.processOrderCreated(event);
-            log.info("Successfully processed OrderCreatedEvent: {}", event.getEventId());
-        } catch (Exception e) {
-            log.error("Failed to process OrderCreatedEvent: {}", event.getEventId(), e);
-            throw e;
+    public void handleOrderEventBatch(EventBatch batch) {
+        log.debug("Received {}", batch);
+        List<OrderCreatedEvent> orders = new ArrayList<>(batch.size());
+        for (DomainEvent event : batch) {
+            if (event instanceof OrderCreatedEvent order) {
+                orders.add(order);
+            }
         }
+        deduplicator.runOnceBatch(orders, processBatchedTopic);
     }
 }
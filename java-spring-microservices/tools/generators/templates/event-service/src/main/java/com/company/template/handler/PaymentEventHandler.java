@@ -0,0 +1,116 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.kafka.LazyEvent;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.{{SERVICE_NAME}}.backpressure.AdaptiveConcurrencyLimiter;
+import com.company.{{SERVICE_NAME}}.dedup.EventDeduplicator;
+import com.company.{{SERVICE_NAME}}.metrics.EventMetrics;
+import com.company.{{SERVICE_NAME}}.replay.EventReplayer;
+import com.company.{{SERVICE_NAME}}.retry.RetryTopicConsumers;
+import com.company.{{SERVICE_NAME}}.service.{{SERVICE_NAME_PASCAL}}Service;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Handles payment-related events.
+ *
+ * Only one of the listeners starts, depending on app.kafka.listener.mode.
+ * Failed events are retried from the retry topics one at a time, whatever the mode.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentEventHandler {
+
+    private final {{SERVICE_NAME_PASCAL}}Service service;
+    private final KeyOrderedDispatcher dispatcher;
+    private final VirtualThreadDispatcher virtualDispatcher;
+    private final BatchRecords batchRecords;
+    private final EventDeduplicator deduplicator;
+    private final RetryTopicConsumers retryConsumers;
+    private final EventMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final EventReplayer replayer;
+    private final RecordFilterStrategy<String, LazyEvent> paymentEventFilter;
+
+    @Value("${app.kafka.topics.payment-events:payment-events}")
+    private String paymentEventsTopic;
+
+    private Consumer<PaymentCompletedEvent> processPaymentCompleted;
+    private Consumer<List<PaymentCompletedEvent>> processPaymentCompletedBatch;
+
+    @PostConstruct
+    void init() {
+        processPaymentCompleted = limiter.limited(paymentEventsTopic,
+            metrics.timed("paymentCompleted", service::processPaymentCompleted));
+        processPaymentCompletedBatch = limiter.limited(paymentEventsTopic,
+            metrics.timedBatch("paymentCompletedBatch", service::processPaymentCompletedBatch));
+        retryConsumers.register(paymentEventsTopic, LazyEvent.class, this::handlePaymentEvent);
+        // Replays skip deduplication and run below every priority lane
+        replayer.register(paymentEventsTopic, paymentEventFilter, PaymentCompletedEvent.class,
+            limiter.limited(metrics.timedBatch("paymentCompletedReplay", service::processPaymentCompletedBatch)));
+    }
+
+    @KafkaListener(
+        id = "paymentEvents",
+        topics = "${app.kafka.topics.payment-events:payment-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "paymentEventFilter",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'single'}"
+    )
+    public void handlePaymentEvent(LazyEvent event) {
+        log.debug("Received PaymentCompletedEvent: {}", event.getEventId());
+        // Failures move to the retry topics, see RetryTopicRouter
+        deduplicator.runOnce(event.as(PaymentCompletedEvent.class), processPaymentCompleted);
+    }
+
+    @KafkaListener(
+        id = "paymentEventsBatch",
+        topics = "${app.kafka.topics.payment-events:payment-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "paymentEventFilter",
+        containerFactory = "batchListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'batch'}"
+    )
+    public void handlePaymentEventBatch(List<ConsumerRecord<String, LazyEvent>> records) {
+        log.debug("Received {} PaymentCompletedEvents", records.size());
+        batchRecords.process(records, PaymentCompletedEvent.class,
+            events -> deduplicator.runOnceBatch(events, processPaymentCompletedBatch));
+    }
+
+    @KafkaListener(
+        id = "paymentEventsParallel",
+        topics = "${app.kafka.topics.payment-events:payment-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "paymentEventFilter",
+        containerFactory = "parallelListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'parallel'}"
+    )
+    public void handlePaymentEventParallel(ConsumerRecord<String, LazyEvent> record, Acknowledgment ack) {
+        dispatcher.dispatch(record, PaymentCompletedEvent.class, PaymentCompletedEvent::getOrderId,
+            decoded -> deduplicator.runOnce(decoded, processPaymentCompleted), ack);
+    }
+
+    @KafkaListener(
+        id = "paymentEventsVirtual",
+        topics = "${app.kafka.topics.payment-events:payment-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "paymentEventFilter",
+        containerFactory = "parallelListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'virtual'}"
+    )
+    public void handlePaymentEventVirtual(ConsumerRecord<String, LazyEvent> record, Acknowledgment ack) {
+        virtualDispatcher.dispatch(record, PaymentCompletedEvent.class,
+            decoded -> deduplicator.runOnce(decoded, processPaymentCompleted), ack);
+    }
+}
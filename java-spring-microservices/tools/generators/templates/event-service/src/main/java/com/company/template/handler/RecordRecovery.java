@@ -0,0 +1,58 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.kafka.LazyEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+import java.util.function.Consumer;
+
+/**
+ * Runs records off the container thread, handing failures to the recoverer
+ * (the retry topics) the way the container error handler would.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class RecordRecovery {
+
+    private static final long RECOVER_BACKOFF_MS = 1000L;
+
+    private final ConsumerRecordRecoverer recoverer;
+
+    /**
+     * @return false if interrupted by shutdown, leaving the record unacknowledged
+     */
+    <T> boolean process(ConsumerRecord<String, LazyEvent> record, T event, Consumer<T> action) {
+        try {
+            action.accept(event);
+            return true;
+        } catch (RuntimeException e) {
+            return recover(record, e);
+        }
+    }
+
+    /**
+     * Hand the record to the recoverer, retrying while the retry topic
+     * cannot be reached: acknowledging it unrecovered would lose it.
+     *
+     * @return false if interrupted by shutdown, leaving the record unacknowledged
+     */
+    boolean recover(ConsumerRecord<String, LazyEvent> record, Exception failure) {
+        while (true) {
+            try {
+                recoverer.accept(record, failure);
+                return true;
+            } catch (RuntimeException e) {
+                log.error("Failed to recover record {}-{}@{}, retrying", record.topic(), record.partition(),
+                    record.offset(), e);
+            }
+            try {
+                Thread.sleep(RECOVER_BACKOFF_MS);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
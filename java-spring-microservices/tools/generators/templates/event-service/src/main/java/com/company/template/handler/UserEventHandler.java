@@ -1,14 +1,31 @@
 package com.company.{{SERVICE_NAME}}.handler;
 
+import com.company.event.kafka.LazyEvent;
 import com.company.event.user.UserCreatedEvent;
+import com.company.{{SERVICE_NAME}}.backpressure.AdaptiveConcurrencyLimiter;
+import com.company.{{SERVICE_NAME}}.dedup.EventDeduplicator;
+import com.company.{{SERVICE_NAME}}.metrics.EventMetrics;
+import com.company.{{SERVICE_NAME}}.replay.EventReplayer;
+import com.company.{{SERVICE_NAME}}.retry.RetryTopicConsumers;
 import com.company.{{SERVICE_NAME}}.service.{{SERVICE_NAME_PASCAL}}Service;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Handles user-related events.
+ *
+ * Only one of the listeners starts, depending on app.kafka.listener.mode.
+ * Failed events are retried from the retry topics one at a time, whatever the mode.
  */
 @Slf4j
 @Component
@@ -16,20 +33,84 @@ import org.springframework.stereotype.Component;
 public class UserEventHandler {
 
     private final {{SERVICE_NAME_PASCAL}}Service service;
+    private final KeyOrderedDispatcher dispatcher;
+    private final VirtualThreadDispatcher virtualDispatcher;
+    private final BatchRecords batchRecords;
+    private final EventDeduplicator deduplicator;
+    private final RetryTopicConsumers retryConsumers;
+    private final EventMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final EventReplayer replayer;
+    private final RecordFilterStrategy<String, LazyEvent> userEventFilter;
+
+    @Value("${app.kafka.topics.user-events:user-events}")
+    private String userEventsTopic;
+
+    private Consumer<UserCreatedEvent> processUserCreated;
+    private Consumer<List<UserCreatedEvent>> processUserCreatedBatch;
+
+    @PostConstruct
+    void init() {
+        processUserCreated = limiter.limited(userEventsTopic,
+            metrics.timed("userCreated", service::processUserCreated));
+        processUserCreatedBatch = limiter.limited(userEventsTopic,
+            metrics.timedBatch("userCreatedBatch", service::processUserCreatedBatch));
+        retryConsumers.register(userEventsTopic, LazyEvent.class, this::handleUserEvent);
+        // Replays skip deduplication and run below every priority lane
+        replayer.register(userEventsTopic, userEventFilter, UserCreatedEvent.class,
+            limiter.limited(metrics.timedBatch("userCreatedReplay", service::processUserCreatedBatch)));
+    }
+
+    @KafkaListener(
+        id = "userEvents",
+        topics = "${app.kafka.topics.user-events:user-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "userEventFilter",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'single'}"
+    )
+    public void handleUserEvent(LazyEvent event) {
+        log.debug("Received UserCreatedEvent: {}", event.getEventId());
+        // Failures move to the retry topics, see RetryTopicRouter
+        deduplicator.runOnce(event.as(UserCreatedEvent.class), processUserCreated);
+    }
+
+    @KafkaListener(
+        id = "userEventsBatch",
+        topics = "${app.kafka.topics.user-events:user-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "userEventFilter",
+        containerFactory = "batchListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'batch'}"
+    )
+    public void handleUserEventBatch(List<ConsumerRecord<String, LazyEvent>> records) {
+        log.debug("Received {} UserCreatedEvents", records.size());
+        batchRecords.process(records, UserCreatedEvent.class,
+            events -> deduplicator.runOnceBatch(events, processUserCreatedBatch));
+    }
+
+    @KafkaListener(
+        id = "userEventsParallel",
+        topics = "${app.kafka.topics.user-events:user-events}",
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "userEventFilter",
+        containerFactory = "parallelListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'parallel'}"
+    )
+    public void handleUserEventParallel(ConsumerRecord<String, LazyEvent> record, Acknowledgment ack) {
+        dispatcher.dispatch(record, UserCreatedEvent.class, UserCreatedEvent::getUserId,
+            decoded -> deduplicator.runOnce(decoded, processUserCreated), ack);
+    }
 
     @KafkaListener(
+        id = "userEventsVirtual",
         topics = "${app.kafka.topics.user-events:user-events}",
-        groupId = "${spring.kafka.consumer.group-id}"
+        groupId = "${spring.kafka.consumer.group-id}",
+        filter = "userEventFilter",
+        containerFactory = "parallelListenerContainerFactory",
+        autoStartup = "#{'${app.kafka.listener.mode:batch}' == 'virtual'}"
     )
-    public void handleUserEvent(UserCreatedEvent event) {
-        log.info("Received UserCreatedEvent: {}", event.getEventId());
-
-        try {
-            service.processUserCreated(event);
-            log.info("Successfully processed UserCreatedEvent: {}", event.getEventId());
-        } catch (Exception e) {
-            log.error("Failed to process UserCreatedEvent: {}", event.getEventId(), e);
-            throw e; // Let error handler deal with it
-        }
+    public void handleUserEventVirtual(ConsumerRecord<String, LazyEvent> record, Acknowledgment ack) {
+        virtualDispatcher.dispatch(record, UserCreatedEvent.class,
+            decoded -> deduplicator.runOnce(decoded, processUserCreated), ack);
     }
 }
@@ -0,0 +1,93 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.LazyEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Virtual listener mode: runs each record on its own virtual thread, for
+ * handlers that spend most of their time blocked on HTTP, SMTP or JDBC calls.
+ * A blocked virtual thread releases its carrier, so thousands of calls can
+ * wait at once without a thread pool to size.
+ *
+ * At most {@code max-in-flight-per-partition} records of a partition run at
+ * once; the container thread waits for a slot, which stops it polling. Records
+ * are acknowledged as they finish and, as in parallel mode, the container
+ * commits only up to the highest contiguous acknowledged offset.
+ *
+ * Unlike {@link KeyOrderedDispatcher} there is no ordering, not even per key.
+ */
+@Component
+public class VirtualThreadDispatcher {
+
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("{{SERVICE_NAME}}-vt-", 0).factory());
+    private final Map<TopicPartition, Semaphore> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlightPerPartition;
+    private final RecordRecovery recovery;
+
+    public VirtualThreadDispatcher(
+            @Value("${app.kafka.listener.virtual.max-in-flight-per-partition:100}") int maxInFlightPerPartition,
+            ConsumerRecordRecoverer recoverer) {
+        this.maxInFlightPerPartition = maxInFlightPerPartition;
+        this.recovery = new RecordRecovery(recoverer);
+    }
+
+    /**
+     * Decode the record, then run {@code action} on a virtual thread and
+     * acknowledge it. Failures, including decoding, go to the recoverer like
+     * they do from the container error handler.
+     */
+    public <T extends DomainEvent> void dispatch(ConsumerRecord<String, LazyEvent> record, Class<T> eventClass,
+                                                 Consumer<T> action, Acknowledgment ack) {
+        T decoded;
+        try {
+            decoded = record.value().as(eventClass);
+        } catch (RuntimeException e) {
+            if (recovery.recover(record, e)) {
+                ack.acknowledge();
+            }
+            return;
+        }
+        Semaphore slots = inFlight.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+            partition -> new Semaphore(maxInFlightPerPartition));
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            // Container stopping: leave the record uncommitted for redelivery
+            Thread.currentThread().interrupt();
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                if (recovery.process(record, decoded, action)) {
+                    ack.acknowledge();
+                }
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
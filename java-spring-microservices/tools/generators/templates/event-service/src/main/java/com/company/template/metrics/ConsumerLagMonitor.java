@@ -0,0 +1,152 @@
+package com.company.{{SERVICE_NAME}}.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consumer lag per group, topic and partition: log end offset minus the
+ * committed offset, read from the brokers every
+ * {@code app.metrics.consumer-lag-interval}.
+ *
+ * Committed rather than fetched offsets, so records that are polled but not
+ * yet processed (batch or parallel mode) still count as lag. Covers the
+ * service's group and the groups derived from it: retry tiers and
+ * dead-letter replay, whose lag is the dead-letter backlog.
+ *
+ * Metric: event.consumer.lag{group,topic,partition}.
+ */
+@Slf4j
+@Component
+public class ConsumerLagMonitor implements SmartLifecycle {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final KafkaAdmin kafkaAdmin;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+    private final Duration interval;
+    private final Map<GroupPartition, LagGauge> gauges = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private AdminClient adminClient;
+
+    public ConsumerLagMonitor(KafkaAdmin kafkaAdmin, MeterRegistry meterRegistry,
+                              @Value("${spring.kafka.consumer.group-id}") String groupId,
+                              @Value("${app.metrics.consumer-lag-interval:15s}") Duration interval) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.meterRegistry = meterRegistry;
+        this.groupId = groupId;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() {
+        adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "consumer-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        adminClient.close(Duration.ofSeconds(5));
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    void refresh() throws Exception {
+        Set<String> groups = adminClient.listConsumerGroups().all().get(TIMEOUT_SECONDS, TimeUnit.SECONDS).stream()
+            .map(ConsumerGroupListing::groupId)
+            .filter(group -> group.equals(groupId) || group.startsWith(groupId + "-"))
+            .collect(Collectors.toSet());
+
+        Map<GroupPartition, Long> committed = new HashMap<>();
+        for (String group : groups) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = adminClient.listConsumerGroupOffsets(group)
+                .partitionsToOffsetAndMetadata().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            offsets.forEach((partition, offset) -> {
+                if (offset != null) {
+                    committed.put(new GroupPartition(group, partition), offset.offset());
+                }
+            });
+        }
+        Map<TopicPartition, OffsetSpec> latest = committed.keySet().stream()
+            .map(GroupPartition::partition)
+            .distinct()
+            .collect(Collectors.toMap(Function.identity(), partition -> OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResultInfo> ends = adminClient.listOffsets(latest).all()
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        committed.forEach((key, offset) -> {
+            ListOffsetsResultInfo end = ends.get(key.partition());
+            if (end != null) {
+                gauges.computeIfAbsent(key, this::register).lag.set(Math.max(0, end.offset() - offset));
+            }
+        });
+        // Partitions the group no longer owns or commits for
+        gauges.keySet().removeIf(key -> {
+            if (committed.containsKey(key)) {
+                return false;
+            }
+            meterRegistry.remove(gauges.get(key).gauge);
+            return true;
+        });
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Failed to read consumer lag: {}", e.toString());
+        }
+    }
+
+    private LagGauge register(GroupPartition key) {
+        AtomicLong lag = new AtomicLong();
+        Gauge gauge = Gauge.builder("event.consumer.lag", lag, AtomicLong::get)
+            .description("Records between the committed offset and the end of the partition")
+            .tag("group", key.group())
+            .tag("topic", key.partition().topic())
+            .tag("partition", String.valueOf(key.partition().partition()))
+            .register(meterRegistry);
+        return new LagGauge(lag, gauge);
+    }
+
+    private record GroupPartition(String group, TopicPartition partition) {
+    }
+
+    private record LagGauge(AtomicLong lag, Gauge gauge) {
+    }
+}
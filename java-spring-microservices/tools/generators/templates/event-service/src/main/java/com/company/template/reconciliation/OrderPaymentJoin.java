@@ -0,0 +1,545 @@
+package com.company.{{SERVICE_NAME}}.reconciliation;
+
+import com.company.event.DomainEvent;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.UnpaidOrderEvent;
+import com.company.event.payment.OrphanPaymentEvent;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.{{SERVICE_NAME}}.config.ReconciliationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Joins OrderCreatedEvents and PaymentCompletedEvents by orderId within a
+ * time bound, and reports the ones left over: orders without a payment within
+ * {@code payment-timeout}, payments without their order within {@code order-wait}.
+ *
+ * Unmatched events wait in two {@link PendingTable}s. Their deadlines are
+ * grouped into buckets; once the watermark (newest event time minus
+ * {@code allowed-lateness}) passes a bucket, what is still pending in it is
+ * reported. Beyond {@code max-in-memory} pending entries the buckets closest to
+ * expiry are written to {@link SpillSegment}s, which later events still match
+ * against.
+ *
+ * The checkpoint holds the tables, the spilled segments' filters and match
+ * bits, the watermark and the next offset of every partition. Segment files
+ * are immutable and are deleted only after a checkpoint no longer refers to
+ * them, so restoring and seeking to the checkpointed offsets reproduces the
+ * exact state.
+ *
+ * Thread-safe: the listener, the expiry tick and the checkpoint share one lock.
+ */
+@Slf4j
+public class OrderPaymentJoin {
+
+    private static final int CHECKPOINT_MAGIC = 0x4F504A4E;
+    private static final String CHECKPOINT_FILE = "checkpoint.bin";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final long paymentTimeoutMillis;
+    private final long orderWaitMillis;
+    private final long latenessMillis;
+    private final long bucketMillis;
+    private final int maxInMemory;
+    private final Path stateDir;
+    private final boolean checkpointing;
+    private PendingTable orders;
+    private PendingTable payments;
+    /** Pending in-memory entries per deadline bucket, both sides. */
+    private final TreeMap<Long, int[]> pendingPerBucket = new TreeMap<>();
+    private final TreeMap<Long, List<SpillSegment>> segments = new TreeMap<>();
+    /** Expired segment files, deleted once a checkpoint no longer needs them. */
+    private final List<Path> obsoleteFiles = new ArrayList<>();
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+    private long maxEventTime = Long.MIN_VALUE;
+    private long segmentSequence;
+    private long matched;
+    private long unpaidOrders;
+    private long orphanPayments;
+    private long spilledEntries;
+
+    public OrderPaymentJoin(ReconciliationProperties properties) {
+        this.paymentTimeoutMillis = properties.getPaymentTimeout().toMillis();
+        this.orderWaitMillis = properties.getOrderWait().toMillis();
+        this.latenessMillis = properties.getAllowedLateness().toMillis();
+        this.bucketMillis = properties.getBucket().toMillis();
+        this.maxInMemory = properties.getMaxInMemory();
+        this.checkpointing = properties.getStateDir() != null;
+        try {
+            this.stateDir = checkpointing
+                ? Files.createDirectories(properties.getStateDir())
+                : Files.createTempDirectory("reconciliation");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create reconciliation state directory", e);
+        }
+        int expected = Math.min(maxInMemory, 1 << 16);
+        this.orders = new PendingTable(expected);
+        this.payments = new PendingTable(expected);
+    }
+
+    /**
+     * Join the orders and payments of one poll and record how far each
+     * partition was read. Other event types are ignored.
+     *
+     * @return unpaid order and orphan payment events for the buckets the advanced watermark expired
+     */
+    public synchronized List<DomainEvent> add(List<? extends DomainEvent> events,
+                                              Map<TopicPartition, Long> polledUpTo) {
+        for (DomainEvent event : events) {
+            if (event instanceof OrderCreatedEvent order && order.getOrderId() != null
+                    && order.getTimestamp() != null) {
+                onOrder(order);
+            } else if (event instanceof PaymentCompletedEvent payment && payment.getOrderId() != null
+                    && payment.getTimestamp() != null) {
+                onPayment(payment);
+            }
+        }
+        nextOffsets.putAll(polledUpTo);
+        spillIfFull();
+        return maxEventTime == Long.MIN_VALUE ? List.of() : advanceTo(maxEventTime - latenessMillis);
+    }
+
+    /**
+     * Report everything whose deadline bucket ends at or before {@code watermark}.
+     * Also called from wall-clock time when the topics go quiet.
+     */
+    public synchronized List<DomainEvent> advanceTo(long watermark) {
+        List<DomainEvent> expired = new ArrayList<>();
+        long expireBefore = Math.floorDiv(watermark, bucketMillis) * bucketMillis;
+        if (!pendingPerBucket.isEmpty() && pendingPerBucket.firstKey() < expireBefore) {
+            expire(orders, paymentTimeoutMillis, expireBefore, true, expired);
+            expire(payments, orderWaitMillis, expireBefore, false, expired);
+            pendingPerBucket.headMap(expireBefore, false).clear();
+        }
+        Map<Long, List<SpillSegment>> due = segments.headMap(expireBefore, false);
+        for (List<SpillSegment> bucketSegments : due.values()) {
+            for (SpillSegment segment : bucketSegments) {
+                segment.forEachUnmatched((side, orderId, time, userId, amountMinor, currency, paymentId) ->
+                    expired.add(side == SpillSegment.ORDER
+                        ? unpaid(orderId, time, userId, amountMinor, currency)
+                        : orphan(orderId, time, userId, amountMinor, currency, paymentId)));
+                segment.close();
+                spilledEntries -= segment.count();
+                retire(segment.file());
+            }
+        }
+        due.clear();
+        return expired;
+    }
+
+    public synchronized long matched() {
+        return matched;
+    }
+
+    public synchronized long unpaidOrders() {
+        return unpaidOrders;
+    }
+
+    public synchronized long orphanPayments() {
+        return orphanPayments;
+    }
+
+    public synchronized long pendingInMemory() {
+        return orders.size() + payments.size();
+    }
+
+    public synchronized long pendingSpilled() {
+        return spilledEntries;
+    }
+
+    /**
+     * @return the next offset to read per partition, as of the last restored checkpoint
+     */
+    public synchronized Map<TopicPartition, Long> nextOffsets() {
+        return Map.copyOf(nextOffsets);
+    }
+
+    /**
+     * Write the checkpoint, then delete the segment files it no longer refers to.
+     */
+    public synchronized void saveCheckpoint() {
+        if (!checkpointing) {
+            return;
+        }
+        Path file = stateDir.resolve(CHECKPOINT_FILE);
+        try {
+            Path tmp = Files.createTempFile(stateDir, CHECKPOINT_FILE, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                writeTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write reconciliation checkpoint " + file, e);
+        }
+        for (Path obsolete : obsoleteFiles) {
+            deleteQuietly(obsolete);
+        }
+        obsoleteFiles.clear();
+    }
+
+    /**
+     * Restore the checkpoint in the state directory, and delete segment files
+     * it does not refer to. A missing, foreign or inconsistent checkpoint
+     * leaves the join empty.
+     */
+    public synchronized void loadCheckpoint() {
+        Path file = stateDir.resolve(CHECKPOINT_FILE);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (readFrom(in)) {
+                    log.info("Restored reconciliation checkpoint: {} pending in memory, {} spilled",
+                        pendingInMemory(), spilledEntries);
+                } else {
+                    log.warn("Ignoring reconciliation checkpoint {}: written with different settings", file);
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring reconciliation checkpoint {}: {}", file, e.getMessage());
+                reset();
+            }
+        }
+        deleteUnreferencedSegments();
+    }
+
+    /**
+     * Release segment files; without a checkpoint they are not needed again.
+     */
+    public synchronized void close() {
+        for (List<SpillSegment> bucketSegments : segments.values()) {
+            for (SpillSegment segment : bucketSegments) {
+                segment.close();
+                if (!checkpointing) {
+                    deleteQuietly(segment.file());
+                }
+            }
+        }
+    }
+
+    private void onOrder(OrderCreatedEvent order) {
+        long orderId = order.getOrderId();
+        long time = order.getTimestamp().toEpochMilli();
+        maxEventTime = Math.max(maxEventTime, time);
+        if (removeMatch(payments, orderId, orderWaitMillis) || matchSpilled(orderId, SpillSegment.PAYMENT)) {
+            matched++;
+            return;
+        }
+        Money amount = order.getTotalAmount();
+        put(orders, paymentTimeoutMillis, orderId, time, orNone(order.getUserId()),
+            amount != null ? amount.getMinorUnits() : 0, amount != null ? amount.getPackedCurrency()
+                : PendingTable.NO_CURRENCY, PendingTable.NONE);
+    }
+
+    private void onPayment(PaymentCompletedEvent payment) {
+        long orderId = payment.getOrderId();
+        long time = payment.getTimestamp().toEpochMilli();
+        maxEventTime = Math.max(maxEventTime, time);
+        if (removeMatch(orders, orderId, paymentTimeoutMillis) || matchSpilled(orderId, SpillSegment.ORDER)) {
+            matched++;
+            return;
+        }
+        Money amount = payment.getAmount();
+        put(payments, orderWaitMillis, orderId, time, orNone(payment.getUserId()),
+            amount != null ? amount.getMinorUnits() : 0, amount != null ? amount.getPackedCurrency()
+                : PendingTable.NO_CURRENCY, orNone(payment.getPaymentId()));
+    }
+
+    private boolean removeMatch(PendingTable table, long orderId, long timeoutMillis) {
+        int slot = table.indexOf(orderId);
+        if (slot < 0) {
+            return false;
+        }
+        countPending(bucketOf(table.time(slot) + timeoutMillis), -1);
+        table.removeAt(slot);
+        return true;
+    }
+
+    private boolean matchSpilled(long orderId, byte side) {
+        for (List<SpillSegment> bucketSegments : segments.values()) {
+            for (SpillSegment segment : bucketSegments) {
+                if (segment.match(orderId, side)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void put(PendingTable table, long timeoutMillis, long orderId, long time, long userId,
+                     long amountMinor, short currency, long paymentId) {
+        int existing = table.indexOf(orderId);
+        if (existing >= 0) {
+            // Redelivered or repeated: the latest one counts
+            countPending(bucketOf(table.time(existing) + timeoutMillis), -1);
+        }
+        table.put(orderId, time, userId, amountMinor, currency, paymentId);
+        countPending(bucketOf(time + timeoutMillis), 1);
+    }
+
+    private void countPending(long bucket, int delta) {
+        int[] count = pendingPerBucket.computeIfAbsent(bucket, b -> new int[1]);
+        count[0] += delta;
+        if (count[0] == 0) {
+            pendingPerBucket.remove(bucket);
+        }
+    }
+
+    /**
+     * Remove and report entries whose deadline bucket starts before {@code expireBefore}.
+     */
+    private void expire(PendingTable table, long timeoutMillis, long expireBefore, boolean isOrder,
+                        List<DomainEvent> expired) {
+        for (int slot = 0; slot < table.capacity(); ) {
+            if (table.isUsed(slot) && bucketOf(table.time(slot) + timeoutMillis) < expireBefore) {
+                expired.add(isOrder
+                    ? unpaid(table.orderId(slot), table.time(slot), table.userId(slot), table.amountMinor(slot),
+                        table.currency(slot))
+                    : orphan(table.orderId(slot), table.time(slot), table.userId(slot), table.amountMinor(slot),
+                        table.currency(slot), table.paymentId(slot)));
+                // Removal shifts a later entry into this slot: look at it again
+                table.removeAt(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * Past max-in-memory, move the buckets closest to expiry to disk until a
+     * quarter of the budget is free again.
+     */
+    private void spillIfFull() {
+        int pending = orders.size() + payments.size();
+        if (pending <= maxInMemory) {
+            return;
+        }
+        Set<Long> spillBuckets = new HashSet<>();
+        int freed = 0;
+        for (Map.Entry<Long, int[]> bucket : pendingPerBucket.entrySet()) {
+            if (pending - freed <= maxInMemory * 3L / 4) {
+                break;
+            }
+            spillBuckets.add(bucket.getKey());
+            freed += bucket.getValue()[0];
+        }
+        Map<Long, LongList> spillOrders = collect(orders, paymentTimeoutMillis, spillBuckets);
+        Map<Long, LongList> spillPayments = collect(payments, orderWaitMillis, spillBuckets);
+        for (long bucket : spillBuckets) {
+            long[] orderIds = spillOrders.getOrDefault(bucket, LongList.EMPTY).toArray();
+            long[] paymentOrderIds = spillPayments.getOrDefault(bucket, LongList.EMPTY).toArray();
+            Path file = stateDir.resolve(String.format("%d-%d%s", bucket, segmentSequence++, SEGMENT_SUFFIX));
+            SpillSegment segment = SpillSegment.write(file, bucket, orders, orderIds, payments, paymentOrderIds);
+            segments.computeIfAbsent(bucket, b -> new ArrayList<>()).add(segment);
+            spilledEntries += segment.count();
+            for (long orderId : orderIds) {
+                orders.removeAt(orders.indexOf(orderId));
+            }
+            for (long orderId : paymentOrderIds) {
+                payments.removeAt(payments.indexOf(orderId));
+            }
+            pendingPerBucket.remove(bucket);
+        }
+        log.info("Spilled {} pending reconciliation entries in {} buckets", freed, spillBuckets.size());
+    }
+
+    private Map<Long, LongList> collect(PendingTable table, long timeoutMillis, Set<Long> buckets) {
+        Map<Long, LongList> byBucket = new HashMap<>();
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (table.isUsed(slot)) {
+                long bucket = bucketOf(table.time(slot) + timeoutMillis);
+                if (buckets.contains(bucket)) {
+                    byBucket.computeIfAbsent(bucket, b -> new LongList()).add(table.orderId(slot));
+                }
+            }
+        }
+        return byBucket;
+    }
+
+    private UnpaidOrderEvent unpaid(long orderId, long time, long userId, long amountMinor, short currency) {
+        unpaidOrders++;
+        Instant deadline = Instant.ofEpochMilli(time + paymentTimeoutMillis);
+        return UnpaidOrderEvent.builder()
+            .eventId(UnpaidOrderEvent.generateEventId())
+            .timestamp(deadline)
+            .orderId(orderId)
+            .userId(userId == PendingTable.NONE ? null : userId)
+            .totalAmount(currency == PendingTable.NO_CURRENCY ? null : Money.ofMinor(amountMinor, currency))
+            .orderedAt(Instant.ofEpochMilli(time))
+            .paymentDeadline(deadline)
+            .build();
+    }
+
+    private OrphanPaymentEvent orphan(long orderId, long time, long userId, long amountMinor, short currency,
+                                      long paymentId) {
+        orphanPayments++;
+        return OrphanPaymentEvent.builder()
+            .eventId(OrphanPaymentEvent.generateEventId())
+            .timestamp(Instant.ofEpochMilli(time + orderWaitMillis))
+            .paymentId(paymentId == PendingTable.NONE ? null : paymentId)
+            .orderId(orderId)
+            .userId(userId == PendingTable.NONE ? null : userId)
+            .amount(currency == PendingTable.NO_CURRENCY ? null : Money.ofMinor(amountMinor, currency))
+            .paidAt(Instant.ofEpochMilli(time))
+            .build();
+    }
+
+    private long bucketOf(long deadline) {
+        return Math.floorDiv(deadline, bucketMillis) * bucketMillis;
+    }
+
+    private void retire(Path file) {
+        if (checkpointing) {
+            obsoleteFiles.add(file);
+        } else {
+            deleteQuietly(file);
+        }
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeLong(paymentTimeoutMillis);
+        out.writeLong(orderWaitMillis);
+        out.writeLong(bucketMillis);
+        out.writeLong(maxEventTime);
+        out.writeLong(segmentSequence);
+        out.writeLong(matched);
+        out.writeLong(unpaidOrders);
+        out.writeLong(orphanPayments);
+        orders.writeTo(out);
+        payments.writeTo(out);
+        int segmentCount = 0;
+        for (List<SpillSegment> bucketSegments : segments.values()) {
+            segmentCount += bucketSegments.size();
+        }
+        out.writeInt(segmentCount);
+        for (List<SpillSegment> bucketSegments : segments.values()) {
+            for (SpillSegment segment : bucketSegments) {
+                segment.writeTo(out);
+            }
+        }
+        out.writeInt(nextOffsets.size());
+        for (Map.Entry<TopicPartition, Long> offset : nextOffsets.entrySet()) {
+            out.writeUTF(offset.getKey().topic());
+            out.writeInt(offset.getKey().partition());
+            out.writeLong(offset.getValue());
+        }
+    }
+
+    private boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != CHECKPOINT_MAGIC || in.readLong() != paymentTimeoutMillis
+                || in.readLong() != orderWaitMillis || in.readLong() != bucketMillis) {
+            return false;
+        }
+        maxEventTime = in.readLong();
+        segmentSequence = in.readLong();
+        matched = in.readLong();
+        unpaidOrders = in.readLong();
+        orphanPayments = in.readLong();
+        int expected = Math.min(maxInMemory, 1 << 16);
+        orders = PendingTable.readFrom(in, expected);
+        payments = PendingTable.readFrom(in, expected);
+        pendingPerBucket.clear();
+        recount(orders, paymentTimeoutMillis);
+        recount(payments, orderWaitMillis);
+        segments.clear();
+        spilledEntries = 0;
+        for (int i = in.readInt(); i > 0; i--) {
+            SpillSegment segment = SpillSegment.readFrom(in, stateDir);
+            segments.computeIfAbsent(segment.bucket(), b -> new ArrayList<>()).add(segment);
+            spilledEntries += segment.count();
+        }
+        nextOffsets.clear();
+        for (int i = in.readInt(); i > 0; i--) {
+            nextOffsets.put(new TopicPartition(in.readUTF(), in.readInt()), in.readLong());
+        }
+        return true;
+    }
+
+    private void recount(PendingTable table, long timeoutMillis) {
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (table.isUsed(slot)) {
+                countPending(bucketOf(table.time(slot) + timeoutMillis), 1);
+            }
+        }
+    }
+
+    private void reset() {
+        int expected = Math.min(maxInMemory, 1 << 16);
+        orders = new PendingTable(expected);
+        payments = new PendingTable(expected);
+        pendingPerBucket.clear();
+        segments.clear();
+        nextOffsets.clear();
+        maxEventTime = Long.MIN_VALUE;
+        spilledEntries = 0;
+    }
+
+    private void deleteUnreferencedSegments() {
+        Set<Path> referenced = new HashSet<>();
+        for (List<SpillSegment> bucketSegments : segments.values()) {
+            for (SpillSegment segment : bucketSegments) {
+                referenced.add(segment.file());
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stateDir, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                if (!referenced.contains(file)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot list reconciliation state directory {}: {}", stateDir, e.getMessage());
+        }
+    }
+
+    private static long orNone(Long value) {
+        return value != null ? value : PendingTable.NONE;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** Growable list of longs, for collecting orderIds to spill. */
+    private static final class LongList {
+
+        static final LongList EMPTY = new LongList();
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.company.{{SERVICE_NAME}}.reconciliation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Unmatched orders or payments keyed by orderId, as an open-addressing hash
+ * table over parallel primitive arrays: about 45 bytes per slot and no
+ * objects per entry. Removal shifts later entries back, so lookups never
+ * need tombstones.
+ *
+ * Absent ids and amounts are stored as {@link #NONE} / {@link #NO_CURRENCY}.
+ * Not thread-safe.
+ */
+final class PendingTable {
+
+    static final long NONE = Long.MIN_VALUE;
+    static final short NO_CURRENCY = -1;
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] orderIds;
+    private long[] times;
+    private long[] userIds;
+    private long[] amounts;
+    private long[] paymentIds;
+    private short[] currencies;
+    private boolean[] used;
+    private int size;
+
+    PendingTable(int expectedEntries) {
+        allocate(Integer.highestOneBit(Math.max(16, (int) (expectedEntries / MAX_LOAD)) - 1) << 1);
+    }
+
+    /**
+     * Insert or replace the entry for {@code orderId}.
+     */
+    void put(long orderId, long time, long userId, long amountMinor, short currency, long paymentId) {
+        int slot = slotOf(orderId);
+        if (!used[slot]) {
+            if (size + 1 > used.length * MAX_LOAD) {
+                grow();
+                slot = slotOf(orderId);
+            }
+            used[slot] = true;
+            orderIds[slot] = orderId;
+            size++;
+        }
+        times[slot] = time;
+        userIds[slot] = userId;
+        amounts[slot] = amountMinor;
+        currencies[slot] = currency;
+        paymentIds[slot] = paymentId;
+    }
+
+    /**
+     * @return the slot of {@code orderId}, or -1
+     */
+    int indexOf(long orderId) {
+        int slot = slotOf(orderId);
+        return used[slot] ? slot : -1;
+    }
+
+    void removeAt(int slot) {
+        int mask = used.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (used[next]) {
+            int home = home(orderIds[next]);
+            // Move back unless the entry's home lies between the hole and its slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                move(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[hole] = false;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Slots for iteration; skip those where {@link #isUsed} is false. */
+    int capacity() {
+        return used.length;
+    }
+
+    boolean isUsed(int slot) {
+        return used[slot];
+    }
+
+    long orderId(int slot) {
+        return orderIds[slot];
+    }
+
+    long time(int slot) {
+        return times[slot];
+    }
+
+    long userId(int slot) {
+        return userIds[slot];
+    }
+
+    long amountMinor(int slot) {
+        return amounts[slot];
+    }
+
+    short currency(int slot) {
+        return currencies[slot];
+    }
+
+    long paymentId(int slot) {
+        return paymentIds[slot];
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                out.writeLong(orderIds[slot]);
+                out.writeLong(times[slot]);
+                out.writeLong(userIds[slot]);
+                out.writeLong(amounts[slot]);
+                out.writeShort(currencies[slot]);
+                out.writeLong(paymentIds[slot]);
+            }
+        }
+    }
+
+    static PendingTable readFrom(DataInputStream in, int minExpected) throws IOException {
+        int entries = in.readInt();
+        PendingTable table = new PendingTable(Math.max(entries, minExpected));
+        for (int i = 0; i < entries; i++) {
+            table.put(in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readShort(), in.readLong());
+        }
+        return table;
+    }
+
+    private void move(int from, int to) {
+        orderIds[to] = orderIds[from];
+        times[to] = times[from];
+        userIds[to] = userIds[from];
+        amounts[to] = amounts[from];
+        currencies[to] = currencies[from];
+        paymentIds[to] = paymentIds[from];
+        used[to] = true;
+    }
+
+    private void grow() {
+        long[] oldOrderIds = orderIds;
+        long[] oldTimes = times;
+        long[] oldUserIds = userIds;
+        long[] oldAmounts = amounts;
+        short[] oldCurrencies = currencies;
+        long[] oldPaymentIds = paymentIds;
+        boolean[] oldUsed = used;
+        allocate(oldUsed.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldUsed.length; slot++) {
+            if (oldUsed[slot]) {
+                put(oldOrderIds[slot], oldTimes[slot], oldUserIds[slot], oldAmounts[slot], oldCurrencies[slot],
+                    oldPaymentIds[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        orderIds = new long[capacity];
+        times = new long[capacity];
+        userIds = new long[capacity];
+        amounts = new long[capacity];
+        paymentIds = new long[capacity];
+        currencies = new short[capacity];
+        used = new boolean[capacity];
+    }
+
+    private int slotOf(long orderId) {
+        int mask = used.length - 1;
+        int slot = home(orderId);
+        while (used[slot] && orderIds[slot] != orderId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long orderId) {
+        return (int) mix(orderId) & (used.length - 1);
+    }
+
+    static long mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
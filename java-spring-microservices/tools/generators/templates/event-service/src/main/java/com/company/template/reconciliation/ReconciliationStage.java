@@ -0,0 +1,186 @@
+package com.company.{{SERVICE_NAME}}.reconciliation;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.UnpaidOrderEvent;
+import com.company.event.payment.OrphanPaymentEvent;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.{{SERVICE_NAME}}.config.ReconciliationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds orders and completed payments into the {@link OrderPaymentJoin} and
+ * publishes an UnpaidOrderEvent or OrphanPaymentEvent, keyed by orderId, for
+ * every one left unmatched when its deadline passes.
+ *
+ * Runs in its own consumer group on order-events and payment-events, and
+ * never touches the service or its retry topics; records that cannot be
+ * decoded are skipped. On assignment it seeks to the offsets in the
+ * checkpoint, so the restored state and the streams line up.
+ *
+ * An order and its payment must reach the same instance: key both topics by
+ * orderId with the same partition count, or run a single instance.
+ *
+ * Metrics: event.reconciliation.results{result=matched|unpaid|orphan},
+ * event.reconciliation.pending{storage=memory|disk}.
+ */
+@Slf4j
+@Component
+public class ReconciliationStage implements ConsumerSeekAware, SmartLifecycle {
+
+    private final OrderPaymentJoin join;
+    private final ReconciliationProperties properties;
+    private final KafkaTemplate<String, DomainEvent> template;
+    private volatile long lastEventAt = System.currentTimeMillis();
+    private ScheduledExecutorService scheduler;
+
+    public ReconciliationStage(OrderPaymentJoin join, ReconciliationProperties properties,
+                               KafkaTemplate<String, DomainEvent> eventTemplate, MeterRegistry meterRegistry) {
+        this.join = join;
+        this.properties = properties;
+        this.template = eventTemplate;
+        FunctionCounter.builder("event.reconciliation.results", join, OrderPaymentJoin::matched)
+            .tags(Tags.of("result", "matched"))
+            .register(meterRegistry);
+        FunctionCounter.builder("event.reconciliation.results", join, OrderPaymentJoin::unpaidOrders)
+            .tags(Tags.of("result", "unpaid"))
+            .register(meterRegistry);
+        FunctionCounter.builder("event.reconciliation.results", join, OrderPaymentJoin::orphanPayments)
+            .tags(Tags.of("result", "orphan"))
+            .register(meterRegistry);
+        Gauge.builder("event.reconciliation.pending", join, OrderPaymentJoin::pendingInMemory)
+            .tags(Tags.of("storage", "memory"))
+            .register(meterRegistry);
+        Gauge.builder("event.reconciliation.pending", join, OrderPaymentJoin::pendingSpilled)
+            .tags(Tags.of("storage", "disk"))
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(
+        id = "reconciliation",
+        topics = {"${app.kafka.topics.order-events:order-events}", "${app.kafka.topics.payment-events:payment-events}"},
+        groupId = "${spring.kafka.consumer.group-id}-reconciliation",
+        filter = "reconciliationEventFilter",
+        containerFactory = "batchListenerContainerFactory",
+        autoStartup = "${app.reconciliation.enabled:false}"
+    )
+    public void reconcile(List<ConsumerRecord<String, LazyEvent>> records) {
+        List<DomainEvent> events = new ArrayList<>(records.size());
+        Map<TopicPartition, Long> polledUpTo = new HashMap<>();
+        for (ConsumerRecord<String, LazyEvent> record : records) {
+            try {
+                LazyEvent event = record.value();
+                events.add("PAYMENT_COMPLETED".equals(event.getEventType())
+                    ? event.as(PaymentCompletedEvent.class)
+                    : event.as(OrderCreatedEvent.class));
+            } catch (RuntimeException e) {
+                log.warn("Skipping undecodable event {}-{}@{}: {}", record.topic(), record.partition(),
+                    record.offset(), e.getMessage());
+            }
+            polledUpTo.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+        }
+        lastEventAt = System.currentTimeMillis();
+        publish(join.add(events, polledUpTo));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<TopicPartition, Long> checkpointed = join.nextOffsets();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long offset = checkpointed.get(partition);
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tick = Math.max(1000, properties.getBucket().toMillis());
+        scheduler.scheduleWithFixedDelay(this::expireIdle, tick, tick, TimeUnit.MILLISECONDS);
+        if (properties.getStateDir() != null) {
+            long interval = properties.getCheckpointInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        if (properties.getStateDir() != null) {
+            checkpoint();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Without new events the watermark would stop and deadlines would never
+     * pass; once both topics have been quiet for the allowed lateness,
+     * advance it by wall-clock time.
+     */
+    private void expireIdle() {
+        long now = System.currentTimeMillis();
+        long lateness = properties.getAllowedLateness().toMillis();
+        if (now - lastEventAt > lateness) {
+            try {
+                publish(join.advanceTo(now - lateness));
+            } catch (RuntimeException e) {
+                log.warn("Failed to expire idle reconciliation entries: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void checkpoint() {
+        try {
+            join.saveCheckpoint();
+        } catch (RuntimeException e) {
+            log.warn("Failed to write reconciliation checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void publish(List<DomainEvent> expired) {
+        for (DomainEvent event : expired) {
+            if (event instanceof UnpaidOrderEvent unpaid) {
+                template.send(properties.getUnpaidOrdersTopic(), String.valueOf(unpaid.getOrderId()), unpaid);
+            } else if (event instanceof OrphanPaymentEvent orphan) {
+                template.send(properties.getOrphanPaymentsTopic(), String.valueOf(orphan.getOrderId()), orphan);
+            }
+        }
+    }
+}
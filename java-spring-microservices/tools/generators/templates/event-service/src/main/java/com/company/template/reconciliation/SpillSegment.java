@@ -0,0 +1,251 @@
+package com.company.{{SERVICE_NAME}}.reconciliation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Pending orders and payments of one deadline bucket, spilled to disk when
+ * memory is full.
+ *
+ * The file holds fixed-width records sorted by orderId and is never
+ * rewritten. Lookups go through an in-memory Bloom filter (10 bits per
+ * entry) and then a binary search of the file; a match is recorded in an
+ * in-memory bitset. When the bucket expires the file is read once, in order,
+ * and every unmatched record is reported.
+ *
+ * Not thread-safe.
+ */
+final class SpillSegment {
+
+    static final byte ORDER = 0;
+    static final byte PAYMENT = 1;
+
+    private static final int RECORD_BYTES = 43;
+    private static final int BLOOM_HASHES = 7;
+
+    private final long bucket;
+    private final Path file;
+    private final int count;
+    private final long[] bloom;
+    private final long[] matched;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private FileChannel channel;
+
+    private SpillSegment(long bucket, Path file, int count, long[] bloom, long[] matched) {
+        this.bucket = bucket;
+        this.file = file;
+        this.count = count;
+        this.bloom = bloom;
+        this.matched = matched;
+    }
+
+    /**
+     * Write the entries of {@code bucket} that are still pending in the tables.
+     */
+    static SpillSegment write(Path file, long bucket, PendingTable orders, long[] orderIds,
+                              PendingTable payments, long[] paymentOrderIds) {
+        int n = orderIds.length + paymentOrderIds.length;
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, Comparator.comparingLong(i -> idAt(i, orderIds, paymentOrderIds)));
+        long[] bloom = new long[Math.max(1, (n * 10 + 63) / 64)];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int i : sorted) {
+                boolean isOrder = i < orderIds.length;
+                PendingTable table = isOrder ? orders : payments;
+                long orderId = isOrder ? orderIds[i] : paymentOrderIds[i - orderIds.length];
+                int slot = table.indexOf(orderId);
+                out.writeLong(orderId);
+                out.writeByte(isOrder ? ORDER : PAYMENT);
+                out.writeLong(table.time(slot));
+                out.writeLong(table.userId(slot));
+                out.writeLong(table.amountMinor(slot));
+                out.writeShort(table.currency(slot));
+                out.writeLong(table.paymentId(slot));
+                addToBloom(bloom, orderId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill reconciliation segment " + file, e);
+        }
+        return new SpillSegment(bucket, file, n, bloom, new long[(n + 63) / 64]);
+    }
+
+    long bucket() {
+        return bucket;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Find an unmatched {@code side} record for {@code orderId} and mark it matched.
+     *
+     * @return true if one was found
+     */
+    boolean match(long orderId, byte side) {
+        if (!mightContain(bloom, orderId)) {
+            return false;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = read(mid).getLong(0);
+            if (id < orderId) {
+                low = mid + 1;
+            } else if (id > orderId) {
+                high = mid - 1;
+            } else {
+                // An id can appear once per side: check this record and its neighbour
+                for (int i = Math.max(0, mid - 1); i <= Math.min(count - 1, mid + 1); i++) {
+                    ByteBuffer candidate = read(i);
+                    if (candidate.getLong(0) == orderId && candidate.get(8) == side && !isMatched(i)) {
+                        matched[i >>> 6] |= 1L << i;
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    interface RecordVisitor {
+        void visit(byte side, long orderId, long time, long userId, long amountMinor, short currency,
+                   long paymentId);
+    }
+
+    /**
+     * Read the file once, in order, and visit every unmatched record.
+     */
+    void forEachUnmatched(RecordVisitor visitor) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int i = 0; i < count; i++) {
+                long orderId = in.readLong();
+                byte side = in.readByte();
+                long time = in.readLong();
+                long userId = in.readLong();
+                long amountMinor = in.readLong();
+                short currency = in.readShort();
+                long paymentId = in.readLong();
+                if (!isMatched(i)) {
+                    visitor.visit(side, orderId, time, userId, amountMinor, currency, paymentId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read reconciliation segment " + file, e);
+        }
+    }
+
+    void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Read-only; nothing to flush
+            }
+            channel = null;
+        }
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(bucket);
+        out.writeUTF(file.getFileName().toString());
+        out.writeInt(count);
+        out.writeInt(bloom.length);
+        for (long word : bloom) {
+            out.writeLong(word);
+        }
+        for (long word : matched) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * @throws IOException if the segment file is missing or has another size
+     */
+    static SpillSegment readFrom(DataInputStream in, Path dir) throws IOException {
+        long bucket = in.readLong();
+        Path file = dir.resolve(in.readUTF());
+        int count = in.readInt();
+        long[] bloom = new long[in.readInt()];
+        for (int i = 0; i < bloom.length; i++) {
+            bloom[i] = in.readLong();
+        }
+        long[] matched = new long[(count + 63) / 64];
+        for (int i = 0; i < matched.length; i++) {
+            matched[i] = in.readLong();
+        }
+        if (!Files.exists(file) || Files.size(file) != (long) count * RECORD_BYTES) {
+            throw new IOException("Spill segment " + file + " is missing or truncated");
+        }
+        return new SpillSegment(bucket, file, count, bloom, matched);
+    }
+
+    private boolean isMatched(int index) {
+        return (matched[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private ByteBuffer read(int index) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            record.clear();
+            long position = (long) index * RECORD_BYTES;
+            while (record.hasRemaining()) {
+                if (channel.read(record, position + record.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read reconciliation segment " + file, e);
+        }
+    }
+
+    private static long idAt(int index, long[] orderIds, long[] paymentOrderIds) {
+        return index < orderIds.length ? orderIds[index] : paymentOrderIds[index - orderIds.length];
+    }
+
+    private static void addToBloom(long[] bloom, long orderId) {
+        long bits = (long) bloom.length * 64;
+        long h1 = PendingTable.mix(orderId);
+        long h2 = PendingTable.mix(h1) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] bloom, long orderId) {
+        long bits = (long) bloom.length * 64;
+        long h1 = PendingTable.mix(orderId);
+        long h2 = PendingTable.mix(h1) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
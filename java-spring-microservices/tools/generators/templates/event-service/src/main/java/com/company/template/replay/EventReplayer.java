@@ -0,0 +1,468 @@
+package com.company.{{SERVICE_NAME}}.replay;
+
+import com.company.event.DomainEvent;
+import com.company.event.kafka.LazyEvent;
+import com.company.{{SERVICE_NAME}}.config.ReplayProperties;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reprocesses a time or offset range of a topic, e.g. after a bug fix,
+ * without resetting the service's offsets. As an actuator endpoint:
+ *
+ *   POST   /actuator/replay/{topic}?from=2024-01-01T00:00:00Z&to=2024-01-03T00:00:00Z
+ *   POST   /actuator/replay/{topic}?fromOffset=1000&toOffset=5000&partition=2
+ *   POST   /actuator/replay/{topic}?resume=true   continue the last unfinished replay
+ *   GET    /actuator/replay     progress and ETA of the current or last replay
+ *   DELETE /actuator/replay     cancel it
+ *
+ * The replay reads on its own thread, in its own consumer group
+ * ({@code <group>-replay}), with large fetches, and hands each poll to the
+ * service batch method the handler registered. The live listeners keep
+ * their offsets and their threads. Replay calls use the limiter's default
+ * lane, below every configured priority lane, and
+ * {@code app.replay.max-records-per-second} caps the read rate.
+ *
+ * Replayed events skip deduplication: reprocessing is the point. A failed
+ * event is not sent to the retry topics, where the live handler would dedup
+ * it and mix it with live traffic; it is counted, and the first
+ * {@value ReplayJob#MAX_REPORTED_FAILURES} are listed with their partition and
+ * offset in the progress, to replay as an offset range once fixed.
+ *
+ * Progress is committed under the replay group, each offset tagged with its
+ * job and end offset, so a replay that was cancelled, failed or cut short by
+ * a shutdown can be resumed where it stopped. One replay runs at a time.
+ *
+ * Metric: event.replay.records{topic}.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "replay")
+public class EventReplayer implements SmartLifecycle {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<String, LazyEvent> consumerFactory;
+    private final ReplayProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+    private final Clock clock = Clock.systemUTC();
+    private final Map<String, Registration<?>> registrations = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private volatile ReplayJob current;
+
+    public EventReplayer(ConsumerFactory<String, LazyEvent> replayConsumerFactory, ReplayProperties properties,
+                         MeterRegistry meterRegistry, @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.consumerFactory = replayConsumerFactory;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.groupId = groupId + "-replay";
+    }
+
+    /**
+     * Make {@code topic} replayable: records {@code filter} accepts are
+     * decoded and passed to {@code batchAction} one poll at a time. Call from
+     * the handler's @PostConstruct.
+     */
+    public <T extends DomainEvent> void register(String topic, RecordFilterStrategy<String, LazyEvent> filter,
+                                                 Class<T> eventClass, java.util.function.Consumer<List<T>> batchAction) {
+        registrations.put(topic, new Registration<>(filter, eventClass, batchAction));
+    }
+
+    @WriteOperation
+    public ReplayProgress replay(@Selector String topic, @Nullable String from, @Nullable String to,
+                                 @Nullable Long fromOffset, @Nullable Long toOffset, @Nullable Integer partition,
+                                 @Nullable Boolean resume) {
+        try {
+            if (Boolean.TRUE.equals(resume)) {
+                if (from != null || to != null || fromOffset != null || toOffset != null || partition != null) {
+                    throw new IllegalArgumentException("A resumed replay keeps its own range");
+                }
+                return resume(topic).progress();
+            }
+            ReplayRange range = new ReplayRange(parse(from), parse(to), fromOffset, toOffset, partition);
+            return replay(topic, range).progress();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @ReadOperation
+    public ReplayProgress progress() {
+        ReplayJob job = current;
+        return job != null ? job.progress() : null;
+    }
+
+    @DeleteOperation
+    public ReplayProgress cancel() {
+        ReplayJob job = current;
+        if (job == null) {
+            return null;
+        }
+        job.cancel();
+        return job.progress();
+    }
+
+    /**
+     * Resolve {@code range} to offsets now and start replaying it in the background.
+     *
+     * @throws IllegalArgumentException if the topic has no registered handler or no such partition
+     * @throws IllegalStateException    if a replay is already running or the replayer is stopped
+     */
+    public synchronized ReplayJob replay(String topic, ReplayRange range) {
+        return start(topic, consumer -> resolve(consumer, topic, range));
+    }
+
+    /**
+     * Continue the last replay of {@code topic} that did not finish, from the
+     * offsets it committed up to the end offsets it had.
+     *
+     * @throws IllegalArgumentException if there is no unfinished replay of the topic, or as {@link #replay}
+     * @throws IllegalStateException    as {@link #replay}
+     */
+    public synchronized ReplayJob resume(String topic) {
+        return start(topic, consumer -> resolveResume(consumer, topic));
+    }
+
+    private ReplayJob start(String topic, Function<Consumer<String, LazyEvent>, ReplayJob> resolver) {
+        Registration<?> registration = registrations.get(topic);
+        if (registration == null) {
+            throw new IllegalArgumentException("No replay handler registered for " + topic);
+        }
+        if (current != null && current.isRunning()) {
+            throw new IllegalStateException("A replay of " + current.topic() + " is already running");
+        }
+        if (executor == null) {
+            throw new IllegalStateException("Replayer is not running");
+        }
+        Consumer<String, LazyEvent> consumer = consumerFactory.createConsumer(groupId, "replay");
+        try {
+            ReplayJob job = resolver.apply(consumer);
+            current = job;
+            log.info("Replaying {} records of {} from {} to {}", job.progress().total(), topic,
+                job.startOffsets(), job.endOffsets());
+            executor.execute(() -> run(job, registration, consumer));
+            return job;
+        } catch (RuntimeException e) {
+            consumer.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "event-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        if (current != null) {
+            current.cancel();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private ReplayJob resolve(Consumer<String, LazyEvent> consumer, String topic, ReplayRange range) {
+        List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+            .map(info -> new TopicPartition(info.topic(), info.partition()))
+            .filter(partition -> range.partition() == null || partition.partition() == range.partition())
+            .toList();
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("No partition " + range.partition() + " in " + topic);
+        }
+        Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+        Map<TopicPartition, Long> start = new HashMap<>();
+        Map<TopicPartition, Long> end = new HashMap<>();
+        Map<TopicPartition, Long> fromTimes = offsetsForTime(consumer, partitions, range.from(), ends);
+        Map<TopicPartition, Long> toTimes = offsetsForTime(consumer, partitions, range.to(), ends);
+        for (TopicPartition partition : partitions) {
+            long first = beginnings.get(partition);
+            long last = ends.get(partition);
+            long from = range.from() != null ? fromTimes.get(partition)
+                : range.fromOffset() != null ? Math.max(first, range.fromOffset()) : first;
+            long to = range.to() != null ? toTimes.get(partition)
+                : range.toOffset() != null ? Math.min(last, range.toOffset()) : last;
+            start.put(partition, Math.min(from, last));
+            end.put(partition, Math.max(Math.min(from, last), to));
+        }
+        return new ReplayJob(topic, start, end, clock);
+    }
+
+    /**
+     * Start and end offsets of the latest job's partitions that did not reach their end.
+     */
+    private ReplayJob resolveResume(Consumer<String, LazyEvent> consumer, String topic) {
+        Set<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+            .map(info -> new TopicPartition(info.topic(), info.partition()))
+            .collect(Collectors.toSet());
+        Map<TopicPartition, Checkpoint> checkpoints = new HashMap<>();
+        consumer.committed(partitions).forEach((partition, committed) ->
+            Checkpoint.parse(committed).ifPresent(checkpoint -> checkpoints.put(partition, checkpoint)));
+        long lastJob = checkpoints.values().stream().mapToLong(Checkpoint::jobId).max().orElse(-1);
+        Map<TopicPartition, Long> start = new HashMap<>();
+        Map<TopicPartition, Long> end = new HashMap<>();
+        checkpoints.forEach((partition, checkpoint) -> {
+            if (checkpoint.jobId() == lastJob && checkpoint.offset() < checkpoint.end()) {
+                start.put(partition, checkpoint.offset());
+                end.put(partition, checkpoint.end());
+            }
+        });
+        if (start.isEmpty()) {
+            throw new IllegalArgumentException("No unfinished replay of " + topic);
+        }
+        return new ReplayJob(topic, start, end, clock);
+    }
+
+    /**
+     * @return per partition, the first offset at or after {@code time}, or the end offset if there is none
+     */
+    private static Map<TopicPartition, Long> offsetsForTime(Consumer<String, LazyEvent> consumer,
+                                                            List<TopicPartition> partitions, Instant time,
+                                                            Map<TopicPartition, Long> ends) {
+        if (time == null) {
+            return Map.of();
+        }
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, time.toEpochMilli()));
+        Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(query);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndTimestamp offset = found.get(partition);
+            offsets.put(partition, offset != null ? offset.offset() : ends.get(partition));
+        }
+        return offsets;
+    }
+
+    private void run(ReplayJob job, Registration<?> registration, Consumer<String, LazyEvent> consumer) {
+        Counter replayed = Counter.builder("event.replay.records")
+            .description("Records handed to the service by a replay")
+            .tag("topic", job.topic())
+            .register(meterRegistry);
+        try (consumer) {
+            Set<TopicPartition> active = new HashSet<>();
+            job.startOffsets().forEach((partition, offset) -> {
+                if (offset < job.endOffsets().get(partition)) {
+                    active.add(partition);
+                }
+            });
+            consumer.assign(active);
+            active.forEach(partition -> consumer.seek(partition, job.startOffsets().get(partition)));
+            long startNanos = System.nanoTime();
+            while (!active.isEmpty() && !job.isCancelRequested()) {
+                ConsumerRecords<String, LazyEvent> records = consumer.poll(POLL_TIMEOUT);
+                List<ConsumerRecord<String, LazyEvent>> batch = new ArrayList<>(records.count());
+                for (TopicPartition partition : records.partitions()) {
+                    long end = job.endOffsets().get(partition);
+                    for (ConsumerRecord<String, LazyEvent> record : records.records(partition)) {
+                        if (record.offset() >= end) {
+                            break;
+                        }
+                        batch.add(record);
+                    }
+                }
+                long processed = registration.process(batch, job);
+                replayed.increment(processed);
+                job.recordRead(batch.size());
+                commitAndRetire(consumer, job, active);
+                pace(job.read(), startNanos);
+            }
+            job.finish(active.isEmpty() ? ReplayJob.State.COMPLETED : ReplayJob.State.CANCELLED, null);
+            log.info("Replay of {} finished: {}", job.topic(), job.progress());
+        } catch (RuntimeException e) {
+            log.error("Replay of {} failed at {}", job.topic(), job.progress(), e);
+            job.finish(ReplayJob.State.FAILED, e.toString());
+        }
+    }
+
+    /**
+     * Commit progress under the replay group, as checkpoints to resume from,
+     * and stop fetching partitions that reached their end offset.
+     */
+    private static void commitAndRetire(Consumer<String, LazyEvent> consumer, ReplayJob job,
+                                        Set<TopicPartition> active) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        List<TopicPartition> finished = new ArrayList<>();
+        long jobId = job.startedAt().toEpochMilli();
+        for (TopicPartition partition : active) {
+            long end = job.endOffsets().get(partition);
+            long position = Math.min(consumer.position(partition), end);
+            commits.put(partition, new OffsetAndMetadata(position, Checkpoint.metadata(jobId, end)));
+            if (position >= end) {
+                finished.add(partition);
+            }
+        }
+        consumer.commitSync(commits);
+        if (!finished.isEmpty()) {
+            consumer.pause(finished);
+            finished.forEach(active::remove);
+        }
+    }
+
+    /**
+     * Sleep until {@code read} records are within the rate ceiling.
+     */
+    private void pace(long read, long startNanos) {
+        int rate = properties.getMaxRecordsPerSecond();
+        if (rate <= 0) {
+            return;
+        }
+        long ahead = read * 1_000_000_000L / rate - (System.nanoTime() - startNanos);
+        if (ahead > 0) {
+            LockSupport.parkNanos(ahead);
+        }
+    }
+
+    private static Instant parse(String time) {
+        if (time == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(time);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Not an ISO-8601 instant: " + time);
+        }
+    }
+
+    /**
+     * Replay progress on one partition: the next offset of job {@code jobId},
+     * which stops before {@code end}.
+     */
+    private record Checkpoint(long jobId, long offset, long end) {
+
+        private static final String PREFIX = "replay ";
+
+        static String metadata(long jobId, long end) {
+            return PREFIX + jobId + " " + end;
+        }
+
+        static Optional<Checkpoint> parse(OffsetAndMetadata committed) {
+            if (committed == null || committed.metadata() == null || !committed.metadata().startsWith(PREFIX)) {
+                return Optional.empty();
+            }
+            String[] parts = committed.metadata().substring(PREFIX.length()).split(" ");
+            try {
+                return Optional.of(new Checkpoint(Long.parseLong(parts[0]), committed.offset(),
+                    Long.parseLong(parts[1])));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private final class Registration<T extends DomainEvent> {
+
+        private final RecordFilterStrategy<String, LazyEvent> filter;
+        private final Class<T> eventClass;
+        private final java.util.function.Consumer<List<T>> batchAction;
+
+        Registration(RecordFilterStrategy<String, LazyEvent> filter, Class<T> eventClass,
+                     java.util.function.Consumer<List<T>> batchAction) {
+            this.filter = filter;
+            this.eventClass = eventClass;
+            this.batchAction = batchAction;
+        }
+
+        /**
+         * Decode and process one poll. A failed event is reported in the
+         * job's progress and the rest of the batch carries on after it.
+         *
+         * @return events processed successfully
+         */
+        long process(List<ConsumerRecord<String, LazyEvent>> records, ReplayJob job) {
+            List<ConsumerRecord<String, LazyEvent>> decodedRecords = new ArrayList<>(records.size());
+            List<T> events = new ArrayList<>(records.size());
+            for (ConsumerRecord<String, LazyEvent> record : records) {
+                if (filter.filter(record)) {
+                    continue;
+                }
+                try {
+                    events.add(record.value().as(eventClass));
+                    decodedRecords.add(record);
+                } catch (RuntimeException e) {
+                    fail(record, e, job);
+                }
+            }
+            long processed = 0;
+            int from = 0;
+            while (from < events.size()) {
+                List<T> remaining = events.subList(from, events.size());
+                try {
+                    batchAction.accept(remaining);
+                    processed += remaining.size();
+                    from = events.size();
+                } catch (BatchProcessingException e) {
+                    int failed = from + e.getFailedIndex();
+                    processed += e.getFailedIndex();
+                    fail(decodedRecords.get(failed), e.getCause(), job);
+                    from = failed + 1;
+                }
+            }
+            job.recordProcessed(processed);
+            return processed;
+        }
+
+        private void fail(ConsumerRecord<String, LazyEvent> record, Throwable failure, ReplayJob job) {
+            log.warn("Replay of {}-{}@{} failed: {}", record.topic(), record.partition(), record.offset(),
+                failure.toString());
+            job.recordFailed(record, failure);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.company.{{SERVICE_NAME}}.replay;
+
+/**
+ * A replayed record that could not be decoded or processed.
+ *
+ * @param error the exception, as class and message
+ */
+public record ReplayFailure(int partition, long offset, String error) {
+}
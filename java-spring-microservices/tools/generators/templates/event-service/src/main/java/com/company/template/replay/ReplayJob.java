@@ -0,0 +1,126 @@
+package com.company.{{SERVICE_NAME}}.replay;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One replay of a topic range: where each partition starts and stops, and
+ * how far it got. Counters are written by the replay thread and read by the
+ * endpoint.
+ */
+public class ReplayJob {
+
+    public enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    /** Failures listed in the progress; later ones are only counted. */
+    public static final int MAX_REPORTED_FAILURES = 100;
+
+    private final String topic;
+    private final Map<TopicPartition, Long> startOffsets;
+    /** Exclusive. */
+    private final Map<TopicPartition, Long> endOffsets;
+    private final long total;
+    private final Clock clock;
+    private final Instant startedAt;
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private volatile long read;
+    private volatile long processed;
+    private volatile long failed;
+    private final List<ReplayFailure> failures = new CopyOnWriteArrayList<>();
+
+    ReplayJob(String topic, Map<TopicPartition, Long> startOffsets, Map<TopicPartition, Long> endOffsets,
+              Clock clock) {
+        this.topic = topic;
+        this.startOffsets = Map.copyOf(startOffsets);
+        this.endOffsets = Map.copyOf(endOffsets);
+        this.clock = clock;
+        this.startedAt = clock.instant();
+        long records = 0;
+        for (Map.Entry<TopicPartition, Long> start : startOffsets.entrySet()) {
+            records += Math.max(0, endOffsets.get(start.getKey()) - start.getValue());
+        }
+        this.total = records;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public ReplayProgress progress() {
+        Instant end = finishedAt != null ? finishedAt : clock.instant();
+        double seconds = Math.max(1, end.toEpochMilli() - startedAt.toEpochMilli()) / 1000.0;
+        long readSoFar = read;
+        double rate = readSoFar / seconds;
+        Long eta = state == State.RUNNING && rate > 0 ? (long) Math.ceil((total - readSoFar) / rate) : null;
+        return new ReplayProgress(topic, state, startedAt, finishedAt, total, readSoFar, processed, failed,
+            List.copyOf(failures), Math.round(rate * 10) / 10.0, eta, error);
+    }
+
+    Map<TopicPartition, Long> startOffsets() {
+        return startOffsets;
+    }
+
+    Map<TopicPartition, Long> endOffsets() {
+        return endOffsets;
+    }
+
+    Instant startedAt() {
+        return startedAt;
+    }
+
+    long read() {
+        return read;
+    }
+
+    void recordRead(long records) {
+        read += records;
+    }
+
+    void recordProcessed(long records) {
+        processed += records;
+    }
+
+    void recordFailed(ConsumerRecord<?, ?> record, Throwable failure) {
+        failed++;
+        if (failures.size() < MAX_REPORTED_FAILURES) {
+            failures.add(new ReplayFailure(record.partition(), record.offset(), failure.toString()));
+        }
+    }
+
+    /**
+     * Ask the replay to stop after its current poll. The job stays running
+     * until the replay thread has committed that poll and calls {@link #finish}.
+     */
+    void cancel() {
+        cancelRequested = true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void finish(State finalState, String failure) {
+        if (state == State.RUNNING) {
+            error = failure;
+            finishedAt = clock.instant();
+            state = finalState;
+        }
+    }
+}
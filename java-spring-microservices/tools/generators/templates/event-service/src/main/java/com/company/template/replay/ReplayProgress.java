@@ -0,0 +1,30 @@
+package com.company.{{SERVICE_NAME}}.replay;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of a replay, as returned by the replay endpoint.
+ *
+ * @param total     records in the range when the replay started; filtered records count too
+ * @param read      records read so far
+ * @param processed records handed to the service
+ * @param failed    records that could not be decoded or processed
+ * @param failures  the first {@value ReplayJob#MAX_REPORTED_FAILURES} of them, to replay by offset once fixed
+ * @param etaSeconds seconds left at the current rate; null until there is a rate, or once done
+ */
+public record ReplayProgress(
+    String topic,
+    ReplayJob.State state,
+    Instant startedAt,
+    Instant finishedAt,
+    long total,
+    long read,
+    long processed,
+    long failed,
+    List<ReplayFailure> failures,
+    double recordsPerSecond,
+    Long etaSeconds,
+    String error
+) {
+}
@@ -0,0 +1,37 @@
+package com.company.{{SERVICE_NAME}}.replay;
+
+import java.time.Instant;
+
+/**
+ * What to replay: a time range or an offset range, on every partition or one.
+ * Unset bounds mean the beginning of the partition and its end offset when
+ * the replay starts.
+ *
+ * @param from       first record timestamp to replay
+ * @param to         replay records before this timestamp
+ * @param fromOffset first offset to replay, on each partition
+ * @param toOffset   replay offsets before this one, on each partition
+ * @param partition  only this partition, or null for all
+ */
+public record ReplayRange(Instant from, Instant to, Long fromOffset, Long toOffset, Integer partition) {
+
+    public ReplayRange {
+        if ((from != null || to != null) && (fromOffset != null || toOffset != null)) {
+            throw new IllegalArgumentException("Give timestamps or offsets, not both");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (fromOffset != null && toOffset != null && fromOffset >= toOffset) {
+            throw new IllegalArgumentException("fromOffset must be below toOffset");
+        }
+    }
+
+    public static ReplayRange between(Instant from, Instant to) {
+        return new ReplayRange(from, to, null, null, null);
+    }
+
+    public static ReplayRange offsets(Long fromOffset, Long toOffset) {
+        return new ReplayRange(null, null, fromOffset, toOffset, null);
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.{{SERVICE_NAME}}.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays dead-lettered records to their original topic once the cause is
+ * fixed, as an actuator endpoint:
+ *
+ *   POST /actuator/deadletters/{topic}          replay everything in {topic}-dlt
+ *   POST /actuator/deadletters/{topic}?max=100  replay at most 100 records
+ *
+ * Progress is committed under its own consumer group, so each record is
+ * replayed once. Values are forwarded as raw bytes with the original event
+ * headers; the retry and kafka_dlt-* headers are dropped, so a replayed
+ * record starts its retries from scratch.
+ *
+ * Metrics: event.dlt.replayed{topic}.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "deadletters")
+public class DeadLetterReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaOperations<Object, Object> template;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+
+    public DeadLetterReplayer(ConsumerFactory<String, byte[]> deadLetterConsumerFactory,
+                              KafkaOperations<Object, Object> deadLetterTemplate, MeterRegistry meterRegistry,
+                              @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.consumerFactory = deadLetterConsumerFactory;
+        this.template = deadLetterTemplate;
+        this.meterRegistry = meterRegistry;
+        this.groupId = groupId + "-dlt-replay";
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay(@Selector String topic, @Nullable Integer max) {
+        int replayed = replay(topic, max == null ? Integer.MAX_VALUE : max);
+        return Map.of("topic", topic, "replayed", replayed);
+    }
+
+    /**
+     * Republish up to {@code maxRecords} records from the dead-letter topic of {@code topic}.
+     *
+     * @return the number of records replayed
+     */
+    public int replay(String topic, int maxRecords) {
+        String deadLetterTopic = RetryTopicRouter.deadLetterTopic(topic);
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(groupId, "dlt-replay")) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+            consumer.assign(partitions);
+
+            Map<TopicPartition, OffsetAndMetadata> replayedUpTo = new HashMap<>();
+            List<CompletableFuture<SendResult<Object, Object>>> sends = new ArrayList<>();
+            int replayed = 0;
+            while (replayed < maxRecords) {
+                var records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (replayed == maxRecords) {
+                        break;
+                    }
+                    sends.add(template.send(new ProducerRecord<>(topic, null, record.key(), record.value(),
+                        eventHeaders(record))));
+                    replayedUpTo.put(new TopicPartition(record.topic(), record.partition()),
+                        new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+            }
+            awaitSends(sends);
+            // Only committed once every replayed record is on the original topic
+            consumer.commitSync(replayedUpTo);
+            log.info("Replayed {} records from {} to {}", replayed, deadLetterTopic, topic);
+            Counter.builder("event.dlt.replayed").tag("topic", topic).register(meterRegistry).increment(replayed);
+            return replayed;
+        }
+    }
+
+    private static RecordHeaders eventHeaders(ConsumerRecord<?, ?> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            String key = header.key();
+            if (!key.startsWith("kafka_dlt-") && !key.equals(RetryTopicRouter.RETRY_ATTEMPT)
+                && !key.equals(RetryTopicRouter.RETRY_DUE_AT)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private void awaitSends(List<CompletableFuture<SendResult<Object, Object>>> sends) {
+        template.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead letters", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to replay dead letters, nothing committed", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.{{SERVICE_NAME}}.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.AfterRollbackProcessor;
+import org.springframework.kafka.listener.ConsumerAwareRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties.EOSMode;
+import org.springframework.kafka.listener.ListenerUtils;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * After-rollback processor for transactional batch listeners, where Spring's
+ * {@code DefaultAfterRollbackProcessor} can only seek and never recovers.
+ *
+ * A rolled-back poll is redelivered after {@code backoff}, up to
+ * {@code attempts} times. After that every record of the poll goes to the
+ * recoverer (the retry topics, where each record is retried on its own) and
+ * their offsets are committed in a new transaction, so one poison poll
+ * cannot stall its partitions.
+ */
+@Slf4j
+public class PollRollbackProcessor<K, V> implements AfterRollbackProcessor<K, V> {
+
+    private final ConsumerAwareRecordRecoverer recoverer;
+    private final KafkaOperations<?, ?> template;
+    private final int attempts;
+    private final Duration backoff;
+    private final Map<Thread, FailedPoll> failures = new ConcurrentHashMap<>();
+
+    public PollRollbackProcessor(ConsumerAwareRecordRecoverer recoverer, KafkaOperations<?, ?> template,
+                                 int attempts, Duration backoff) {
+        this.recoverer = recoverer;
+        this.template = template;
+        this.attempts = attempts;
+        this.backoff = backoff;
+    }
+
+    @Override
+    public void process(List<ConsumerRecord<K, V>> records, Consumer<K, V> consumer,
+                        MessageListenerContainer container, Exception exception, boolean recoverable,
+                        EOSMode eosMode) {
+        if (records.isEmpty()) {
+            return;
+        }
+        FailedPoll failure = failures.compute(Thread.currentThread(),
+            (thread, previous) -> previous != null && previous.isRedeliveredIn(records)
+                ? previous.again()
+                : FailedPoll.of(records.get(0)));
+        if (failure.count() <= attempts) {
+            redeliver(records, consumer, container, failure.count());
+            return;
+        }
+        failures.remove(Thread.currentThread());
+        log.error("Poll of {} records rolled back {} times, moving it to the retry topics", records.size(),
+            failure.count(), exception);
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (ConsumerRecord<K, V> record : records) {
+            recoverer.accept(record, consumer, exception);
+            offsets.merge(new TopicPartition(record.topic(), record.partition()),
+                new OffsetAndMetadata(record.offset() + 1),
+                (a, b) -> a.offset() >= b.offset() ? a : b);
+        }
+        template.sendOffsetsToTransaction(offsets, consumer.groupMetadata());
+    }
+
+    /**
+     * Recovery publishes and commits offsets, so the container runs
+     * {@link #process} in a transaction of its own.
+     */
+    @Override
+    public boolean isProcessInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void clearThreadState() {
+        failures.remove(Thread.currentThread());
+    }
+
+    private void redeliver(List<ConsumerRecord<K, V>> records, Consumer<K, V> consumer,
+                           MessageListenerContainer container, int attempt) {
+        Map<TopicPartition, Long> firstOffsets = new HashMap<>();
+        for (ConsumerRecord<K, V> record : records) {
+            firstOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+        }
+        firstOffsets.forEach(consumer::seek);
+        log.warn("Poll of {} records rolled back, redelivery {} of {} in {}", records.size(), attempt, attempts,
+            backoff);
+        try {
+            ListenerUtils.stoppableSleep(container, backoff.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Identifies a poll by its first record, which a redelivery starts with again.
+     */
+    private record FailedPoll(String topic, int partition, long offset, int count) {
+
+        static FailedPoll of(ConsumerRecord<?, ?> first) {
+            return new FailedPoll(first.topic(), first.partition(), first.offset(), 1);
+        }
+
+        boolean isRedeliveredIn(List<? extends ConsumerRecord<?, ?>> records) {
+            return records.stream().anyMatch(record -> record.topic().equals(topic)
+                && record.partition() == partition && record.offset() == offset);
+        }
+
+        FailedPoll again() {
+            return new FailedPoll(topic, partition, offset, count + 1);
+        }
+    }
+}
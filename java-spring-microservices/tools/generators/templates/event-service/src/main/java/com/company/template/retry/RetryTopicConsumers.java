@@ -0,0 +1,156 @@
+package com.company.{{SERVICE_NAME}}.retry;
+
+import com.company.event.batch.EventBatch;
+import com.company.event.kafka.LazyEvent;
+import com.company.{{SERVICE_NAME}}.config.RetryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Consumes the retry topics. Each tier of each topic gets its own consumer,
+ * so a record waiting out a long delay never holds up a shorter tier.
+ *
+ * A record is processed once its retryAttempt header's due time has passed;
+ * before that the consumer seeks back and pauses until it is due. Records in
+ * a tier were all published with the same delay, so they become due in
+ * offset order. A record that fails again moves on through
+ * {@link RetryTopicRouter}, never blocking the tier.
+ *
+ * Handlers register in @PostConstruct; consumers start with the listener
+ * containers.
+ */
+@Slf4j
+@Component
+public class RetryTopicConsumers implements SmartLifecycle {
+
+    private final Map<Class<?>, ConsumerFactory<String, ?>> consumerFactories;
+    private final RetryTopicRouter router;
+    private final RetryProperties properties;
+    private final KafkaAdmin kafkaAdmin;
+    private final String groupId;
+    private final Clock clock = Clock.systemUTC();
+    private final List<String> topics = new ArrayList<>();
+    private final List<AbstractMessageListenerContainer<String, ?>> containers = new ArrayList<>();
+    private volatile boolean running;
+
+    public RetryTopicConsumers(ConsumerFactory<String, LazyEvent> consumerFactory,
+                               ConsumerFactory<String, EventBatch> eventBatchConsumerFactory,
+                               RetryTopicRouter router, RetryProperties properties, KafkaAdmin kafkaAdmin,
+                               @Value("${spring.kafka.consumer.group-id}") String groupId) {
+        this.consumerFactories = Map.of(
+            LazyEvent.class, consumerFactory,
+            EventBatch.class, eventBatchConsumerFactory);
+        this.router = router;
+        this.properties = properties;
+        this.kafkaAdmin = kafkaAdmin;
+        this.groupId = groupId;
+    }
+
+    /**
+     * Run {@code handler} for records on the retry topics of {@code topic}.
+     *
+     * @param valueType LazyEvent or EventBatch, as on the original topic
+     */
+    @SuppressWarnings("unchecked")
+    public <V> void register(String topic, Class<V> valueType, Consumer<V> handler) {
+        ConsumerFactory<String, V> consumerFactory = (ConsumerFactory<String, V>) consumerFactories.get(valueType);
+        if (consumerFactory == null) {
+            throw new IllegalArgumentException("No consumer factory for " + valueType.getSimpleName());
+        }
+        topics.add(topic);
+        for (int tier = 1; tier <= properties.getAttempts(); tier++) {
+            containers.add(container(consumerFactory, RetryTopicRouter.retryTopic(topic, tier),
+                properties.delay(tier), handler));
+        }
+    }
+
+    @Override
+    public void start() {
+        createTopics();
+        containers.forEach(AbstractMessageListenerContainer::start);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(AbstractMessageListenerContainer::stop);
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Same phase as the @KafkaListener containers
+        return AbstractMessageListenerContainer.DEFAULT_PHASE;
+    }
+
+    private <V> AbstractMessageListenerContainer<String, V> container(ConsumerFactory<String, V> consumerFactory,
+                                                                      String topic, Duration delay,
+                                                                      Consumer<V> handler) {
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        // A group per tier, so starting or rebalancing one never pauses the main listeners
+        containerProperties.setGroupId(groupId + "-" + topic);
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        // A paused consumer only wakes up when poll returns, so short delays need short polls
+        containerProperties.setPollTimeout(Math.max(100, Math.min(delay.toMillis() / 10, 5000)));
+        containerProperties.setMessageListener((AcknowledgingMessageListener<String, V>) (record, ack) -> {
+            long wait = RetryTopicRouter.dueAtOf(record) - clock.millis();
+            if (wait > 0) {
+                // Seek back and pause this consumer until the record is due
+                ack.nack(Duration.ofMillis(Math.min(wait, delay.toMillis())));
+                return;
+            }
+            handler.accept(record.value());
+            ack.acknowledge();
+        });
+        ConcurrentMessageListenerContainer<String, V> container =
+            new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(router, new FixedBackOff(0L, 0L));
+        errorHandler.setCommitRecovered(true);
+        container.setCommonErrorHandler(errorHandler);
+        container.setBeanName(topic + "-consumer");
+        return container;
+    }
+
+    /**
+     * Create missing retry and dead-letter topics with the broker's default
+     * partition count. Records are partitioned by key, so the counts need not match.
+     */
+    private void createTopics() {
+        List<NewTopic> newTopics = new ArrayList<>();
+        for (String topic : topics) {
+            for (int tier = 1; tier <= properties.getAttempts(); tier++) {
+                newTopics.add(TopicBuilder.name(RetryTopicRouter.retryTopic(topic, tier)).build());
+            }
+            newTopics.add(TopicBuilder.name(RetryTopicRouter.deadLetterTopic(topic)).build());
+        }
+        try {
+            kafkaAdmin.createOrModifyTopics(newTopics.toArray(NewTopic[]::new));
+        } catch (RuntimeException e) {
+            log.warn("Could not create retry topics, relying on broker auto-creation: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.company.{{SERVICE_NAME}}.retry;
+
+import com.company.event.codec.CodecException;
+import com.company.{{SERVICE_NAME}}.config.RetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.ConsumerAwareRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer.SingleRecordHeader;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Moves a record that failed processing off its partition: to the next
+ * retry tier ({@code <topic>-retry-N}) while attempts remain, otherwise to the
+ * dead-letter topic ({@code <topic>-dlt}). Records that can never succeed,
+ * such as undecodable payloads, go straight to the dead-letter topic.
+ *
+ * Records keep their key, value bytes and headers. The retry headers say
+ * which attempt is next and when it is due; Spring's kafka_dlt-* headers
+ * carry the exception and the original topic, partition and offset.
+ *
+ * Metrics: event.retry.published{topic,tier}, event.dlt.published{topic}.
+ */
+@Slf4j
+public class RetryTopicRouter implements ConsumerAwareRecordRecoverer {
+
+    /** Retry tier the record is in (4-byte int); absent on the original topic. */
+    public static final String RETRY_ATTEMPT = "retryAttempt";
+    /** Epoch millis after which the record may be retried (8-byte long). */
+    public static final String RETRY_DUE_AT = "retryDueAt";
+
+    private static final Pattern RETRY_SUFFIX = Pattern.compile("-retry-\\d+$");
+    private static final List<Class<? extends Throwable>> NOT_RETRYABLE = List.of(
+        SerializationException.class, CodecException.class, ClassCastException.class);
+
+    private final RetryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final DeadLetterPublishingRecoverer publisher;
+
+    public RetryTopicRouter(KafkaOperations<?, ?> template, RetryProperties properties,
+                            MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.publisher = new DeadLetterPublishingRecoverer(template,
+            (record, exception) -> new TopicPartition(destinationOf(record, exception), -1));
+        publisher.setHeadersFunction(this::retryHeaders);
+        // Keep pointing at the first failure on the original topic across tiers
+        publisher.setAppendOriginalHeaders(false);
+    }
+
+    public static String retryTopic(String topic, int tier) {
+        return topic + "-retry-" + tier;
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + "-dlt";
+    }
+
+    /**
+     * The topic a record was first published to, for records on a retry topic.
+     */
+    public static String originalTopic(String topic) {
+        return RETRY_SUFFIX.matcher(topic).replaceFirst("");
+    }
+
+    /**
+     * @return the retry tier of the record, or 0 if it is on the original topic
+     */
+    public static int attemptOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(RETRY_ATTEMPT);
+        return header == null || header.value().length != Integer.BYTES ? 0 : ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    public static long dueAtOf(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(RETRY_DUE_AT);
+        return header == null || header.value().length != Long.BYTES ? 0 : ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Consumer<?, ?> consumer, Exception exception) {
+        int tier = nextTier(record, exception);
+        String topic = originalTopic(record.topic());
+        publisher.accept(record, consumer, exception);
+        if (tier > 0) {
+            log.warn("Failed to process record {}-{}@{}, retry {} of {} in {}: {}", record.topic(),
+                record.partition(), record.offset(), tier, properties.getAttempts(), properties.delay(tier),
+                exception.toString());
+            Counter.builder("event.retry.published").tag("topic", topic).tag("tier", String.valueOf(tier))
+                .register(meterRegistry).increment();
+        } else {
+            log.error("Failed to process record {}-{}@{}, sent to {}", record.topic(), record.partition(),
+                record.offset(), deadLetterTopic(topic), exception);
+            Counter.builder("event.dlt.published").tag("topic", topic).register(meterRegistry).increment();
+        }
+    }
+
+    /**
+     * @return the retry tier to publish to, or 0 for the dead-letter topic
+     */
+    int nextTier(ConsumerRecord<?, ?> record, Exception exception) {
+        int next = attemptOf(record) + 1;
+        return next <= properties.getAttempts() && isRetryable(exception) ? next : 0;
+    }
+
+    private String destinationOf(ConsumerRecord<?, ?> record, Exception exception) {
+        int tier = nextTier(record, exception);
+        String topic = originalTopic(record.topic());
+        return tier > 0 ? retryTopic(topic, tier) : deadLetterTopic(topic);
+    }
+
+    private Headers retryHeaders(ConsumerRecord<?, ?> record, Exception exception) {
+        Headers headers = new RecordHeaders();
+        int tier = nextTier(record, exception);
+        if (tier > 0) {
+            long dueAt = clock.millis() + properties.delay(tier).toMillis();
+            // Single headers replace the ones copied from the previous tier
+            headers.add(new SingleRecordHeader(RETRY_ATTEMPT, ByteBuffer.allocate(Integer.BYTES).putInt(tier).array()));
+            headers.add(new SingleRecordHeader(RETRY_DUE_AT, ByteBuffer.allocate(Long.BYTES).putLong(dueAt).array()));
+        }
+        return headers;
+    }
+
+    private static boolean isRetryable(Throwable exception) {
+        for (Throwable t = exception; t != null; t = t.getCause()) {
+            for (Class<? extends Throwable> type : NOT_RETRYABLE) {
+                if (type.isInstance(t)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.company.{{SERVICE_NAME}}.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown by a batch method to pin a failure to one event of the batch.
+ * Events before {@link #getFailedIndex()} count as processed; the failed
+ * event and everything after it are redelivered.
+ */
+@Getter
+public class BatchProcessingException extends RuntimeException {
+
+    private final int failedIndex;
+
+    public BatchProcessingException(int failedIndex, Throwable cause) {
+        super("Failed to process event " + failedIndex + " of batch", cause);
+        this.failedIndex = failedIndex;
+    }
+}
@@ -1,11 +1,15 @@
 package com.company.{{SERVICE_NAME}}.service;
 
 import com.company.event.order.OrderCreatedEvent;
+import com.company.event.payment.PaymentCompletedEvent;
 import com.company.event.user.UserCreatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Service that processes events.
  * Implement your business logic here.
@@ -16,20 +20,73 @@ import org.springframework.stereotype.Service;
 public class {{SERVICE_NAME_PASCAL}}Service {
 
     // Inject external service clients here (email, SMS, etc.)
+    // Publish derived events with the eventTemplate bean; with app.kafka.transactions
+    // enabled they commit together with the offsets of the events they came from
 
     public void processUserCreated(UserCreatedEvent event) {
-        log.info("Processing user created: userId={}, username={}",
+        log.debug("Processing user created: userId={}, username={}",
             event.getUserId(), event.getUsername());
 
         // TODO: Implement your logic
         // Example: Send welcome email, create user profile, etc.
     }
 
+    /**
+     * Used in batch listener mode. Replace the loop with one bulk operation
+     * (saveAll, JDBC batch, bulk API call) to get the throughput benefit; if
+     * the bulk operation fails, fall back to one event at a time so the
+     * failure can be pinned to a record.
+     *
+     * @throws BatchProcessingException for the first event that failed
+     */
+    public void processUserCreatedBatch(List<UserCreatedEvent> events) {
+        log.debug("Processing {} user created events", events.size());
+        processEach(events, this::processUserCreated);
+    }
+
     public void processOrderCreated(OrderCreatedEvent event) {
-        log.info("Processing order created: orderId={}, userId={}, amount={}",
+        log.debug("Processing order created: orderId={}, userId={}, amount={}",
             event.getOrderId(), event.getUserId(), event.getTotalAmount());
 
         // TODO: Implement your logic
         // Example: Send order confirmation, update analytics, etc.
     }
+
+    /**
+     * Batch variant of {@link #processOrderCreated}; see {@link #processUserCreatedBatch}.
+     *
+     * @throws BatchProcessingException for the first event that failed
+     */
+    public void processOrderCreatedBatch(List<OrderCreatedEvent> events) {
+        log.debug("Processing {} order created events", events.size());
+        processEach(events, this::processOrderCreated);
+    }
+
+    public void processPaymentCompleted(PaymentCompletedEvent event) {
+        log.debug("Processing payment completed: paymentId={}, orderId={}, amount={}",
+            event.getPaymentId(), event.getOrderId(), event.getAmount());
+
+        // TODO: Implement your logic
+        // Example: Send receipt, release the order for fulfilment, etc.
+    }
+
+    /**
+     * Batch variant of {@link #processPaymentCompleted}; see {@link #processUserCreatedBatch}.
+     *
+     * @throws BatchProcessingException for the first event that failed
+     */
+    public void processPaymentCompletedBatch(List<PaymentCompletedEvent> events) {
+        log.debug("Processing {} payment completed events", events.size());
+        processEach(events, this::processPaymentCompleted);
+    }
+
+    private static <T> void processEach(List<T> events, Consumer<T> action) {
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                action.accept(events.get(i));
+            } catch (RuntimeException e) {
+                throw new BatchProcessingException(i, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderTotalsEvent;
+import com.company.{{SERVICE_NAME}}.config.OrderTotalsProperties;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderTotalsAggregatorTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final TopicPartition PARTITION = new TopicPartition("order-events", 0);
+
+    private final OrderTotalsAggregator aggregator = new OrderTotalsAggregator(properties());
+
+    @Test
+    void closesWindowOnceWatermarkPassesItsEnd() {
+        List<OrderTotalsEvent> closed = aggregator.add(List.of(
+            order(1L, 5, "10.00", "USD"),
+            order(1L, 20, "5.00", "USD"),
+            order(2L, 30, "3.00", "EUR")), offset(3));
+        assertThat(closed).isEmpty();
+
+        // Watermark 65s: past the end of [0s, 60s)
+        closed = aggregator.add(List.of(order(1L, 75, "1.00", "USD")), offset(4));
+
+        assertThat(closed).hasSize(4);
+        OrderTotalsEvent user = summary(closed, 1L, "USD");
+        assertThat(user.getTotal()).isEqualTo(Money.of(new BigDecimal("15.00"), "USD"));
+        assertThat(user.getOrderCount()).isEqualTo(2);
+        assertThat(user.getWindowStart()).isEqualTo(T0);
+        assertThat(user.getWindowEnd()).isEqualTo(T0.plusSeconds(60));
+        assertThat(summary(closed, null, "USD").getOrderCount()).isEqualTo(2);
+        assertThat(summary(closed, null, "EUR").getTotal().getMinorUnits()).isEqualTo(300);
+    }
+
+    @Test
+    void slidingTotalsSumTheWindowsTheySpan() {
+        for (int minute = 0; minute < 4; minute++) {
+            aggregator.add(List.of(order(1L, minute * 60 + 1, "1.00", "USD")), offset(minute + 1));
+        }
+
+        List<OrderTotalsEvent> closed = aggregator.advanceTo(T0.plusSeconds(240).toEpochMilli());
+
+        // Closes minutes 2 and 3; the 3m sliding window ending with minute 3 spans minutes 1 to 3
+        assertThat(closed).extracting(OrderTotalsEvent::getWindowStart).containsOnly(
+            T0.plusSeconds(120), T0.plusSeconds(180));
+        OrderTotalsEvent user = closed.stream()
+            .filter(event -> event.getUserId() != null && event.getWindowStart().equals(T0.plusSeconds(180)))
+            .findFirst()
+            .orElseThrow();
+        assertThat(user.getSlidingWindowStart()).isEqualTo(T0.plusSeconds(60));
+        assertThat(user.getSlidingTotal().getMinorUnits()).isEqualTo(300);
+        assertThat(user.getSlidingOrderCount()).isEqualTo(3);
+    }
+
+    @Test
+    void ordersForClosedWindowsAreDropped() {
+        aggregator.add(List.of(order(1L, 5, "10.00", "USD")), offset(1));
+        aggregator.add(List.of(order(1L, 75, "1.00", "USD")), offset(2));
+
+        aggregator.add(List.of(order(1L, 30, "99.00", "USD")), offset(3));
+
+        assertThat(aggregator.lateOrders()).isEqualTo(1);
+        assertThat(aggregator.query("USD", 1L).slidingTotal().getMinorUnits()).isEqualTo(1100);
+    }
+
+    @Test
+    void idleAdvanceMovesOnFromTheNewestEventTime() {
+        assertThat(aggregator.advanceIdle(3_600_000)).isEmpty();
+        aggregator.add(List.of(order(1L, 5, "10.00", "USD"), order(1L, 65, "1.00", "USD")), offset(2));
+
+        // Watermark 55s plus 70s idle: closes [0s, 60s) and [60s, 120s), nothing later
+        List<OrderTotalsEvent> closed = aggregator.advanceIdle(70_000);
+
+        assertThat(closed).extracting(OrderTotalsEvent::getWindowStart).containsOnly(T0, T0.plusSeconds(60));
+        assertThat(aggregator.advanceIdle(70_000)).isEmpty();
+    }
+
+    @Test
+    void queryReturnsSlidingTotalAndTumblingWindows() {
+        aggregator.add(List.of(
+            order(1L, 5, "10.00", "USD"),
+            order(2L, 6, "2.00", "USD"),
+            order(1L, 75, "1.00", "USD")), offset(3));
+
+        OrderTotalsView user = aggregator.query("USD", 1L);
+        assertThat(user.slidingTotal().getMinorUnits()).isEqualTo(1100);
+        assertThat(user.slidingOrderCount()).isEqualTo(2);
+        assertThat(user.windows()).extracting(OrderTotalsView.Window::closed).containsExactly(true, false);
+        assertThat(user.watermark()).isEqualTo(T0.plusSeconds(65));
+
+        assertThat(aggregator.query("USD", null).slidingTotal().getMinorUnits()).isEqualTo(1300);
+        assertThat(aggregator.query("EUR", null).windows()).isEmpty();
+    }
+
+    @Test
+    void checkpointRestoresWindowsWatermarkAndOffsets(@TempDir Path dir) {
+        Path file = dir.resolve("order-totals.bin");
+        aggregator.add(List.of(order(1L, 5, "10.00", "USD"), order(1L, 75, "1.00", "USD")), offset(42));
+        aggregator.saveCheckpoint(file);
+
+        OrderTotalsAggregator restored = new OrderTotalsAggregator(properties());
+        restored.loadCheckpoint(file);
+
+        assertThat(restored.nextOffsets()).containsEntry(PARTITION, 42L);
+        assertThat(restored.query("USD", 1L)).isEqualTo(aggregator.query("USD", 1L));
+        // The first window stays closed after the restore
+        restored.add(List.of(order(1L, 30, "99.00", "USD")), offset(43));
+        assertThat(restored.lateOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void checkpointWithOtherWindowsIsIgnored(@TempDir Path dir) {
+        Path file = dir.resolve("order-totals.bin");
+        aggregator.add(List.of(order(1L, 5, "10.00", "USD")), offset(1));
+        aggregator.saveCheckpoint(file);
+        OrderTotalsProperties other = properties();
+        other.setWindow(Duration.ofSeconds(30));
+
+        OrderTotalsAggregator restored = new OrderTotalsAggregator(other);
+        restored.loadCheckpoint(file);
+
+        assertThat(restored.stateSize()).isZero();
+        assertThat(restored.nextOffsets()).isEmpty();
+    }
+
+    @Test
+    void tableGrowsWithoutLosingKeys() {
+        TotalsTable table = new TotalsTable(16);
+        short usd = Money.pack("USD");
+        for (long user = 0; user < 10_000; user++) {
+            table.add(user, usd, user);
+            table.add(user, usd, 1);
+        }
+
+        assertThat(table.size()).isEqualTo(10_000);
+        for (long user = 0; user < 10_000; user++) {
+            int slot = table.indexOf(user, usd);
+            assertThat(table.minorUnits(slot)).isEqualTo(user + 1);
+            assertThat(table.count(slot)).isEqualTo(2);
+        }
+        assertThat(table.indexOf(10_000, usd)).isEqualTo(-1);
+    }
+
+    private static OrderTotalsProperties properties() {
+        OrderTotalsProperties properties = new OrderTotalsProperties();
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setSlidingWindow(Duration.ofMinutes(3));
+        properties.setAllowedLateness(Duration.ofSeconds(10));
+        properties.setExpectedKeysPerWindow(16);
+        return properties;
+    }
+
+    private static Map<TopicPartition, Long> offset(long next) {
+        return Map.of(PARTITION, next);
+    }
+
+    private static OrderCreatedEvent order(Long userId, int second, String amount, String currency) {
+        return OrderCreatedEvent.builder()
+            .timestamp(T0.plusSeconds(second))
+            .orderId((long) second)
+            .userId(userId)
+            .totalAmount(Money.of(new BigDecimal(amount), currency))
+            .build();
+    }
+
+    private static OrderTotalsEvent summary(List<OrderTotalsEvent> events, Long userId, String currency) {
+        return events.stream()
+            .filter(event -> Objects.equals(event.getUserId(), userId))
+            .filter(event -> event.getCurrency().equals(currency))
+            .findFirst()
+            .orElseThrow();
+    }
+}
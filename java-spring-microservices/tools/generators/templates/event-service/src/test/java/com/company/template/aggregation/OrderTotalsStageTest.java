@@ -0,0 +1,136 @@
+package com.company.{{SERVICE_NAME}}.aggregation;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.OrderTotalsEvent;
+import com.company.{{SERVICE_NAME}}.config.OrderTotalsProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderTotalsStageTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, DomainEvent> template = mock(KafkaTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final LazyEventDeserializer deserializer = new LazyEventDeserializer();
+    private final OrderTotalsAggregator aggregator = new OrderTotalsAggregator(properties());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderTotalsStage stage = new OrderTotalsStage(aggregator, properties(), template, meterRegistry);
+    private final List<OrderTotalsEvent> sent = new ArrayList<>();
+    private boolean failSends;
+
+    OrderTotalsStageTest() {
+        when(template.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            if (failSends) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+            }
+            OrderTotalsEvent summary = invocation.getArgument(2);
+            sent.add(summary);
+            ProducerRecord<String, DomainEvent> record = new ProducerRecord<>(invocation.getArgument(0),
+                invocation.getArgument(1), summary);
+            return CompletableFuture.completedFuture(new SendResult<>(record,
+                new RecordMetadata(new TopicPartition("order-totals", 0), 0, 0, 0, 0, 0)));
+        });
+    }
+
+    @Test
+    void idleClockStartsAtTheFirstOrder() {
+        stage.closeIdleWindows(System.currentTimeMillis() + 3_600_000);
+
+        assertThat(sent).isEmpty();
+        assertThat(stage.unsentSummaries()).isZero();
+    }
+
+    @Test
+    void idleWindowsCloseFromEventTimeNotWallClock() {
+        stage.aggregate(List.of(order(0, 1L, 5), order(1, 1L, 50)));
+
+        // Quiet for 90s: the watermark moves from 40s to 130s of event time, closing only [0s, 60s)
+        stage.closeIdleWindows(System.currentTimeMillis() + 90_000);
+
+        assertThat(sent).extracting(OrderTotalsEvent::getWindowStart).containsOnly(T0);
+        // Orders of the old backlog after the closed window still count
+        stage.aggregate(List.of(order(2, 1L, 150)));
+        assertThat(aggregator.lateOrders()).isZero();
+    }
+
+    @Test
+    void failedSummaryIsSentAgainOnTheNextTick() {
+        stage.aggregate(List.of(order(0, 1L, 5)));
+        failSends = true;
+
+        stage.aggregate(List.of(order(1, 1L, 75)));
+
+        assertThat(sent).isEmpty();
+        assertThat(stage.unsentSummaries()).isEqualTo(2);
+        assertThat(meterRegistry.counter("event.aggregation.summaries").count()).isZero();
+
+        failSends = false;
+        stage.closeIdleWindows(System.currentTimeMillis());
+
+        assertThat(sent).hasSize(2).allMatch(summary -> summary.getWindowStart().equals(T0));
+        assertThat(stage.unsentSummaries()).isZero();
+        assertThat(meterRegistry.counter("event.aggregation.summaries").count()).isEqualTo(2);
+    }
+
+    private ConsumerRecord<String, LazyEvent> order(long offset, Long userId, int second) {
+        OrderCreatedEvent order = OrderCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(T0.plusSeconds(second))
+            .orderId(offset)
+            .userId(userId)
+            .totalAmount(Money.of(new BigDecimal("1.00"), "USD"))
+            .build();
+        try {
+            byte[] value = objectMapper.writeValueAsBytes(order);
+            RecordHeaders headers = new RecordHeaders();
+            EventHeaders.stamp(headers, order);
+            return new ConsumerRecord<>("order-events", 0, offset, 0L, TimestampType.CREATE_TIME, 0, value.length,
+                String.valueOf(userId), deserializer.deserialize("order-events", headers, value), headers,
+                Optional.empty());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OrderTotalsProperties properties() {
+        OrderTotalsProperties properties = new OrderTotalsProperties();
+        properties.setEnabled(true);
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setSlidingWindow(Duration.ofMinutes(3));
+        properties.setAllowedLateness(Duration.ofSeconds(10));
+        properties.setExpectedKeysPerWindow(16);
+        return properties;
+    }
+}
@@ -0,0 +1,284 @@
+package com.company.{{SERVICE_NAME}}.backpressure;
+
+import com.company.{{SERVICE_NAME}}.config.ConcurrencyLimitProperties;
+import com.company.{{SERVICE_NAME}}.config.PriorityLaneProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void slowCallsCutTheLimitOncePerRoundTrip() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofMillis(1));
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+        Thread.sleep(5);
+
+        limiter.release(first, System.nanoTime(), false);
+        limiter.release(second, System.nanoTime(), false);
+        assertThat(limiter.getLimit()).isEqualTo(7);
+
+        long third = limiter.acquire();
+        Thread.sleep(5);
+        limiter.release(third, System.nanoTime(), false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(meterRegistry.get("event.concurrency.limit").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    void batchCallsAreMeasuredPerRecord() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofMillis(2));
+        long fiveMillis = Duration.ofMillis(5).toNanos();
+        Consumer<List<Integer>> batch = limiter.limited(values -> LockSupport.parkNanos(fiveMillis));
+        Consumer<Integer> single = limiter.limited(value -> LockSupport.parkNanos(fiveMillis));
+
+        batch.accept(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        single.accept(1);
+        assertThat(limiter.getLimit()).isEqualTo(7);
+    }
+
+    @Test
+    void failuresCutTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, Duration.ofSeconds(1));
+        Consumer<String> failing = limiter.limited(value -> {
+            throw new IllegalStateException("downstream error");
+        });
+
+        assertThatThrownBy(() -> failing.accept("a")).isInstanceOf(IllegalStateException.class);
+
+        assertThat(limiter.getLimit()).isEqualTo(6);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    void fastCallsRaiseTheLimitOnlyWhileItIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            long start = limiter.acquire();
+            limiter.release(start, start, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+        for (int i = 0; i < 5; i++) {
+            long start = limiter.acquire();
+            limiter.release(start, start, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        limiter.release(first, first, false);
+        limiter.release(second, second, false);
+    }
+
+    @Test
+    void waitingPastMaxWaitIsRejected() {
+        ConcurrencyLimitProperties properties = properties(1, Duration.ofSeconds(1));
+        properties.setMaxWait(Duration.ofMillis(50));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, new PriorityLaneProperties(), meterRegistry);
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(meterRegistry.get("event.concurrency.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledLimiterReturnsTheActionUnchanged() {
+        ConcurrencyLimitProperties properties = properties(1, Duration.ofSeconds(1));
+        properties.setEnabled(false);
+        Consumer<String> action = value -> { };
+
+        assertThat(new AdaptiveConcurrencyLimiter(properties, new PriorityLaneProperties(), meterRegistry).limited(action)).isSameAs(action);
+    }
+
+    @Test
+    void laneStaysWithinItsBudgetWhileOthersStillRun() {
+        ConcurrencyLimitProperties properties = properties(8, Duration.ofSeconds(1));
+        properties.setMaxWait(Duration.ofMillis(50));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties,
+            lanes(lane("payments", "payment-events", 4, Integer.MAX_VALUE), lane("bulk", "user-events", 1, 2)),
+            meterRegistry);
+        limiter.acquire("user-events");
+        limiter.acquire("user-events");
+
+        assertThatThrownBy(() -> limiter.acquire("user-events"))
+            .isInstanceOf(ConcurrencyLimitExceededException.class)
+            .hasMessageContaining("bulk");
+        limiter.acquire("payment-events");
+        assertThat(limiter.getInflight("bulk")).isEqualTo(2);
+        assertThat(limiter.getInflight("payments")).isEqualTo(1);
+        assertThat(meterRegistry.get("event.lane.inflight").tag("lane", "payments").gauge().value()).isEqualTo(1);
+    }
+
+    /**
+     * Four threads per lane against one permit: grants follow the 3:1
+     * weights instead of the 1:1 of the callers.
+     */
+    @Test
+    void contendedPermitsFollowLaneWeights() throws Exception {
+        ConcurrencyLimitProperties properties = properties(1, Duration.ofSeconds(1));
+        properties.setEnabled(false);
+        properties.setMaxLimit(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties,
+            lanes(lane("payments", "payment-events", 3, Integer.MAX_VALUE), lane("bulk", "user-events", 1, 8)),
+            meterRegistry);
+        AtomicLong payments = new AtomicLong();
+        AtomicLong bulk = new AtomicLong();
+        Consumer<Object> payment = limiter.limited("payment-events", value -> {
+            LockSupport.parkNanos(200_000);
+            payments.incrementAndGet();
+        });
+        Consumer<Object> user = limiter.limited("user-events", value -> {
+            LockSupport.parkNanos(200_000);
+            bulk.incrementAndGet();
+        });
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            Consumer<Object> call = i % 2 == 0 ? payment : user;
+            Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    call.accept(null);
+                }
+                done.countDown();
+            });
+        }
+        Thread.sleep(500);
+        running.set(false);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat((double) payments.get() / bulk.get()).isBetween(2.0, 4.5);
+    }
+
+    /**
+     * 16 listener threads against a downstream that serves 4 calls at a time
+     * in 5 ms and queues the rest: unlimited, calls take ~20 ms. The limiter
+     * should settle near the downstream capacity and keep calls near the
+     * target; the rest of the wait moves in front of the downstream.
+     *
+     * Timing-sensitive: mvn test -Dtest=AdaptiveConcurrencyLimiterTest -Dkafka.throughput=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "kafka.throughput", matches = "true")
+    void keepsDownstreamLatencyNearTargetAgainstSlowDownstream() throws Exception {
+        Duration target = Duration.ofMillis(10);
+        SlowDownstream downstream = new SlowDownstream(4, Duration.ofMillis(5));
+        AdaptiveConcurrencyLimiter limiter = limiter(16, target);
+
+        double unlimited = run(16, Duration.ofMillis(500), downstream, value -> downstream.call());
+        double limited = run(16, Duration.ofMillis(1500), downstream, limiter.limited(value -> downstream.call()));
+
+        assertThat(unlimited).isGreaterThan(target.toNanos());
+        assertThat(limited).isLessThan(target.toNanos() * 1.5);
+        assertThat(limiter.getLimit()).isBetween(2, 10);
+    }
+
+    /**
+     * @return mean downstream latency in nanos over the second half of the run
+     */
+    private static double run(int threads, Duration duration, SlowDownstream downstream, Consumer<Object> call)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    call.accept(null);
+                }
+                done.countDown();
+            });
+        }
+        Thread.sleep(duration.toMillis() / 2);
+        downstream.startMeasuring();
+        Thread.sleep(duration.toMillis() / 2);
+        running.set(false);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        return downstream.meanLatencyNanos();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration target) {
+        return new AdaptiveConcurrencyLimiter(properties(initialLimit, target), new PriorityLaneProperties(),
+            meterRegistry);
+    }
+
+    private static PriorityLaneProperties lanes(PriorityLaneProperties.Lane... lanes) {
+        PriorityLaneProperties properties = new PriorityLaneProperties();
+        properties.setLanes(List.of(lanes));
+        return properties;
+    }
+
+    private static PriorityLaneProperties.Lane lane(String name, String topic, int weight, int maxConcurrency) {
+        PriorityLaneProperties.Lane lane = new PriorityLaneProperties.Lane();
+        lane.setName(name);
+        lane.setTopics(List.of(topic));
+        lane.setWeight(weight);
+        lane.setMaxConcurrency(maxConcurrency);
+        return lane;
+    }
+
+    private static ConcurrencyLimitProperties properties(int initialLimit, Duration target) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(true);
+        properties.setInitialLimit(initialLimit);
+        properties.setTargetLatency(target);
+        return properties;
+    }
+
+    /** A database with a fixed connection pool: calls beyond the pool wait. */
+    private static final class SlowDownstream {
+
+        private final Semaphore connections;
+        private final long serviceNanos;
+        private final AtomicBoolean measuring = new AtomicBoolean();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        SlowDownstream(int connections, Duration serviceTime) {
+            this.connections = new Semaphore(connections, true);
+            this.serviceNanos = serviceTime.toNanos();
+        }
+
+        void call() {
+            long start = System.nanoTime();
+            connections.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(serviceNanos);
+            } finally {
+                connections.release();
+            }
+            if (measuring.get()) {
+                calls.incrementAndGet();
+                totalNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        void startMeasuring() {
+            calls.set(0);
+            totalNanos.set(0);
+            measuring.set(true);
+        }
+
+        double meanLatencyNanos() {
+            return (double) totalNanos.get() / Math.max(1, calls.get());
+        }
+    }
+}
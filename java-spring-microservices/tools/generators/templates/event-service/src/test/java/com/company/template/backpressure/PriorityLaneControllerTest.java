@@ -0,0 +1,86 @@
+package com.company.{{SERVICE_NAME}}.backpressure;
+
+import com.company.{{SERVICE_NAME}}.config.PriorityLaneProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityLaneControllerTest {
+
+    private final PriorityLaneController controller = new PriorityLaneController(properties(),
+        new KafkaAdmin(Map.of()), new KafkaListenerEndpointRegistry(), new SimpleMeterRegistry(), "demo");
+
+    @Test
+    void laggingLanePausesEveryLaneAfterIt() {
+        assertThat(controller.lanesToPause(lags(5000, 0, 0))).containsExactlyInAnyOrder("orders", "bulk", "default");
+        assertThat(controller.lanesToPause(lags(0, 3000, 0))).containsExactlyInAnyOrder("bulk", "default");
+        assertThat(controller.lanesToPause(lags(0, 0, 90_000))).isEmpty();
+    }
+
+    @Test
+    void pausedLanesResumeOnlyBelowResumeLag() {
+        controller.lanesToPause(lags(1500, 0, 0));
+
+        // Back under pause-lag (1000) but above resume-lag (500): still paused
+        assertThat(controller.lanesToPause(lags(800, 0, 0))).contains("bulk");
+        assertThat(controller.lanesToPause(lags(400, 0, 0))).isEmpty();
+    }
+
+    @Test
+    void unlistedTopicsBelongToTheDefaultLane() {
+        assertThat(controller.laneOf("payment-events")).isEqualTo("payments");
+        assertThat(controller.laneOf("order-events-batched")).isEqualTo("default");
+    }
+
+    @Test
+    void configuredLanesFollowTheTopicNames() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("overrides",
+            Map.of("app.kafka.topics.payment-events", "payments-v2")));
+        for (PropertySource<?> source : new YamlPropertySourceLoader().load("application",
+                new ClassPathResource("application.yml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+
+        PriorityLaneProperties configured = Binder.get(environment)
+            .bind("app.kafka.priority", PriorityLaneProperties.class)
+            .get();
+
+        assertThat(configured.getLanes()).extracting(PriorityLaneProperties.Lane::getTopics).containsExactly(
+            List.of("payments-v2"), List.of("order-events", "order-events-batched"), List.of("user-events"));
+    }
+
+    private static Map<String, Long> lags(long payments, long orders, long bulk) {
+        return Map.of("payments", payments, "orders", orders, "bulk", bulk, "default", 0L);
+    }
+
+    private static PriorityLaneProperties properties() {
+        PriorityLaneProperties properties = new PriorityLaneProperties();
+        properties.setLanes(List.of(
+            lane("payments", "payment-events", 1000),
+            lane("orders", "order-events", 2000),
+            lane("bulk", "user-events", 0)));
+        return properties;
+    }
+
+    private static PriorityLaneProperties.Lane lane(String name, String topic, long pauseLag) {
+        PriorityLaneProperties.Lane lane = new PriorityLaneProperties.Lane();
+        lane.setName(name);
+        lane.setTopics(List.of(topic));
+        lane.setPauseLag(pauseLag);
+        return lane;
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.user.UserCreatedEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventTypeFilterTest {
+
+    private final EventTypeFilter filter = EventTypeFilter.accepting("USER_CREATED");
+
+    @Test
+    void keepsAcceptedTypesWithoutDecodingThem() {
+        LazyEvent event = lazy(UserCreatedEvent.builder().eventId(EventIds.next()).userId(1L).build());
+
+        assertThat(filter.filter(record(event))).isFalse();
+        assertThat(event.isDecoded()).isFalse();
+    }
+
+    @Test
+    void discardsOtherTypesWithoutDecodingThem() {
+        LazyEvent event = lazy(OrderCreatedEvent.builder().eventId(EventIds.next()).orderId(7L).build());
+
+        assertThat(filter.filter(record(event))).isTrue();
+        assertThat(event.isDecoded()).isFalse();
+    }
+
+    @Test
+    void discardsTombstones() {
+        assertThat(filter.filter(record(null))).isTrue();
+    }
+
+    @Test
+    void acceptsEveryListedType() {
+        EventTypeFilter reconciliation = EventTypeFilter.accepting("ORDER_CREATED", "PAYMENT_COMPLETED");
+
+        assertThat(reconciliation.filter(record(lazy(OrderCreatedEvent.builder().orderId(7L).build())))).isFalse();
+        assertThat(reconciliation.filter(record(lazy(UserCreatedEvent.builder().userId(1L).build())))).isTrue();
+    }
+
+    // Headers only: the payload is never valid, so any decode would fail the test
+    private static LazyEvent lazy(DomainEvent event) {
+        Headers headers = new RecordHeaders();
+        EventHeaders.stamp(headers, event);
+        return new LazyEventDeserializer().deserialize("events", headers, new byte[] {'{'});
+    }
+
+    private static ConsumerRecord<String, LazyEvent> record(LazyEvent event) {
+        return new ConsumerRecord<>("events", 0, 0, "key", event);
+    }
+}
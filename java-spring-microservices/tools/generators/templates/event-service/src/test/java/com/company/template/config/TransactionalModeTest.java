@@ -0,0 +1,260 @@
+package com.company.{{SERVICE_NAME}}.config;
+
+import com.company.event.DomainEvent;
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaderInterceptor;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.user.UserCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Consume-process-produce through the batch listener factory and event
+ * template of {@link KafkaConfig}: a listener publishes one derived event
+ * per consumed user, and a read_committed consumer counts them.
+ */
+@EmbeddedKafka(partitions = 3, topics = {
+    "users-aborted", "derived-aborted", "users-warm-up", "derived-warm-up",
+    "users-at-least-once", "derived-at-least-once", "users-transactional", "derived-transactional",
+    "users-large-polls", "derived-large-polls", "users-poison", "derived-poison", "users-poison-retry-1"},
+    // One broker: the transaction log cannot have the default three replicas
+    brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+class TransactionalModeTest {
+
+    static final int RECORDS = 50_000;
+
+    @Test
+    void abortedPollsLeaveNoDerivedEvents(EmbeddedKafkaBroker broker) throws Exception {
+        publish(broker, "users-aborted", 1000);
+        try (ConfigurableApplicationContext context = start(broker, "aborted", true, 500)) {
+            DerivingListener listener = context.getBean(DerivingListener.class);
+            // Crash twice after publishing, before the offsets are committed
+            listener.failures.set(2);
+            startListener(context, broker);
+
+            awaitConsumed(listener, 1000);
+            assertThat(listener.failures.get()).isNegative();
+            assertThat(countCommitted(broker, "derived-aborted", 1000)).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    void pollThatKeepsFailingMovesToTheRetryTopicAfterBoundedRedeliveries(EmbeddedKafkaBroker broker)
+            throws Exception {
+        publish(broker, "users-poison", 20);
+        try (ConfigurableApplicationContext context = start(broker, "poison", true, 500,
+                "--app.kafka.transactions.rollback-attempts=2",
+                "--app.kafka.transactions.rollback-backoff=100ms")) {
+            DerivingListener listener = context.getBean(DerivingListener.class);
+            listener.failures.set(Integer.MAX_VALUE);
+            startListener(context, broker);
+
+            assertThat(countCommitted(broker, "users-poison-retry-1", 20)).isEqualTo(20);
+            assertThat(countCommitted(broker, "derived-poison", 0)).isZero();
+            assertThat(listener.consumed.get()).isZero();
+            long committed = 0;
+            for (int partition = 0; partition < broker.getPartitionsPerTopic(); partition++) {
+                OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(),
+                    "demo-poison", "users-poison", partition);
+                committed += offset == null ? 0 : offset.offset();
+            }
+            assertThat(committed).isEqualTo(20);
+        }
+    }
+
+    /**
+     * Records/s with one transaction per poll of 500 and of 2000 records,
+     * against at-least-once. The commit costs about the same whatever the
+     * poll size, so larger polls amortize it.
+     *
+     * Run: mvn test -Dtest=TransactionalModeTest -Dkafka.throughput=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "kafka.throughput", matches = "true")
+    void measuresTheCostOfTransactions(EmbeddedKafkaBroker broker) throws Exception {
+        measure(broker, "warm-up", false, 500);
+        double atLeastOnce = measure(broker, "at-least-once", false, 500);
+        double transactional = measure(broker, "transactional", true, 500);
+        double largePolls = measure(broker, "large-polls", true, 2000);
+
+        System.out.printf("%nConsume-process-produce, %d records: at-least-once=%.0f records/s, "
+                + "transactional=%.0f records/s (%.0f%%), transactional with 2000-record polls=%.0f records/s "
+                + "(%.0f%%)%n", RECORDS, atLeastOnce, transactional, 100 * transactional / atLeastOnce,
+            largePolls, 100 * largePolls / atLeastOnce);
+        assertThat(transactional).isGreaterThan(atLeastOnce / 4);
+        assertThat(largePolls).isGreaterThan(atLeastOnce / 4);
+    }
+
+    private double measure(EmbeddedKafkaBroker broker, String name, boolean transactional, int batchSize)
+            throws Exception {
+        publish(broker, "users-" + name, RECORDS);
+        try (ConfigurableApplicationContext context = start(broker, name, transactional, batchSize)) {
+            DerivingListener listener = context.getBean(DerivingListener.class);
+            long start = System.nanoTime();
+            startListener(context, broker);
+            awaitConsumed(listener, RECORDS);
+            long elapsed = System.nanoTime() - start;
+            assertThat(countCommitted(broker, "derived-" + name, RECORDS)).isEqualTo(RECORDS);
+            return RECORDS / (elapsed / 1e9);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(EmbeddedKafkaBroker broker, String name,
+                                                        boolean transactional, int batchSize, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+            "--spring.kafka.consumer.group-id=demo-" + name,
+            "--app.kafka.transactions.enabled=" + transactional,
+            "--app.kafka.transactions.transaction-id-prefix=demo-" + name + "-",
+            "--app.kafka.listener.batch-size=" + batchSize,
+            "--test.input-topic=users-" + name,
+            "--test.derived-topic=derived-" + name));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(KafkaConfig.class, TestBeans.class)
+            .web(WebApplicationType.NONE)
+            // As arguments, so they win over application.yml
+            .run(args.toArray(String[]::new));
+    }
+
+    private static void startListener(ConfigurableApplicationContext context, EmbeddedKafkaBroker broker) {
+        MessageListenerContainer container =
+            context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainer("deriving");
+        container.start();
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+    }
+
+    private static void publish(EmbeddedKafkaBroker broker, String topic, int count) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, EventHeaderInterceptor.class.getName());
+        try (KafkaProducer<String, UserCreatedEvent> producer = new KafkaProducer<>(props)) {
+            for (long i = 0; i < count; i++) {
+                producer.send(new ProducerRecord<>(topic, String.valueOf(i), user(i)));
+            }
+        }
+    }
+
+    /**
+     * Reads the topic as a read_committed consumer until {@code expected}
+     * records arrived, then a while longer to catch any extra ones.
+     */
+    private static long countCommitted(EmbeddedKafkaBroker broker, String topic, int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("count-" + topic, "false", broker);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        long count = 0;
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(topic));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            long quietUntil = Long.MAX_VALUE;
+            while (System.nanoTime() < Math.min(deadline, quietUntil)) {
+                count += consumer.poll(Duration.ofMillis(200)).count();
+                if (count >= expected && quietUntil == Long.MAX_VALUE) {
+                    quietUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void awaitConsumed(DerivingListener listener, int records) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (listener.consumed.get() < records && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(listener.consumed.get()).isEqualTo(records);
+    }
+
+    private static UserCreatedEvent user(long userId) {
+        return UserCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(Instant.now())
+            .userId(userId)
+            .username("user" + userId)
+            .email("user" + userId + "@example.com")
+            .build();
+    }
+
+    static class TestBeans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        DerivingListener derivingListener(KafkaTemplate<String, DomainEvent> eventTemplate) {
+            return new DerivingListener(eventTemplate);
+        }
+    }
+
+    static class DerivingListener {
+
+        final AtomicLong consumed = new AtomicLong();
+        final AtomicInteger failures = new AtomicInteger();
+        private final KafkaTemplate<String, DomainEvent> eventTemplate;
+
+        @Value("${test.derived-topic}")
+        private String derivedTopic;
+
+        DerivingListener(KafkaTemplate<String, DomainEvent> eventTemplate) {
+            this.eventTemplate = eventTemplate;
+        }
+
+        @KafkaListener(
+            id = "deriving",
+            topics = "${test.input-topic}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchListenerContainerFactory",
+            autoStartup = "false"
+        )
+        public void derive(List<ConsumerRecord<String, LazyEvent>> records) {
+            for (ConsumerRecord<String, LazyEvent> record : records) {
+                UserCreatedEvent created = record.value().as(UserCreatedEvent.class);
+                eventTemplate.send(derivedTopic, record.key(), user(created.getUserId()));
+            }
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Simulated crash");
+            }
+            consumed.addAndGet(records.size());
+        }
+    }
+}
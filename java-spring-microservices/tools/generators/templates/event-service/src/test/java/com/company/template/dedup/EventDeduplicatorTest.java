@@ -0,0 +1,240 @@
+package com.company.{{SERVICE_NAME}}.dedup;
+
+import com.company.event.EventIds;
+import com.company.event.user.UserCreatedEvent;
+import com.company.{{SERVICE_NAME}}.config.DedupProperties;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventDeduplicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final DedupProperties properties = new DedupProperties();
+
+    @Test
+    void processesEachEventIdOnce() {
+        EventDeduplicator deduplicator = deduplicator();
+        UserCreatedEvent event = user();
+        List<Long> processed = new ArrayList<>();
+
+        deduplicator.runOnce(event, e -> processed.add(e.getUserId()));
+        deduplicator.runOnce(event, e -> processed.add(e.getUserId()));
+        deduplicator.runOnce(user(), e -> processed.add(e.getUserId()));
+
+        assertThat(processed).hasSize(2);
+        assertThat(counter("new")).isEqualTo(2);
+        assertThat(counter("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    void failedProcessingIsNotRemembered() {
+        EventDeduplicator deduplicator = deduplicator();
+        UserCreatedEvent event = user();
+
+        assertThatThrownBy(() -> deduplicator.runOnce(event, e -> {
+            throw new IllegalStateException("mail server down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        List<UserCreatedEvent> processed = new ArrayList<>();
+        deduplicator.runOnce(event, processed::add);
+        assertThat(processed).containsExactly(event);
+    }
+
+    @Test
+    void batchSkipsDuplicatesAndMapsFailureToOriginalIndex() {
+        EventDeduplicator deduplicator = deduplicator();
+        UserCreatedEvent seen = user();
+        deduplicator.runOnce(seen, e -> { });
+        UserCreatedEvent first = user();
+        UserCreatedEvent failing = user();
+        List<UserCreatedEvent> batch = List.of(seen, first, first, failing, user());
+
+        assertThatThrownBy(() -> deduplicator.runOnceBatch(batch, events -> {
+            assertThat(events).hasSize(3).doesNotContain(seen);
+            throw new BatchProcessingException(events.indexOf(failing), new IllegalStateException());
+        }))
+            .isInstanceOfSatisfying(BatchProcessingException.class,
+                e -> assertThat(e.getFailedIndex()).isEqualTo(3));
+
+        // Events before the failure are remembered, the failed one and later ones are not
+        List<UserCreatedEvent> retried = new ArrayList<>();
+        deduplicator.runOnceBatch(batch.subList(3, 5), retried::addAll);
+        assertThat(retried).containsExactly(failing, batch.get(4));
+        assertThat(deduplicator.isDuplicate(first.getEventId())).isTrue();
+    }
+
+    @Test
+    void insideATransactionEventsAreRememberedOnlyOnceItCommits() {
+        EventDeduplicator deduplicator = deduplicator();
+        UserCreatedEvent rolledBack = user();
+        UserCreatedEvent committed = user();
+
+        inTransaction(() -> deduplicator.runOnceBatch(List.of(rolledBack), events -> { }), false);
+        assertThat(deduplicator.isDuplicate(rolledBack.getEventId())).isFalse();
+
+        inTransaction(() -> {
+            deduplicator.runOnce(committed, e -> { });
+            assertThat(deduplicator.isDuplicate(committed.getEventId())).isFalse();
+        }, true);
+        assertThat(deduplicator.isDuplicate(committed.getEventId())).isTrue();
+    }
+
+    @Test
+    void bloomFalsePositivesAreConfirmedAgainstExactStore() {
+        // A tiny filter saturates quickly, forcing false positives
+        properties.setExpectedEventsPerWindow(100);
+        properties.setExactCapacity(100_000);
+        EventDeduplicator deduplicator = deduplicator();
+        List<String> ids = IntStream.range(0, 5_000).mapToObj(i -> EventIds.next()).toList();
+        ids.forEach(deduplicator::markProcessed);
+
+        long wronglySkipped = IntStream.range(0, 5_000)
+            .filter(i -> deduplicator.isDuplicate(EventIds.next()))
+            .count();
+
+        assertThat(wronglySkipped).isZero();
+        assertThat(counter("unconfirmed")).isPositive();
+        assertThat(counter("new") + counter("unconfirmed")).isEqualTo(5_000);
+        assertThat(ids).allMatch(deduplicator::isDuplicate);
+    }
+
+    @Test
+    void duplicatesOlderThanTheExactHorizonAreProcessedAgainAsUnconfirmed() {
+        properties.setExactCapacity(10);
+        EventDeduplicator deduplicator = deduplicator();
+        List<String> ids = IntStream.range(0, 11).mapToObj(i -> EventIds.next()).toList();
+        ids.forEach(deduplicator::markProcessed);
+
+        // Still in the Bloom window, but evicted from the exact store
+        assertThat(deduplicator.isDuplicate(ids.get(0))).isFalse();
+        assertThat(deduplicator.isDuplicate(ids.get(10))).isTrue();
+        assertThat(counter("unconfirmed")).isEqualTo(1);
+        assertThat(counter("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    void exactHorizonFollowsCapacityAndRate() {
+        assertThat(properties.exactHorizon()).isEqualTo(Duration.ofMillis(72_000));
+
+        properties.setExactCapacity(5_000_000);
+        assertThat(properties.exactHorizon()).isEqualTo(properties.getWindow());
+    }
+
+    @Test
+    void forgetsIdsOnceTheWindowHasPassed() {
+        properties.setWindow(Duration.ofMinutes(10));
+        EventDeduplicator deduplicator = deduplicator();
+        UserCreatedEvent event = user();
+        deduplicator.runOnce(event, e -> { });
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(deduplicator.isDuplicate(event.getEventId())).isTrue();
+
+        clock.advance(Duration.ofMinutes(6));
+        assertThat(deduplicator.isDuplicate(event.getEventId())).isFalse();
+    }
+
+    @Test
+    void snapshotRestoresTheWindow(@TempDir Path directory) {
+        Path snapshot = directory.resolve("dedup.bin");
+        EventDeduplicator before = deduplicator();
+        UserCreatedEvent event = user();
+        before.runOnce(event, e -> { });
+        before.markProcessed("not-a-uuid-id");
+        before.saveSnapshot(snapshot);
+
+        EventDeduplicator after = deduplicator();
+        after.loadSnapshot(snapshot);
+
+        assertThat(after.isDuplicate(event.getEventId())).isTrue();
+        assertThat(after.isDuplicate("not-a-uuid-id")).isTrue();
+        assertThat(after.isDuplicate(EventIds.next())).isFalse();
+    }
+
+    @Test
+    void snapshotWithDifferentSizingIsIgnored(@TempDir Path directory) {
+        Path snapshot = directory.resolve("dedup.bin");
+        EventDeduplicator before = deduplicator();
+        UserCreatedEvent event = user();
+        before.runOnce(event, e -> { });
+        before.saveSnapshot(snapshot);
+
+        properties.setExpectedEventsPerWindow(1_000);
+        EventDeduplicator after = deduplicator();
+        after.loadSnapshot(snapshot);
+
+        assertThat(after.isDuplicate(event.getEventId())).isFalse();
+    }
+
+    /** Runs {@code work} with transaction synchronization active, as a transactional listener does. */
+    private static void inTransaction(Runnable work, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            if (commit) {
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private EventDeduplicator deduplicator() {
+        return new EventDeduplicator(properties, meterRegistry, clock);
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("event.dedup.events").tag("result", result).counter().count();
+    }
+
+    private static UserCreatedEvent user() {
+        return UserCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(Instant.now())
+            .userId(42L)
+            .username("jane")
+            .email("jane@example.com")
+            .build();
+    }
+
+    static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.user.UserCreatedEvent;
+import com.company.{{SERVICE_NAME}}.config.RetryProperties;
+import com.company.{{SERVICE_NAME}}.config.TransactionProperties;
+import com.company.{{SERVICE_NAME}}.retry.RetryTopicRouter;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchRecordsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final LazyEventDeserializer deserializer = new LazyEventDeserializer();
+    @SuppressWarnings("unchecked")
+    private final KafkaOperations<Object, Object> template = mock(KafkaOperations.class);
+    private final List<ProducerRecord<Object, Object>> routed = new ArrayList<>();
+    private final List<Long> processed = new ArrayList<>();
+
+    @Test
+    void failedRecordGoesToTheErrorHandler() {
+        List<ConsumerRecord<String, LazyEvent>> records = List.of(user(0), user(1), user(2));
+
+        assertThatThrownBy(() -> batchRecords(false).process(records, UserCreatedEvent.class, failingOn(1)))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                e -> assertThat(e.getRecord()).isSameAs(records.get(1)));
+        assertThat(routed).isEmpty();
+    }
+
+    @Test
+    void transactionalModeRoutesFailedRecordsAndCarriesOn() {
+        List<ConsumerRecord<String, LazyEvent>> records =
+            List.of(user(0), user(1), user(2), user(3), user(4), undecodable(5));
+
+        batchRecords(true).process(records, UserCreatedEvent.class, failingOn(1, 3));
+
+        assertThat(processed).containsExactly(0L, 2L, 4L);
+        assertThat(routed).extracting(ProducerRecord::topic)
+            .containsExactly("user-events-dlt", "user-events-retry-1", "user-events-retry-1");
+        assertThat(routed).extracting(ProducerRecord::key).containsExactly("5", "1", "3");
+    }
+
+    private BatchRecords batchRecords(boolean transactional) {
+        when(template.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<Object, Object> record = invocation.getArgument(0);
+            routed.add(record);
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0, 0, 0);
+            return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+        });
+        RetryTopicRouter router = new RetryTopicRouter(template, new RetryProperties(), new SimpleMeterRegistry(),
+            Clock.systemUTC());
+        TransactionProperties properties = new TransactionProperties();
+        properties.setEnabled(transactional);
+        return new BatchRecords(router, properties);
+    }
+
+    /** Service batch method that processes events in order and fails on the given users. */
+    private Consumer<List<UserCreatedEvent>> failingOn(long... userIds) {
+        return events -> {
+            for (int i = 0; i < events.size(); i++) {
+                long userId = events.get(i).getUserId();
+                for (long failing : userIds) {
+                    if (userId == failing) {
+                        throw new BatchProcessingException(i, new IllegalStateException("user " + userId));
+                    }
+                }
+                processed.add(userId);
+            }
+        };
+    }
+
+    private ConsumerRecord<String, LazyEvent> user(long userId) {
+        UserCreatedEvent user = UserCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(Instant.now())
+            .userId(userId)
+            .username("user" + userId)
+            .build();
+        try {
+            return record(userId, user, objectMapper.writeValueAsBytes(user));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ConsumerRecord<String, LazyEvent> undecodable(long userId) {
+        UserCreatedEvent user = UserCreatedEvent.builder().eventId(EventIds.next()).userId(userId).build();
+        return record(userId, user, "{not json".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ConsumerRecord<String, LazyEvent> record(long userId, UserCreatedEvent headersOf, byte[] value) {
+        RecordHeaders headers = new RecordHeaders();
+        EventHeaders.stamp(headers, headersOf);
+        return new ConsumerRecord<>("user-events", 0, userId, 0L, TimestampType.CREATE_TIME, 0, value.length,
+            String.valueOf(userId), deserializer.deserialize("user-events", headers, value), headers,
+            Optional.empty());
+    }
+}
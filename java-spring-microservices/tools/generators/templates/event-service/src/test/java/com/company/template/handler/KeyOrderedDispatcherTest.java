@@ -0,0 +1,144 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.user.UserCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedDispatcherTest {
+
+    private static final int KEYS = 50;
+    private static final int EVENTS_PER_KEY = 40;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final LazyEventDeserializer deserializer = new LazyEventDeserializer();
+    private final List<ConsumerRecord<?, ?>> recovered = new CopyOnWriteArrayList<>();
+    private final KeyOrderedDispatcher dispatcher =
+        new KeyOrderedDispatcher(8, (record, exception) -> recovered.add(record));
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void preservesOrderPerKeyWhileRunningKeysConcurrently() throws Exception {
+        Map<Long, List<Long>> seenByKey = new ConcurrentHashMap<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Long> acknowledged = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(KEYS * EVENTS_PER_KEY);
+
+        // Interleave keys the way they arrive on a partition
+        long sequence = 0;
+        for (int round = 0; round < EVENTS_PER_KEY; round++) {
+            for (long key = 0; key < KEYS; key++) {
+                long orderSequence = sequence++;
+                dispatcher.dispatch(lazyOrder(key, orderSequence), OrderCreatedEvent.class,
+                    OrderCreatedEvent::getUserId,
+                    order -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        // Slow, uneven handler so lanes finish out of order
+                        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(10_000, 200_000));
+                        seenByKey.computeIfAbsent(order.getUserId(), k -> new CopyOnWriteArrayList<>())
+                            .add(order.getOrderId());
+                        running.decrementAndGet();
+                    },
+                    () -> {
+                        acknowledged.add(orderSequence);
+                        done.countDown();
+                    });
+            }
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(seenByKey).hasSize(KEYS);
+        seenByKey.forEach((key, orderIds) -> assertThat(orderIds)
+            .as("orders of user %d", key)
+            .hasSize(EVENTS_PER_KEY)
+            .isSorted());
+        assertThat(maxRunning.get()).isGreaterThan(1);
+        assertThat(acknowledged).hasSize(KEYS * EVENTS_PER_KEY).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void failingEventIsRecoveredAndAcknowledgedWithoutBlockingItsLane() throws Exception {
+        CountDownLatch failedAcked = new CountDownLatch(1);
+        CountDownLatch nextDone = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        long key = 1;
+        ConsumerRecord<String, LazyEvent> failing = lazyOrder(key, 1);
+
+        dispatcher.dispatch(failing, OrderCreatedEvent.class, OrderCreatedEvent::getUserId,
+            order -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("database down");
+            },
+            failedAcked::countDown);
+        // Same key, so same lane: runs right after the failure is handed off
+        dispatcher.dispatch(lazyOrder(key, 2), OrderCreatedEvent.class, OrderCreatedEvent::getUserId,
+            order -> { }, nextDone::countDown);
+
+        assertThat(nextDone.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(failedAcked.getCount()).isZero();
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(recovered).containsExactly(failing);
+    }
+
+    @Test
+    void undecodableEventIsRecoveredAndAcknowledged() {
+        AtomicInteger acked = new AtomicInteger();
+        ConsumerRecord<String, LazyEvent> record = lazyOrder(1, 1);
+
+        dispatcher.dispatch(record, UserCreatedEvent.class, UserCreatedEvent::getUserId, user -> { },
+            acked::incrementAndGet);
+
+        assertThat(acked.get()).isEqualTo(1);
+        assertThat(recovered).containsExactly(record);
+    }
+
+    private ConsumerRecord<String, LazyEvent> lazyOrder(long userId, long orderId) {
+        OrderCreatedEvent order = OrderCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(Instant.now())
+            .orderId(orderId)
+            .userId(userId)
+            .items(new ArrayList<>())
+            .build();
+        RecordHeaders headers = new RecordHeaders();
+        EventHeaders.stamp(headers, order);
+        byte[] value;
+        try {
+            value = objectMapper.writeValueAsBytes(order);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return new ConsumerRecord<>("order-events", 0, orderId, 0L, TimestampType.CREATE_TIME, 0, value.length,
+            String.valueOf(userId), deserializer.deserialize("order-events", headers, value), headers,
+            Optional.empty());
+    }
+}
@@ -0,0 +1,132 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaders;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.order.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadDispatcherTest {
+
+    private static final int MAX_IN_FLIGHT = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final LazyEventDeserializer deserializer = new LazyEventDeserializer();
+    private final List<ConsumerRecord<?, ?>> recovered = new CopyOnWriteArrayList<>();
+    private final VirtualThreadDispatcher dispatcher =
+        new VirtualThreadDispatcher(MAX_IN_FLIGHT, (record, exception) -> recovered.add(record));
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void runsBlockingCallsConcurrentlyUpToThePartitionLimit() throws Exception {
+        int records = 200;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Long> acknowledged = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(records);
+
+        long start = System.nanoTime();
+        for (long offset = 0; offset < records; offset++) {
+            long acked = offset;
+            dispatcher.dispatch(lazyOrder(0, offset), OrderCreatedEvent.class,
+                order -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    // Blocking downstream call
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                    running.decrementAndGet();
+                },
+                () -> {
+                    acknowledged.add(acked);
+                    done.countDown();
+                });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(maxRunning.get()).isEqualTo(MAX_IN_FLIGHT);
+        assertThat(acknowledged).hasSize(records).doesNotHaveDuplicates();
+        // 10 rounds of 50 ms instead of 200 sequential calls
+        assertThat(elapsedMillis).isLessThan(records * 50 / 4);
+    }
+
+    @Test
+    void partitionsHaveSeparateLimits() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherPartitionDone = new CountDownLatch(1);
+        for (long offset = 0; offset < MAX_IN_FLIGHT; offset++) {
+            dispatcher.dispatch(lazyOrder(0, offset), OrderCreatedEvent.class, order -> await(release), () -> { });
+        }
+
+        dispatcher.dispatch(lazyOrder(1, 0), OrderCreatedEvent.class, order -> { }, otherPartitionDone::countDown);
+
+        assertThat(otherPartitionDone.await(1, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    void failingEventIsRecoveredAndAcknowledged() throws Exception {
+        CountDownLatch acked = new CountDownLatch(1);
+        ConsumerRecord<String, LazyEvent> failing = lazyOrder(0, 1);
+
+        dispatcher.dispatch(failing, OrderCreatedEvent.class,
+            order -> {
+                throw new IllegalStateException("smtp down");
+            },
+            acked::countDown);
+
+        assertThat(acked.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(recovered).containsExactly(failing);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ConsumerRecord<String, LazyEvent> lazyOrder(int partition, long orderId) {
+        OrderCreatedEvent order = OrderCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(Instant.now())
+            .orderId(orderId)
+            .userId(1L)
+            .items(new ArrayList<>())
+            .build();
+        RecordHeaders headers = new RecordHeaders();
+        EventHeaders.stamp(headers, order);
+        byte[] value;
+        try {
+            value = objectMapper.writeValueAsBytes(order);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return new ConsumerRecord<>("order-events", partition, orderId, 0L, TimestampType.CREATE_TIME, 0,
+            value.length, "1", deserializer.deserialize("order-events", headers, value), headers,
+            Optional.empty());
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.{{SERVICE_NAME}}.handler;
+
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaderInterceptor;
+import com.company.event.user.UserCreatedEvent;
+import com.company.{{SERVICE_NAME}}.service.{{SERVICE_NAME_PASCAL}}Service;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records/s of the virtual listener mode against the platform-thread modes
+ * on an embedded broker, for an I/O-bound handler.
+ *
+ * The service simulates a {@value #ROUND_TRIP_MILLIS} ms blocking downstream
+ * call (HTTP, SMTP) per record: on the container thread in single mode, on
+ * 16 lanes in parallel mode, on one virtual thread per record in virtual mode.
+ *
+ * Run: mvn test -Dtest=VirtualThreadThroughputTest -Dkafka.throughput=true
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+        + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+    // Neither mode starts on its own; the test starts each listener in turn
+    "app.kafka.listener.mode=manual",
+    // Measure the threading model, not the adaptive limit
+    "app.kafka.listener.adaptive.max-limit=10000"
+})
+@EmbeddedKafka(partitions = 3, topics = "user-events")
+@EnabledIfSystemProperty(named = "kafka.throughput", matches = "true")
+class VirtualThreadThroughputTest {
+
+    static final int RECORDS = 300;
+    static final long ROUND_TRIP_MILLIS = 50;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private SimulatedDownstreamService service;
+
+    @Test
+    void virtualModeOutperformsPlatformThreadModes() throws Exception {
+        double single = measure("userEvents");
+        double parallel = measure("userEventsParallel");
+        double virtual = measure("userEventsVirtual");
+
+        System.out.printf("%nListener throughput, %d records, %d ms per call: single=%.0f records/s, "
+                + "parallel=%.0f records/s (%.1fx), virtual=%.0f records/s (%.1fx)%n", RECORDS, ROUND_TRIP_MILLIS,
+            single, parallel, parallel / single, virtual, virtual / single);
+        assertThat(virtual).isGreaterThan(parallel);
+        assertThat(parallel).isGreaterThan(single);
+    }
+
+    private double measure(String listenerId) throws Exception {
+        service.processed.set(0);
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        container.start();
+        // Keep the group rebalance out of the measurement
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+
+        long start = System.nanoTime();
+        publish(RECORDS);
+        long deadline = start + TimeUnit.MINUTES.toNanos(2);
+        while (service.processed.get() < RECORDS && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        long elapsed = System.nanoTime() - start;
+        container.stop();
+
+        assertThat(service.processed.get()).isEqualTo(RECORDS);
+        return RECORDS / (elapsed / 1e9);
+    }
+
+    private void publish(int count) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, EventHeaderInterceptor.class.getName());
+        try (KafkaProducer<String, UserCreatedEvent> producer = new KafkaProducer<>(props)) {
+            for (long i = 0; i < count; i++) {
+                UserCreatedEvent event = UserCreatedEvent.builder()
+                    .eventId(EventIds.next())
+                    .timestamp(Instant.now())
+                    .userId(i)
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .build();
+                producer.send(new ProducerRecord<>("user-events", String.valueOf(i), event));
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        @Primary
+        SimulatedDownstreamService simulatedDownstreamService() {
+            return new SimulatedDownstreamService();
+        }
+    }
+
+    static class SimulatedDownstreamService extends {{SERVICE_NAME_PASCAL}}Service {
+
+        final AtomicLong processed = new AtomicLong();
+
+        @Override
+        public void processUserCreated(UserCreatedEvent event) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ROUND_TRIP_MILLIS));
+            processed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.company.{{SERVICE_NAME}}.metrics;
+
+import com.company.event.EventIds;
+import com.company.event.user.UserCreatedEvent;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventMetrics metrics = new EventMetrics(meterRegistry);
+
+    @Test
+    void timesHandlerAndRecordsLatencyFromEventTimestamp() {
+        Consumer<UserCreatedEvent> handler = metrics.timed("userCreated", event -> { });
+
+        handler.accept(user(Instant.now().minusSeconds(2)));
+
+        assertThat(timer("event.handler.duration").count()).isEqualTo(1);
+        Timer latency = timer("event.e2e.latency");
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.totalTime(TimeUnit.MILLISECONDS)).isBetween(2_000.0, 3_000.0);
+    }
+
+    @Test
+    void countsErrorsWithoutRecordingLatency() {
+        Consumer<UserCreatedEvent> handler = metrics.timed("userCreated", event -> {
+            throw new IllegalStateException("database down");
+        });
+
+        assertThatThrownBy(() -> handler.accept(user(Instant.now()))).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("event.handler.errors").tag("handler", "userCreated")
+            .tag("exception", "IllegalStateException").counter().count()).isEqualTo(1);
+        assertThat(timer("event.e2e.latency").count()).isZero();
+    }
+
+    @Test
+    void batchIsTimedOnceWithLatencyPerEvent() {
+        Consumer<List<UserCreatedEvent>> handler = metrics.timedBatch("userCreatedBatch", events -> { });
+
+        handler.accept(List.of(user(Instant.now()), user(Instant.now()), user(null)));
+
+        assertThat(timer("event.handler.duration").count()).isEqualTo(1);
+        assertThat(timer("event.e2e.latency").count()).isEqualTo(2);
+    }
+
+    @Test
+    void batchErrorsAreTaggedWithTheCause() {
+        Consumer<List<UserCreatedEvent>> handler = metrics.timedBatch("userCreatedBatch", events -> {
+            throw new BatchProcessingException(0, new IllegalArgumentException());
+        });
+
+        assertThatThrownBy(() -> handler.accept(List.of(user(Instant.now()))))
+            .isInstanceOf(BatchProcessingException.class);
+
+        assertThat(meterRegistry.get("event.handler.errors").tag("exception", "IllegalArgumentException")
+            .counter().count()).isEqualTo(1);
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.get(name).timer();
+    }
+
+    private static UserCreatedEvent user(Instant timestamp) {
+        return UserCreatedEvent.builder()
+            .eventId(EventIds.next())
+            .timestamp(timestamp)
+            .userId(42L)
+            .username("jane")
+            .email("jane@example.com")
+            .build();
+    }
+}
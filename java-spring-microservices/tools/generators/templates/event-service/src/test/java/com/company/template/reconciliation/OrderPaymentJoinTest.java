@@ -0,0 +1,241 @@
+package com.company.{{SERVICE_NAME}}.reconciliation;
+
+import com.company.event.DomainEvent;
+import com.company.event.money.Money;
+import com.company.event.order.OrderCreatedEvent;
+import com.company.event.order.UnpaidOrderEvent;
+import com.company.event.payment.OrphanPaymentEvent;
+import com.company.event.payment.PaymentCompletedEvent;
+import com.company.{{SERVICE_NAME}}.config.ReconciliationProperties;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPaymentJoinTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final TopicPartition ORDERS = new TopicPartition("order-events", 0);
+
+    @TempDir
+    Path stateDir;
+
+    @Test
+    void matchedPairPublishesNothing() {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(1000, null));
+
+        join.add(List.of(order(1L, 0), payment(1L, 10)), offsets(2));
+
+        assertThat(join.matched()).isEqualTo(1);
+        assertThat(join.pendingInMemory()).isZero();
+        assertThat(join.advanceTo(T0.plusSeconds(3600).toEpochMilli())).isEmpty();
+    }
+
+    @Test
+    void paymentBeforeItsOrderStillMatches() {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(1000, null));
+
+        join.add(List.of(payment(1L, 0)), offsets(1));
+        join.add(List.of(order(1L, 5)), offsets(2));
+
+        assertThat(join.matched()).isEqualTo(1);
+        assertThat(join.advanceTo(T0.plusSeconds(3600).toEpochMilli())).isEmpty();
+    }
+
+    @Test
+    void orderWithoutPaymentIsUnpaidOnceDeadlinePasses() {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(1000, null));
+        join.add(List.of(order(1L, 0)), offsets(1));
+
+        // Deadline 60s; watermark 64s - 5s lateness has not passed its bucket
+        assertThat(join.add(List.of(order(2L, 64)), offsets(2))).isEmpty();
+        List<DomainEvent> expired = join.advanceTo(T0.plusSeconds(70).toEpochMilli());
+
+        assertThat(expired).hasSize(1);
+        UnpaidOrderEvent unpaid = (UnpaidOrderEvent) expired.get(0);
+        assertThat(unpaid.getOrderId()).isEqualTo(1L);
+        assertThat(unpaid.getUserId()).isEqualTo(101L);
+        assertThat(unpaid.getTotalAmount()).isEqualTo(Money.ofMinor(2000, "USD"));
+        assertThat(unpaid.getOrderedAt()).isEqualTo(T0);
+        assertThat(unpaid.getPaymentDeadline()).isEqualTo(T0.plusSeconds(60));
+        assertThat(join.unpaidOrders()).isEqualTo(1);
+        assertThat(join.pendingInMemory()).isEqualTo(1);
+    }
+
+    @Test
+    void paymentWithoutOrderIsOrphanedAfterOrderWait() {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(1000, null));
+        join.add(List.of(payment(7L, 0)), offsets(1));
+
+        // Deadline 30s falls in the bucket [30s, 40s)
+        assertThat(join.advanceTo(T0.plusSeconds(35).toEpochMilli())).isEmpty();
+        List<DomainEvent> expired = join.advanceTo(T0.plusSeconds(40).toEpochMilli());
+
+        assertThat(expired).hasSize(1);
+        OrphanPaymentEvent orphan = (OrphanPaymentEvent) expired.get(0);
+        assertThat(orphan.getOrderId()).isEqualTo(7L);
+        assertThat(orphan.getPaymentId()).isEqualTo(7007L);
+        assertThat(orphan.getAmount()).isEqualTo(Money.ofMinor(7000, "USD"));
+        assertThat(orphan.getPaidAt()).isEqualTo(T0);
+        assertThat(join.orphanPayments()).isEqualTo(1);
+    }
+
+    @Test
+    void spilledEntriesStillMatchAndExpire() throws IOException {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(100, stateDir));
+        for (int i = 0; i < 300; i++) {
+            join.add(List.of(order(i, i / 10)), offsets(i + 1));
+        }
+        assertThat(join.pendingInMemory()).isLessThanOrEqualTo(100);
+        assertThat(join.pendingSpilled()).isPositive();
+
+        List<DomainEvent> payments = new ArrayList<>();
+        for (int i = 0; i < 300; i += 2) {
+            payments.add(payment(i, 40));
+        }
+        join.add(payments, offsets(450));
+        List<DomainEvent> expired = join.advanceTo(T0.plusSeconds(3600).toEpochMilli());
+
+        assertThat(join.matched()).isEqualTo(150);
+        assertThat(expired).hasSize(150).allMatch(event -> event instanceof UnpaidOrderEvent unpaid
+            && unpaid.getOrderId() % 2 == 1);
+        assertThat(join.pendingSpilled()).isZero();
+        // Expired segments go with the next checkpoint
+        join.saveCheckpoint();
+        assertThat(segmentFiles()).isEmpty();
+    }
+
+    @Test
+    void checkpointRestoresPendingAndSpilledEntries() throws IOException {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(100, stateDir));
+        for (int i = 0; i < 300; i++) {
+            join.add(List.of(order(i, i / 10)), offsets(i + 1));
+        }
+        join.saveCheckpoint();
+        long spilled = join.pendingSpilled();
+        join.close();
+
+        OrderPaymentJoin restored = new OrderPaymentJoin(properties(100, stateDir));
+        restored.loadCheckpoint();
+
+        assertThat(restored.nextOffsets()).containsEntry(ORDERS, 300L);
+        assertThat(restored.pendingSpilled()).isEqualTo(spilled);
+        assertThat(restored.pendingInMemory() + restored.pendingSpilled()).isEqualTo(300);
+        // Order 0 was spilled, order 299 is still in memory
+        restored.add(List.of(payment(0L, 40), payment(299L, 40)), offsets(301));
+        assertThat(restored.matched()).isEqualTo(2);
+        assertThat(restored.advanceTo(T0.plusSeconds(3600).toEpochMilli())).hasSize(298);
+    }
+
+    @Test
+    void checkpointWithMissingSegmentIsIgnored() throws IOException {
+        OrderPaymentJoin join = new OrderPaymentJoin(properties(100, stateDir));
+        for (int i = 0; i < 300; i++) {
+            join.add(List.of(order(i, i / 10)), offsets(i + 1));
+        }
+        join.saveCheckpoint();
+        join.close();
+        for (Path segment : segmentFiles()) {
+            Files.delete(segment);
+        }
+
+        OrderPaymentJoin restored = new OrderPaymentJoin(properties(100, stateDir));
+        restored.loadCheckpoint();
+
+        assertThat(restored.pendingInMemory()).isZero();
+        assertThat(restored.pendingSpilled()).isZero();
+        assertThat(restored.nextOffsets()).isEmpty();
+    }
+
+    /**
+     * Run: mvn test -Dtest=OrderPaymentJoinTest -Dkafka.throughput=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "kafka.throughput", matches = "true")
+    void keepsUpWithTwentyThousandEventsPerSecondWhileSpilling() {
+        ReconciliationProperties properties = properties(20_000, stateDir);
+        properties.setBucket(Duration.ofSeconds(1));
+        OrderPaymentJoin join = new OrderPaymentJoin(properties);
+        int orders = 200_000;
+        // 20 orders per millisecond of event time; 90% are paid 2s later
+        List<DomainEvent> stream = new ArrayList<>(orders * 2);
+        for (int i = 0; i < orders; i++) {
+            stream.add(order(i, 0, i / 20));
+            int paid = i - 40_000;
+            if (paid >= 0 && paid % 10 != 0) {
+                stream.add(payment(paid, 0, i / 20));
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int from = 0; from < stream.size(); from += 500) {
+            join.add(stream.subList(from, Math.min(stream.size(), from + 500)), offsets(from + 500));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(join.pendingSpilled()).isPositive();
+        assertThat(stream.size() / seconds).isGreaterThan(20_000);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(stateDir)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).toList();
+        }
+    }
+
+    private static ReconciliationProperties properties(int maxInMemory, Path stateDir) {
+        ReconciliationProperties properties = new ReconciliationProperties();
+        properties.setPaymentTimeout(Duration.ofSeconds(60));
+        properties.setOrderWait(Duration.ofSeconds(30));
+        properties.setAllowedLateness(Duration.ofSeconds(5));
+        properties.setBucket(Duration.ofSeconds(10));
+        properties.setMaxInMemory(maxInMemory);
+        properties.setStateDir(stateDir);
+        return properties;
+    }
+
+    private static Map<TopicPartition, Long> offsets(long next) {
+        return Map.of(ORDERS, next);
+    }
+
+    private static OrderCreatedEvent order(long orderId, long second) {
+        return order(orderId, second, 0);
+    }
+
+    private static OrderCreatedEvent order(long orderId, long second, long millis) {
+        return OrderCreatedEvent.builder()
+            .eventId(OrderCreatedEvent.generateEventId())
+            .timestamp(T0.plusSeconds(second).plusMillis(millis))
+            .orderId(orderId)
+            .userId(100 + orderId)
+            .totalAmount(Money.ofMinor(1000 * (orderId + 1), "USD"))
+            .build();
+    }
+
+    private static PaymentCompletedEvent payment(long orderId, long second) {
+        return payment(orderId, second, 0);
+    }
+
+    private static PaymentCompletedEvent payment(long orderId, long second, long millis) {
+        return PaymentCompletedEvent.builder()
+            .eventId(PaymentCompletedEvent.generateEventId())
+            .timestamp(T0.plusSeconds(second).plusMillis(millis))
+            .paymentId(7000 + orderId)
+            .orderId(orderId)
+            .userId(100 + orderId)
+            .amount(Money.ofMinor(1000 * orderId, "USD"))
+            .build();
+    }
+}
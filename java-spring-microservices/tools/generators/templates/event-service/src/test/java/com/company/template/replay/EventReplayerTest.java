@@ -0,0 +1,224 @@
+package com.company.{{SERVICE_NAME}}.replay;
+
+import com.company.event.EventIds;
+import com.company.event.kafka.EventHeaderInterceptor;
+import com.company.event.kafka.LazyEvent;
+import com.company.event.kafka.LazyEventDeserializer;
+import com.company.event.user.UserCreatedEvent;
+import com.company.{{SERVICE_NAME}}.config.EventTypeFilter;
+import com.company.{{SERVICE_NAME}}.config.ReplayProperties;
+import com.company.{{SERVICE_NAME}}.service.BatchProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@EmbeddedKafka(partitions = 2,
+    topics = {"replay-time", "replay-offsets", "replay-failures", "replay-rate", "replay-resume"})
+class EventReplayerTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String GROUP = "demo";
+
+    private final List<Long> replayedUserIds = Collections.synchronizedList(new ArrayList<>());
+    private final ReplayProperties properties = new ReplayProperties();
+    private EventReplayer replayer;
+
+    @AfterEach
+    void tearDown() {
+        if (replayer != null) {
+            replayer.stop();
+        }
+    }
+
+    @Test
+    void replaysOnlyTheRequestedTimeRangeUnderItsOwnGroup(EmbeddedKafkaBroker broker) throws Exception {
+        publish(broker, "replay-time", 200);
+        replayer = replayer(broker, "replay-time", events -> events.forEach(this::record));
+
+        ReplayJob job = replayer.replay("replay-time", ReplayRange.between(T0.plusSeconds(50), T0.plusSeconds(150)));
+        awaitDone(job);
+
+        assertThat(job.state()).isEqualTo(ReplayJob.State.COMPLETED);
+        assertThat(replayedUserIds).containsExactlyInAnyOrderElementsOf(LongStream.range(50, 150).boxed().toList());
+        ReplayProgress progress = job.progress();
+        assertThat(progress.total()).isEqualTo(100);
+        assertThat(progress.processed()).isEqualTo(100);
+        assertThat(progress.etaSeconds()).isNull();
+        assertThat(committed(broker, GROUP + "-replay").entrySet().stream()
+            .filter(committed -> committed.getKey().topic().equals("replay-time"))
+            .mapToLong(committed -> committed.getValue().offset())
+            .sum())
+            .isEqualTo(150);
+        assertThat(committed(broker, GROUP)).isEmpty();
+    }
+
+    @Test
+    void replaysAnOffsetRangeOfOnePartition(EmbeddedKafkaBroker broker) throws Exception {
+        publish(broker, "replay-offsets", 100);
+        replayer = replayer(broker, "replay-offsets", events -> events.forEach(this::record));
+
+        ReplayJob job = replayer.replay("replay-offsets", new ReplayRange(null, null, 10L, 20L, 1));
+        awaitDone(job);
+
+        assertThat(job.progress().total()).isEqualTo(10);
+        assertThat(replayedUserIds).hasSize(10).allMatch(userId -> userId % 2 == 1);
+    }
+
+    @Test
+    void failedEventIsReportedAndTheRestOfTheBatchCarriesOn(EmbeddedKafkaBroker broker) throws Exception {
+        publish(broker, "replay-failures", 50);
+        replayer = replayer(broker, "replay-failures", events -> {
+            for (int i = 0; i < events.size(); i++) {
+                if (events.get(i).getUserId() == 7) {
+                    throw new BatchProcessingException(i, new IllegalStateException("bug"));
+                }
+                record(events.get(i));
+            }
+        });
+
+        ReplayJob job = replayer.replay("replay-failures", ReplayRange.between(null, null));
+        awaitDone(job);
+
+        assertThat(job.progress().processed()).isEqualTo(49);
+        assertThat(job.progress().failed()).isEqualTo(1);
+        assertThat(replayedUserIds).hasSize(49).doesNotContain(7L);
+        // User 7 is the fourth record on partition 1
+        assertThat(job.progress().failures()).singleElement().satisfies(failure -> {
+            assertThat(failure.partition()).isEqualTo(1);
+            assertThat(failure.offset()).isEqualTo(3);
+            assertThat(failure.error()).contains("bug");
+        });
+    }
+
+    @Test
+    void rateCeilingPacesTheReplayAndCancelStopsIt(EmbeddedKafkaBroker broker) throws Exception {
+        publish(broker, "replay-rate", 400);
+        properties.setMaxRecordsPerSecond(200);
+        properties.setMaxPollRecords(50);
+        replayer = replayer(broker, "replay-rate", events -> events.forEach(this::record));
+
+        ReplayJob job = replayer.replay("replay-rate", ReplayRange.between(null, null));
+        assertThatThrownBy(() -> replayer.replay("replay-rate", ReplayRange.between(null, null)))
+            .isInstanceOf(IllegalStateException.class);
+        Thread.sleep(1000);
+        ReplayProgress running = job.progress();
+        replayer.cancel();
+        awaitDone(job);
+
+        // About 200 records in the first second, and an ETA for the rest
+        assertThat(running.read()).isBetween(100L, 300L);
+        assertThat(running.etaSeconds()).isPositive();
+        assertThat(job.state()).isEqualTo(ReplayJob.State.CANCELLED);
+        assertThat(job.progress().read()).isLessThan(400);
+    }
+
+    @Test
+    void cancelledReplayResumesFromItsCheckpoints(EmbeddedKafkaBroker broker) throws Exception {
+        publish(broker, "replay-resume", 400);
+        properties.setMaxRecordsPerSecond(200);
+        properties.setMaxPollRecords(50);
+        replayer = replayer(broker, "replay-resume", events -> events.forEach(this::record));
+        ReplayJob first = replayer.replay("replay-resume", ReplayRange.offsets(null, 150L));
+        Thread.sleep(500);
+        replayer.cancel();
+        awaitDone(first);
+
+        ReplayJob resumed = replayer.resume("replay-resume");
+        awaitDone(resumed);
+
+        assertThat(first.progress().read()).isLessThan(300);
+        assertThat(resumed.state()).isEqualTo(ReplayJob.State.COMPLETED);
+        assertThat(resumed.progress().total()).isEqualTo(300 - first.progress().read());
+        assertThat(replayedUserIds).containsExactlyInAnyOrderElementsOf(LongStream.range(0, 300).boxed().toList());
+        assertThatThrownBy(() -> replayer.resume("replay-resume"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("No unfinished replay");
+    }
+
+    @Test
+    void rejectsTopicsWithoutAReplayHandler(EmbeddedKafkaBroker broker) {
+        replayer = replayer(broker, "replay-time", events -> { });
+
+        assertThatThrownBy(() -> replayer.replay("user-events", ReplayRange.between(null, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private EventReplayer replayer(EmbeddedKafkaBroker broker, String topic,
+                                   Consumer<List<UserCreatedEvent>> batchAction) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(GROUP, "false", broker);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, LazyEventDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, properties.getMaxPollRecords());
+        EventReplayer replayer = new EventReplayer(new DefaultKafkaConsumerFactory<String, LazyEvent>(props),
+            properties, new SimpleMeterRegistry(), GROUP);
+        replayer.register(topic, EventTypeFilter.accepting("USER_CREATED"), UserCreatedEvent.class, batchAction);
+        replayer.start();
+        return replayer;
+    }
+
+    private void record(UserCreatedEvent event) {
+        replayedUserIds.add(event.getUserId());
+    }
+
+    /** User i at T0 + i seconds, on partition i % 2. */
+    private static void publish(EmbeddedKafkaBroker broker, String topic, int count) throws Exception {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, EventHeaderInterceptor.class.getName());
+        try (KafkaProducer<String, UserCreatedEvent> producer = new KafkaProducer<>(props)) {
+            for (long i = 0; i < count; i++) {
+                Instant timestamp = T0.plusSeconds(i);
+                UserCreatedEvent event = UserCreatedEvent.builder()
+                    .eventId(EventIds.next())
+                    .timestamp(timestamp)
+                    .userId(i)
+                    .username("user" + i)
+                    .build();
+                producer.send(new ProducerRecord<>(topic, (int) (i % 2), timestamp.toEpochMilli(),
+                    String.valueOf(i), event)).get();
+            }
+        }
+    }
+
+    private static Map<TopicPartition, OffsetAndMetadata> committed(EmbeddedKafkaBroker broker, String group)
+            throws Exception {
+        try (AdminClient admin = AdminClient.create(Map.of("bootstrap.servers", broker.getBrokersAsString()))) {
+            return admin.listConsumerGroupOffsets(group).partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void awaitDone(ReplayJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (job.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(job.isRunning()).isFalse();
+    }
+}
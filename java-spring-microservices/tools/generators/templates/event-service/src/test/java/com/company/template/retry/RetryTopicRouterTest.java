@@ -0,0 +1,113 @@
+package com.company.{{SERVICE_NAME}}.retry;
+
+import com.company.event.codec.CodecException;
+import com.company.{{SERVICE_NAME}}.config.RetryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RetryTopicRouterTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @SuppressWarnings("unchecked")
+    private final KafkaOperations<Object, Object> template = mock(KafkaOperations.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RetryProperties properties = new RetryProperties();
+    private final List<ProducerRecord<Object, Object>> sent = new ArrayList<>();
+    private RetryTopicRouter router;
+
+    @BeforeEach
+    void setUp() {
+        when(template.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<Object, Object> record = invocation.getArgument(0);
+            sent.add(record);
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0, 0, 0);
+            return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+        });
+        router = new RetryTopicRouter(template, properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void movesFailuresThroughRetryTiersWithGrowingDelays() {
+        ConsumerRecord<String, String> record = record("user-events", new RecordHeaders());
+
+        for (int tier = 1; tier <= 3; tier++) {
+            router.accept(record, null, new IllegalStateException("database down"));
+            ProducerRecord<Object, Object> retry = sent.get(sent.size() - 1);
+
+            assertThat(retry.topic()).isEqualTo("user-events-retry-" + tier);
+            assertThat(retry.key()).isEqualTo("42");
+            assertThat(retry.value()).isEqualTo("payload");
+            assertThat(retry.headers().headers(RetryTopicRouter.RETRY_ATTEMPT)).hasSize(1);
+            record = record(retry.topic(), retry.headers());
+            assertThat(RetryTopicRouter.attemptOf(record)).isEqualTo(tier);
+            assertThat(RetryTopicRouter.dueAtOf(record))
+                .isEqualTo(NOW.plus(properties.delay(tier)).toEpochMilli());
+        }
+        assertThat(properties.delay(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(properties.delay(3)).isEqualTo(Duration.ofSeconds(25));
+
+        router.accept(record, null, new IllegalStateException("still down"));
+
+        ProducerRecord<Object, Object> deadLetter = sent.get(sent.size() - 1);
+        assertThat(deadLetter.topic()).isEqualTo("user-events-dlt");
+        assertThat(header(deadLetter.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC)).isEqualTo("user-events");
+        assertThat(header(deadLetter.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE)).contains("still down");
+        assertThat(meterRegistry.get("event.retry.published").tag("topic", "user-events").tag("tier", "1")
+            .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("event.dlt.published").tag("topic", "user-events").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void sendsUndecodableRecordsStraightToDeadLetterTopic() {
+        router.accept(record("order-events", new RecordHeaders()), null,
+            new RuntimeException("listener failed", new CodecException("Unknown schema id 99")));
+
+        assertThat(sent).singleElement().satisfies(record -> assertThat(record.topic()).isEqualTo("order-events-dlt"));
+    }
+
+    @Test
+    void zeroAttemptsDisablesRetryTopics() {
+        properties.setAttempts(0);
+
+        router.accept(record("order-events", new RecordHeaders()), null, new IllegalStateException());
+
+        assertThat(sent).singleElement().satisfies(record -> assertThat(record.topic()).isEqualTo("order-events-dlt"));
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, Headers headers) {
+        return new ConsumerRecord<>(topic, 0, 7L, 0L, TimestampType.CREATE_TIME, 2, 7, "42", "payload",
+            new RecordHeaders(headers.toArray()), Optional.empty());
+    }
+
+    private static String header(Headers headers, String key) {
+        return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package com.company.app.config;
+
+import com.company.app.service.audit.AsyncAuditTrailWriter;
+import com.company.app.service.audit.AuditLogSink;
+import com.company.app.service.audit.AuditTrail;
+import com.company.app.service.audit.JdbcAuditLogSink;
+import com.company.app.service.audit.LoggingAuditLogSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Audit trail configuration.
+ * Writes to the audit_log table when a database is configured,
+ * otherwise falls back to logging.
+ */
+@Slf4j
+@Configuration
+public class AuditConfig {
+
+    @Bean
+    public AuditLogSink auditLogSink(ObjectProvider<JdbcTemplate> jdbcTemplate, ObjectMapper objectMapper) {
+        JdbcTemplate template = jdbcTemplate.getIfAvailable();
+        if (template == null) {
+            log.info("No JdbcTemplate available, audit entries will only be logged");
+            return new LoggingAuditLogSink();
+        }
+        return new JdbcAuditLogSink(template, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AsyncAuditTrailWriter auditTrail(AuditLogSink auditLogSink,
+                                            AuditProperties auditProperties,
+                                            MeterRegistry meterRegistry) {
+        return new AsyncAuditTrailWriter(auditLogSink, auditProperties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "audit", name = "enabled", havingValue = "false")
+    public AuditTrail noopAuditTrail() {
+        return AuditTrail.noop();
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the asynchronous audit trail.
+ *
+ * Usage in application.yml:
+ *   audit:
+ *     queue-capacity: 10000
+ *     batch-size: 100
+ *     overflow-policy: DROP_OLDEST
+ */
+@Data
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+    private int queueCapacity = 10_000;
+    /** Entries per flush; the JDBC sink splits larger batches into INSERTs of at most 4681 rows. */
+    private int batchSize = 100;
+    private Duration flushInterval = Duration.ofMillis(200);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    /** Max time a caller waits for space under {@link OverflowPolicy#BLOCK}. */
+    private Duration blockTimeout = Duration.ofMillis(50);
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+    /**
+     * What to do when the audit queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the entry being recorded. */
+        DROP_NEWEST,
+        /** Discard the oldest queued entry to make room. */
+        DROP_OLDEST,
+        /** Wait up to block-timeout for space, then discard. */
+        BLOCK
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.app.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps the number of concurrent requests a controller method may serve.
+ * Requests over the limit either wait in a bounded queue (up to a deadline)
+ * or are rejected with 503 Service Unavailable and a Retry-After header.
+ *
+ * Usage:
+ * <pre>
+ * {@code
+ * @GetMapping
+ * @ConcurrencyLimit(maxConcurrent = 4, maxQueued = 8, queueTimeoutMs = 200)
+ * public ResponseEntity<...> search() { ... }
+ * }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    /**
+     * Bulkhead name used for metrics tags.
+     * Defaults to ControllerName.methodName.
+     */
+    String name() default "";
+
+    /**
+     * Maximum number of requests executing the handler at once.
+     */
+    int maxConcurrent();
+
+    /**
+     * Maximum number of requests allowed to wait for a permit.
+     * Zero means fail fast as soon as all permits are taken.
+     */
+    int maxQueued() default 0;
+
+    /**
+     * How long a queued request waits for a permit before being rejected.
+     */
+    long queueTimeoutMs() default 0;
+
+    /**
+     * Value of the Retry-After header sent with rejections.
+     */
+    int retryAfterSeconds() default 1;
+}
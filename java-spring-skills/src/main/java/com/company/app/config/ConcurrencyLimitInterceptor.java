@@ -0,0 +1,62 @@
+package com.company.app.config;
+
+import com.company.app.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces {@link ConcurrencyLimit} on annotated handler methods.
+ * A permit is taken in preHandle and released in afterCompletion,
+ * so it covers the whole request including view/body rendering.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, EndpointBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConcurrencyLimit limit = handlerMethod.getMethodAnnotation(ConcurrencyLimit.class);
+        if (limit == null) {
+            return true;
+        }
+
+        EndpointBulkhead bulkhead = bulkheads.computeIfAbsent(
+            handlerMethod.getMethod(), method -> createBulkhead(handlerMethod, limit));
+        if (!bulkhead.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(bulkhead.getName(), bulkhead.getRetryAfterSeconds());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof EndpointBulkhead bulkhead) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            bulkhead.release();
+        }
+    }
+
+    private EndpointBulkhead createBulkhead(HandlerMethod handlerMethod, ConcurrencyLimit limit) {
+        String name = limit.name().isBlank()
+            ? handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName()
+            : limit.name();
+        return new EndpointBulkhead(name, limit, meterRegistry);
+    }
+}
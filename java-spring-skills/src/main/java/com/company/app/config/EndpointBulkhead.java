@@ -0,0 +1,126 @@
+package com.company.app.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Semaphore-based bulkhead guarding a single endpoint.
+ * Backs the {@link ConcurrencyLimit} annotation.
+ *
+ * Metrics (tagged with endpoint):
+ *   http.server.bulkhead.inflight - requests currently holding a permit
+ *   http.server.bulkhead.queued   - requests waiting for a permit
+ *   http.server.bulkhead.rejected - requests turned away
+ */
+public class EndpointBulkhead {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int retryAfterSeconds;
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+
+    public EndpointBulkhead(String name, ConcurrencyLimit limit, MeterRegistry meterRegistry) {
+        this(name, limit.maxConcurrent(), limit.maxQueued(), limit.queueTimeoutMs(),
+            limit.retryAfterSeconds(), meterRegistry);
+    }
+
+    public EndpointBulkhead(String name, int maxConcurrent, int maxQueued, long queueTimeoutMs,
+                            int retryAfterSeconds, MeterRegistry meterRegistry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be >= 1 for bulkhead " + name);
+        }
+        this.name = name;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // Fair, so queued requests are served in arrival order
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMs));
+
+        Gauge.builder("http.server.bulkhead.inflight", inFlight, AtomicInteger::get)
+            .tag("endpoint", name)
+            .register(meterRegistry);
+        Gauge.builder("http.server.bulkhead.queued", queued, AtomicInteger::get)
+            .tag("endpoint", name)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("http.server.bulkhead.rejected")
+            .tag("endpoint", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Try to take a permit, queueing up to the configured deadline if allowed.
+     *
+     * @return true if a permit was acquired and must later be released
+     */
+    public boolean tryAcquire() {
+        try {
+            // Timed, unlike tryAcquire(), so it honours fairness and cannot barge past queued requests
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                inFlight.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        }
+        if (maxQueued == 0 || queueTimeoutNanos == 0 || !reserveQueueSlot()) {
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                inFlight.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getRejected() {
+        return (long) rejected.count();
+    }
+
+    private boolean reserveQueueSlot() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= maxQueued) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+}
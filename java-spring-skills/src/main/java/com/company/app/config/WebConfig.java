@@ -0,0 +1,29 @@
+package com.company.app.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration.
+ * Registers per-endpoint concurrency limits for the REST API.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public WebConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(
+            meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor)
+            .addPathPatterns("/api/**");
+    }
+}
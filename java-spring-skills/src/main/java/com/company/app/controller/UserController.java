@@ -1,5 +1,6 @@
 package com.company.app.controller;
 
+import com.company.app.config.ConcurrencyLimit;
 import com.company.app.dto.ApiResponse;
 import com.company.app.dto.UserDto;
 import com.company.app.service.UserService;
@@ -14,6 +15,9 @@ import java.util.List;
 /**
  * REST Controller for User operations.
  * Example controller demonstrating CRUD operations.
+ *
+ * List and write endpoints are bulkheaded with {@link ConcurrencyLimit}
+ * so they cannot starve the cheap lookup by id.
  */
 @RestController
 @RequestMapping("/api/users")
@@ -23,6 +27,7 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
+    @ConcurrencyLimit(maxConcurrent = 4, maxQueued = 8, queueTimeoutMs = 250)
     public ResponseEntity<ApiResponse<List<UserDto>>> getAllUsers() {
         List<UserDto> users = userService.findAll();
         return ResponseEntity.ok(ApiResponse.success(users));
@@ -36,6 +41,7 @@ public class UserController {
     }
 
     @PostMapping
+    @ConcurrencyLimit(maxConcurrent = 16, maxQueued = 16, queueTimeoutMs = 100)
     public ResponseEntity<ApiResponse<UserDto>> createUser(@Valid @RequestBody UserDto userDto) {
         UserDto created = userService.create(userDto);
         return ResponseEntity.status(HttpStatus.CREATED)
@@ -43,6 +49,7 @@ public class UserController {
     }
 
     @PutMapping("/{id}")
+    @ConcurrencyLimit(maxConcurrent = 16, maxQueued = 16, queueTimeoutMs = 100)
     public ResponseEntity<ApiResponse<UserDto>> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserDto userDto) {
@@ -52,6 +59,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
+    @ConcurrencyLimit(maxConcurrent = 16, maxQueued = 16, queueTimeoutMs = 100)
     public ResponseEntity<ApiResponse<Void>> deleteUser(@PathVariable Long id) {
         if (userService.delete(id)) {
             return ResponseEntity.ok(ApiResponse.success(null, "User deleted successfully"));
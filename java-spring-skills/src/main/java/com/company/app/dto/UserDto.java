@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
  * Data Transfer Object for User entity.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserDto {
@@ -0,0 +1,23 @@
+package com.company.app.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when an endpoint's concurrency limit is exhausted.
+ * Mapped to 503 with a Retry-After header.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends BusinessException {
+
+    private final int retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(String endpoint, int retryAfterSeconds) {
+        super(
+            "TOO_MANY_CONCURRENT_REQUESTS",
+            "Too many concurrent requests for " + endpoint + ", please retry later",
+            HttpStatus.SERVICE_UNAVAILABLE
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
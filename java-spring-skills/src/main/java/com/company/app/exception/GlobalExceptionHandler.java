@@ -1,6 +1,7 @@
 package com.company.app.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -77,6 +78,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getStatus()).body(response);
     }
 
+    /**
+     * Handle endpoint concurrency limit rejections.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrencyLimitExceeded(
+            ConcurrencyLimitExceededException ex) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", ex.getErrorCode());
+        response.put("message", ex.getMessage());
+        response.put("timestamp", Instant.now().toString());
+
+        return ResponseEntity.status(ex.getStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(response);
+    }
+
     /**
      * Handle all other exceptions.
      */
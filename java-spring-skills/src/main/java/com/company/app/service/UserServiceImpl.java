@@ -1,6 +1,8 @@
 package com.company.app.service;
 
 import com.company.app.dto.UserDto;
+import com.company.app.service.audit.AuditEntry;
+import com.company.app.service.audit.AuditTrail;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +16,7 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * In-memory implementation of UserService.
  * For demo purposes - replace with JPA repository in production.
+ * Every mutation is recorded to the {@link AuditTrail} with old/new snapshots.
  */
 @Slf4j
 @Service
@@ -21,16 +24,18 @@ public class UserServiceImpl implements UserService {
 
     private final Map<Long, UserDto> users = new ConcurrentHashMap<>();
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private final AuditTrail auditTrail;
 
-    public UserServiceImpl() {
-        // Add sample data
-        create(UserDto.builder()
+    public UserServiceImpl(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+        // Add sample data (not audited)
+        insert(UserDto.builder()
                 .username("admin")
                 .email("admin@example.com")
                 .fullName("Administrator")
                 .active(true)
                 .build());
-        create(UserDto.builder()
+        insert(UserDto.builder()
                 .username("user1")
                 .email("user1@example.com")
                 .fullName("User One")
@@ -53,32 +58,52 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto create(UserDto userDto) {
-        Long id = idGenerator.getAndIncrement();
-        userDto.setId(id);
-        users.put(id, userDto);
+        insert(userDto);
+        audit(userDto.getId(), AuditEntry.Action.CREATE, null, userDto);
         log.info("Created user: {}", userDto.getUsername());
         return userDto;
     }
 
     @Override
     public Optional<UserDto> update(Long id, UserDto userDto) {
-        if (!users.containsKey(id)) {
+        UserDto previous = users.get(id);
+        if (previous == null) {
             log.warn("User not found for update: {}", id);
             return Optional.empty();
         }
         userDto.setId(id);
         users.put(id, userDto);
+        audit(id, AuditEntry.Action.UPDATE, previous, userDto);
         log.info("Updated user: {}", id);
         return Optional.of(userDto);
     }
 
     @Override
     public boolean delete(Long id) {
-        if (users.remove(id) != null) {
+        UserDto removed = users.remove(id);
+        if (removed != null) {
+            audit(id, AuditEntry.Action.DELETE, removed, null);
             log.info("Deleted user: {}", id);
             return true;
         }
         log.warn("User not found for deletion: {}", id);
         return false;
     }
+
+    private void insert(UserDto userDto) {
+        Long id = idGenerator.getAndIncrement();
+        userDto.setId(id);
+        users.put(id, userDto);
+    }
+
+    private void audit(Long id, AuditEntry.Action action, UserDto oldValue, UserDto newValue) {
+        // Snapshot the DTOs: callers keep references and the writer serializes later
+        auditTrail.record(AuditEntry.builder()
+                .entityType("USER")
+                .entityId(id)
+                .action(action)
+                .oldValue(oldValue != null ? oldValue.toBuilder().build() : null)
+                .newValue(newValue != null ? newValue.toBuilder().build() : null)
+                .build());
+    }
 }
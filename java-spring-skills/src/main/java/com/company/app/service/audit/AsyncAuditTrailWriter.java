@@ -0,0 +1,248 @@
+package com.company.app.service.audit;
+
+import com.company.app.config.AuditProperties;
+import com.company.app.config.AuditProperties.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail that enqueues entries without blocking and flushes them
+ * in multi-row batches from a single background writer thread.
+ *
+ * The queue is a lock-free linked queue bounded by an atomic counter.
+ * When it is full, {@link OverflowPolicy} decides what is lost.
+ * Entries recorded after {@link #stop()} are written synchronously by the caller.
+ *
+ * Metrics:
+ *   audit.queue.size          - entries waiting to be written
+ *   audit.dropped             - entries discarded by the overflow policy
+ *   audit.flush.latency       - time spent writing one batch
+ *   audit.flush.batch.size    - entries per batch
+ *   audit.write.lag           - enqueue to durable write, per entry
+ *   audit.flush.failures      - entries lost because the sink failed
+ */
+@Slf4j
+public class AsyncAuditTrailWriter implements AuditTrail, SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AuditLogSink sink;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final long shutdownTimeoutMillis;
+
+    private final ConcurrentLinkedQueue<AuditEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Counter dropped;
+    private final Counter failures;
+    private final Timer flushLatency;
+    private final Timer writeLag;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private volatile Thread writerThread;
+
+    public AsyncAuditTrailWriter(AuditLogSink sink, AuditProperties properties, MeterRegistry meterRegistry) {
+        this.sink = sink;
+        this.capacity = properties.getQueueCapacity();
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.blockTimeoutNanos = properties.getBlockTimeout().toNanos();
+        this.shutdownTimeoutMillis = properties.getShutdownTimeout().toMillis();
+
+        Gauge.builder("audit.queue.size", size, AtomicInteger::get).register(meterRegistry);
+        this.dropped = Counter.builder("audit.dropped")
+            .tag("policy", overflowPolicy.name())
+            .register(meterRegistry);
+        this.failures = Counter.builder("audit.flush.failures").register(meterRegistry);
+        this.flushLatency = Timer.builder("audit.flush.latency")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.writeLag = Timer.builder("audit.write.lag").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.flush.batch.size").register(meterRegistry);
+    }
+
+    @Override
+    public void record(AuditEntry entry) {
+        if (stopped) {
+            flush(List.of(entry));
+            return;
+        }
+        if (!reserveSlot()) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    dropped.increment();
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        // The freed slot is handed straight to the new entry
+                        dropped.increment();
+                    } else if (!reserveSlot()) {
+                        dropped.increment();
+                        return;
+                    }
+                }
+                case BLOCK -> {
+                    if (!awaitSlot()) {
+                        dropped.increment();
+                        return;
+                    }
+                }
+            }
+        }
+        queue.offer(entry);
+        if (stopped) {
+            // stop() may have drained the queue before this entry arrived
+            drainRemaining();
+        } else if (size.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("Audit writer started: capacity={}, batchSize={}, overflowPolicy={}",
+            capacity, batchSize, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit writer stopped with {} unwritten entries", size.get());
+            return;
+        }
+        // Entries enqueued while the writer was finishing its last batch
+        drainRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWriter() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+        while (true) {
+            AuditEntry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                size.decrementAndGet();
+                if (batch.isEmpty()) {
+                    batchStartedAt = System.nanoTime();
+                }
+                batch.add(entry);
+            }
+
+            boolean stopping = !running;
+            if (!batch.isEmpty() && (stopping
+                    || batch.size() >= batchSize
+                    || System.nanoTime() - batchStartedAt >= flushIntervalNanos)) {
+                flush(batch);
+                batch.clear();
+                continue;
+            }
+            if (stopping && batch.isEmpty() && queue.isEmpty()) {
+                return;
+            }
+            LockSupport.parkNanos(this, Math.min(IDLE_PARK_NANOS, flushIntervalNanos));
+        }
+    }
+
+    private void drainRemaining() {
+        List<AuditEntry> batch = new ArrayList<>();
+        AuditEntry entry;
+        while ((entry = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(entry);
+            if (batch.size() >= batchSize) {
+                flush(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEntry> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.write(batch);
+        } catch (Exception e) {
+            failures.increment(batch.size());
+            log.error("Failed to write {} audit entries", batch.size(), e);
+            return;
+        }
+        long end = System.nanoTime();
+        flushLatency.record(end - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        for (AuditEntry written : batch) {
+            writeLag.record(end - written.getEnqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean awaitSlot() {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        LockSupport.unpark(writerThread);
+        while (!reserveSlot()) {
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            Thread.onSpinWait();
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.app.service.audit;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A single row destined for the audit_log table.
+ * Old/new values are snapshots, serialized to JSON by the writer thread.
+ */
+@Value
+@Builder
+public class AuditEntry {
+
+    String entityType;
+    Long entityId;
+    Action action;
+    Object oldValue;
+    Object newValue;
+    @Builder.Default
+    Instant createdAt = Instant.now();
+    @Builder.Default
+    long enqueuedAtNanos = System.nanoTime();
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.app.service.audit;
+
+import java.util.List;
+
+/**
+ * Destination for batches of audit entries.
+ * Called from the audit writer thread and, once the writer has stopped, from
+ * whichever thread records an entry, so implementations must be thread-safe.
+ */
+public interface AuditLogSink {
+
+    void write(List<AuditEntry> batch) throws Exception;
+}
@@ -0,0 +1,15 @@
+package com.company.app.service.audit;
+
+/**
+ * Records entity mutations to the audit log.
+ * Implementations must not block the calling request thread on I/O.
+ */
+@FunctionalInterface
+public interface AuditTrail {
+
+    void record(AuditEntry entry);
+
+    static AuditTrail noop() {
+        return entry -> { };
+    }
+}
@@ -0,0 +1,66 @@
+package com.company.app.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes audit entries to the audit_log table with one multi-row INSERT per batch.
+ * user_id is left NULL: there is no acting user to record yet.
+ * Larger batches are split so no statement exceeds the PostgreSQL limit of
+ * 32767 bind parameters.
+ */
+@RequiredArgsConstructor
+public class JdbcAuditLogSink implements AuditLogSink {
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO audit_log (entity_type, entity_id, action, old_value, new_value, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, CAST(? AS JSONB), CAST(? AS JSONB), ?)";
+    private static final int COLUMNS = 6;
+    private static final int MAX_BIND_PARAMETERS = 32_767;
+    static final int MAX_ROWS_PER_INSERT = MAX_BIND_PARAMETERS / COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void write(List<AuditEntry> batch) throws JsonProcessingException {
+        for (int from = 0; from < batch.size(); from += MAX_ROWS_PER_INSERT) {
+            insert(batch.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, batch.size())));
+        }
+    }
+
+    private void insert(List<AuditEntry> rows) throws JsonProcessingException {
+        Object[] args = new Object[rows.size() * COLUMNS];
+        int i = 0;
+        for (AuditEntry entry : rows) {
+            args[i++] = entry.getEntityType();
+            args[i++] = entry.getEntityId();
+            args[i++] = entry.getAction().name();
+            args[i++] = toJson(entry.getOldValue());
+            args[i++] = toJson(entry.getNewValue());
+            args[i++] = Timestamp.from(entry.getCreatedAt());
+        }
+        jdbcTemplate.update(insertSql(rows.size()), args);
+    }
+
+    private String toJson(Object value) throws JsonProcessingException {
+        return value == null ? null : objectMapper.writeValueAsString(value);
+    }
+
+    static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.company.app.service.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Fallback sink used when no database is configured.
+ */
+@Slf4j
+public class LoggingAuditLogSink implements AuditLogSink {
+
+    @Override
+    public void write(List<AuditEntry> batch) {
+        for (AuditEntry entry : batch) {
+            log.debug("Audit {} {}#{}", entry.getAction(), entry.getEntityType(), entry.getEntityId());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.company.app.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for EndpointBulkhead.
+ */
+@DisplayName("EndpointBulkhead Tests")
+class EndpointBulkheadTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Nested
+    @DisplayName("fail fast")
+    class FailFast {
+
+        @Test
+        @DisplayName("should reject when all permits are taken and queueing is disabled")
+        void shouldRejectWhenFull() {
+            // Given
+            EndpointBulkhead bulkhead = new EndpointBulkhead("test", 1, 0, 0, 1, meterRegistry);
+            assertThat(bulkhead.tryAcquire()).isTrue();
+
+            // When
+            boolean acquired = bulkhead.tryAcquire();
+
+            // Then
+            assertThat(acquired).isFalse();
+            assertThat(bulkhead.getInFlight()).isEqualTo(1);
+            assertThat(meterRegistry.get("http.server.bulkhead.rejected")
+                .tag("endpoint", "test").counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should admit again after release")
+        void shouldAdmitAfterRelease() {
+            // Given
+            EndpointBulkhead bulkhead = new EndpointBulkhead("test", 1, 0, 0, 1, meterRegistry);
+            bulkhead.tryAcquire();
+
+            // When
+            bulkhead.release();
+
+            // Then
+            assertThat(bulkhead.tryAcquire()).isTrue();
+            assertThat(meterRegistry.get("http.server.bulkhead.inflight")
+                .tag("endpoint", "test").gauge().value()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("queueing")
+    class Queueing {
+
+        @Test
+        @DisplayName("should hand the permit to a queued request when released before the deadline")
+        void shouldAcquireWhileQueued() throws Exception {
+            // Given
+            EndpointBulkhead bulkhead = new EndpointBulkhead("test", 1, 1, 5_000, 1, meterRegistry);
+            bulkhead.tryAcquire();
+
+            // When
+            CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+            awaitQueued(bulkhead, 1);
+            bulkhead.release();
+
+            // Then
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(bulkhead.getQueued()).isZero();
+        }
+
+        @Test
+        @DisplayName("should reject when the queue is full")
+        void shouldRejectWhenQueueFull() throws Exception {
+            // Given
+            EndpointBulkhead bulkhead = new EndpointBulkhead("test", 1, 1, 5_000, 1, meterRegistry);
+            bulkhead.tryAcquire();
+            CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+            awaitQueued(bulkhead, 1);
+
+            // When
+            boolean acquired = bulkhead.tryAcquire();
+
+            // Then
+            assertThat(acquired).isFalse();
+            bulkhead.release();
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should not let a new request barge past a queued one")
+        void shouldNotBargePastQueued() throws Exception {
+            // Given
+            EndpointBulkhead bulkhead = new EndpointBulkhead("test", 1, 1, 500, 1, meterRegistry);
+            bulkhead.tryAcquire();
+            CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+            awaitQueued(bulkhead, 1);
+            // Let the waiter park on the semaphore
+            Thread.sleep(50);
+
+            // When
+            bulkhead.release();
+            boolean acquired = bulkhead.tryAcquire();
+
+            // Then
+            assertThat(acquired).isFalse();
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reject when the queue deadline passes")
+        void shouldRejectAfterDeadline() {
+            // Given
+            EndpointBulkhead bulkhead = new EndpointBulkhead("test", 1, 1, 50, 1, meterRegistry);
+            bulkhead.tryAcquire();
+
+            // When
+            boolean acquired = bulkhead.tryAcquire();
+
+            // Then
+            assertThat(acquired).isFalse();
+            assertThat(bulkhead.getQueued()).isZero();
+            assertThat(bulkhead.getRejected()).isEqualTo(1);
+        }
+    }
+
+    private static void awaitQueued(EndpointBulkhead bulkhead, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getQueued() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(bulkhead.getQueued()).isEqualTo(expected);
+    }
+}
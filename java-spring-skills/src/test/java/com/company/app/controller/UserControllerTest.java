@@ -9,18 +9,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -64,6 +73,42 @@ class UserControllerTest {
                     .andExpect(jsonPath("$.data").isArray())
                     .andExpect(jsonPath("$.data.length()").value(2));
         }
+
+        @Test
+        @DisplayName("should return 503 with Retry-After when the bulkhead is full")
+        void shouldReturn503WhenBulkheadFull() throws Exception {
+            // Given: all 4 permits held by requests stuck in the service
+            CountDownLatch entered = new CountDownLatch(4);
+            CountDownLatch release = new CountDownLatch(1);
+            when(userService.findAll()).thenAnswer(invocation -> {
+                entered.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return List.of();
+            });
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<Integer>> inFlight = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    inFlight.add(executor.submit(() -> mockMvc.perform(get("/api/users").with(user("user")))
+                            .andReturn().getResponse().getStatus()));
+                }
+                assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+                // When & Then: the next request queues for 250ms, then is turned away
+                mockMvc.perform(get("/api/users").with(user("user")))
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                        .andExpect(jsonPath("$.error").value("TOO_MANY_CONCURRENT_REQUESTS"));
+
+                release.countDown();
+                for (Future<Integer> request : inFlight) {
+                    assertThat(request.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+                }
+            } finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+        }
     }
 
     @Nested
@@ -1,11 +1,13 @@
 package com.company.app.service;
 
 import com.company.app.dto.UserDto;
+import com.company.app.service.audit.AuditEntry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +21,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 class UserServiceTest {
 
     private UserService userService;
+    private List<AuditEntry> auditEntries;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl();
+        auditEntries = new ArrayList<>();
+        userService = new UserServiceImpl(auditEntries::add);
     }
 
     @Nested
@@ -194,4 +198,57 @@ class UserServiceTest {
             assertThat(result).isFalse();
         }
     }
+
+    @Nested
+    @DisplayName("audit trail")
+    class AuditTrail {
+
+        @Test
+        @DisplayName("should not audit sample data")
+        void shouldNotAuditSampleData() {
+            assertThat(auditEntries).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should record old and new snapshots on update")
+        void shouldRecordSnapshotsOnUpdate() {
+            // Given
+            UserDto updateData = UserDto.builder()
+                    .username("renamed")
+                    .email("renamed@example.com")
+                    .build();
+
+            // When
+            userService.update(1L, updateData);
+            updateData.setUsername("mutated-after-call");
+
+            // Then
+            assertThat(auditEntries).hasSize(1);
+            AuditEntry entry = auditEntries.get(0);
+            assertThat(entry.getAction()).isEqualTo(AuditEntry.Action.UPDATE);
+            assertThat(entry.getEntityId()).isEqualTo(1L);
+            assertThat(((UserDto) entry.getOldValue()).getUsername()).isEqualTo("admin");
+            assertThat(((UserDto) entry.getNewValue()).getUsername()).isEqualTo("renamed");
+        }
+
+        @Test
+        @DisplayName("should record create and delete")
+        void shouldRecordCreateAndDelete() {
+            // Given
+            UserDto created = userService.create(UserDto.builder()
+                    .username("audited")
+                    .email("audited@example.com")
+                    .build());
+
+            // When
+            userService.delete(created.getId());
+
+            // Then
+            assertThat(auditEntries)
+                    .extracting(AuditEntry::getAction)
+                    .containsExactly(AuditEntry.Action.CREATE, AuditEntry.Action.DELETE);
+            assertThat(auditEntries.get(0).getOldValue()).isNull();
+            assertThat(auditEntries.get(1).getNewValue()).isNull();
+        }
+    }
 }
@@ -0,0 +1,161 @@
+package com.company.app.service.audit;
+
+import com.company.app.config.AuditProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AsyncAuditTrailWriter.
+ */
+@DisplayName("AsyncAuditTrailWriter Tests")
+class AsyncAuditTrailWriterTest {
+
+    private final List<List<AuditEntry>> batches = new CopyOnWriteArrayList<>();
+    private MeterRegistry meterRegistry;
+    private AsyncAuditTrailWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Nested
+    @DisplayName("batching")
+    class Batching {
+
+        @Test
+        @DisplayName("should flush entries in multi-row batches")
+        void shouldFlushInBatches() throws Exception {
+            // Given
+            writer = newWriter(properties(1000, 10, AuditProperties.OverflowPolicy.DROP_NEWEST));
+            writer.start();
+
+            // When
+            IntStream.range(0, 25).forEach(i -> writer.record(entry(i)));
+
+            // Then
+            awaitWritten(25);
+            assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+            assertThat(meterRegistry.get("audit.flush.latency").timer().count()).isEqualTo(batches.size());
+        }
+
+        @Test
+        @DisplayName("should drain the queue on stop")
+        void shouldDrainOnStop() {
+            // Given
+            writer = newWriter(properties(1000, 500, AuditProperties.OverflowPolicy.DROP_NEWEST));
+            writer.start();
+            IntStream.range(0, 5).forEach(i -> writer.record(entry(i)));
+
+            // When
+            writer.stop();
+
+            // Then
+            assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should write entries recorded after stop synchronously")
+        void shouldWriteAfterStop() {
+            // Given
+            writer = newWriter(properties(1000, 500, AuditProperties.OverflowPolicy.DROP_NEWEST));
+            writer.start();
+            writer.stop();
+
+            // When
+            writer.record(entry(1));
+
+            // Then
+            assertThat(batches).hasSize(1);
+            assertThat(batches.get(0)).extracting(AuditEntry::getEntityId).containsExactly(1L);
+            assertThat(writer.getQueueSize()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("overflow")
+    class Overflow {
+
+        @Test
+        @DisplayName("should drop the newest entry when full under DROP_NEWEST")
+        void shouldDropNewest() {
+            // Given - writer not started, so nothing drains
+            writer = newWriter(properties(3, 10, AuditProperties.OverflowPolicy.DROP_NEWEST));
+
+            // When
+            IntStream.range(0, 5).forEach(i -> writer.record(entry(i)));
+
+            // Then
+            assertThat(writer.getQueueSize()).isEqualTo(3);
+            assertThat(meterRegistry.get("audit.dropped").counter().count()).isEqualTo(2.0);
+            writer.start();
+            writer.stop();
+            assertThat(batches.get(0)).extracting(AuditEntry::getEntityId).containsExactly(0L, 1L, 2L);
+        }
+
+        @Test
+        @DisplayName("should evict the oldest entry when full under DROP_OLDEST")
+        void shouldDropOldest() {
+            // Given
+            writer = newWriter(properties(3, 10, AuditProperties.OverflowPolicy.DROP_OLDEST));
+
+            // When
+            IntStream.range(0, 5).forEach(i -> writer.record(entry(i)));
+
+            // Then
+            assertThat(writer.getQueueSize()).isEqualTo(3);
+            writer.start();
+            writer.stop();
+            assertThat(batches.get(0)).extracting(AuditEntry::getEntityId).containsExactly(2L, 3L, 4L);
+        }
+    }
+
+    private AsyncAuditTrailWriter newWriter(AuditProperties properties) {
+        return new AsyncAuditTrailWriter(batch -> batches.add(List.copyOf(batch)), properties, meterRegistry);
+    }
+
+    private static AuditProperties properties(int capacity, int batchSize, AuditProperties.OverflowPolicy policy) {
+        AuditProperties properties = new AuditProperties();
+        properties.setQueueCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        properties.setOverflowPolicy(policy);
+        return properties;
+    }
+
+    private static AuditEntry entry(long id) {
+        return AuditEntry.builder()
+                .entityType("USER")
+                .entityId(id)
+                .action(AuditEntry.Action.CREATE)
+                .build();
+    }
+
+    private void awaitWritten(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.stream().mapToInt(List::size).sum() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(expected);
+    }
+}
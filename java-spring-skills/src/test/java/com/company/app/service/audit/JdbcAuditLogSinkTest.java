@@ -0,0 +1,48 @@
+package com.company.app.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for JdbcAuditLogSink.
+ */
+@DisplayName("JdbcAuditLogSink Tests")
+class JdbcAuditLogSinkTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final JdbcAuditLogSink sink = new JdbcAuditLogSink(jdbcTemplate, new ObjectMapper());
+
+    @Test
+    @DisplayName("should split batches that exceed the bind parameter limit")
+    void shouldSplitLargeBatches() throws Exception {
+        // Given
+        List<AuditEntry> batch = IntStream.range(0, 10_000)
+                .mapToObj(i -> AuditEntry.builder()
+                        .entityType("USER")
+                        .entityId((long) i)
+                        .action(AuditEntry.Action.CREATE)
+                        .build())
+                .toList();
+
+        // When
+        sink.write(batch);
+
+        // Then
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertThat(args.getAllValues()).allSatisfy(a -> assertThat(a.length).isLessThanOrEqualTo(32_767));
+        assertThat(args.getAllValues().stream().mapToInt(a -> a.length).sum()).isEqualTo(10_000 * 6);
+    }
+}